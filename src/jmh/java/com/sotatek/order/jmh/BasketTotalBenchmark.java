@@ -0,0 +1,86 @@
+package com.sotatek.order.jmh;
+
+import com.sotatek.order.entity.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Price sync of a basket: unit price times quantity per line, summed, then checked to be
+ * positive. BigDecimal is how OrderValidator did it before Money; compare gc.alloc.rate.norm
+ * (bytes per basket) between them, e.g. {@code ./gradlew jmh -PjmhIncludes=BasketTotal}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BasketTotalBenchmark {
+
+    @Param({"1", "15", "50"})
+    public int lines;
+
+    private BigDecimal[] decimalPrices;
+    private Money[] moneyPrices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        decimalPrices = new BigDecimal[lines];
+        moneyPrices = new Money[lines];
+        quantities = new int[lines];
+        for (int line = 0; line < lines; line++) {
+            long cents = random.nextLong(100, 100_000);
+            decimalPrices[line] = BigDecimal.valueOf(cents, 2);
+            moneyPrices[line] = Money.ofMinor(cents);
+            quantities[line] = random.nextInt(1, 10);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int line = 0; line < lines; line++) {
+            total = total.add(decimalPrices[line].multiply(BigDecimal.valueOf(quantities[line])));
+        }
+        if (total.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Total price must be > 0");
+        }
+        return total;
+    }
+
+    // Money arithmetic per line: a new Money for every running total
+    @Benchmark
+    public Money moneyPlusTimes() {
+        Money total = Money.ZERO;
+        for (int line = 0; line < lines; line++) {
+            total = total.plus(moneyPrices[line].times(quantities[line]));
+        }
+        if (!total.isPositive()) {
+            throw new IllegalArgumentException("Total price must be > 0");
+        }
+        return total;
+    }
+
+    // How OrderValidator sums a basket: minor units in a long, one Money for the total
+    @Benchmark
+    public Money money() {
+        Money.Total total = new Money.Total();
+        for (int line = 0; line < lines; line++) {
+            total.add(moneyPrices[line], quantities[line]);
+        }
+        Money sum = total.toMoney();
+        if (!sum.isPositive()) {
+            throw new IllegalArgumentException("Total price must be > 0");
+        }
+        return sum;
+    }
+}
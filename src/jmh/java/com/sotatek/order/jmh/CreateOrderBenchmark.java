@@ -0,0 +1,102 @@
+package com.sotatek.order.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sotatek.order.config.AsyncOrderProperties;
+import com.sotatek.order.config.MemberCacheProperties;
+import com.sotatek.order.config.OrderCacheProperties;
+import com.sotatek.order.config.OrderStatsProperties;
+import com.sotatek.order.config.OrderValidationProperties;
+import com.sotatek.order.config.ProductLookupProperties;
+import com.sotatek.order.config.StockLedgerProperties;
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.infrastructure.cache.MemberCache;
+import com.sotatek.order.infrastructure.cache.OrderCache;
+import com.sotatek.order.infrastructure.cache.ProductStockLoader;
+import com.sotatek.order.infrastructure.client.MockMemberClient;
+import com.sotatek.order.infrastructure.client.MockProductClient;
+import com.sotatek.order.mapper.OrderMapperImpl;
+import com.sotatek.order.repository.OrderRepository;
+import com.sotatek.order.repository.OutboxEventRepository;
+import com.sotatek.order.service.OrderCompletionNotifier;
+import com.sotatek.order.service.OrderService;
+import com.sotatek.order.service.OrderStatsRecorder;
+import com.sotatek.order.service.OrderValidator;
+import com.sotatek.order.service.StockLedger;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderService#createOrder} end to end with the local-profile client mocks and
+ * repositories that only hand back what they are given: validation fan-out, price sync,
+ * mapping and the transaction template, without network or database time.
+ * The member cache is warm after the first call, as it is in production.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CreateOrderBenchmark {
+
+    private ExecutorService validationExecutor;
+    private OrderService service;
+    private OrderRequestDTO request;
+
+    @Setup
+    public void setUp() {
+        validationExecutor = Executors.newFixedThreadPool(8);
+
+        MockProductClient productClient = new MockProductClient();
+        ProductLookupProperties lookupProperties = new ProductLookupProperties();
+        lookupProperties.setCoalescing(false);
+        StockLedgerProperties ledgerProperties = new StockLedgerProperties();
+        ledgerProperties.setEnabled(false); // no reservations: the mock stock never runs out
+        StockLedger stockLedger = new StockLedger(new ProductStockLoader(productClient, lookupProperties, null),
+                productClient, null, ledgerProperties);
+
+        OrderValidator validator = new OrderValidator(
+                new MemberCache(new MockMemberClient(), new MemberCacheProperties(), Runnable::run),
+                stockLedger, validationExecutor, new OrderValidationProperties(), ObservationRegistry.NOOP);
+
+        OrderStatsProperties statsProperties = new OrderStatsProperties();
+        statsProperties.setEnabled(false); // the stub repository does not audit createdAt
+
+        service = new OrderService(
+                Fixtures.savingRepository(OrderRepository.class),
+                new OrderMapperImpl(),
+                validator,
+                stockLedger,
+                new OrderCache(new OrderCacheProperties(), Optional.empty()),
+                Fixtures.savingRepository(OutboxEventRepository.class),
+                null, // createOrder never hands off to the dispatcher
+                new OrderCompletionNotifier(),
+                new ObjectMapper(),
+                new TransactionTemplate(Fixtures.noOpTransactionManager()),
+                new AsyncOrderProperties(),
+                ObservationRegistry.NOOP,
+                new OrderStatsRecorder(null, null, statsProperties));
+        request = Fixtures.request();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validationExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public OrderResponseDTO createOrder() {
+        return service.createOrder(request);
+    }
+}
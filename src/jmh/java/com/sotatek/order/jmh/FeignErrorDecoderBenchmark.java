@@ -0,0 +1,54 @@
+package com.sotatek.order.jmh;
+
+import com.sotatek.order.infrastructure.client.CustomFeignErrorDecoder;
+import feign.Request;
+import feign.Response;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of turning a failed downstream response into an exception, per status class.
+ * Matters when a dependency is failing and every call ends up here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FeignErrorDecoderBenchmark {
+
+    private static final String METHOD_KEY = "ProductClient#checkStock(Long,int)";
+
+    @Param({"404", "500", "503", "302"})
+    public int status;
+
+    private final CustomFeignErrorDecoder decoder = new CustomFeignErrorDecoder();
+
+    private Response response;
+
+    @Setup
+    public void setUp() {
+        Request request = Request.create(Request.HttpMethod.GET, "http://product-service/api/products/101/stock",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        response = Response.builder()
+                .status(status)
+                .reason("benchmark")
+                .request(request)
+                .headers(Map.of())
+                .body("{\"message\":\"failure\"}", StandardCharsets.UTF_8) // byte[] body, readable repeatedly
+                .build();
+    }
+
+    @Benchmark
+    public Exception decode() {
+        return decoder.decode(METHOD_KEY, response);
+    }
+}
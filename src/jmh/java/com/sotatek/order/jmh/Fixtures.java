@@ -0,0 +1,103 @@
+package com.sotatek.order.jmh;
+
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderItem;
+import com.sotatek.order.entity.OrderStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Shared inputs and in-memory stand-ins for the benchmarks
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    // Matches MockMemberClient (member 1 active) and MockProductClient (product 101 at 50.00)
+    static OrderRequestDTO request() {
+        return OrderRequestDTO.builder()
+                .memberId(1L)
+                .productId(101L)
+                .quantity(2)
+                .totalPrice(Money.of("100.00"))
+                .build();
+    }
+
+    static Order order() {
+        Order order = Order.builder()
+                .id(UUID.randomUUID())
+                .memberId(1L)
+                .totalPrice(Money.of("100.00"))
+                .status(OrderStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        order.addItem(OrderItem.builder()
+                .id(1L)
+                .productId(101L)
+                .quantity(2)
+                .price(Money.of("50.00"))
+                .build());
+        return order;
+    }
+
+    static OrderResponseDTO response() {
+        return OrderResponseDTO.builder()
+                .id(UUID.randomUUID())
+                .memberId(1L)
+                .productId(101L)
+                .quantity(2)
+                .totalPrice(Money.of("100.00"))
+                .status(OrderStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    // Repository whose save/saveAll hand the argument back; nothing else is called on the hot path
+    @SuppressWarnings("unchecked")
+    static <T> T savingRepository(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "save", "saveAndFlush", "saveAll":
+                    if (args[0] instanceof Order order && order.getId() == null) {
+                        order.setId(UUID.randomUUID());
+                    }
+                    return args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName() + " stub";
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    static PlatformTransactionManager noOpTransactionManager() {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return new SimpleTransactionStatus();
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+            }
+        };
+    }
+}
@@ -0,0 +1,46 @@
+package com.sotatek.order.jmh;
+
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.entity.Order;
+import com.sotatek.order.mapper.OrderMapper;
+import com.sotatek.order.mapper.OrderMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions on the create and read paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderMapperBenchmark {
+
+    private final OrderMapper mapper = new OrderMapperImpl();
+
+    private OrderRequestDTO request;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        request = Fixtures.request();
+        order = Fixtures.order();
+    }
+
+    @Benchmark
+    public Order toEntity() {
+        return mapper.toEntity(request);
+    }
+
+    @Benchmark
+    public OrderResponseDTO toResponseDTO() {
+        return mapper.toResponseDTO(order);
+    }
+}
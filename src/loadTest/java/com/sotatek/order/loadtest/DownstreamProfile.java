@@ -0,0 +1,18 @@
+package com.sotatek.order.loadtest;
+
+// Simulated downstream behaviour: log-normal latency around a median, and a share of
+// requests answered with 503. Set per service, e.g. -Dload.payment.median=300 -Dload.payment.errorRate=0.05
+record DownstreamProfile(String service, int medianMillis, double sigma, double errorRate) {
+
+    static DownstreamProfile from(String service, int medianMillis, double sigma, double errorRate) {
+        return new DownstreamProfile(service,
+                Integer.parseInt(LoadTestConfig.property(service + ".median", String.valueOf(medianMillis))),
+                Double.parseDouble(LoadTestConfig.property(service + ".sigma", String.valueOf(sigma))),
+                Double.parseDouble(LoadTestConfig.property(service + ".errorRate", String.valueOf(errorRate))));
+    }
+
+    @Override
+    public String toString() {
+        return "%s: median %d ms, sigma %.2f, errors %.1f%%".formatted(service, medianMillis, sigma, errorRate * 100);
+    }
+}
@@ -0,0 +1,39 @@
+package com.sotatek.order.loadtest;
+
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.like;
+
+// Applied to every stub of one downstream: answers errorRate of requests with 503,
+// keeping the stub's delay so failures are as slow as successes
+class FaultInjector extends ResponseDefinitionTransformer {
+
+    private final double errorRate;
+
+    FaultInjector(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition response, FileSource files,
+                                        Parameters parameters) {
+        if (errorRate <= 0 || ThreadLocalRandom.current().nextDouble() >= errorRate) {
+            return response;
+        }
+        return like(response).but()
+                .withStatus(503)
+                .withBody("{\"message\":\"injected failure\"}")
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return "fault-injector";
+    }
+}
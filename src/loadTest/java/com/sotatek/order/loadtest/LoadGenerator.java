@@ -0,0 +1,150 @@
+package com.sotatek.order.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load: requests are issued on a fixed schedule whether or not earlier ones have
+// returned, and latency is measured from the scheduled time, so a stalled server shows up
+// as queueing delay instead of silently lowering the offered load (coordinated omission).
+class LoadGenerator implements AutoCloseable {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = Duration.ofMinutes(2).toNanos() / 1_000;
+
+    private final LoadTestConfig config;
+    private final URI baseUri;
+    private final ExecutorService responseExecutor = Executors.newCachedThreadPool();
+    private final HttpClient client;
+    private final String createLabel;
+    private final String listLabel;
+
+    LoadGenerator(LoadTestConfig config, URI baseUri) {
+        this.config = config;
+        this.baseUri = baseUri;
+        this.createLabel = "POST " + config.basePath();
+        this.listLabel = "GET " + config.basePath();
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(responseExecutor)
+                .build();
+    }
+
+    Result run(Duration duration) {
+        Result result = new Result(duration);
+        Semaphore inFlight = new Semaphore(config.maxInFlight());
+        long intervalNanos = (long) (1_000_000_000L / config.rate());
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            boolean create = ThreadLocalRandom.current().nextDouble() < config.createRatio();
+            String endpoint = create ? createLabel : listLabel;
+            if (!inFlight.tryAcquire()) {
+                result.dropped.increment();
+                continue;
+            }
+            client.sendAsync(create ? createRequest() : listRequest(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        long micros = (System.nanoTime() - intended) / 1_000;
+                        result.latency(endpoint).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                        String outcome = error != null
+                                ? error.getClass().getSimpleName()
+                                : String.valueOf(response.statusCode());
+                        result.outcomes.computeIfAbsent(endpoint + " " + outcome, key -> new LongAdder()).increment();
+                    });
+        }
+        // Let in-flight requests finish so they are counted
+        inFlight.acquireUninterruptibly(config.maxInFlight());
+        inFlight.release(config.maxInFlight());
+        return result;
+    }
+
+    private HttpRequest createRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int quantity = 1 + random.nextInt(3);
+        String body = "{\"memberId\":%d,\"productId\":%d,\"quantity\":%d,\"totalPrice\":%s}".formatted(
+                1 + random.nextInt(config.members()),
+                101 + random.nextInt(config.products()),
+                quantity,
+                new BigDecimal(ProductStockResponder.PRICE).multiply(BigDecimal.valueOf(quantity)));
+        return HttpRequest.newBuilder(baseUri.resolve(config.basePath()))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest listRequest() {
+        int page = ThreadLocalRandom.current().nextInt(10);
+        return HttpRequest.newBuilder(baseUri.resolve(config.basePath() + "?page=" + page + "&size=20"))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    @Override
+    public void close() {
+        responseExecutor.shutdownNow();
+    }
+
+    static final class Result {
+
+        private final Duration duration;
+        private final ConcurrentMap<String, Histogram> latencies = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+        private final LongAdder dropped = new LongAdder();
+
+        private Result(Duration duration) {
+            this.duration = duration;
+        }
+
+        // Microseconds from the scheduled send time to the complete response
+        Histogram latency(String endpoint) {
+            return latencies.computeIfAbsent(endpoint, key -> new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+        }
+
+        Map<String, Histogram> latencies() {
+            return new TreeMap<>(latencies);
+        }
+
+        Map<String, Long> outcomes() {
+            Map<String, Long> counts = new TreeMap<>();
+            outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+            return counts;
+        }
+
+        long dropped() {
+            return dropped.sum();
+        }
+
+        Duration duration() {
+            return duration;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.sotatek.order.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Options are read from -Dload.* system properties (./gradlew loadTest -Pload.rate=500 ...)
+record LoadTestConfig(
+        double rate,              // requests per second, both endpoints together
+        Duration warmup,
+        Duration duration,
+        double createRatio,       // share of POST {basePath}, the rest is GET {basePath}
+        String basePath,          // /api/orders (blocking) or /api/reactive/orders
+        int members,
+        int products,
+        int maxInFlight,          // beyond this, arrivals are counted as dropped instead of sent
+        Path outputDir,
+        DownstreamProfile member,
+        DownstreamProfile product,
+        DownstreamProfile payment,
+        Map<String, String> appProperties) {
+
+    static LoadTestConfig fromSystemProperties() {
+        Map<String, String> appProperties = new LinkedHashMap<>();
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("load.app."))
+                .forEach(name -> appProperties.put(name.substring("load.app.".length()), System.getProperty(name)));
+        return new LoadTestConfig(
+                Double.parseDouble(property("rate", "200")),
+                Duration.parse("PT" + property("warmup", "10s")),
+                Duration.parse("PT" + property("duration", "60s")),
+                Double.parseDouble(property("createRatio", "0.3")),
+                property("basePath", "/api/orders"),
+                Integer.parseInt(property("members", "1000")),
+                Integer.parseInt(property("products", "100")),
+                Integer.parseInt(property("maxInFlight", "10000")),
+                Path.of(property("outputDir", "build/load-test")),
+                DownstreamProfile.from("member", 40, 0.3, 0.0),
+                DownstreamProfile.from("product", 60, 0.3, 0.0),
+                DownstreamProfile.from("payment", 150, 0.5, 0.0),
+                appProperties);
+    }
+
+    static String property(String name, String defaultValue) {
+        return System.getProperty("load." + name, defaultValue);
+    }
+}
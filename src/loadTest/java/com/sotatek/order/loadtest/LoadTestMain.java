@@ -0,0 +1,114 @@
+package com.sotatek.order.loadtest;
+
+import com.sotatek.order.OrderApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the order service against an embedded PostgreSQL and WireMock member, product and
+ * payment services, drives POST and GET /api/orders at a fixed arrival rate and reports
+ * throughput, HdrHistogram latency percentiles and pool / circuit breaker saturation.
+ * {@code -Pload.basePath=/api/reactive/orders} drives the reactive endpoints instead (the
+ * reactive list ignores the page); compare the two runs' latency and heap per request in flight.
+ * <p>
+ * {@code ./gradlew loadTest -Pload.rate=300 -Pload.duration=120s -Pload.payment.median=400
+ * -Pload.payment.errorRate=0.05 -Pload.app.spring.datasource.hikari.maximum-pool-size=5}
+ * <p>
+ * Full percentile distributions are written to build/load-test/*.hgrm (HdrHistogram plotter format).
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        System.out.printf("Offered load %.0f req/s (%.0f%% creates) for %s after %s warm-up%n",
+                config.rate(), config.createRatio() * 100, config.duration(), config.warmup());
+        System.out.printf("Downstreams: %s; %s; %s%n", config.member(), config.product(), config.payment());
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+             SimulatedDownstreams downstreams = new SimulatedDownstreams(config);
+             ConfigurableApplicationContext app = startApp(config, postgres, downstreams);
+             LoadGenerator generator = new LoadGenerator(config,
+                     URI.create("http://localhost:" + app.getEnvironment().getProperty("local.server.port")));
+             SaturationSampler sampler = new SaturationSampler(app)) {
+
+            generator.run(config.warmup());
+
+            sampler.start();
+            LoadGenerator.Result result = generator.run(config.duration());
+            List<SaturationSampler.Sample> samples = sampler.stop();
+
+            report(config, result, samples, System.out);
+        }
+        System.exit(0); // Feign and scheduler threads would otherwise keep the JVM up
+    }
+
+    private static ConfigurableApplicationContext startApp(LoadTestConfig config, EmbeddedPostgres postgres,
+                                                           SimulatedDownstreams downstreams) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.profiles.active=loadtest", // not "local": the real Feign clients are used
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres")
+                        + "&reWriteBatchedInserts=true",
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.r2dbc.url=r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres",
+                "--spring.r2dbc.username=postgres",
+                "--spring.r2dbc.password=postgres",
+                "--order.reactive.enabled=" + config.basePath().startsWith("/api/reactive/"),
+                "--member.service.url=" + downstreams.memberUrl(),
+                "--product.service.url=" + downstreams.productUrl(),
+                "--payment.service.url=" + downstreams.paymentUrl(),
+                "--logging.level.com.sotatek.order=WARN"));
+        config.appProperties().forEach((name, value) -> args.add("--" + name + "=" + value));
+        return new SpringApplicationBuilder(OrderApplication.class).run(args.toArray(String[]::new));
+    }
+
+    private static void report(LoadTestConfig config, LoadGenerator.Result result,
+                               List<SaturationSampler.Sample> samples, PrintStream out) throws IOException {
+        double seconds = result.duration().toMillis() / 1000.0;
+        Files.createDirectories(config.outputDir());
+
+        out.printf("%n== Throughput and latency (ms, from scheduled send time)%n");
+        out.printf("%-18s %9s %9s %8s %8s %8s %8s %8s%n", "endpoint", "count", "req/s", "p50", "p90", "p99", "p99.9", "max");
+        for (Map.Entry<String, Histogram> entry : result.latencies().entrySet()) {
+            Histogram histogram = entry.getValue();
+            out.printf("%-18s %9d %9.1f %8.1f %8.1f %8.1f %8.1f %8.1f%n", entry.getKey(),
+                    histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                    millis(histogram, 50), millis(histogram, 90), millis(histogram, 99), millis(histogram, 99.9),
+                    histogram.getMaxValue() / 1000.0);
+
+            Path file = config.outputDir().resolve(entry.getKey().replaceAll("[^A-Za-z]+", "_") + ".hgrm");
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(hgrm, 1000.0); // microseconds -> ms
+            }
+        }
+        if (result.dropped() > 0) {
+            out.printf("Dropped %d arrivals: more than %d requests in flight%n", result.dropped(), config.maxInFlight());
+        }
+
+        out.printf("%n== Outcomes%n");
+        result.outcomes().forEach((outcome, count) -> out.printf("%-30s %9d%n", outcome, count));
+
+        out.printf("%n== Saturation (active/max, queue depth)%n");
+        samples.forEach(out::println);
+        out.printf("%nHistograms written to %s%n", config.outputDir().toAbsolutePath());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
@@ -0,0 +1,68 @@
+package com.sotatek.order.loadtest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.common.FileSource;
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformer;
+import com.github.tomakehurst.wiremock.http.Request;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder.like;
+
+// Echoes the requested product ids so single and batch lookups resolve: every product is
+// available, practically unlimited, at 50.00 (the harness prices its orders accordingly)
+class ProductStockResponder extends ResponseDefinitionTransformer {
+
+    static final String NAME = "product-stock";
+    static final String PRICE = "50.00";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public ResponseDefinition transform(Request request, ResponseDefinition response, FileSource files,
+                                        Parameters parameters) {
+        String body;
+        if (request.getUrl().startsWith("/products/stock/batch")) {
+            body = batch(request.getBodyAsString());
+        } else {
+            String path = request.getUrl().split("\\?")[0];
+            body = product(Long.parseLong(path.split("/")[2]));
+        }
+        return like(response).but().withBody(body).build();
+    }
+
+    private String batch(String requestBody) {
+        try {
+            List<JsonNode> queries = objectMapper.readValue(requestBody, new TypeReference<>() {
+            });
+            return objectMapper.writeValueAsString(queries.stream()
+                    .map(query -> objectMapper.convertValue(
+                            Map.of("id", query.get("id").asLong(), "available", true, "stock", 1_000_000,
+                                    "price", PRICE), JsonNode.class))
+                    .toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String product(long id) {
+        return "{\"id\":%d,\"available\":true,\"stock\":1000000,\"price\":%s}".formatted(id, PRICE);
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+}
@@ -0,0 +1,116 @@
+package com.sotatek.order.loadtest;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Samples the app's queues and pools once a second: request threads, the order executors,
+// the JDBC and R2DBC pools and the circuit breakers, plus heap in use and live threads. A pool pinned at
+// its maximum while latency climbs is the bottleneck.
+// The app runs in this JVM, so heap and threads include the load generator and the stubs.
+class SaturationSampler implements AutoCloseable {
+
+    private static final List<String> EXECUTORS =
+            List.of("orderValidationExecutor", "outboxDispatchExecutor", "orderSubmissionExecutor");
+
+    private final ConfigurableApplicationContext app;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<Sample> samples = Collections.synchronizedList(new ArrayList<>());
+    private long started;
+
+    SaturationSampler(ConfigurableApplicationContext app) {
+        this.app = app;
+    }
+
+    void start() {
+        samples.clear();
+        started = System.nanoTime();
+        scheduler.scheduleAtFixedRate(this::sample, 1, 1, TimeUnit.SECONDS);
+    }
+
+    List<Sample> stop() {
+        scheduler.shutdownNow();
+        return List.copyOf(samples);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void sample() {
+        Map<String, String> pools = new LinkedHashMap<>();
+        tomcat().ifPresent(value -> pools.put("tomcat", value));
+        for (String name : EXECUTORS) {
+            if (app.getBean(name) instanceof ThreadPoolExecutor executor) {
+                pools.put(name.replace("Executor", ""), "%d/%d q%d".formatted(
+                        executor.getActiveCount(), executor.getMaximumPoolSize(), executor.getQueue().size()));
+            }
+        }
+        if (app.getBean(DataSource.class) instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() != null) {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            pools.put("hikari", "%d/%d wait%d".formatted(
+                    pool.getActiveConnections(), hikari.getMaximumPoolSize(), pool.getThreadsAwaitingConnection()));
+        }
+        if (app.getBeanProvider(ConnectionFactory.class).getIfAvailable() instanceof ConnectionPool r2dbc) {
+            r2dbc.getMetrics().ifPresent(metrics -> pools.put("r2dbc", "%d/%d wait%d".formatted(
+                    metrics.acquiredSize(), metrics.getMaxAllocatedSize(), metrics.pendingAcquireSize())));
+        }
+        pools.put("heap", "%dMB".formatted(
+                ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() / (1024 * 1024)));
+        pools.put("threads", String.valueOf(ManagementFactory.getThreadMXBean().getThreadCount()));
+        String breakers = app.getBean(CircuitBreakerRegistry.class).getAllCircuitBreakers().stream()
+                .map(SaturationSampler::breaker)
+                .collect(Collectors.joining(" "));
+        samples.add(new Sample((System.nanoTime() - started) / 1_000_000_000, pools, breakers));
+    }
+
+    private Optional<String> tomcat() {
+        if (app instanceof WebServerApplicationContext web && web.getWebServer() instanceof TomcatWebServer tomcat) {
+            Executor executor = tomcat.getTomcat().getConnector().getProtocolHandler().getExecutor();
+            if (executor instanceof org.apache.tomcat.util.threads.ThreadPoolExecutor pool) {
+                return Optional.of("%d/%d q%d".formatted(
+                        pool.getActiveCount(), pool.getMaximumPoolSize(), pool.getQueue().size()));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static String breaker(CircuitBreaker breaker) {
+        CircuitBreaker.Metrics metrics = breaker.getMetrics();
+        return "%s=%s(fail %.0f%%, rejected %d)".formatted(breaker.getName(), breaker.getState(),
+                Math.max(0f, metrics.getFailureRate()), metrics.getNumberOfNotPermittedCalls());
+    }
+
+    // One line per second: active/max and queue depth per pool, breaker states
+    record Sample(long second, Map<String, String> pools, String breakers) {
+
+        @Override
+        public String toString() {
+            return "%4ds %s %s".formatted(second, pools.entrySet().stream()
+                    .map(entry -> entry.getKey() + " " + entry.getValue())
+                    .collect(Collectors.joining(", ")), breakers);
+        }
+    }
+}
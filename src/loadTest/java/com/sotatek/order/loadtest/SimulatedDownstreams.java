@@ -0,0 +1,73 @@
+package com.sotatek.order.loadtest;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.Extension;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+// member-, product- and payment-service stand-ins, one WireMock server each so every
+// service has its own latency and error profile
+class SimulatedDownstreams implements AutoCloseable {
+
+    private final WireMockServer member;
+    private final WireMockServer product;
+    private final WireMockServer payment;
+
+    SimulatedDownstreams(LoadTestConfig config) {
+        member = start(new FaultInjector(config.member().errorRate()));
+        product = start(new FaultInjector(config.product().errorRate()), new ProductStockResponder());
+        payment = start(new FaultInjector(config.payment().errorRate()));
+
+        member.stubFor(get(urlPathMatching("/members/.*"))
+                .willReturn(json(config.member(), "{\"id\":1,\"exists\":true,\"active\":true}")));
+        product.stubFor(get(urlPathMatching("/products/.*/stock"))
+                .willReturn(json(config.product(), "{}").withTransformers(ProductStockResponder.NAME)));
+        product.stubFor(post(urlPathEqualTo("/products/stock/batch"))
+                .willReturn(json(config.product(), "[]").withTransformers(ProductStockResponder.NAME)));
+        payment.stubFor(post(urlPathEqualTo("/payments"))
+                .willReturn(json(config.payment(), "{\"transactionId\":\"TX-LOAD\",\"success\":true,\"message\":\"ok\"}")));
+    }
+
+    String memberUrl() {
+        return member.baseUrl();
+    }
+
+    String productUrl() {
+        return product.baseUrl();
+    }
+
+    String paymentUrl() {
+        return payment.baseUrl();
+    }
+
+    @Override
+    public void close() {
+        member.stop();
+        product.stop();
+        payment.stop();
+    }
+
+    private static WireMockServer start(Extension... extensions) {
+        WireMockServer server = new WireMockServer(options()
+                .dynamicPort()
+                .containerThreads(400) // the stand-in must never be the bottleneck
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(100)
+                .extensions(extensions));
+        server.start();
+        return server;
+    }
+
+    private static ResponseDefinitionBuilder json(DownstreamProfile profile, String body) {
+        return aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody(body)
+                .withLogNormalRandomDelay(profile.medianMillis(), profile.sigma());
+    }
+}
@@ -0,0 +1,83 @@
+package com.sotatek.order.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AsyncConfig {
+
+    // Bounded pool for downstream validation calls. When saturated the caller runs the
+    // task itself, degrading to sequential validation instead of rejecting the order.
+    // With virtual threads (spring.threads.virtual.enabled on Java 21) every call gets its own
+    // thread instead: blocking Feign I/O no longer holds a scarce pooled thread.
+    @Bean(name = "orderValidationExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService orderValidationExecutor(OrderValidationProperties properties, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return VirtualThreads.newThreadPerTaskExecutor("order-validation-");
+        }
+        return new ThreadPoolExecutor(
+                properties.getPoolSize(),
+                properties.getPoolSize(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("order-validation-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Workers that call payment-service for claimed outbox events
+    @Bean(name = "outboxDispatchExecutor", destroyMethod = "shutdown")
+    public ExecutorService outboxDispatchExecutor(OutboxProperties properties) {
+        return new ThreadPoolExecutor(
+                properties.getConcurrency(),
+                properties.getConcurrency(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getBatchSize()),
+                new CustomizableThreadFactory("outbox-dispatch-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Finishes asynchronously submitted orders; rejects instead of blocking the
+    // request thread when full, leaving the work to the outbox poller
+    @Bean(name = "orderSubmissionExecutor", destroyMethod = "shutdown")
+    public ExecutorService orderSubmissionExecutor(AsyncOrderProperties properties) {
+        return new ThreadPoolExecutor(
+                properties.getPoolSize(),
+                properties.getPoolSize(),
+                60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("order-submission-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Runs bulk status transitions; a full pool turns new jobs away instead of queueing them
+    @Bean(name = "orderBulkTransitionExecutor", destroyMethod = "shutdown")
+    public ExecutorService orderBulkTransitionExecutor(BulkTransitionProperties properties) {
+        return new ThreadPoolExecutor(
+                properties.getConcurrency(),
+                properties.getConcurrency(),
+                60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new CustomizableThreadFactory("order-bulk-transition-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // Closes product lookup windows and performs the merged product-service calls. Kept
+    // apart from orderValidationExecutor, whose threads block waiting on these calls.
+    @Bean(name = "productLookupScheduler", destroyMethod = "shutdownNow")
+    public ScheduledExecutorService productLookupScheduler(ProductLookupProperties properties) {
+        return new ScheduledThreadPoolExecutor(
+                properties.getSchedulerThreads(),
+                new CustomizableThreadFactory("product-lookup-"));
+    }
+}
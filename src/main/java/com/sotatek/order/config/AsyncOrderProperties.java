@@ -0,0 +1,14 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "order.async")
+public class AsyncOrderProperties {
+    private int poolSize = 16;
+    private int queueCapacity = 1000;          // overflow is left to the outbox poller
+    private Duration maxWait = Duration.ofSeconds(25); // cap for long-poll requests
+}
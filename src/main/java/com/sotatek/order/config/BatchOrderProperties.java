@@ -0,0 +1,13 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "order.batch")
+public class BatchOrderProperties {
+    private int chunkSize = 500;  // orders per insert transaction
+    private Duration lookupTimeout = Duration.ofSeconds(30); // deadline for all distinct member/product lookups
+}
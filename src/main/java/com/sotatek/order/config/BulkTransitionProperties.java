@@ -0,0 +1,15 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "order.bulk-transition")
+public class BulkTransitionProperties {
+    private int chunkSize = 500;       // orders per UPDATE transaction
+    private Duration chunkPause = Duration.ofMillis(20); // between chunks, leaves room for other writers
+    private int concurrency = 2;       // jobs running at once per instance
+    private Duration retention = Duration.ofHours(1);    // progress kept this long after the last poll
+}
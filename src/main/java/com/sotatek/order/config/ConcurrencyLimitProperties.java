@@ -0,0 +1,18 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "order.concurrency-limit")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true;     // false = admit every order create
+    private int initialLimit = 20;
+    private int minLimit = 4;
+    private int maxLimit = 200;
+    private Duration latencyThreshold = Duration.ofMillis(500); // slower creates count as congestion
+    private double backoffRatio = 0.9;  // limit multiplier on congestion
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,16 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "order.idempotency")
+public class IdempotencyProperties {
+    private boolean enabled = true;
+    private Duration ttl = Duration.ofHours(24);          // how long a key is replayed
+    private Duration claimTimeout = Duration.ofSeconds(60); // must exceed a createOrder call, retries included
+    private long localMaximumSize = 100_000;              // completed keys kept in memory
+    private int cleanupBatchSize = 1000;
+}
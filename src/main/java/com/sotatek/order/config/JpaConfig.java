@@ -1,9 +1,21 @@
 package com.sotatek.order.config;
 
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.orm.jpa.JpaTransactionManager;
 
 @Configuration
 @EnableJpaAuditing
 public class JpaConfig {
+
+    // R2DBC on the classpath adds a reactive transaction manager; @Transactional and
+    // TransactionTemplate must keep using JPA
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
 }
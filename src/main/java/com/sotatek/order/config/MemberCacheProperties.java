@@ -0,0 +1,15 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "order.member-cache")
+public class MemberCacheProperties {
+    private long maximumSize = 100_000;
+    private Duration ttl = Duration.ofMinutes(10);          // active members
+    private Duration negativeTtl = Duration.ofSeconds(30);  // not exists / inactive
+    private Duration refreshAfter = Duration.ofMinutes(8);  // reload in background before ttl
+}
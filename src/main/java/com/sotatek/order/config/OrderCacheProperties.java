@@ -0,0 +1,15 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "order.order-cache")
+public class OrderCacheProperties {
+    private boolean enabled = true;
+    private long maximumSize = 50_000;
+    private Duration openTtl = Duration.ofSeconds(2);    // SUBMITTED to SHIPPED: bounds staleness across instances
+    private Duration finalTtl = Duration.ofMinutes(10);  // DELIVERED / CANCELLED, which never change
+}
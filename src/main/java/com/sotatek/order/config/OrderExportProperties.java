@@ -0,0 +1,14 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "order.export")
+public class OrderExportProperties {
+    private int fetchSize = 1000;     // rows per cursor round trip
+    private int maxConcurrent = 2;    // each running export holds a database connection throughout
+    private Duration retryAfter = Duration.ofSeconds(30);
+}
@@ -0,0 +1,14 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "order.stats")
+public class OrderStatsProperties {
+    private boolean enabled = true;                    // false = no counting, rollups go stale
+    private Duration defaultRange = Duration.ofHours(24); // GET /api/orders/stats without from
+    private int flushBatchSize = 500;                  // upserts per JDBC batch
+}
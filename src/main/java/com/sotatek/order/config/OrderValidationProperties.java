@@ -0,0 +1,15 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "order.validation")
+public class OrderValidationProperties {
+    private Duration timeout = Duration.ofSeconds(5); // overall deadline for member + stock checks
+    private int poolSize = 32;
+    private int queueCapacity = 256;
+    private int batchParallelism = 4; // tasks one bulk request may use for its member lookups
+}
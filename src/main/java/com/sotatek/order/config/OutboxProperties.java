@@ -0,0 +1,16 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "order.outbox")
+public class OutboxProperties {
+    private int batchSize = 100;
+    private int concurrency = 16;       // parallel payment calls per batch
+    private Duration lease = Duration.ofSeconds(60); // must exceed payment timeout x retries
+    private int maxAttempts = 5;
+    private Duration retryBackoff = Duration.ofSeconds(2);
+}
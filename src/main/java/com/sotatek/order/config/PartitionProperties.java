@@ -0,0 +1,18 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "order.partitioning")
+public class PartitionProperties {
+    private boolean enabled = true;
+    private int premakeMonths = 3;      // monthly partitions created ahead of the current one
+    private int retentionMonths = 24;   // months kept attached besides the current one; 0 keeps everything
+    private Path archiveDirectory = Path.of("archive"); // gzipped CSV per detached partition
+    private boolean dropAfterArchive = true;
+    private Duration lockTimeout = Duration.ofSeconds(5); // DETACH gives up rather than queue behind writers
+}
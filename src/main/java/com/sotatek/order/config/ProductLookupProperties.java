@@ -0,0 +1,15 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "order.product-lookup")
+public class ProductLookupProperties {
+    private boolean coalescing = true;                     // false = call product-service directly
+    private Duration batchWindow = Duration.ofMillis(2);   // how long a lookup waits for others to join
+    private int maxBatchSize = 100;                        // flush early once this many ids are queued
+    private int schedulerThreads = 4;
+}
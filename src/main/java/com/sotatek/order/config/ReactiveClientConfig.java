@@ -0,0 +1,44 @@
+package com.sotatek.order.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+
+// WebClients of the reactive order endpoints; same base URLs and timeouts as the Feign clients
+@Configuration
+@ConditionalOnProperty(prefix = "order.reactive", name = "enabled", havingValue = "true")
+public class ReactiveClientConfig {
+
+    @Value("${feign.client.config.default.connectTimeout:5000}")
+    private int connectTimeoutMillis;
+
+    @Value("${feign.client.config.default.readTimeout:5000}")
+    private int readTimeoutMillis;
+
+    @Bean
+    public WebClient memberWebClient(WebClient.Builder builder, @Value("${member.service.url}") String baseUrl) {
+        return webClient(builder, baseUrl);
+    }
+
+    @Bean
+    public WebClient productWebClient(WebClient.Builder builder, @Value("${product.service.url}") String baseUrl) {
+        return webClient(builder, baseUrl);
+    }
+
+    private WebClient webClient(WebClient.Builder builder, String baseUrl) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .responseTimeout(Duration.ofMillis(readTimeoutMillis));
+        return builder.clone()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "order.stock-ledger")
+public class StockLedgerProperties {
+    private boolean enabled = true;     // false = check product-service on every order, reserve nothing
+    private int stripes = 64;           // lock stripes, rounded up to a power of two
+    private int reconcileBatchSize = 100;
+}
@@ -0,0 +1,14 @@
+package com.sotatek.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Diagnostics for spring.threads.virtual.enabled=true (Java 21+)
+@Data
+@ConfigurationProperties(prefix = "order.virtual-threads")
+public class VirtualThreadProperties {
+    private boolean pinningMonitor = true;
+    private Duration pinningThreshold = Duration.ofMillis(20); // report carriers pinned at least this long
+}
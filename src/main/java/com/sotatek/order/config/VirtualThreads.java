@@ -0,0 +1,25 @@
+package com.sotatek.order.config;
+
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+// Virtual thread executors without compiling against Java 21: the build targets 17, so the
+// 21-only factory method is looked up reflectively. Only call when Threading.VIRTUAL is active.
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static ExecutorService newThreadPerTaskExecutor(String threadNamePrefix) {
+        ThreadFactory factory = new VirtualThreadTaskExecutor(threadNamePrefix).getVirtualThreadFactory();
+        try {
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                    .invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require a Java 21 runtime", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.sotatek.order.controller;
+
+import com.sotatek.order.dto.CacheStatsDTO;
+import com.sotatek.order.dto.OrderCacheStatsDTO;
+import com.sotatek.order.infrastructure.cache.MemberCache;
+import com.sotatek.order.infrastructure.cache.OrderCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+@Tag(name = "Cache Admin API", description = "Inspect and evict in-process caches")
+public class CacheAdminController {
+
+    private final MemberCache memberCache;
+    private final OrderCache orderCache;
+
+    @GetMapping("/members/stats")
+    @Operation(summary = "Member cache statistics", description = "Hit/miss/eviction counters since startup")
+    @ApiResponses(@ApiResponse(responseCode = "200", description = "Cache statistics"))
+    public ResponseEntity<CacheStatsDTO> memberStats() {
+        return ResponseEntity.ok(CacheStatsDTO.of(memberCache.stats(), memberCache.size()));
+    }
+
+    @DeleteMapping("/members/{id}")
+    @Operation(summary = "Evict a member", description = "Drops the cached member, e.g. after deactivation")
+    @ApiResponses(@ApiResponse(responseCode = "204", description = "Member evicted"))
+    public ResponseEntity<Void> evictMember(@PathVariable Long id) {
+        memberCache.evict(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/orders/stats")
+    @Operation(summary = "Order cache statistics", description = "Hit ratio per tier, invalidations and the age of served entries")
+    @ApiResponses(@ApiResponse(responseCode = "200", description = "Cache statistics"))
+    public ResponseEntity<OrderCacheStatsDTO> orderStats() {
+        return ResponseEntity.ok(OrderCacheStatsDTO.of(orderCache));
+    }
+
+    @DeleteMapping("/orders/{id}")
+    @Operation(summary = "Evict an order", description = "Drops the cached order from every tier, e.g. after a manual database fix")
+    @ApiResponses(@ApiResponse(responseCode = "204", description = "Order evicted"))
+    public ResponseEntity<Void> evictOrder(@PathVariable UUID id) {
+        orderCache.evict(id);
+        return ResponseEntity.noContent().build();
+    }
+}
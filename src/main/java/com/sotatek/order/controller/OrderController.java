@@ -1,9 +1,27 @@
 package com.sotatek.order.controller;
 
+import com.sotatek.order.dto.OrderBatchRequestDTO;
+import com.sotatek.order.dto.OrderBatchResponseDTO;
+import com.sotatek.order.dto.OrderBulkTransitionDTO;
+import com.sotatek.order.dto.OrderBulkTransitionStatusDTO;
+import com.sotatek.order.dto.OrderExportCriteria;
+import com.sotatek.order.dto.OrderExportFormat;
 import com.sotatek.order.dto.OrderRequestDTO;
 import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.dto.OrderSearchCriteria;
+import com.sotatek.order.dto.OrderSliceDTO;
+import com.sotatek.order.dto.OrderStatsCriteria;
+import com.sotatek.order.dto.OrderStatsDTO;
+import com.sotatek.order.dto.OrderSubmissionDTO;
+import com.sotatek.order.dto.OrderTransitionDTO;
 import com.sotatek.order.dto.OrderUpdateDTO;
+import com.sotatek.order.service.OrderAdmissionLimiter;
+import com.sotatek.order.service.OrderBatchService;
+import com.sotatek.order.service.OrderBulkTransitionService;
+import com.sotatek.order.service.OrderExportService;
+import com.sotatek.order.service.OrderIdempotencyService;
 import com.sotatek.order.service.OrderService;
+import com.sotatek.order.service.OrderStatsService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -14,14 +32,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.net.URI;
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -29,46 +58,244 @@ import java.util.UUID;
 @Tag(name = "Order API", description = "APIs for managing orders")
 public class OrderController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final OrderService service;
+    private final OrderBatchService batchService;
+    private final OrderIdempotencyService idempotencyService;
+    private final OrderAdmissionLimiter admissionLimiter;
+    private final OrderBulkTransitionService bulkTransitionService;
+    private final OrderExportService exportService;
+    private final OrderStatsService statsService;
 
     @PostMapping
-    @Operation(summary = "Create a new order", description = "Creates a new order")
+    @Operation(summary = "Create a new order", description = "Creates a new order in PENDING status; payment is processed asynchronously")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Order created successfully, or replayed for a repeated Idempotency-Key"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is in progress"),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key reused with a different request"),
+            @ApiResponse(responseCode = "503", description = "Too many orders in progress, retry after Retry-After seconds")
+    })
+    public ResponseEntity<OrderResponseDTO> create(
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody OrderRequestDTO request) {
+        // Replays of a completed Idempotency-Key are answered without taking a create slot
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(admissionLimiter.execute(() -> service.createOrder(request)));
+        }
+        OrderIdempotencyService.Result result = idempotencyService.execute(idempotencyKey, request,
+                r -> admissionLimiter.execute(() -> service.createOrder(r)));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(result.replayed()))
+                .body(result.order());
+    }
+
+    @PostMapping
+    @RespondAsync
+    @Operation(summary = "Submit an order asynchronously",
+            description = "Taken instead of create when a Prefer header holds respond-async. "
+                    + "Accepts and persists the order, then validates and pays it in the background. "
+                    + "Poll the status URL, optionally with waitSeconds to long-poll for completion.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Order accepted for processing"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "503", description = "Too many orders in progress, retry after Retry-After seconds")
+    })
+    public ResponseEntity<OrderSubmissionDTO> submit(@Valid @RequestBody OrderRequestDTO request) {
+        // Shares the create slots: accepting is cheap, but every accepted order is processed
+        OrderResponseDTO accepted = admissionLimiter.execute(() -> service.submitOrder(request));
+        URI statusUrl = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{id}")
+                .buildAndExpand(accepted.getId())
+                .toUri();
+        return ResponseEntity.accepted()
+                .location(statusUrl)
+                .header(RespondAsyncMappingRegistrations.PREFERENCE_APPLIED, RespondAsyncMappingRegistrations.RESPOND_ASYNC)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(OrderSubmissionDTO.builder()
+                        .id(accepted.getId())
+                        .status(accepted.getStatus())
+                        .statusUrl(statusUrl.toString())
+                        .build());
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Create orders in bulk",
+            description = "Creates up to 5000 orders in one call. Member and product lookups are shared across the batch; each entry gets its own result.")
     @ApiResponses({
-            @ApiResponse(responseCode = "201", description = "Order created successfully"),
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-item results"),
             @ApiResponse(responseCode = "400", description = "Invalid input")
     })
-    public ResponseEntity<OrderResponseDTO> create(@Valid @RequestBody OrderRequestDTO request) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(service.createOrder(request));
+    public ResponseEntity<OrderBatchResponseDTO> createBatch(@Valid @RequestBody OrderBatchRequestDTO request) {
+        return ResponseEntity.ok(batchService.createOrders(request.getOrders()));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Get order by ID", description = "Retrieves details of a specific order")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Order found"),
-            @ApiResponse(responseCode = "404", description = "Order not found")
+            @ApiResponse(responseCode = "404", description = "Order not found"),
+            @ApiResponse(responseCode = "503", description = "Read bulkhead full, retry after Retry-After seconds")
     })
     public ResponseEntity<OrderResponseDTO> getById(@PathVariable UUID id) {
         return ResponseEntity.ok(service.getOrderById(id));
     }
 
+    @GetMapping(value = "/{id}", params = "waitSeconds")
+    @Operation(summary = "Long-poll an order", description = "Waits up to waitSeconds for the order to be CONFIRMED or CANCELLED, then returns its current state")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Order found"),
+            @ApiResponse(responseCode = "404", description = "Order not found")
+    })
+    public CompletableFuture<ResponseEntity<OrderResponseDTO>> awaitById(
+            @PathVariable UUID id,
+            @RequestParam long waitSeconds) {
+        return service.awaitCompletion(id, Duration.ofSeconds(waitSeconds)).thenApply(ResponseEntity::ok);
+    }
+
     @GetMapping
     @Operation(summary = "List orders with pagination", description = "Lists all orders with pagination support")
-    @ApiResponses(@ApiResponse(responseCode = "200", description = "List of orders"))
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "List of orders"),
+            @ApiResponse(responseCode = "503", description = "Read bulkhead full, retry after Retry-After seconds")
+    })
     public ResponseEntity<Page<OrderResponseDTO>> list(
             @PageableDefault(page = 0, size = 10, sort = "createdAt", direction = org.springframework.data.domain.Sort.Direction.DESC) Pageable pageable) {
         return ResponseEntity.ok(service.listOrders(pageable));
     }
 
+    @GetMapping("/search")
+    @Operation(summary = "Search orders",
+            description = "Filters by member, status, creation time [createdFrom, createdTo), total price range and product. "
+                    + "All filters are optional and combined with AND; results are paged, newest first by default.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Matching orders"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter value")
+    })
+    public ResponseEntity<Page<OrderResponseDTO>> search(
+            @ParameterObject OrderSearchCriteria criteria,
+            @PageableDefault(page = 0, size = 10, sort = "createdAt", direction = org.springframework.data.domain.Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(service.searchOrders(criteria, pageable));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export orders",
+            description = "Streams every order matching the optional status and creation time [createdFrom, createdTo) "
+                    + "as NDJSON (default) or CSV, oldest first. No paging and no count; memory use does not depend on the size of the export.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Orders, one per line"),
+            @ApiResponse(responseCode = "400", description = "Invalid filter value"),
+            @ApiResponse(responseCode = "503", description = "Too many exports running, retry after Retry-After seconds")
+    })
+    public ResponseEntity<StreamingResponseBody> export(
+            @ParameterObject OrderExportCriteria criteria,
+            @RequestParam(defaultValue = "NDJSON") OrderExportFormat format,
+            NativeWebRequest webRequest) {
+        OrderExportService.Export export = exportService.export(criteria, format);
+        // Frees the export slot if the request ends before the body gets to run
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(export,
+                new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                        export.abandon();
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .body(export);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Order statistics",
+            description = "Order count and revenue per status, in total and per HOUR or DAY bucket of creation time [from, to), "
+                    + "optionally for one member. Defaults to the last 24 hours; bounds are widened to whole hours. "
+                    + "Served from rollups updated every few seconds, so the latest orders may not be counted yet.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Statistics"),
+            @ApiResponse(responseCode = "400", description = "Invalid or too long range")
+    })
+    public ResponseEntity<OrderStatsDTO> stats(@ParameterObject OrderStatsCriteria criteria) {
+        return ResponseEntity.ok(statsService.getStats(criteria));
+    }
+
+    @GetMapping(params = "cursor")
+    @Operation(summary = "List orders by cursor",
+            description = "Newest first, paged on (createdAt, id) without a count query; page cost does not grow with depth. "
+                    + "Start with an empty cursor and pass nextCursor back until it is null. Size is capped at 500.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Slice of orders"),
+            @ApiResponse(responseCode = "400", description = "Malformed cursor")
+    })
+    public ResponseEntity<OrderSliceDTO> listByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(service.listOrdersAfter(cursor, size));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Update / Cancel an order", description = "Updates order details or cancels by setting status to CANCELLED. Partial update supported.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Order updated successfully"),
             @ApiResponse(responseCode = "404", description = "Order not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid input")
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "409", description = "Status change not allowed, or the order changed since version")
     })
     public ResponseEntity<OrderResponseDTO> update(
             @PathVariable UUID id,
             @Valid @RequestBody OrderUpdateDTO updateRequest) { // <-- đổi sang OrderUpdateDTO
         return ResponseEntity.ok(service.updateOrder(id, updateRequest));
     }
-}
\ No newline at end of file
+
+    @PutMapping("/{id}/status")
+    @Operation(summary = "Change order status",
+            description = "Moves the order from the status and version last read to a new status: "
+                    + "SUBMITTED/PENDING/CONFIRMED -> CANCELLED, PENDING -> CONFIRMED, CONFIRMED -> SHIPPED, SHIPPED -> DELIVERED. "
+                    + "Returns the new version.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Status changed"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "404", description = "Order not found"),
+            @ApiResponse(responseCode = "409", description = "Transition not allowed, or the order is no longer at that status and version")
+    })
+    public ResponseEntity<OrderTransitionDTO> transition(
+            @PathVariable UUID id,
+            @Valid @RequestBody OrderTransitionDTO transition) {
+        return ResponseEntity.ok(service.transitionOrder(id, transition));
+    }
+
+    @PostMapping("/transitions")
+    @Operation(summary = "Change the status of many orders",
+            description = "Moves the listed orders, or every order matching status plus optional productId and "
+                    + "createdFrom/createdTo, to a new status under the same rules as a single change. Runs in "
+                    + "chunks in the background; poll the status URL for progress. Orders that cannot move are skipped.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Bulk transition started"),
+            @ApiResponse(responseCode = "400", description = "Invalid input"),
+            @ApiResponse(responseCode = "409", description = "Transition not allowed"),
+            @ApiResponse(responseCode = "503", description = "Too many bulk transitions running, retry after Retry-After seconds")
+    })
+    public ResponseEntity<OrderBulkTransitionStatusDTO> transitionAll(@Valid @RequestBody OrderBulkTransitionDTO request) {
+        OrderBulkTransitionStatusDTO started = bulkTransitionService.start(request);
+        URI statusUrl = ServletUriComponentsBuilder.fromCurrentRequestUri()
+                .path("/{id}")
+                .buildAndExpand(started.getId())
+                .toUri();
+        return ResponseEntity.accepted()
+                .location(statusUrl)
+                .header(RespondAsyncMappingRegistrations.PREFERENCE_APPLIED, RespondAsyncMappingRegistrations.RESPOND_ASYNC)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(started);
+    }
+
+    @GetMapping("/transitions/{jobId}")
+    @Operation(summary = "Get bulk status change progress", description = "Orders moved and skipped so far, and whether the job has finished")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Progress found"),
+            @ApiResponse(responseCode = "404", description = "Unknown or expired job on this instance")
+    })
+    public ResponseEntity<OrderBulkTransitionStatusDTO> getTransitionStatus(@PathVariable UUID jobId) {
+        return ResponseEntity.ok(bulkTransitionService.getStatus(jobId));
+    }
+}
@@ -0,0 +1,56 @@
+package com.sotatek.order.controller;
+
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.service.ReactiveOrderService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/reactive/orders")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "order.reactive", name = "enabled", havingValue = "true")
+@Tag(name = "Reactive Order API", description = "Non-blocking variant of the order create and read APIs")
+public class ReactiveOrderController {
+
+    private final ReactiveOrderService service;
+
+    @PostMapping
+    @Operation(summary = "Create a new order", description = "Same contract as POST /api/orders, served without blocking a request thread")
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Order created successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input")
+    })
+    public Mono<ResponseEntity<OrderResponseDTO>> create(@Valid @RequestBody OrderRequestDTO request) {
+        return service.createOrder(request).map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get order by ID", description = "Retrieves details of a specific order")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Order found"),
+            @ApiResponse(responseCode = "404", description = "Order not found")
+    })
+    public Mono<ResponseEntity<OrderResponseDTO>> getById(@PathVariable UUID id) {
+        return service.getOrderById(id).map(ResponseEntity::ok);
+    }
+
+    @GetMapping
+    @Operation(summary = "List the latest orders", description = "Newest first, first item inlined")
+    @ApiResponses(@ApiResponse(responseCode = "200", description = "List of orders"))
+    public Flux<OrderResponseDTO> listLatest(@RequestParam(defaultValue = "10") int size) {
+        return service.listLatest(size);
+    }
+}
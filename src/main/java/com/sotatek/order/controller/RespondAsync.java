@@ -0,0 +1,17 @@
+package com.sotatek.order.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Narrows a request mapping to requests that ask for asynchronous processing with the
+// respond-async preference of a Prefer header (RFC 7240), in any position or letter case and
+// with other preferences alongside, e.g. "Prefer: wait=10, Respond-Async". Takes precedence over
+// the same mapping without it; see RespondAsyncMappingRegistrations.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RespondAsync {
+}
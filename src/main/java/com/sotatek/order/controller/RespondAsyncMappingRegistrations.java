@@ -0,0 +1,94 @@
+package com.sotatek.order.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.mvc.condition.RequestCondition;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+// Adds the @RespondAsync condition to request mappings. A header condition of the mapping
+// itself, headers = "Prefer=respond-async", only matches a Prefer header that is exactly that
+// one preference.
+@Component
+public class RespondAsyncMappingRegistrations implements WebMvcRegistrations {
+
+    static final String PREFER = "Prefer";
+    static final String PREFERENCE_APPLIED = "Preference-Applied";
+    static final String RESPOND_ASYNC = "respond-async";
+
+    @Override
+    public RequestMappingHandlerMapping getRequestMappingHandlerMapping() {
+        return new RequestMappingHandlerMapping() {
+            @Override
+            protected RequestCondition<?> getCustomMethodCondition(Method method) {
+                return AnnotatedElementUtils.hasAnnotation(method, RespondAsync.class)
+                        ? PreferRespondAsyncCondition.INSTANCE : null;
+            }
+        };
+    }
+
+    // Whether any Prefer header of the request holds the respond-async preference. Each header is
+    // a comma-separated list of preferences, each a token with an optional "=value" and
+    // ";parameters"; commas inside quoted values do not separate preferences.
+    static boolean prefersRespondAsync(HttpServletRequest request) {
+        for (String header : Collections.list(request.getHeaders(PREFER))) {
+            int start = 0;
+            boolean quoted = false;
+            for (int index = 0; index <= header.length(); index++) {
+                char c = index < header.length() ? header.charAt(index) : ',';
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == ',' && !quoted) {
+                    if (RESPOND_ASYNC.equalsIgnoreCase(preferenceName(header.substring(start, index)))) {
+                        return true;
+                    }
+                    start = index + 1;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String preferenceName(String preference) {
+        int end = preference.length();
+        for (int index = 0; index < preference.length(); index++) {
+            char c = preference.charAt(index);
+            if (c == '=' || c == ';') {
+                end = index;
+                break;
+            }
+        }
+        return preference.substring(0, end).trim();
+    }
+
+    static final class PreferRespondAsyncCondition implements RequestCondition<PreferRespondAsyncCondition> {
+
+        static final PreferRespondAsyncCondition INSTANCE = new PreferRespondAsyncCondition();
+
+        @Override
+        public PreferRespondAsyncCondition combine(PreferRespondAsyncCondition other) {
+            return this;
+        }
+
+        @Override
+        public PreferRespondAsyncCondition getMatchingCondition(HttpServletRequest request) {
+            // A CORS preflight carries no Prefer header but must reach the mapping's CORS config
+            return CorsUtils.isPreFlightRequest(request) || prefersRespondAsync(request) ? this : null;
+        }
+
+        @Override
+        public int compareTo(PreferRespondAsyncCondition other, HttpServletRequest request) {
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + PREFER + ": " + RESPOND_ASYNC + "]";
+        }
+    }
+}
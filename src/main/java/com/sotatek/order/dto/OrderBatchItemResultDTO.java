@@ -0,0 +1,20 @@
+package com.sotatek.order.dto;
+
+import com.sotatek.order.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchItemResultDTO {
+    private int index;          // position in the request list
+    private UUID orderId;       // null when rejected
+    private OrderStatus status; // null when rejected
+    private String error;
+}
@@ -0,0 +1,21 @@
+package com.sotatek.order.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchRequestDTO {
+    @NotEmpty
+    @Size(max = 5000)
+    private List<@Valid OrderRequestDTO> orders;
+}
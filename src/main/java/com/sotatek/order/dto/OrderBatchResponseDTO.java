@@ -0,0 +1,18 @@
+package com.sotatek.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBatchResponseDTO {
+    private int accepted;
+    private int rejected;
+    private List<OrderBatchItemResultDTO> results;
+}
@@ -0,0 +1,42 @@
+package com.sotatek.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sotatek.order.entity.OrderStatus;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Orders to move to a new status: listed by id, or selected by a filter on their current
+// status, optionally narrowed to a product and a creation time range [createdFrom, createdTo)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBulkTransitionDTO {
+    @NotNull
+    private OrderStatus to;
+
+    @Size(max = 10000)
+    private List<UUID> ids;
+
+    private OrderStatus status;
+    private Long productId;
+    private LocalDateTime createdFrom; // inclusive
+    private LocalDateTime createdTo;   // exclusive, defaults to when the job starts
+
+    @JsonIgnore
+    @AssertTrue(message = "either ids or a status filter is required, not both")
+    public boolean isSelectionValid() {
+        boolean byIds = ids != null && !ids.isEmpty();
+        boolean byFilter = status != null || productId != null || createdFrom != null || createdTo != null;
+        return byIds ? !byFilter : status != null;
+    }
+}
@@ -0,0 +1,34 @@
+package com.sotatek.order.dto;
+
+import com.sotatek.order.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Progress of a bulk transition; skipped counts listed ids that were missing or not movable
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBulkTransitionStatusDTO {
+    private UUID id;
+    private OrderStatus to;
+    private State state;
+    private Integer requested; // ids given, null for a filter
+    private long transitioned;
+    private long skipped;
+    private int chunks;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -0,0 +1,32 @@
+package com.sotatek.order.dto;
+
+import com.sotatek.order.infrastructure.cache.OrderCache;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCacheStatsDTO {
+    private CacheStatsDTO local;
+    private long sharedHitCount;
+    private double combinedHitRate;    // local or shared tier, no database read
+    private long invalidationCount;
+    private double meanServedAgeMs;    // how old a served entry was on average
+    private double maxServedAgeMs;
+
+    public static OrderCacheStatsDTO of(OrderCache cache) {
+        OrderCache.Staleness staleness = cache.staleness();
+        return OrderCacheStatsDTO.builder()
+                .local(CacheStatsDTO.of(cache.stats(), cache.size()))
+                .sharedHitCount(staleness.sharedHitCount())
+                .combinedHitRate(staleness.combinedHitRate())
+                .invalidationCount(staleness.invalidationCount())
+                .meanServedAgeMs(staleness.meanServedAgeMs())
+                .maxServedAgeMs(staleness.maxServedAgeMs())
+                .build();
+    }
+}
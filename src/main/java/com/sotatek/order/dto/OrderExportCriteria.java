@@ -0,0 +1,25 @@
+package com.sotatek.order.dto;
+
+import com.sotatek.order.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// All filters are optional and combined with AND
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderExportCriteria {
+    private OrderStatus status;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom; // inclusive
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;   // exclusive
+}
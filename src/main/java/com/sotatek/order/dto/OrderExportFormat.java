@@ -0,0 +1,18 @@
+package com.sotatek.order.dto;
+
+import org.springframework.http.MediaType;
+
+public enum OrderExportFormat {
+    NDJSON(MediaType.APPLICATION_NDJSON),
+    CSV(new MediaType("text", "csv"));
+
+    private final MediaType mediaType;
+
+    OrderExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+}
@@ -0,0 +1,25 @@
+package com.sotatek.order.dto;
+
+import com.sotatek.order.entity.Money;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLineDTO {
+    @NotNull
+    private Long productId;
+
+    @NotNull
+    @Min(1)
+    private Integer quantity;
+
+    // Synced from product-service on creation; the client's value only counts when it has none
+    private Money unitPrice;
+}
@@ -1,14 +1,21 @@
 package com.sotatek.order.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.sotatek.order.entity.Money;
 import com.sotatek.order.entity.OrderStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Data
@@ -19,15 +26,71 @@ public class OrderRequestDTO {
     @NotNull
     private Long memberId;
 
-    @NotNull
+    // Single-line form, kept for existing clients; ignored when items is set
     private Long productId;
 
     @Min(1)
     private Integer quantity;
 
-    @NotNull
-    @Min(0)
-    private BigDecimal totalPrice;
+    // Required for the single-line form only: with items the total is always recomputed from
+    // the synced line prices, so a supplied one is ignored rather than checked against them
+    private Money totalPrice;
 
     private OrderStatus status;
+
+    @Valid
+    @Size(max = 200)
+    private List<OrderLineDTO> items;
+
+    @JsonIgnore
+    @AssertTrue(message = "totalPrice must not be negative")
+    public boolean isTotalPriceValid() {
+        return totalPrice == null || totalPrice.signum() >= 0;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "totalPrice is required without items")
+    public boolean isTotalPricePresent() {
+        return (items != null && !items.isEmpty()) || totalPrice != null;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "items, or productId and quantity, are required")
+    public boolean isLinesPresent() {
+        return (items != null && !items.isEmpty()) || (productId != null && quantity != null);
+    }
+
+    // The order lines in either form; a single line is priced at totalPrice / quantity
+    public List<OrderLineDTO> lines() {
+        if (items != null && !items.isEmpty()) {
+            return items;
+        }
+        if (productId == null || quantity == null) {
+            return List.of();
+        }
+        Money unitPrice = totalPrice == null ? null : totalPrice.dividedBy(quantity);
+        return List.of(new OrderLineDTO(productId, quantity, unitPrice));
+    }
+
+    // The client's own total before pricing: totalPrice when sent, else the sum of the line
+    // prices it sent (unpriced lines count as zero)
+    public Money clientTotal() {
+        if (totalPrice != null) {
+            return totalPrice;
+        }
+        Money.Total total = new Money.Total();
+        for (OrderLineDTO line : lines()) {
+            if (line.getUnitPrice() != null) {
+                total.add(line.getUnitPrice(), line.getQuantity());
+            }
+        }
+        return total.toMoney();
+    }
+
+    // Quantity per distinct product: stock is checked and reserved per product, not per line
+    public Map<Long, Integer> quantitiesByProduct() {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        lines().forEach(line -> quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum));
+        return quantities;
+    }
 }
@@ -1,13 +1,14 @@
 package com.sotatek.order.dto;
 
+import com.sotatek.order.entity.Money;
 import com.sotatek.order.entity.OrderStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Data
@@ -20,8 +21,10 @@ public class OrderResponseDTO {
     private Long productId; // Simplified: Assuming single item for now based on request structure, or need
                             // to map items
     private Integer quantity; // Simplified
-    private BigDecimal totalPrice;
+    private Money totalPrice;
     private OrderStatus status;
+    private Long version; // echo in OrderUpdateDTO / OrderTransitionDTO to detect concurrent changes
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private List<OrderLineDTO> items; // not set on projected listings (first item only)
 }
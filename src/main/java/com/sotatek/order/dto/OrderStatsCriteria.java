@@ -0,0 +1,27 @@
+package com.sotatek.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+// Orders created in [from, to), rounded out to whole hours; all optional
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatsCriteria {
+    private Long memberId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from; // inclusive, default to minus order.stats.default-range
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to;   // exclusive, default the end of the current hour
+
+    @Builder.Default
+    private OrderStatsDTO.Granularity granularity = OrderStatsDTO.Granularity.HOUR;
+}
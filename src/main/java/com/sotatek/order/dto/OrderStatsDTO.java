@@ -0,0 +1,42 @@
+package com.sotatek.order.dto;
+
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Order counts and revenue by status, per bucket and over the whole range. Orders count under
+// their current status, bucketed by creation time.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatsDTO {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Long memberId; // null = all members
+    private Granularity granularity;
+    private List<Bucket> totals;  // start is null
+    private List<Bucket> buckets; // oldest first; empty buckets are left out
+
+    public enum Granularity {
+        HOUR,
+        DAY
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private LocalDateTime start;
+        private OrderStatus status;
+        private long count;
+        private Money revenue;
+    }
+}
@@ -0,0 +1,19 @@
+package com.sotatek.order.dto;
+
+import com.sotatek.order.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSubmissionDTO {
+    private UUID id;
+    private OrderStatus status;
+    private String statusUrl;
+}
@@ -0,0 +1,26 @@
+package com.sotatek.order.dto;
+
+import com.sotatek.order.entity.OrderStatus;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Status change from the state the client last read. In the response, version is the new one.
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTransitionDTO {
+    @NotNull
+    private OrderStatus from;
+
+    @NotNull
+    private OrderStatus to;
+
+    @NotNull
+    @Min(0)
+    private Long version;
+}
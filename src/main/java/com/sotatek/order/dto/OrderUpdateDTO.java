@@ -19,4 +19,5 @@ public class OrderUpdateDTO {
     private @Min(1) Integer quantity;   // optional
     private @Min(0) BigDecimal totalPrice; // optional
     private OrderStatus status;     // optional, dùng để cancel
+    private Long version;           // optional, expected current version
 }
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.sotatek.order.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Written through IdempotencyKeyRepository's native claim/complete/release statements only
+@Entity
+@Table(name = "idempotency_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    // SHA-256 of the request body: the same key with a different body is rejected
+    @Column(nullable = false)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IdempotencyStatus status;
+
+    private UUID orderId;
+
+    // OrderResponseDTO as JSON, replayed for repeated keys
+    @Column(columnDefinition = "TEXT")
+    private String response;
+
+    // Claim lease: an IN_PROGRESS row past this time was abandoned and may be claimed again
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
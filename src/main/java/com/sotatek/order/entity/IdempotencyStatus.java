@@ -0,0 +1,6 @@
+package com.sotatek.order.entity;
+
+public enum IdempotencyStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
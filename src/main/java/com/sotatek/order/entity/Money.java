@@ -0,0 +1,200 @@
+package com.sotatek.order.entity;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+// Amount in minor units (cents) of a currency, matching the DECIMAL(19, 2) price columns.
+// Arithmetic is plain long math with overflow checks, but each plus/times still returns a new
+// 24-byte record: one the JIT can drop only when it does not escape, which a running total in
+// a loop does. Sum baskets with Total instead, which allocates one Money for the whole basket.
+// Amounts are written to JSON as plain decimal numbers, e.g. 100.00; prices carry no currency
+// in the schema or the API, so everything is DEFAULT_CURRENCY for now.
+@JsonSerialize(using = Money.Serializer.class)
+@JsonDeserialize(using = Money.Deserializer.class)
+public record Money(long minorUnits, Currency currency) implements Comparable<Money>, Serializable {
+
+    public static final int SCALE = 2;
+    public static final Currency DEFAULT_CURRENCY = Currency.getInstance("USD");
+    public static final Money ZERO = new Money(0L, DEFAULT_CURRENCY);
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L};
+    private static final long PARSE_LIMIT = Long.MAX_VALUE / 1_000;
+
+    public Money {
+        if (currency == null) {
+            throw new IllegalArgumentException("Currency is required");
+        }
+        if (currency.getDefaultFractionDigits() > SCALE) {
+            throw new IllegalArgumentException("Unsupported currency " + currency);
+        }
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0L ? ZERO : new Money(minorUnits, DEFAULT_CURRENCY);
+    }
+
+    // Rounds half up to cents, like the RoundingMode.HALF_UP divisions it replaces
+    public static Money of(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    // Parses "-12.3", "12.30" or "12" without going through BigDecimal; other forms
+    // (exponents, more than two decimals, very large amounts) fall back to it
+    public static Money of(CharSequence text) {
+        int length = text.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            index = 1;
+        }
+        long units = 0L;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; index < length; index++) {
+            char c = text.charAt(index);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else if (c >= '0' && c <= '9' && fractionDigits < SCALE && units < PARSE_LIMIT) {
+                units = units * 10 + (c - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else {
+                return of(new BigDecimal(text.toString()));
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Not an amount: \"" + text + "\"");
+        }
+        units *= POWERS_OF_TEN[SCALE - Math.max(fractionDigits, 0)];
+        return ofMinor(negative ? -units : units);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.subtractExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long quantity) {
+        return new Money(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+
+    // Share of one unit when divided by quantity, rounded half up (away from zero)
+    public Money dividedBy(long quantity) {
+        long quotient = minorUnits / quantity;
+        long remainder = minorUnits % quantity;
+        if (Math.abs(remainder) * 2 >= Math.abs(quantity)) {
+            quotient += Long.signum(minorUnits) * Long.signum(quantity);
+        }
+        return new Money(quotient, currency);
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isPositive() {
+        return minorUnits > 0L;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        long units = Math.abs(minorUnits);
+        StringBuilder text = new StringBuilder(24);
+        if (minorUnits < 0L) {
+            text.append('-');
+        }
+        long cents = units % 100;
+        text.append(units / 100).append('.');
+        if (cents < 10) {
+            text.append('0');
+        }
+        return text.append(cents).toString();
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+
+    // Running sum of price times quantity lines, kept in a long and updated in place.
+    // Takes the currency of the first line; the others must match it.
+    public static final class Total {
+
+        private long minorUnits;
+        private Currency currency;
+
+        public Total add(Money price, long quantity) {
+            if (currency == null) {
+                currency = price.currency;
+            } else if (!currency.equals(price.currency)) {
+                throw new IllegalArgumentException("Currency mismatch: " + currency + " and " + price.currency);
+            }
+            minorUnits = Math.addExact(minorUnits, Math.multiplyExact(price.minorUnits, quantity));
+            return this;
+        }
+
+        public Money toMoney() {
+            return currency == null ? ZERO : new Money(minorUnits, currency);
+        }
+    }
+
+    public static final class Serializer extends JsonSerializer<Money> {
+
+        @Override
+        public void serialize(Money value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(value.toString());
+        }
+    }
+
+    public static final class Deserializer extends JsonDeserializer<Money> {
+
+        @Override
+        public Money deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Money) context.handleUnexpectedToken(Money.class, parser);
+            }
+            try {
+                return of(parser.getText().trim());
+            } catch (NumberFormatException | ArithmeticException e) {
+                return (Money) context.handleWeirdStringValue(Money.class, parser.getText(), "not an amount");
+            }
+        }
+    }
+}
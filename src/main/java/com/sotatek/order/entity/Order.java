@@ -2,12 +2,13 @@ package com.sotatek.order.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -22,21 +23,27 @@ import java.util.UUID;
 @EntityListeners(AuditingEntityListener.class)
 public class Order {
 
+    // Time-ordered, from created_at (OrderIds); assigned in assignId()
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @Column(nullable = false)
     private Long memberId;
 
     @Column(nullable = false)
-    private BigDecimal totalPrice;
+    private Money totalPrice;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private OrderStatus status;
 
+    // Null until persisted; OrderRepository.transition bumps it without loading the entity
+    @Version
+    private Long version;
+
+    // Lists of orders initialise their items in batches instead of one query per order
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     @Builder.Default
     private List<OrderItem> orderItems = new ArrayList<>();
 
@@ -47,4 +54,19 @@ public class Order {
     @LastModifiedDate
     @Column(nullable = false)
     private LocalDateTime updatedAt;
+
+    // Entity listeners run first, so auditing has set createdAt. Cut to the microseconds the
+    // column keeps, so the id and the stored created_at agree
+    @PrePersist
+    void assignId() {
+        createdAt = createdAt.truncatedTo(ChronoUnit.MICROS);
+        if (id == null) {
+            id = OrderIds.of(createdAt);
+        }
+    }
+
+    public void addItem(OrderItem item) {
+        item.setOrder(this);
+        orderItems.add(item);
+    }
 }
@@ -0,0 +1,57 @@
+package com.sotatek.order.entity;
+
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.UUID;
+
+// Order ids are time-ordered UUIDs (version 7 layout) whose timestamp is the order's created_at,
+// read as UTC and cut to the millisecond. The id alone then tells which monthly partition holds
+// the order (V10), so lookups by id can add a created_at range the planner prunes on.
+// Ids of orders created before this (random, version 4) carry no time and match every partition.
+public final class OrderIds {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Inside the range of PostgreSQL TIMESTAMP; no order predates or outlives it
+    private static final CreatedRange UNBOUNDED = new CreatedRange(
+            LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.of(9999, 12, 31, 0, 0));
+
+    private OrderIds() {
+    }
+
+    public static UUID of(LocalDateTime createdAt) {
+        long millis = createdAt.toInstant(ZoneOffset.UTC).toEpochMilli();
+        long mostSig = (millis << 16) | 0x7000L | (RANDOM.nextLong() & 0x0FFFL);
+        long leastSig = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSig, leastSig);
+    }
+
+    // [from, to) holding the created_at of the order with this id
+    public static CreatedRange createdRange(UUID id) {
+        if (id.version() != 7) {
+            return UNBOUNDED;
+        }
+        LocalDateTime from = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC)
+                .plus(id.getMostSignificantBits() >>> 16, ChronoUnit.MILLIS);
+        return new CreatedRange(from, from.plus(1, ChronoUnit.MILLIS));
+    }
+
+    // Smallest range holding the created_at of every id: a chunk of recent orders stays in the
+    // newest partitions, a chunk reaching back months or holding an old id does not
+    public static CreatedRange createdRange(Collection<UUID> ids) {
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        for (UUID id : ids) {
+            CreatedRange range = createdRange(id);
+            from = from == null || range.from().isBefore(from) ? range.from() : from;
+            to = to == null || range.to().isAfter(to) ? range.to() : to;
+        }
+        return from == null ? UNBOUNDED : new CreatedRange(from, to);
+    }
+
+    public record CreatedRange(LocalDateTime from, LocalDateTime to) {
+    }
+}
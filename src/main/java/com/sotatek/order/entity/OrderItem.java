@@ -3,8 +3,7 @@ package com.sotatek.order.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.math.BigDecimal;
-import java.util.UUID;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "order_items")
@@ -15,8 +14,10 @@ import java.util.UUID;
 @Builder
 public class OrderItem {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch item inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -26,9 +27,20 @@ public class OrderItem {
     private Integer quantity;
 
     @Column(nullable = false)
-    private BigDecimal price;
+    private Money price;
 
+    // The database key is (order_id, order_created_at), see V10; no single-column constraint to manage
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id", nullable = false)
+    @JoinColumn(name = "order_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Order order;
+
+    // Partition key: items live in the monthly partition of their order
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime orderCreatedAt;
+
+    // The order's own @PrePersist (auditing) has run by the time its items are cascaded
+    @PrePersist
+    void copyOrderCreatedAt() {
+        orderCreatedAt = order.getCreatedAt();
+    }
 }
@@ -1,7 +1,44 @@
 package com.sotatek.order.entity;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum OrderStatus {
+    SUBMITTED,  // accepted asynchronously, validation not yet done
     PENDING,
     CONFIRMED,
-    CANCELLED
+    SHIPPED,
+    DELIVERED,
+    CANCELLED;
+
+    // Payment is settled one way or the other; the order may still ship or be cancelled
+    public boolean isFinal() {
+        return this != SUBMITTED && this != PENDING;
+    }
+
+    // Statuses whose orders hold stock that product-service has not deducted: nothing in this
+    // service deducts remotely, so an order holds its units until it ships (the fulfilment flow
+    // then updates product-service) or is cancelled
+    public static final Set<OrderStatus> HOLDING_STOCK = Collections.unmodifiableSet(EnumSet.of(PENDING, CONFIRMED));
+
+    public boolean holdsStock() {
+        return HOLDING_STOCK.contains(this);
+    }
+
+    // No transition leads out of this status
+    public boolean isTerminal() {
+        return this == DELIVERED || this == CANCELLED;
+    }
+
+    // Moves the order state machine allows; anything else conflicts with the current state
+    public boolean canTransitionTo(OrderStatus target) {
+        return switch (this) {
+            case SUBMITTED -> target == PENDING || target == CANCELLED;
+            case PENDING -> target == CONFIRMED || target == CANCELLED;
+            case CONFIRMED -> target == SHIPPED || target == CANCELLED;
+            case SHIPPED -> target == DELIVERED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
 }
@@ -0,0 +1,6 @@
+package com.sotatek.order.entity;
+
+public enum OutboxEventType {
+    ORDER_SUBMITTED,
+    PAYMENT_REQUESTED
+}
@@ -0,0 +1,8 @@
+package com.sotatek.order.entity;
+
+public enum OutboxStatus {
+    NEW,
+    PROCESSING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,11 @@
+package com.sotatek.order.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class BulkTransitionNotFoundException extends RuntimeException {
+    public BulkTransitionNotFoundException(String message) {
+        super(message);
+    }
+}
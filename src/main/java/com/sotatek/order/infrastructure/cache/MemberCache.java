@@ -0,0 +1,119 @@
+package com.sotatek.order.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sotatek.order.config.MemberCacheProperties;
+import com.sotatek.order.infrastructure.client.ClientFallbacks;
+import com.sotatek.order.infrastructure.client.MemberClient;
+import com.sotatek.order.infrastructure.client.dto.MemberResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executor;
+
+// Read-through cache in front of MemberClient. Valid members live for ttl and are
+// refreshed in the background after refreshAfter; negative answers expire quickly.
+// Fallback answers (circuit open, retries exhausted) are never cached: a failed refresh keeps
+// the previous value, and a failed first load is answered with the fallback and not stored.
+// Statistics are published as the cache.* meters of cache "members".
+@Component
+@Slf4j
+public class MemberCache implements MeterBinder {
+
+    private final LoadingCache<Long, MemberResponse> cache;
+
+    @Autowired
+    public MemberCache(MemberClient memberClient,
+                       MemberCacheProperties properties,
+                       @Qualifier("orderValidationExecutor") Executor refreshExecutor) {
+        this(memberClient, properties, refreshExecutor, Ticker.systemTicker());
+    }
+
+    MemberCache(MemberClient memberClient, MemberCacheProperties properties, Executor refreshExecutor,
+                Ticker ticker) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new MemberExpiry(properties))
+                .refreshAfterWrite(properties.getRefreshAfter())
+                .executor(refreshExecutor)
+                .ticker(ticker)
+                .recordStats()
+                .build(id -> load(memberClient, id));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "members");
+    }
+
+    public MemberResponse getMember(Long id) {
+        try {
+            return cache.get(id);
+        } catch (FallbackLoad e) {
+            return e.fallback;
+        }
+    }
+
+    // Throwing makes Caffeine keep the old entry on refresh, and store nothing on a first load
+    private static MemberResponse load(MemberClient memberClient, Long id) {
+        ClientFallbacks.consume();
+        MemberResponse member = memberClient.getMember(id);
+        if (ClientFallbacks.consume()) {
+            throw new FallbackLoad(member);
+        }
+        return member;
+    }
+
+    // Called when a member is deactivated so the next order sees it immediately
+    public void evict(Long id) {
+        log.info("Evicting member {} from cache", id);
+        cache.invalidate(id);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private static boolean isValid(MemberResponse member) {
+        return member.isExists() && member.isActive();
+    }
+
+    private static final class FallbackLoad extends RuntimeException {
+        private final transient MemberResponse fallback;
+
+        FallbackLoad(MemberResponse fallback) {
+            super("member-service fallback for member " + fallback.getId(), null, false, false);
+            this.fallback = fallback;
+        }
+    }
+
+    private record MemberExpiry(MemberCacheProperties properties) implements Expiry<Long, MemberResponse> {
+
+        @Override
+        public long expireAfterCreate(Long id, MemberResponse member, long currentTime) {
+            return (isValid(member) ? properties.getTtl() : properties.getNegativeTtl()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, MemberResponse member, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, member, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, MemberResponse member, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.sotatek.order.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.sotatek.order.config.OrderCacheProperties;
+import com.sotatek.order.dto.OrderResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+// Read-through cache of GET /api/orders/{id} responses. The local Caffeine tier always applies;
+// a SharedOrderCache bean, if present, is consulted on a local miss before the database.
+// Orders that can still change status expire after openTtl, so a transition made by another
+// instance shows up within that bound; only terminal ones (DELIVERED, CANCELLED) are kept for
+// finalTtl and shared; on this instance every write path evicts or replaces the entry after commit.
+// Loads run on the calling thread outside Caffeine's compute lock, which would otherwise be held
+// across the shared tier and database calls and block puts, evictions and other ids hashing to
+// the same bin. Concurrent reads of an id share the load in flight. A put or evict during a
+// load replaces or drops its pending entry, so an in-flight read can never overwrite a newer value.
+// The local tier's statistics are published as the cache.* meters of cache "orders".
+@Component
+public class OrderCache implements MeterBinder {
+
+    private final OrderCacheProperties properties;
+    private final SharedOrderCache sharedTier;
+    private final Ticker ticker;
+    private final AsyncCache<UUID, Cached> cache;
+
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    // Age of the entries served from the local tier, i.e. how stale a hit can have been
+    private final LongAdder servedAgeNanos = new LongAdder();
+    private final LongAccumulator maxServedAgeNanos = new LongAccumulator(Long::max, 0L);
+
+    @Autowired
+    public OrderCache(OrderCacheProperties properties, Optional<SharedOrderCache> sharedTier) {
+        this(properties, sharedTier.orElse(null), Ticker.systemTicker());
+    }
+
+    OrderCache(OrderCacheProperties properties, SharedOrderCache sharedTier, Ticker ticker) {
+        this.properties = properties;
+        this.sharedTier = sharedTier;
+        this.ticker = ticker;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new StatusExpiry(properties))
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "orders");
+    }
+
+    public OrderResponseDTO get(UUID id, Function<UUID, OrderResponseDTO> loader) {
+        if (!properties.isEnabled()) {
+            return loader.apply(id);
+        }
+        CompletableFuture<Cached> pending = new CompletableFuture<>();
+        CompletableFuture<Cached> entry = cache.get(id, (key, executor) -> pending);
+        if (entry == pending) {
+            try {
+                pending.complete(new Cached(loadThroughSharedTier(id, loader), ticker.read()));
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e); // Caffeine drops the failed entry
+                throw e;
+            }
+        }
+        Cached cached = join(entry);
+        long age = ticker.read() - cached.cachedAt();
+        servedAgeNanos.add(age);
+        maxServedAgeNanos.accumulate(age);
+        return cached.order();
+    }
+
+    // Non-loading lookup for callers that cannot block on the loader (reactive path); null on miss.
+    // The local tier only: the shared tier client is blocking.
+    public OrderResponseDTO getIfPresent(UUID id) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        CompletableFuture<Cached> entry = cache.getIfPresent(id);
+        if (entry == null || !entry.isDone() || entry.isCompletedExceptionally()) {
+            return null; // a load still in flight counts as a miss here
+        }
+        Cached cached = entry.join();
+        long age = ticker.read() - cached.cachedAt();
+        servedAgeNanos.add(age);
+        maxServedAgeNanos.accumulate(age);
+        return cached.order();
+    }
+
+    // Write path: the caller's view is the freshest there is
+    public void put(OrderResponseDTO order) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        cache.put(order.getId(), CompletableFuture.completedFuture(new Cached(order, ticker.read())));
+        if (sharedTier != null) {
+            if (isTerminal(order)) {
+                sharedTier.put(order.getId(), order, properties.getFinalTtl());
+            } else {
+                sharedTier.evict(order.getId());
+            }
+        }
+    }
+
+    public void evict(UUID id) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        evictions.increment();
+        cache.synchronous().invalidate(id);
+        if (sharedTier != null) {
+            sharedTier.evict(id);
+        }
+    }
+
+    // Evicts once the surrounding transaction commits; a rolled back change leaves the entry valid
+    public void evictAfterCommit(UUID id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(id);
+            }
+        });
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    public Staleness staleness() {
+        CacheStats stats = cache.synchronous().stats();
+        long hits = stats.hitCount();
+        long requests = stats.requestCount();
+        // Shared tier hits are local misses that still avoided the database
+        double combinedHitRate = requests == 0 ? 1.0 : (double) (hits + sharedHits.sum()) / requests;
+        return new Staleness(sharedHits.sum(), combinedHitRate, evictions.sum(),
+                requests == 0 ? 0.0 : servedAgeNanos.sum() / 1e6 / requests,
+                maxServedAgeNanos.get() / 1e6);
+    }
+
+    private OrderResponseDTO loadThroughSharedTier(UUID id, Function<UUID, OrderResponseDTO> loader) {
+        if (sharedTier != null) {
+            OrderResponseDTO shared = sharedTier.get(id);
+            if (shared != null) {
+                sharedHits.increment();
+                return shared;
+            }
+        }
+        OrderResponseDTO order = loader.apply(id);
+        // Other orders change and only this instance's local tier hears about it reliably
+        if (sharedTier != null && isTerminal(order)) {
+            sharedTier.put(id, order, properties.getFinalTtl());
+        }
+        return order;
+    }
+
+    // The load of another caller failed: rethrow its exception as this caller's own
+    private static Cached join(CompletableFuture<Cached> entry) {
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isTerminal(OrderResponseDTO order) {
+        return order.getStatus() != null && order.getStatus().isTerminal();
+    }
+
+    public record Staleness(long sharedHitCount, double combinedHitRate, long invalidationCount,
+                            double meanServedAgeMs, double maxServedAgeMs) {
+    }
+
+    private record Cached(OrderResponseDTO order, long cachedAt) {
+    }
+
+    private record StatusExpiry(OrderCacheProperties properties) implements Expiry<UUID, Cached> {
+
+        @Override
+        public long expireAfterCreate(UUID id, Cached cached, long currentTime) {
+            return (isTerminal(cached.order()) ? properties.getFinalTtl() : properties.getOpenTtl()).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID id, Cached cached, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, cached, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID id, Cached cached, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.sotatek.order.infrastructure.cache;
+
+import com.sotatek.order.config.ProductLookupProperties;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.exception.ServiceUnavailableException;
+import com.sotatek.order.infrastructure.client.ProductClient;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductStockQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Single-flight + micro-batching in front of ProductClient.checkStock. Concurrent lookups
+// for the same product share one in-flight call; lookups for different products that
+// arrive within batchWindow are merged into one checkStockBatch request.
+// Stock is never cached: every result comes from a call that started after the lookup.
+@Component
+@Slf4j
+public class ProductStockLoader {
+
+    private final ProductClient productClient;
+    private final ProductLookupProperties properties;
+    private final ScheduledExecutorService scheduler;
+
+    private final ConcurrentMap<Long, Lookup> inFlight = new ConcurrentHashMap<>();
+    // A lock rather than a monitor: waiting for it must not pin a virtual thread's carrier
+    private final ReentrantLock windowLock = new ReentrantLock();
+    private List<Lookup> window = new ArrayList<>(); // guarded by windowLock
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder remoteCalls = new LongAdder();
+
+    public ProductStockLoader(ProductClient productClient,
+                              ProductLookupProperties properties,
+                              @Qualifier("productLookupScheduler") ScheduledExecutorService scheduler) {
+        this.productClient = productClient;
+        this.properties = properties;
+        this.scheduler = scheduler;
+    }
+
+    public ProductResponse checkStock(Long id, int quantity) {
+        lookups.increment();
+        if (!properties.isCoalescing()) {
+            remoteCalls.increment();
+            return productClient.checkStock(id, quantity);
+        }
+
+        Lookup created = new Lookup(id, quantity);
+        Lookup existing = inFlight.putIfAbsent(id, created);
+        if (existing == null) {
+            enqueue(created);
+            return await(created);
+        }
+        coalesced.increment();
+        existing.raiseQuantity(quantity);
+        return await(existing);
+    }
+
+    // All products of one order in a single remote call. The caller already holds the whole
+    // batch, so there is no window to wait for and no single-flight sharing.
+    public Map<Long, ProductResponse> checkStockAll(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            return Map.of();
+        }
+        if (quantities.size() == 1) {
+            Map.Entry<Long, Integer> only = quantities.entrySet().iterator().next();
+            return Map.of(only.getKey(), checkStock(only.getKey(), only.getValue()));
+        }
+        lookups.add(quantities.size());
+        remoteCalls.increment();
+        Map<Long, ProductResponse> products = productClient.checkStockBatch(quantities.entrySet().stream()
+                        .map(entry -> new ProductStockQuery(entry.getKey(), entry.getValue()))
+                        .toList())
+                .stream()
+                .collect(Collectors.toMap(ProductResponse::getId, Function.identity(), (first, second) -> first));
+        Map<Long, ProductResponse> results = new HashMap<>();
+        quantities.keySet().forEach(id -> results.put(id, products.getOrDefault(id,
+                new ProductResponse(id, false, 0, Money.ZERO))));
+        return results;
+    }
+
+    public Stats stats() {
+        return new Stats(lookups.sum(), coalesced.sum(), remoteCalls.sum());
+    }
+
+    public record Stats(long lookups, long coalesced, long remoteCalls) {
+    }
+
+    private void enqueue(Lookup lookup) {
+        List<Lookup> full = null;
+        boolean opened;
+        windowLock.lock();
+        try {
+            window.add(lookup);
+            if (window.size() >= properties.getMaxBatchSize()) {
+                full = window;
+                window = new ArrayList<>();
+            }
+            opened = window.size() == 1;
+        } finally {
+            windowLock.unlock();
+        }
+
+        try {
+            if (full != null) {
+                List<Lookup> batch = full;
+                scheduler.execute(() -> load(batch));
+            } else if (opened) {
+                scheduler.schedule(this::flushWindow, properties.getBatchWindow().toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } catch (RejectedExecutionException e) {
+            // Shutting down: load on the caller instead of leaving waiters hanging
+            if (full != null) {
+                load(full);
+            } else {
+                flushWindow();
+            }
+        }
+    }
+
+    private void flushWindow() {
+        List<Lookup> batch;
+        windowLock.lock();
+        try {
+            if (window.isEmpty()) {
+                return; // already flushed because it filled up
+            }
+            batch = window;
+            window = new ArrayList<>();
+        } finally {
+            windowLock.unlock();
+        }
+        load(batch);
+    }
+
+    private void load(List<Lookup> batch) {
+        remoteCalls.increment();
+        try {
+            if (batch.size() == 1) {
+                Lookup lookup = batch.get(0);
+                complete(lookup, productClient.checkStock(lookup.id, lookup.quantity.get()));
+                return;
+            }
+            log.debug("Loading stock for {} products in one call", batch.size());
+            Map<Long, ProductResponse> products = productClient.checkStockBatch(batch.stream()
+                            .map(lookup -> new ProductStockQuery(lookup.id, lookup.quantity.get()))
+                            .toList())
+                    .stream()
+                    .collect(Collectors.toMap(ProductResponse::getId, Function.identity(), (first, second) -> first));
+            // A product missing from the response is treated as unavailable, like the client fallback
+            batch.forEach(lookup -> complete(lookup, products.getOrDefault(lookup.id,
+                    new ProductResponse(lookup.id, false, 0, Money.ZERO))));
+        } catch (RuntimeException e) {
+            log.warn("Stock lookup failed for {} products: {}", batch.size(), e.toString());
+            batch.forEach(lookup -> {
+                inFlight.remove(lookup.id, lookup);
+                lookup.future.completeExceptionally(e);
+            });
+        }
+    }
+
+    private void complete(Lookup lookup, ProductResponse product) {
+        // Remove first so lookups arriving after the answer start a fresh call
+        inFlight.remove(lookup.id, lookup);
+        lookup.future.complete(product);
+    }
+
+    private ProductResponse await(Lookup lookup) {
+        try {
+            // Interrupting a waiter (validation deadline) leaves the shared call running for the others
+            return lookup.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Product lookup interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ServiceUnavailableException("Product lookup failed: " + e.getCause());
+        }
+    }
+
+    private static final class Lookup {
+        private final Long id;
+        private final AtomicInteger quantity;
+        private final CompletableFuture<ProductResponse> future = new CompletableFuture<>();
+
+        private Lookup(Long id, int quantity) {
+            this.id = id;
+            this.quantity = new AtomicInteger(quantity);
+        }
+
+        // Joiners that arrive before the call is sent ask for the largest quantity
+        private void raiseQuantity(int requested) {
+            quantity.accumulateAndGet(requested, Math::max);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.sotatek.order.infrastructure.cache;
+
+import com.sotatek.order.dto.OrderResponseDTO;
+
+import java.time.Duration;
+import java.util.UUID;
+
+// Optional second tier behind OrderCache, shared between instances (e.g. Redis). Only orders
+// in a final status are stored here. Register a bean to enable it.
+public interface SharedOrderCache {
+
+    // null on a miss
+    OrderResponseDTO get(UUID id);
+
+    void put(UUID id, OrderResponseDTO order, Duration ttl);
+
+    void evict(UUID id);
+}
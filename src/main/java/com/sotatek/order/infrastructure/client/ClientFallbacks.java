@@ -0,0 +1,31 @@
+package com.sotatek.order.infrastructure.client;
+
+// Lets callers tell a fallback result from a real response. Fallback methods run synchronously
+// on the calling thread, inside ClientMetricsAspect, which clears the mark before each call and
+// leaves it set after one that fell back, for the caller to consume().
+public final class ClientFallbacks {
+
+    private static final ThreadLocal<Boolean> USED = new ThreadLocal<>();
+
+    private ClientFallbacks() {
+    }
+
+    public static void mark() {
+        USED.set(Boolean.TRUE);
+    }
+
+    static void reset() {
+        USED.remove();
+    }
+
+    static boolean used() {
+        return USED.get() != null;
+    }
+
+    // Whether the last client call on this thread fell back; clears the mark
+    public static boolean consume() {
+        boolean used = used();
+        USED.remove();
+        return used;
+    }
+}
@@ -0,0 +1,53 @@
+package com.sotatek.order.infrastructure.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// One order.client.calls timer sample per logical downstream call, around retries, circuit
+// breaker and fallback: outcome=success|fallback|error. Single attempts are timed by Feign
+// (http.client.requests); retry counts and breaker states come from resilience4j-micrometer.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class ClientMetricsAspect {
+
+    static final String METRIC = "order.client.calls";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* com.sotatek.order.infrastructure.client.MemberClient.*(..))"
+            + " || execution(* com.sotatek.order.infrastructure.client.ProductClient.*(..))"
+            + " || execution(* com.sotatek.order.infrastructure.client.PaymentClient.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String client = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        ClientFallbacks.reset();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        String exception = "none";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = ClientFallbacks.used() ? "fallback" : "success";
+            return result;
+        } catch (Throwable e) {
+            ClientFallbacks.reset();
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .tag("client", client)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -18,6 +18,7 @@ public interface MemberClient {
     MemberResponse getMember(@PathVariable("id") Long id);
 
     default MemberResponse getMemberFallback(Long id, Throwable throwable) {
+        ClientFallbacks.mark();
         return new MemberResponse(id, false, false);
     }
 }
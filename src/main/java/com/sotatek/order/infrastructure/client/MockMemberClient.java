@@ -1,13 +1,13 @@
 package com.sotatek.order.infrastructure.client;
 
 import com.sotatek.order.infrastructure.client.dto.MemberResponse;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 @Component
 @Primary
-@ConditionalOnProperty(name = "spring.profiles.active", havingValue = "local")
+@Profile("local")
 public class MockMemberClient implements MemberClient {
 
     @Override
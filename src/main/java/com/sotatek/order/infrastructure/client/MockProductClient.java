@@ -1,27 +1,36 @@
 package com.sotatek.order.infrastructure.client;
 
+import com.sotatek.order.entity.Money;
 import com.sotatek.order.infrastructure.client.dto.ProductResponse;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import com.sotatek.order.infrastructure.client.dto.ProductStockQuery;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
+import java.util.List;
 
 @Component
 @Primary
-@ConditionalOnProperty(name = "spring.profiles.active", havingValue = "local")
+@Profile("local")
 public class MockProductClient implements ProductClient {
 
     @Override
     public ProductResponse checkStock(Long id, int requestedQuantity) {
         // Mock specific IDs for testing
         if (id.equals(101L)) {
-            return new ProductResponse(id, true, 100, new BigDecimal("50.00")); // In Stock
+            return new ProductResponse(id, true, 100, Money.of("50.00")); // In Stock
         } else if (id.equals(102L)) {
-            return new ProductResponse(id, true, 2, new BigDecimal("100.00")); // Low Stock
+            return new ProductResponse(id, true, 2, Money.of("100.00")); // Low Stock
         } else if (id.equals(103L)) {
-            return new ProductResponse(id, true, 0, new BigDecimal("25.00")); // Out of Stock
+            return new ProductResponse(id, true, 0, Money.of("25.00")); // Out of Stock
         }
-        return new ProductResponse(id, false, 0, BigDecimal.ZERO); // Not Available
+        return new ProductResponse(id, false, 0, Money.ZERO); // Not Available
+    }
+
+    @Override
+    public List<ProductResponse> checkStockBatch(List<ProductStockQuery> queries) {
+        return queries.stream()
+                .map(query -> checkStock(query.getId(), query.getQuantity()))
+                .toList();
     }
 }
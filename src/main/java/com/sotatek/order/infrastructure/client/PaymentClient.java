@@ -17,6 +17,7 @@ public interface PaymentClient {
     PaymentResponse processPayment(@RequestBody PaymentRequest request);
 
     default PaymentResponse processPaymentFallback(PaymentRequest request, Throwable throwable) {
+        ClientFallbacks.mark();
         return new PaymentResponse(null, false, "Payment service unavailable or failed: " + throwable.getMessage());
     }
 }
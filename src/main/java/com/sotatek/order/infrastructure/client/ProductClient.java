@@ -1,14 +1,18 @@
 package com.sotatek.order.infrastructure.client;
 
+import com.sotatek.order.entity.Money;
 import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductStockQuery;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import java.math.BigDecimal;
+import java.util.List;
 
 @FeignClient(name = "product-service", url = "${product.service.url}", primary = false)
 public interface ProductClient {
@@ -20,8 +24,20 @@ public interface ProductClient {
             @PathVariable("id") Long id,
             @RequestParam("quantity") int requestedQuantity);
 
+    @PostMapping("/products/stock/batch")
+    @CircuitBreaker(name = "productService", fallbackMethod = "checkStockBatchFallback")
+    @Retry(name = "productService")
+    List<ProductResponse> checkStockBatch(@RequestBody List<ProductStockQuery> queries);
+
     default ProductResponse checkStockFallback(Long id, int requestedQuantity, Throwable throwable) {
         // Fallback: Assume not available to prevent overselling
-        return new ProductResponse(id, false, 0, BigDecimal.ZERO);
+        ClientFallbacks.mark();
+        return new ProductResponse(id, false, 0, Money.ZERO);
+    }
+
+    default List<ProductResponse> checkStockBatchFallback(List<ProductStockQuery> queries, Throwable throwable) {
+        return queries.stream()
+                .map(query -> checkStockFallback(query.getId(), query.getQuantity(), throwable))
+                .toList();
     }
 }
@@ -1,11 +1,11 @@
 package com.sotatek.order.infrastructure.client.dto;
 
+import com.sotatek.order.entity.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 @Data
@@ -14,5 +14,7 @@ import java.util.UUID;
 @Builder
 public class PaymentRequest {
     private UUID orderId;
-    private BigDecimal amount;
+    private Money amount;
+    // Same on every attempt at this payment, so payment-service charges a retried one only once
+    private UUID idempotencyKey;
 }
@@ -1,11 +1,10 @@
 package com.sotatek.order.infrastructure.client.dto;
 
+import com.sotatek.order.entity.Money;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
-
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -13,5 +12,5 @@ public class ProductResponse {
     private Long id;
     private boolean available;
     private int stock;
-    private BigDecimal price;
+    private Money price;
 }
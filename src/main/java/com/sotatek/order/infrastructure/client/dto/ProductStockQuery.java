@@ -0,0 +1,13 @@
+package com.sotatek.order.infrastructure.client.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockQuery {
+    private Long id;
+    private int quantity;
+}
@@ -0,0 +1,31 @@
+package com.sotatek.order.infrastructure.client.reactive;
+
+import com.sotatek.order.exception.ExternalServiceClientException;
+import com.sotatek.order.exception.ServiceUnavailableException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+// Same status mapping as CustomFeignErrorDecoder
+final class ReactiveClientErrors {
+
+    private ReactiveClientErrors() {
+    }
+
+    static Function<ClientResponse, Mono<? extends Throwable>> decode(String methodKey) {
+        return response -> response.releaseBody().then(Mono.fromSupplier(() -> {
+            HttpStatus status = HttpStatus.resolve(response.statusCode().value());
+            if (status == HttpStatus.SERVICE_UNAVAILABLE || status == HttpStatus.GATEWAY_TIMEOUT) {
+                return new ServiceUnavailableException("External service unavailable: " + methodKey);
+            }
+            if (response.statusCode().is4xxClientError()) {
+                return new ExternalServiceClientException("Client error from " + methodKey + ": "
+                        + response.statusCode().value());
+            }
+            return new ServiceUnavailableException("Server error from " + methodKey + ": "
+                    + response.statusCode().value());
+        }));
+    }
+}
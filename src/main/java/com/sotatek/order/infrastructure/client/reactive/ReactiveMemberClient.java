@@ -0,0 +1,45 @@
+package com.sotatek.order.infrastructure.client.reactive;
+
+import com.sotatek.order.infrastructure.client.dto.MemberResponse;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+// Non-blocking counterpart of MemberClient; shares its circuit breaker and retry instances
+@Component
+@ConditionalOnProperty(prefix = "order.reactive", name = "enabled", havingValue = "true")
+public class ReactiveMemberClient {
+
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Retry retry;
+
+    public ReactiveMemberClient(@Qualifier("memberWebClient") WebClient webClient,
+                                CircuitBreakerRegistry circuitBreakerRegistry,
+                                RetryRegistry retryRegistry) {
+        this.webClient = webClient;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("memberService");
+        this.retry = retryRegistry.retry("memberService");
+    }
+
+    public Mono<MemberResponse> getMember(Long id) {
+        return webClient.get()
+                .uri("/members/{id}", id)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ReactiveClientErrors.decode("MemberClient#getMember(Long)"))
+                .bodyToMono(MemberResponse.class)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry))
+                // Same fallback as MemberClient: treat as not existing
+                .onErrorResume(e -> Mono.just(new MemberResponse(id, false, false)));
+    }
+}
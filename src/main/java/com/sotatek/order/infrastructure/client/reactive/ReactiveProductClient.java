@@ -0,0 +1,64 @@
+package com.sotatek.order.infrastructure.client.reactive;
+
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductStockQuery;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Non-blocking counterpart of ProductClient; shares its circuit breaker and retry instances
+@Component
+@ConditionalOnProperty(prefix = "order.reactive", name = "enabled", havingValue = "true")
+public class ReactiveProductClient {
+
+    private final WebClient webClient;
+    private final CircuitBreaker circuitBreaker;
+    private final Retry retry;
+
+    public ReactiveProductClient(@Qualifier("productWebClient") WebClient webClient,
+                                 CircuitBreakerRegistry circuitBreakerRegistry,
+                                 RetryRegistry retryRegistry) {
+        this.webClient = webClient;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("productService");
+        this.retry = retryRegistry.retry("productService");
+    }
+
+    public Mono<ProductResponse> checkStock(Long id, int requestedQuantity) {
+        return webClient.get()
+                .uri(uri -> uri.path("/products/{id}/stock").queryParam("quantity", requestedQuantity).build(id))
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ReactiveClientErrors.decode("ProductClient#checkStock(Long,int)"))
+                .bodyToMono(ProductResponse.class)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry))
+                // Same fallback as ProductClient: assume not available to prevent overselling
+                .onErrorResume(e -> Mono.just(new ProductResponse(id, false, 0, Money.ZERO)));
+    }
+
+    public Mono<List<ProductResponse>> checkStockBatch(List<ProductStockQuery> queries) {
+        return webClient.post()
+                .uri("/products/stock/batch")
+                .bodyValue(queries)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, ReactiveClientErrors.decode("ProductClient#checkStockBatch(List)"))
+                .bodyToFlux(ProductResponse.class)
+                .collectList()
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry))
+                .onErrorResume(e -> Mono.just(queries.stream()
+                        .map(query -> new ProductResponse(query.getId(), false, 0, Money.ZERO))
+                        .toList()));
+    }
+}
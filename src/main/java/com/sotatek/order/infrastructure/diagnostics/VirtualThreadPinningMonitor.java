@@ -0,0 +1,74 @@
+package com.sotatek.order.infrastructure.diagnostics;
+
+import com.sotatek.order.config.VirtualThreadProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+// Logs virtual threads that stay pinned to their carrier (blocking inside synchronized or
+// native code) for longer than the threshold, with the frames that did it. Listens to the
+// JDK's own jdk.VirtualThreadPinned JFR event, so it costs nothing until pinning happens.
+// Only active in virtual thread mode.
+@Component
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int FRAMES = 8;
+
+    private final Environment environment;
+    private final VirtualThreadProperties properties;
+    private final LongAdder pinned = new LongAdder();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Environment environment, VirtualThreadProperties properties) {
+        this.environment = environment;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!Threading.VIRTUAL.isActive(environment) || !properties.isPinningMonitor()) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(properties.getPinningThreshold()).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for more than {} ms", properties.getPinningThreshold().toMillis());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    public long pinnedCount() {
+        return pinned.sum();
+    }
+
+    private void report(RecordedEvent event) {
+        pinned.increment();
+        String frames = event.getStackTrace() == null ? "unknown" : event.getStackTrace().getFrames().stream()
+                .limit(FRAMES)
+                .map(VirtualThreadPinningMonitor::frame)
+                .collect(Collectors.joining(" <- "));
+        log.warn("Virtual thread pinned for {} ms: {}", event.getDuration().toMillis(), frames);
+    }
+
+    private static String frame(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
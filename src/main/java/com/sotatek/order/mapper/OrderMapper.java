@@ -1,13 +1,20 @@
 package com.sotatek.order.mapper;
 
+import com.sotatek.order.dto.OrderLineDTO;
 import com.sotatek.order.dto.OrderRequestDTO;
 import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.entity.Money;
 import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderItem;
+import com.sotatek.order.repository.OrderRepository;
+import org.mapstruct.AfterMapping;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.ReportingPolicy;
 
+import java.math.BigDecimal;
+
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface OrderMapper {
 
@@ -17,8 +24,32 @@ public interface OrderMapper {
     @Mapping(target = "orderItems", ignore = true)
     Order toEntity(OrderRequestDTO dto);
 
+    @Mapping(target = "items", source = "orderItems")
     OrderResponseDTO toResponseDTO(Order order);
 
+    @Mapping(target = "items", ignore = true)
+    OrderResponseDTO toResponseDTO(OrderRepository.OrderView view);
+
+    @Mapping(target = "unitPrice", source = "price")
+    OrderLineDTO toLineDTO(OrderItem item);
+
+    // Single-item view of the order; touches the lazy items, so load them with the order
+    // (findWithItemsById) or rely on batch fetching when mapping lists. MapStruct maps through
+    // the Lombok builder, so the target has to be the builder for this to be called
+    @AfterMapping
+    default void copyFirstItem(Order order, @MappingTarget OrderResponseDTO.OrderResponseDTOBuilder dto) {
+        if (!order.getOrderItems().isEmpty()) {
+            OrderItem item = order.getOrderItems().get(0);
+            dto.productId(item.getProductId());
+            dto.quantity(item.getQuantity());
+        }
+    }
+
+    // Native projections read DECIMAL columns as BigDecimal
+    default Money toMoney(BigDecimal amount) {
+        return Money.of(amount);
+    }
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
@@ -0,0 +1,64 @@
+package com.sotatek.order.repository;
+
+import com.sotatek.order.entity.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, String> {
+
+    // Claims a key in one statement, without locking it first: a new key, an abandoned claim
+    // or an expired record. 1 = claimed, 0 = another request holds or completed it.
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO idempotency_keys (idempotency_key, request_hash, status, locked_until, expires_at, created_at)
+            VALUES (:key, :requestHash, 'IN_PROGRESS', :lockedUntil, :expiresAt, :now)
+            ON CONFLICT (idempotency_key) DO UPDATE
+            SET request_hash = EXCLUDED.request_hash, status = 'IN_PROGRESS', order_id = NULL, response = NULL,
+                locked_until = EXCLUDED.locked_until, expires_at = EXCLUDED.expires_at, created_at = EXCLUDED.created_at
+            WHERE (idempotency_keys.status = 'IN_PROGRESS' AND idempotency_keys.locked_until < :now)
+               OR idempotency_keys.expires_at < :now
+            """, nativeQuery = true)
+    int claim(@Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("now") LocalDateTime now,
+              @Param("lockedUntil") LocalDateTime lockedUntil,
+              @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = """
+            UPDATE idempotency_keys SET status = 'COMPLETED', order_id = :orderId, response = :response
+            WHERE idempotency_key = :key AND request_hash = :requestHash AND status = 'IN_PROGRESS'
+            """, nativeQuery = true)
+    int complete(@Param("key") String key,
+                 @Param("requestHash") String requestHash,
+                 @Param("orderId") UUID orderId,
+                 @Param("response") String response);
+
+    // Failed requests are not replayed: the client may retry with the same key
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM idempotency_keys
+            WHERE idempotency_key = :key AND request_hash = :requestHash AND status = 'IN_PROGRESS'
+            """, nativeQuery = true)
+    int release(@Param("key") String key, @Param("requestHash") String requestHash);
+
+    // Batched so the cleanup never holds many row locks at once
+    @Modifying
+    @Transactional
+    @Query(value = """
+            DELETE FROM idempotency_keys WHERE idempotency_key IN (
+                SELECT idempotency_key FROM idempotency_keys WHERE expires_at < :now LIMIT :limit)
+            """, nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,58 @@
+package com.sotatek.order.repository;
+
+import com.sotatek.order.dto.OrderExportCriteria;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+// Forward-only read of orders for bulk export. Rows go to the handler one at a time straight
+// off the ResultSet: nothing is hydrated or collected. The PostgreSQL driver only fetches
+// fetchSize rows per round trip inside a transaction (autocommit off), so callers run this
+// in one; without it the whole result would be buffered in memory.
+// Oldest first on (created_at, id): an ordered scan of the created_at index of each month,
+// only over the months in range.
+@Repository
+@RequiredArgsConstructor
+public class OrderExportStore {
+
+    private static final String SELECT = """
+            SELECT id, member_id, total_price, status, version, created_at, updated_at
+            FROM orders WHERE TRUE""";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void forEach(OrderExportCriteria criteria, int fetchSize, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>();
+        if (criteria.getCreatedFrom() != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.valueOf(criteria.getCreatedFrom()));
+        }
+        if (criteria.getCreatedTo() != null) {
+            sql.append(" AND created_at < ?");
+            args.add(Timestamp.valueOf(criteria.getCreatedTo()));
+        }
+        if (criteria.getStatus() != null) {
+            sql.append(" AND status = ?");
+            args.add(criteria.getStatus().name());
+        }
+        sql.append(" ORDER BY created_at, id");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, handler);
+    }
+}
@@ -0,0 +1,47 @@
+package com.sotatek.order.repository;
+
+import com.sotatek.order.entity.OrderItem;
+import com.sotatek.order.entity.OrderStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    // Items are joined to their order on (order_id, order_created_at), the order's primary key,
+    // so each lookup probes the one partition holding the order
+    @Query("""
+            SELECT COALESCE(SUM(i.quantity), 0) FROM OrderItem i JOIN i.order o
+            WHERE i.productId = :productId AND o.createdAt = i.orderCreatedAt AND o.status IN :statuses
+            """)
+    long sumQuantity(@Param("productId") Long productId, @Param("statuses") Collection<OrderStatus> statuses);
+
+    // Held quantities of the given products only, through idx_order_items_product_id_order_id (V10)
+    @Query("""
+            SELECT i.productId AS productId, SUM(i.quantity) AS quantity FROM OrderItem i JOIN i.order o
+            WHERE i.productId IN :productIds AND o.createdAt = i.orderCreatedAt AND o.status IN :statuses
+            GROUP BY i.productId
+            """)
+    List<ProductQuantity> sumQuantityByProduct(@Param("statuses") Collection<OrderStatus> statuses,
+                                               @Param("productIds") Collection<Long> productIds);
+
+    // Reservations held by a set of orders, e.g. a chunk of a bulk cancel
+    @Query("""
+            SELECT i.productId AS productId, SUM(i.quantity) AS quantity FROM OrderItem i
+            WHERE i.order.id IN :orderIds
+            GROUP BY i.productId
+            """)
+    List<ProductQuantity> sumQuantityByProductForOrders(@Param("orderIds") Collection<UUID> orderIds);
+
+    interface ProductQuantity {
+        Long getProductId();
+
+        Long getQuantity();
+    }
+}
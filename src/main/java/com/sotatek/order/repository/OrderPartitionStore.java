@@ -0,0 +1,108 @@
+package com.sotatek.order.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+// DDL and bulk export for the monthly partitions of orders/order_items (see V10). Partition
+// names are built from a YearMonth only, never from input, so they are safe to inline.
+// Callers run everything inside a transaction.
+@Repository
+@RequiredArgsConstructor
+public class OrderPartitionStore {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final String ORDERS_PREFIX = "orders_p";
+    private static final String ITEMS_PREFIX = "order_items_p";
+    // Shared by every instance, so only one of them maintains partitions at a time
+    private static final long MAINTENANCE_LOCK = 7_310_598_301_044_208_640L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public static String ordersPartition(YearMonth month) {
+        return ORDERS_PREFIX + month.format(SUFFIX);
+    }
+
+    public static String itemsPartition(YearMonth month) {
+        return ITEMS_PREFIX + month.format(SUFFIX);
+    }
+
+    // Released at commit; false while another instance holds it
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, MAINTENANCE_LOCK));
+    }
+
+    public void createPartitions(YearMonth month) {
+        jdbcTemplate.queryForList("SELECT create_order_partitions(?)", month.atDay(1));
+    }
+
+    public List<YearMonth> attachedMonths() {
+        return months(jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'orders'::regclass
+                ORDER BY c.relname
+                """, String.class));
+    }
+
+    // Detached but not archived yet, e.g. after an export failed
+    public List<YearMonth> detachedMonths() {
+        return months(jdbcTemplate.queryForList("""
+                SELECT relname FROM pg_class
+                WHERE relkind = 'r' AND NOT relispartition AND relname ~ '^orders_p[0-9]{6}$'
+                  AND relnamespace = current_schema()::regnamespace
+                ORDER BY relname
+                """, String.class));
+    }
+
+    public boolean hasOpenOrders(YearMonth month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + ordersPartition(month)
+                + " WHERE status IN ('SUBMITTED', 'PENDING'))", Boolean.class));
+    }
+
+    // Items first: the detached items table loses its foreign key, so the orders partition
+    // no longer has rows referencing it when it is detached in turn
+    public void detach(YearMonth month, Duration lockTimeout) {
+        String items = itemsPartition(month);
+        jdbcTemplate.execute("SET LOCAL lock_timeout = '" + lockTimeout.toMillis() + "ms'");
+        jdbcTemplate.execute("ALTER TABLE order_items DETACH PARTITION " + items);
+        for (String constraint : jdbcTemplate.queryForList(
+                "SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass AND contype = 'f'", String.class, items)) {
+            jdbcTemplate.execute("ALTER TABLE " + items + " DROP CONSTRAINT \"" + constraint + "\"");
+        }
+        jdbcTemplate.execute("ALTER TABLE orders DETACH PARTITION " + ordersPartition(month));
+    }
+
+    // COPY ... TO STDOUT as CSV with a header; returns the number of rows
+    public long copyOut(String table, OutputStream out) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try {
+                return connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyOut("COPY " + table + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    public void drop(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE " + itemsPartition(month));
+        jdbcTemplate.execute("DROP TABLE " + ordersPartition(month));
+    }
+
+    private static List<YearMonth> months(List<String> ordersPartitions) {
+        return ordersPartitions.stream()
+                .map(name -> YearMonth.parse(name.substring(ORDERS_PREFIX.length()), SUFFIX))
+                .toList();
+    }
+}
@@ -1,16 +1,228 @@
 package com.sotatek.order.repository;
 
+import com.sotatek.order.entity.Money;
 import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderIds;
 import com.sotatek.order.entity.OrderStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, UUID> {
+public interface OrderRepository extends JpaRepository<Order, UUID>, JpaSpecificationExecutor<Order> {
 
     Page<Order> findByStatus(OrderStatus status, Pageable pageable);
+
+    // Lookups by id also bound created_at by the range the id gives (OrderIds), so only the
+    // order's own monthly partition is probed instead of the primary key index of every one
+
+    // Replaces the primary key lookup, which filters on id alone
+    @Override
+    default Optional<Order> findById(UUID id) {
+        OrderIds.CreatedRange range = OrderIds.createdRange(id);
+        return findById(id, range.from(), range.to());
+    }
+
+    @Query("""
+            SELECT o FROM Order o
+            WHERE o.id = :id AND o.createdAt >= :createdFrom AND o.createdAt < :createdTo
+            """)
+    Optional<Order> findById(@Param("id") UUID id,
+                             @Param("createdFrom") LocalDateTime createdFrom,
+                             @Param("createdTo") LocalDateTime createdTo);
+
+    // Order and its items in one query; items are bounded too, as they are partitioned by the
+    // created_at of their order. The bound only reaches the items scan through an inner join (a
+    // fetch join takes no ON clause), so an order without items is read on its own instead.
+    default Optional<Order> findWithItemsById(UUID id) {
+        OrderIds.CreatedRange range = OrderIds.createdRange(id);
+        return findWithItemsById(id, range.from(), range.to())
+                .or(() -> findById(id, range.from(), range.to()));
+    }
+
+    @Query("""
+            SELECT o FROM Order o JOIN FETCH o.orderItems i
+            WHERE o.id = :id AND o.createdAt >= :createdFrom AND o.createdAt < :createdTo
+              AND i.orderCreatedAt >= :createdFrom AND i.orderCreatedAt < :createdTo
+            """)
+    Optional<Order> findWithItemsById(@Param("id") UUID id,
+                                      @Param("createdFrom") LocalDateTime createdFrom,
+                                      @Param("createdTo") LocalDateTime createdTo);
+
+    // One conditional statement per status transition, no SELECT first. 1 = moved, 0 = the order
+    // is gone or no longer at (from, version). Bypasses the persistence context and auditing.
+    default int transition(UUID id, OrderStatus from, long version, OrderStatus to, LocalDateTime now) {
+        OrderIds.CreatedRange range = OrderIds.createdRange(id);
+        return transition(id, range.from(), range.to(), from, version, to, now);
+    }
+
+    @Modifying
+    @Query("""
+            UPDATE Order o SET o.status = :to, o.version = o.version + 1, o.updatedAt = :now
+            WHERE o.id = :id AND o.createdAt >= :createdFrom AND o.createdAt < :createdTo
+              AND o.status = :from AND o.version = :version
+            """)
+    int transition(@Param("id") UUID id,
+                   @Param("createdFrom") LocalDateTime createdFrom,
+                   @Param("createdTo") LocalDateTime createdTo,
+                   @Param("from") OrderStatus from,
+                   @Param("version") long version,
+                   @Param("to") OrderStatus to,
+                   @Param("now") LocalDateTime now);
+
+    // Bulk transitions, one short transaction per call: only the rows of the chunk are locked,
+    // and only until it commits. Each returns the ids it moved.
+    // Deliberately not @Modifying: that runs executeUpdate(), which cannot return the RETURNING
+    // rows. Nothing can go stale without its clearAutomatically either, as every call runs in a
+    // transaction of its own that has loaded no Order entity (OrderBulkTransitionService.applyChunk)
+    // and only projections are read after it.
+    default List<UUID> transitionAll(Collection<UUID> ids, String fromStatus, String toStatus, LocalDateTime now) {
+        OrderIds.CreatedRange range = OrderIds.createdRange(ids);
+        return transitionAll(ids, range.from(), range.to(), fromStatus, toStatus, now);
+    }
+
+    // created_at spans the ids of the chunk, so only their months are touched
+    @Query(value = """
+            UPDATE orders SET status = :toStatus, version = version + 1, updated_at = :now
+            WHERE id IN (:ids) AND created_at >= :createdFrom AND created_at < :createdTo
+              AND status = :fromStatus
+            RETURNING id
+            """, nativeQuery = true)
+    List<UUID> transitionAll(@Param("ids") Collection<UUID> ids,
+                             @Param("createdFrom") LocalDateTime createdFrom,
+                             @Param("createdTo") LocalDateTime createdTo,
+                             @Param("fromStatus") String fromStatus,
+                             @Param("toStatus") String toStatus,
+                             @Param("now") LocalDateTime now);
+
+    // Moved rows no longer match, so repeated calls walk the whole selection without a cursor
+    @Query(value = """
+            WITH chunk AS (
+                SELECT id FROM orders
+                WHERE status = :fromStatus AND created_at >= :createdFrom AND created_at < :createdTo
+                LIMIT :limit
+                FOR UPDATE
+            )
+            UPDATE orders o SET status = :toStatus, version = o.version + 1, updated_at = :now
+            FROM chunk WHERE o.id = chunk.id
+            RETURNING o.id
+            """, nativeQuery = true)
+    List<UUID> transitionMatching(@Param("fromStatus") String fromStatus,
+                                  @Param("createdFrom") LocalDateTime createdFrom,
+                                  @Param("createdTo") LocalDateTime createdTo,
+                                  @Param("toStatus") String toStatus,
+                                  @Param("now") LocalDateTime now,
+                                  @Param("limit") int limit);
+
+    @Query(value = """
+            WITH chunk AS (
+                SELECT o.id FROM orders o
+                WHERE o.status = :fromStatus AND o.created_at >= :createdFrom AND o.created_at < :createdTo
+                  AND EXISTS (SELECT 1 FROM order_items i WHERE i.order_id = o.id
+                              AND i.order_created_at = o.created_at AND i.product_id = :productId)
+                LIMIT :limit
+                FOR UPDATE OF o
+            )
+            UPDATE orders o SET status = :toStatus, version = o.version + 1, updated_at = :now
+            FROM chunk WHERE o.id = chunk.id
+            RETURNING o.id
+            """, nativeQuery = true)
+    List<UUID> transitionMatchingProduct(@Param("fromStatus") String fromStatus,
+                                         @Param("productId") Long productId,
+                                         @Param("createdFrom") LocalDateTime createdFrom,
+                                         @Param("createdTo") LocalDateTime createdTo,
+                                         @Param("toStatus") String toStatus,
+                                         @Param("now") LocalDateTime now,
+                                         @Param("limit") int limit);
+
+    // Keyset pagination, newest first. Backed by idx_orders_created_at_id; no COUNT, no OFFSET.
+    // Read-only listing: rows are projected straight into OrderView (first item inlined), so no
+    // entities are hydrated or tracked and items cost no extra query. Partitions are scanned
+    // newest first and the scan stops at the limit; the plain created_at bound (row comparisons
+    // do not prune) skips the newer months, and order_created_at pins each item lookup to one
+    // partition.
+    @Query(value = """
+            SELECT o.id AS id, o.member_id AS "memberId", o.total_price AS "totalPrice", o.status AS status,
+                   o.version AS version, o.created_at AS "createdAt", o.updated_at AS "updatedAt",
+                   i.product_id AS "productId", i.quantity AS quantity
+            FROM orders o
+            LEFT JOIN LATERAL (SELECT product_id, quantity FROM order_items
+                               WHERE order_id = o.id AND order_created_at = o.created_at
+                               ORDER BY id LIMIT 1) i ON TRUE
+            ORDER BY o.created_at DESC, o.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<OrderView> findLatest(@Param("limit") int limit);
+
+    @Query(value = """
+            SELECT o.id AS id, o.member_id AS "memberId", o.total_price AS "totalPrice", o.status AS status,
+                   o.version AS version, o.created_at AS "createdAt", o.updated_at AS "updatedAt",
+                   i.product_id AS "productId", i.quantity AS quantity
+            FROM orders o
+            LEFT JOIN LATERAL (SELECT product_id, quantity FROM order_items
+                               WHERE order_id = o.id AND order_created_at = o.created_at
+                               ORDER BY id LIMIT 1) i ON TRUE
+            WHERE o.created_at <= :createdAt AND (o.created_at, o.id) < (:createdAt, :id)
+            ORDER BY o.created_at DESC, o.id DESC
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<OrderView> findLatestBefore(@Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") UUID id,
+                                     @Param("limit") int limit);
+
+    // What order statistics need of orders just moved by a status UPDATE; run in the same
+    // transaction, the rows are still locked by it
+    default List<StatsView> findStatsViews(Collection<UUID> ids) {
+        OrderIds.CreatedRange range = OrderIds.createdRange(ids);
+        return findStatsViews(ids, range.from(), range.to());
+    }
+
+    @Query("""
+            SELECT o.memberId AS memberId, o.totalPrice AS totalPrice, o.createdAt AS createdAt
+            FROM Order o
+            WHERE o.id IN :ids AND o.createdAt >= :createdFrom AND o.createdAt < :createdTo
+            """)
+    List<StatsView> findStatsViews(@Param("ids") Collection<UUID> ids,
+                                   @Param("createdFrom") LocalDateTime createdFrom,
+                                   @Param("createdTo") LocalDateTime createdTo);
+
+    interface OrderView {
+        UUID getId();
+
+        Long getMemberId();
+
+        Long getProductId();
+
+        Integer getQuantity();
+
+        BigDecimal getTotalPrice();
+
+        OrderStatus getStatus();
+
+        Long getVersion();
+
+        LocalDateTime getCreatedAt();
+
+        LocalDateTime getUpdatedAt();
+    }
+
+    interface StatsView {
+        Long getMemberId();
+
+        Money getTotalPrice();
+
+        LocalDateTime getCreatedAt();
+    }
 }
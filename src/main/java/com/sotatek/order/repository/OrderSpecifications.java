@@ -0,0 +1,85 @@
+package com.sotatek.order.repository;
+
+import com.sotatek.order.dto.OrderSearchCriteria;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderItem;
+import com.sotatek.order.entity.OrderStatus;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Building blocks for GET /api/orders/search. A null filter contributes no predicate, so
+// the generated SQL only carries the conditions the caller asked for (see V7 for indexes).
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> matching(OrderSearchCriteria criteria) {
+        return Specification.where(hasMember(criteria.getMemberId()))
+                .and(hasStatus(criteria.getStatus()))
+                .and(createdBetween(criteria.getCreatedFrom(), criteria.getCreatedTo()))
+                .and(priceBetween(criteria.getMinPrice(), criteria.getMaxPrice()))
+                .and(containsProduct(criteria.getProductId()));
+    }
+
+    public static Specification<Order> hasMember(Long memberId) {
+        return memberId == null ? null : (root, query, cb) -> cb.equal(root.get("memberId"), memberId);
+    }
+
+    public static Specification<Order> hasStatus(OrderStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Order> createdBetween(LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (from == null) {
+                return cb.lessThan(root.get("createdAt"), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+            }
+            return cb.and(cb.greaterThanOrEqualTo(root.get("createdAt"), from),
+                    cb.lessThan(root.get("createdAt"), to));
+        };
+    }
+
+    public static Specification<Order> priceBetween(BigDecimal min, BigDecimal max) {
+        if (min == null && max == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (min == null) {
+                return cb.lessThanOrEqualTo(root.get("totalPrice"), Money.of(max));
+            }
+            if (max == null) {
+                return cb.greaterThanOrEqualTo(root.get("totalPrice"), Money.of(min));
+            }
+            return cb.between(root.get("totalPrice"), Money.of(min), Money.of(max));
+        };
+    }
+
+    // EXISTS rather than a join: one row per order, and the count query stays a plain count.
+    // Matching the partition key as well keeps each probe to the order's own item partition.
+    public static Specification<Order> containsProduct(Long productId) {
+        if (productId == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            Subquery<Long> items = query.subquery(Long.class);
+            Root<OrderItem> item = items.from(OrderItem.class);
+            items.select(item.get("id"))
+                    .where(cb.equal(item.get("order"), root),
+                            cb.equal(item.get("orderCreatedAt"), root.get("createdAt")),
+                            cb.equal(item.get("productId"), productId));
+            return cb.exists(items);
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package com.sotatek.order.repository;
+
+import com.sotatek.order.entity.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// The rollup tables of V11. Writes only ever add to a row, so concurrent flushes from several
+// instances commute; callers pass rows in key order so they also lock in the same order.
+@Repository
+@RequiredArgsConstructor
+public class OrderStatsStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void addHourly(List<Delta> deltas, int batchSize) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO order_stats_hourly AS s (bucket_hour, status, order_count, revenue)
+                VALUES (?, ?, ?, ?)
+                ON CONFLICT (bucket_hour, status) DO UPDATE
+                SET order_count = s.order_count + EXCLUDED.order_count, revenue = s.revenue + EXCLUDED.revenue
+                """, deltas, batchSize, (statement, delta) -> {
+            statement.setTimestamp(1, Timestamp.valueOf(delta.hour()));
+            statement.setString(2, delta.status().name());
+            statement.setLong(3, delta.count());
+            statement.setBigDecimal(4, delta.revenue());
+        });
+    }
+
+    public void addMemberHourly(List<Delta> deltas, int batchSize) {
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO order_stats_member_hourly AS s (member_id, bucket_hour, status, order_count, revenue)
+                VALUES (?, ?, ?, ?, ?)
+                ON CONFLICT (member_id, bucket_hour, status) DO UPDATE
+                SET order_count = s.order_count + EXCLUDED.order_count, revenue = s.revenue + EXCLUDED.revenue
+                """, deltas, batchSize, (statement, delta) -> {
+            statement.setLong(1, delta.memberId());
+            statement.setTimestamp(2, Timestamp.valueOf(delta.hour()));
+            statement.setString(3, delta.status().name());
+            statement.setLong(4, delta.count());
+            statement.setBigDecimal(5, delta.revenue());
+        });
+    }
+
+    // Buckets of [from, to) at hour or day granularity, oldest first. Reads at most one row
+    // per hour and status (per member), however many orders there are.
+    public List<Bucket> buckets(LocalDateTime from, LocalDateTime to, Long memberId, boolean daily) {
+        String bucket = daily ? "date_trunc('day', bucket_hour)" : "bucket_hour";
+        StringBuilder sql = new StringBuilder("SELECT ").append(bucket)
+                .append(" AS bucket, status, sum(order_count), sum(revenue) FROM ")
+                .append(memberId == null ? "order_stats_hourly" : "order_stats_member_hourly")
+                .append(" WHERE bucket_hour >= ? AND bucket_hour < ?");
+        List<Object> args = new ArrayList<>(List.of(Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        if (memberId != null) {
+            sql.append(" AND member_id = ?");
+            args.add(memberId);
+        }
+        sql.append(" GROUP BY bucket, status HAVING sum(order_count) <> 0 ORDER BY bucket, status");
+        return jdbcTemplate.query(sql.toString(), (row, rowNum) -> new Bucket(
+                row.getTimestamp(1).toLocalDateTime(),
+                OrderStatus.valueOf(row.getString(2)),
+                row.getLong(3),
+                row.getBigDecimal(4)), args.toArray());
+    }
+
+    // memberId is ignored for the hourly table
+    public record Delta(LocalDateTime hour, long memberId, OrderStatus status, long count, BigDecimal revenue) {
+    }
+
+    public record Bucket(LocalDateTime start, OrderStatus status, long count, BigDecimal revenue) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.sotatek.order.repository;
+
+import com.sotatek.order.entity.OutboxEvent;
+import com.sotatek.order.entity.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    // Due NEW events plus PROCESSING events whose lease expired (crashed dispatcher).
+    // SKIP LOCKED lets several instances drain the outbox without blocking each other.
+    @Query(value = """
+            SELECT * FROM outbox_events
+            WHERE status IN ('NEW', 'PROCESSING') AND next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> lockDueEvents(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Claims a single NEW event for immediate hand-off; 0 means the poller got it first
+    @Modifying
+    @Query("""
+            UPDATE OutboxEvent e SET e.status = :claimed, e.nextAttemptAt = :leaseUntil, e.updatedAt = :now
+            WHERE e.id = :id AND e.status = :expected
+            """)
+    int claim(@Param("id") UUID id,
+              @Param("expected") OutboxStatus expected,
+              @Param("claimed") OutboxStatus claimed,
+              @Param("now") LocalDateTime now,
+              @Param("leaseUntil") LocalDateTime leaseUntil);
+}
@@ -0,0 +1,125 @@
+package com.sotatek.order.repository;
+
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderIds;
+import com.sotatek.order.entity.OrderItem;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.entity.OutboxEvent;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// R2DBC access to orders/order_items/outbox_events for the reactive endpoints. Plain SQL on the
+// JPA-managed schema: ids and timestamps are assigned by the caller, as Hibernate would.
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "order.reactive", name = "enabled", havingValue = "true")
+public class ReactiveOrderStore {
+
+    private static final String SELECT_VIEW = """
+            SELECT o.id, o.member_id, o.total_price, o.status, o.version, o.created_at, o.updated_at,
+                   i.product_id, i.quantity
+            FROM orders o
+            LEFT JOIN LATERAL (SELECT product_id, quantity FROM order_items
+                               WHERE order_id = o.id AND order_created_at = o.created_at
+                               ORDER BY id LIMIT 1) i ON TRUE
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    // Callers run this inside a TransactionalOperator, like OrderService's TransactionTemplate
+    public Mono<Void> insert(Order order, OutboxEvent event) {
+        Mono<Void> insertOrder = databaseClient.sql("""
+                        INSERT INTO orders (id, member_id, total_price, status, created_at, updated_at)
+                        VALUES (:id, :memberId, :totalPrice, :status, :createdAt, :updatedAt)
+                        """)
+                .bind("id", order.getId())
+                .bind("memberId", order.getMemberId())
+                .bind("totalPrice", order.getTotalPrice().toBigDecimal())
+                .bind("status", order.getStatus().name())
+                .bind("createdAt", order.getCreatedAt())
+                .bind("updatedAt", order.getUpdatedAt())
+                .then();
+        Mono<Void> insertItems = order.getOrderItems().isEmpty() ? Mono.empty() : insertItems(order);
+        Mono<Void> insertEvent = databaseClient.sql("""
+                        INSERT INTO outbox_events (id, aggregate_id, event_type, status, attempts,
+                                                   next_attempt_at, created_at, updated_at)
+                        VALUES (:id, :aggregateId, :eventType, :status, 0, :nextAttemptAt, :createdAt, :updatedAt)
+                        """)
+                .bind("id", event.getId())
+                .bind("aggregateId", event.getAggregateId())
+                .bind("eventType", event.getEventType().name())
+                .bind("status", event.getStatus().name())
+                .bind("nextAttemptAt", event.getNextAttemptAt())
+                .bind("createdAt", event.getCreatedAt())
+                .bind("updatedAt", event.getUpdatedAt())
+                .then();
+        return insertOrder.then(insertItems).then(insertEvent);
+    }
+
+    // The created_at range of the id keeps the lookup to its own partition
+    public Mono<OrderResponseDTO> findById(UUID id) {
+        OrderIds.CreatedRange range = OrderIds.createdRange(id);
+        return databaseClient.sql(SELECT_VIEW
+                        + "WHERE o.id = :id AND o.created_at >= :createdFrom AND o.created_at < :createdTo")
+                .bind("id", id)
+                .bind("createdFrom", range.from())
+                .bind("createdTo", range.to())
+                .map(ReactiveOrderStore::toResponse)
+                .one();
+    }
+
+    // Same rows as OrderRepository#findLatest
+    public Flux<OrderResponseDTO> findLatest(int limit) {
+        return databaseClient.sql(SELECT_VIEW + "ORDER BY o.created_at DESC, o.id DESC LIMIT :limit")
+                .bind("limit", limit)
+                .map(ReactiveOrderStore::toResponse)
+                .all();
+    }
+
+    // All lines in one statement, passed as parallel arrays. A plain nextval() is never handed
+    // out by Hibernate's pooled optimizer, whose blocks end at the values it fetched itself,
+    // so the ids cannot collide
+    private Mono<Void> insertItems(Order order) {
+        List<OrderItem> items = order.getOrderItems();
+        return databaseClient.sql("""
+                        INSERT INTO order_items (id, order_id, order_created_at, product_id, quantity, price)
+                        SELECT nextval('order_items_seq'), :orderId, :orderCreatedAt,
+                               line.product_id, line.quantity, line.price
+                        FROM unnest(:productIds::bigint[], :quantities::integer[], :prices::numeric[])
+                             WITH ORDINALITY AS line(product_id, quantity, price, position)
+                        ORDER BY line.position
+                        """)
+                .bind("orderId", order.getId())
+                .bind("orderCreatedAt", order.getCreatedAt())
+                .bind("productIds", items.stream().map(OrderItem::getProductId).toArray(Long[]::new))
+                .bind("quantities", items.stream().map(OrderItem::getQuantity).toArray(Integer[]::new))
+                .bind("prices", items.stream().map(item -> item.getPrice().toBigDecimal()).toArray(BigDecimal[]::new))
+                .then();
+    }
+
+    private static OrderResponseDTO toResponse(Readable row) {
+        return OrderResponseDTO.builder()
+                .id(row.get("id", UUID.class))
+                .memberId(row.get("member_id", Long.class))
+                .productId(row.get("product_id", Long.class))
+                .quantity(row.get("quantity", Integer.class))
+                .totalPrice(Money.of(row.get("total_price", BigDecimal.class)))
+                .status(OrderStatus.valueOf(row.get("status", String.class)))
+                .version(row.get("version", Long.class))
+                .createdAt(row.get("created_at", LocalDateTime.class))
+                .updatedAt(row.get("updated_at", LocalDateTime.class))
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.ConcurrencyLimitProperties;
+import com.sotatek.order.exception.OrderOverloadedException;
+import com.sotatek.order.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Adaptive cap on concurrent order creates (AIMD). Every create that finishes within
+// latencyThreshold while the limit is at least half used raises the limit by one; a slower
+// create, or one failing with ServiceUnavailableException (downstream timeout or 5xx), cuts
+// it by backoffRatio. Creates over the limit are rejected at once with OrderOverloadedException
+// (503 + Retry-After) instead of queueing on request threads until everyone times out.
+@Component
+@Slf4j
+public class OrderAdmissionLimiter {
+
+    static final String METRIC_PREFIX = "order.admission";
+
+    private final ConcurrencyLimitProperties properties;
+    private final LongSupplier nanoClock;
+    private final Counter rejected;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private double estimatedLimit; // guarded by lock
+    private volatile int limit;
+
+    @Autowired
+    public OrderAdmissionLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    OrderAdmissionLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.estimatedLimit = clamp(properties.getInitialLimit());
+        this.limit = (int) estimatedLimit;
+        this.rejected = Counter.builder(METRIC_PREFIX + ".rejected").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".limit", this, OrderAdmissionLimiter::getLimit).register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".in.flight", inFlight, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> create) {
+        if (!properties.isEnabled()) {
+            return create.get();
+        }
+        int inFlightAtStart = acquire();
+        long start = nanoClock.getAsLong();
+        boolean dropped = false;
+        try {
+            return create.get();
+        } catch (ServiceUnavailableException e) {
+            dropped = true;
+            throw e;
+        } finally {
+            inFlight.decrementAndGet();
+            onSample(nanoClock.getAsLong() - start, inFlightAtStart, dropped);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    // Takes a slot unless the limit is reached; returns the number in flight including this one
+    private int acquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                throw new OrderOverloadedException("Too many orders in progress (limit " + limit + "), retry later",
+                        properties.getRetryAfter());
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    void onSample(long latencyNanos, int inFlightAtStart, boolean dropped) {
+        lock.lock();
+        try {
+            int previous = limit;
+            if (dropped || latencyNanos > properties.getLatencyThreshold().toNanos()) {
+                estimatedLimit = clamp(estimatedLimit * properties.getBackoffRatio());
+            } else if (inFlightAtStart * 2 >= estimatedLimit) {
+                // Only a limit that is actually being used is raised
+                estimatedLimit = clamp(estimatedLimit + 1);
+            }
+            limit = (int) estimatedLimit;
+            if (limit < previous && limit == properties.getMinLimit()) {
+                log.warn("Order create limit at minimum {}: latency {} ms, dropped={}",
+                        limit, latencyNanos / 1_000_000, dropped);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), value));
+    }
+}
@@ -0,0 +1,182 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.BatchOrderProperties;
+import com.sotatek.order.dto.OrderBatchItemResultDTO;
+import com.sotatek.order.dto.OrderBatchResponseDTO;
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.entity.OutboxEvent;
+import com.sotatek.order.entity.OutboxEventType;
+import com.sotatek.order.infrastructure.client.dto.MemberResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.mapper.OrderMapper;
+import com.sotatek.order.repository.OrderRepository;
+import com.sotatek.order.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderBatchService {
+
+    private final OrderRepository repository;
+    private final OutboxEventRepository outboxRepository;
+    private final OrderMapper mapper;
+    private final OrderValidator validator;
+    private final StockLedger stockLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchOrderProperties properties;
+    private final OrderStatsRecorder statsRecorder;
+
+    public OrderBatchResponseDTO createOrders(List<OrderRequestDTO> requests) {
+        log.info("Creating batch of {} orders", requests.size());
+
+        // 1. Deduplicate lookups across the batch
+        Set<Long> memberIds = new LinkedHashSet<>();
+        Map<Long, Integer> productQuantities = new HashMap<>();
+        for (OrderRequestDTO request : requests) {
+            memberIds.add(request.getMemberId());
+            request.quantitiesByProduct().forEach((productId, quantity) ->
+                    productQuantities.merge(productId, quantity, Integer::sum));
+        }
+        OrderValidator.BatchLookup lookup = validator.lookupAll(memberIds, productQuantities,
+                properties.getLookupTimeout());
+        log.debug("Batch lookups: {} members, {} products", memberIds.size(), productQuantities.size());
+
+        // 2. Validate each line against the shared lookups, allocating stock in request order
+        OrderBatchItemResultDTO[] results = new OrderBatchItemResultDTO[requests.size()];
+        Map<Long, Integer> remainingStock = new HashMap<>();
+        List<Order> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            OrderRequestDTO request = requests.get(i);
+            String error = validate(request, lookup, remainingStock);
+            if (error != null) {
+                results[i] = OrderBatchItemResultDTO.builder().index(i).error(error).build();
+                continue;
+            }
+            accepted.add(toPendingOrder(request));
+            acceptedIndexes.add(i);
+        }
+
+        // 3. Persist in chunks; each chunk is one short transaction of batched inserts
+        int settled = 0; // accepted orders whose reservation is persisted or abandoned
+        try {
+            for (int from = 0; from < accepted.size(); from += properties.getChunkSize()) {
+                int to = Math.min(from + properties.getChunkSize(), accepted.size());
+                List<Order> chunk = accepted.subList(from, to);
+                try {
+                    persist(chunk);
+                } catch (DataAccessException e) {
+                    log.error("Failed to persist batch chunk [{}, {})", from, to, e);
+                    chunk.forEach(order -> stockLedger.abandon(order.getOrderItems()));
+                    settled = to;
+                    for (int j = from; j < to; j++) {
+                        int index = acceptedIndexes.get(j);
+                        results[index] = OrderBatchItemResultDTO.builder()
+                                .index(index).error("Persistence failed: " + e.getMostSpecificCause().getMessage())
+                                .build();
+                    }
+                    continue;
+                }
+                chunk.forEach(order -> stockLedger.persisted(order.getOrderItems()));
+                settled = to;
+                for (int j = from; j < to; j++) {
+                    Order order = accepted.get(j);
+                    int index = acceptedIndexes.get(j);
+                    results[index] = OrderBatchItemResultDTO.builder()
+                            .index(index).orderId(order.getId()).status(order.getStatus()).build();
+                }
+            }
+        } finally {
+            // Anything else failing a chunk ends the batch: that chunk and the ones after it
+            // were never written, so their reservations go back
+            accepted.subList(settled, accepted.size())
+                    .forEach(order -> stockLedger.abandon(order.getOrderItems()));
+        }
+
+        List<OrderBatchItemResultDTO> resultList = List.of(results);
+        int acceptedCount = (int) resultList.stream().filter(result -> result.getError() == null).count();
+        log.info("Batch finished: {} accepted, {} rejected", acceptedCount, requests.size() - acceptedCount);
+        return OrderBatchResponseDTO.builder()
+                .accepted(acceptedCount)
+                .rejected(requests.size() - acceptedCount)
+                .results(resultList)
+                .build();
+    }
+
+    private String validate(OrderRequestDTO request, OrderValidator.BatchLookup lookup,
+                            Map<Long, Integer> remainingStock) {
+        MemberResponse member = lookup.members().get(request.getMemberId());
+        if (member == null) {
+            return "Member lookup failed: " + request.getMemberId();
+        }
+        if (!member.isExists() || !member.isActive()) {
+            return "Member invalid or inactive: " + request.getMemberId();
+        }
+
+        Map<Long, Integer> quantities = request.quantitiesByProduct();
+        for (Map.Entry<Long, Integer> quantity : quantities.entrySet()) {
+            ProductResponse product = lookup.products().get(quantity.getKey());
+            if (product == null) {
+                return "Product lookup failed: " + quantity.getKey();
+            }
+            int remaining = remainingStock.getOrDefault(quantity.getKey(), product.getStock());
+            if (!product.isAvailable() || remaining < quantity.getValue()) {
+                return "Insufficient stock for product " + quantity.getKey();
+            }
+        }
+
+        try {
+            OrderValidator.price(request, lookup.products());
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+
+        // All lines or none: a later product falling short hands back what the earlier ones took
+        Map<Long, Integer> taken = new HashMap<>();
+        for (Map.Entry<Long, Integer> quantity : quantities.entrySet()) {
+            if (!stockLedger.tryReserve(quantity.getKey(), quantity.getValue())) {
+                stockLedger.abandon(taken);
+                return "Insufficient stock for product " + quantity.getKey();
+            }
+            taken.put(quantity.getKey(), quantity.getValue());
+        }
+        quantities.forEach((productId, quantity) -> remainingStock.put(productId,
+                remainingStock.getOrDefault(productId, lookup.products().get(productId).getStock()) - quantity));
+        return null;
+    }
+
+    // Priced by validate(): product-service prices per line, the synced total on the order
+    private Order toPendingOrder(OrderRequestDTO request) {
+        Order order = mapper.toEntity(request);
+        order.setTotalPrice(request.getTotalPrice());
+        order.setStatus(OrderStatus.PENDING);
+        request.lines().forEach(line -> order.addItem(OrderService.itemOf(line)));
+        return order;
+    }
+
+    private void persist(List<Order> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            // UUID and pooled-sequence ids need no round trip, so with hibernate.order_inserts
+            // these flush as one batch per table
+            repository.saveAll(chunk);
+            outboxRepository.saveAll(chunk.stream()
+                    .map(order -> OutboxEvent.of(OutboxEventType.PAYMENT_REQUESTED, order.getId()))
+                    .toList());
+            chunk.forEach(order -> statsRecorder.created(OrderStatsRecorder.Snapshot.of(order)));
+        });
+    }
+}
@@ -0,0 +1,242 @@
+package com.sotatek.order.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sotatek.order.config.BulkTransitionProperties;
+import com.sotatek.order.dto.OrderBulkTransitionDTO;
+import com.sotatek.order.dto.OrderBulkTransitionStatusDTO;
+import com.sotatek.order.dto.OrderBulkTransitionStatusDTO.State;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.exception.BulkTransitionNotFoundException;
+import com.sotatek.order.exception.OrderOverloadedException;
+import com.sotatek.order.infrastructure.cache.OrderCache;
+import com.sotatek.order.repository.OrderItemRepository;
+import com.sotatek.order.repository.OrderItemRepository.ProductQuantity;
+import com.sotatek.order.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Mass cancellation and confirmation. Orders are moved by set-based UPDATEs of at most
+// chunkSize rows, each in its own short transaction, so no lock outlives a chunk and other
+// writers get in between chunks. Same rules as a single transition: the request is checked
+// before the job starts, and each row only moves from a status that may reach the target.
+// Progress lives in memory on the instance that runs the job. Order statistics are fed from
+// the moved rows, read back in the chunk's transaction.
+@Service
+@Slf4j
+public class OrderBulkTransitionService {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final OrderRepository repository;
+    private final OrderItemRepository itemRepository;
+    private final StockLedger stockLedger;
+    private final OrderCache orderCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor;
+    private final BulkTransitionProperties properties;
+    private final OrderStatsRecorder statsRecorder;
+
+    private final Cache<UUID, Job> jobs;
+
+    public OrderBulkTransitionService(OrderRepository repository,
+                                      OrderItemRepository itemRepository,
+                                      StockLedger stockLedger,
+                                      OrderCache orderCache,
+                                      TransactionTemplate transactionTemplate,
+                                      @Qualifier("orderBulkTransitionExecutor") ExecutorService executor,
+                                      BulkTransitionProperties properties,
+                                      OrderStatsRecorder statsRecorder) {
+        this.repository = repository;
+        this.itemRepository = itemRepository;
+        this.stockLedger = stockLedger;
+        this.orderCache = orderCache;
+        this.transactionTemplate = transactionTemplate;
+        this.executor = executor;
+        this.properties = properties;
+        this.statsRecorder = statsRecorder;
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getRetention())
+                .build();
+    }
+
+    public OrderBulkTransitionStatusDTO start(OrderBulkTransitionDTO request) {
+        OrderStatus to = request.getTo();
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        List<OrderStatus> sources;
+        if (byIds) {
+            sources = OrderService.sourcesOf(to);
+        } else {
+            OrderService.checkTransition(request.getStatus(), to);
+            sources = List.of(request.getStatus());
+        }
+
+        Job job = new Job(UUID.randomUUID(), to, byIds ? new LinkedHashSet<>(request.getIds()).size() : null);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, request, sources));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id);
+            throw new OrderOverloadedException("Too many bulk transitions running, retry later", Duration.ofSeconds(5));
+        }
+        return job.toDTO();
+    }
+
+    public OrderBulkTransitionStatusDTO getStatus(UUID jobId) {
+        Job job = jobs.getIfPresent(jobId);
+        if (job == null) {
+            throw new BulkTransitionNotFoundException("Bulk transition not found with ID: " + jobId);
+        }
+        return job.toDTO();
+    }
+
+    private void run(Job job, OrderBulkTransitionDTO request, List<OrderStatus> sources) {
+        try {
+            if (request.getIds() != null && !request.getIds().isEmpty()) {
+                runByIds(job, new ArrayList<>(new LinkedHashSet<>(request.getIds())), sources);
+            } else {
+                runByFilter(job, request);
+            }
+            job.finish(State.COMPLETED, null);
+            log.info("Bulk transition {} to {} done: {} moved, {} skipped in {} chunks",
+                    job.id, job.to, job.transitioned, job.skipped, job.chunks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.finish(State.FAILED, "interrupted");
+        } catch (RuntimeException e) {
+            log.error("Bulk transition {} to {} failed after {} orders", job.id, job.to, job.transitioned, e);
+            job.finish(State.FAILED, e.getMessage());
+        }
+    }
+
+    private void runByIds(Job job, List<UUID> ids, List<OrderStatus> sources) throws InterruptedException {
+        for (int start = 0; start < ids.size(); start += properties.getChunkSize()) {
+            List<UUID> chunk = ids.subList(start, Math.min(start + properties.getChunkSize(), ids.size()));
+            // One UPDATE per status an order may be moved from
+            List<UUID> moved = new ArrayList<>();
+            for (OrderStatus from : sources) {
+                moved.addAll(applyChunk(from, job.to, () -> repository.transitionAll(
+                        chunk, from.name(), job.to.name(), LocalDateTime.now())));
+            }
+            job.chunkDone(moved.size(), chunk.size() - moved.size());
+            pause();
+        }
+    }
+
+    private void runByFilter(Job job, OrderBulkTransitionDTO request) throws InterruptedException {
+        OrderStatus from = request.getStatus();
+        LocalDateTime createdFrom = request.getCreatedFrom() != null ? request.getCreatedFrom() : EPOCH;
+        // Orders created after the job started are left alone
+        LocalDateTime createdTo = request.getCreatedTo() != null ? request.getCreatedTo() : job.startedAt;
+        Long productId = request.getProductId();
+        List<UUID> moved;
+        do {
+            moved = applyChunk(from, job.to, () -> productId == null
+                    ? repository.transitionMatching(from.name(), createdFrom, createdTo,
+                            job.to.name(), LocalDateTime.now(), properties.getChunkSize())
+                    : repository.transitionMatchingProduct(from.name(), productId, createdFrom, createdTo,
+                            job.to.name(), LocalDateTime.now(), properties.getChunkSize()));
+            if (!moved.isEmpty()) {
+                job.chunkDone(moved.size(), 0);
+                pause();
+            }
+        } while (moved.size() == properties.getChunkSize());
+    }
+
+    // Runs one chunk UPDATE in its own transaction; cache and stock follow once it commits.
+    // The transaction must stay entity-free: the UPDATEs bypass the persistence context.
+    // A SUBMITTED order cancelled here while OutboxDispatcher validates it needs nothing more:
+    // the UPDATE bumps its version, so the dispatcher's PENDING write fails and drops the
+    // reservation, or the dispatcher committed first and the order is no longer SUBMITTED.
+    private List<UUID> applyChunk(OrderStatus from, OrderStatus to, Supplier<List<UUID>> update) {
+        List<UUID> moved = transactionTemplate.execute(status -> {
+            List<UUID> ids = update.get();
+            if (!ids.isEmpty()) {
+                repository.findStatsViews(ids).forEach(order -> statsRecorder.changed(
+                        OrderStatsRecorder.Snapshot.of(order, from), OrderStatsRecorder.Snapshot.of(order, to)));
+            }
+            return ids;
+        });
+        if (moved == null || moved.isEmpty()) {
+            return List.of();
+        }
+        // Only orders holding stock (PENDING, CONFIRMED) give it back. Items never change once
+        // an order leaves SUBMITTED, so reading them after the commit is safe.
+        if (from.holdsStock() && to == OrderStatus.CANCELLED) {
+            Map<Long, Integer> reserved = itemRepository.sumQuantityByProductForOrders(moved).stream()
+                    .collect(Collectors.toMap(ProductQuantity::getProductId, q -> q.getQuantity().intValue()));
+            stockLedger.release(reserved);
+        }
+        moved.forEach(orderCache::evict);
+        return moved;
+    }
+
+    private void pause() throws InterruptedException {
+        if (!properties.getChunkPause().isZero()) {
+            Thread.sleep(properties.getChunkPause().toMillis());
+        }
+    }
+
+    private static final class Job {
+        private final UUID id;
+        private final OrderStatus to;
+        private final Integer requested;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private State state = State.RUNNING;
+        private long transitioned;
+        private long skipped;
+        private int chunks;
+        private LocalDateTime finishedAt;
+        private String error;
+
+        private Job(UUID id, OrderStatus to, Integer requested) {
+            this.id = id;
+            this.to = to;
+            this.requested = requested;
+        }
+
+        synchronized void chunkDone(int moved, int notMoved) {
+            transitioned += moved;
+            skipped += notMoved;
+            chunks++;
+            if (chunks % 20 == 0) {
+                log.info("Bulk transition {} to {}: {} moved so far", id, to, transitioned);
+            }
+        }
+
+        synchronized void finish(State finalState, String message) {
+            state = finalState;
+            error = message;
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized OrderBulkTransitionStatusDTO toDTO() {
+            return OrderBulkTransitionStatusDTO.builder()
+                    .id(id)
+                    .to(to)
+                    .state(state)
+                    .requested(requested)
+                    .transitioned(transitioned)
+                    .skipped(skipped)
+                    .chunks(chunks)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
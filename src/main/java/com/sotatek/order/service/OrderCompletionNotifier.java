@@ -0,0 +1,31 @@
+package com.sotatek.order.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// In-process wake-up for long-polling clients. Waiters on another instance
+// simply time out and re-read the order, so this needs no shared state.
+@Component
+public class OrderCompletionNotifier {
+
+    private final ConcurrentMap<UUID, CompletableFuture<Void>> waiters = new ConcurrentHashMap<>();
+
+    public CompletableFuture<Void> register(UUID orderId) {
+        return waiters.computeIfAbsent(orderId, id -> new CompletableFuture<>());
+    }
+
+    public void release(UUID orderId, CompletableFuture<Void> completion) {
+        waiters.remove(orderId, completion);
+    }
+
+    public void notifyCompleted(UUID orderId) {
+        CompletableFuture<Void> completion = waiters.remove(orderId);
+        if (completion != null) {
+            completion.complete(null);
+        }
+    }
+}
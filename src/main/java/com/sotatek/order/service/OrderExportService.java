@@ -0,0 +1,218 @@
+package com.sotatek.order.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sotatek.order.config.OrderExportProperties;
+import com.sotatek.order.dto.OrderExportCriteria;
+import com.sotatek.order.dto.OrderExportFormat;
+import com.sotatek.order.exception.OrderOverloadedException;
+import com.sotatek.order.repository.OrderExportStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Full dumps of orders for finance. Rows are read through a forward-only cursor and written
+// to the response as they arrive, so memory stays flat whatever the size of the export: at
+// most fetchSize rows and one output buffer are held at a time. Field names and value formats
+// match OrderResponseDTO. A few exports may run at once, since each holds a connection and a
+// read-only transaction until the client has read everything.
+@Service
+@Slf4j
+public class OrderExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,memberId,totalPrice,status,version,createdAt,updatedAt\r\n";
+
+    private final OrderExportStore exportStore;
+    private final ObjectMapper objectMapper;
+    private final OrderExportProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Semaphore permits;
+
+    public OrderExportService(OrderExportStore exportStore,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              OrderExportProperties properties) {
+        this.exportStore = exportStore;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.permits = new Semaphore(properties.getMaxConcurrent());
+    }
+
+    // The slot is taken here, on the request thread, so a full service answers 503 before
+    // any byte is written. The body gives it back when it is done; the caller must call
+    // abandon() once the request completes, for when the body never ran at all.
+    public Export export(OrderExportCriteria criteria, OrderExportFormat format) {
+        if (!permits.tryAcquire()) {
+            throw new OrderOverloadedException("Too many order exports in progress", properties.getRetryAfter());
+        }
+        return new Export(out -> write(criteria, format, out), permits);
+    }
+
+    // One export slot. Released exactly once: by the body when it finishes, or by abandon()
+    // if the request ended first (client gone, dispatch rejected, async timeout before the
+    // body started). A body that lost that race does not run.
+    public static class Export implements StreamingResponseBody {
+
+        private static final int NEW = 0;
+        private static final int RUNNING = 1;
+        private static final int DONE = 2;
+
+        private final StreamingResponseBody body;
+        private final Semaphore permits;
+        private final AtomicInteger state = new AtomicInteger(NEW);
+
+        Export(StreamingResponseBody body, Semaphore permits) {
+            this.body = body;
+            this.permits = permits;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            if (!state.compareAndSet(NEW, RUNNING)) {
+                return;
+            }
+            try {
+                body.writeTo(out);
+            } finally {
+                state.set(DONE);
+                permits.release();
+            }
+        }
+
+        // No-op once the body has started; it releases the slot itself
+        public void abandon() {
+            if (state.compareAndSet(NEW, DONE)) {
+                permits.release();
+            }
+        }
+    }
+
+    void write(OrderExportCriteria criteria, OrderExportFormat format, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        RowWriter writer = format == OrderExportFormat.CSV ? new CsvWriter(out) : new NdjsonWriter(out);
+        long[] rows = new long[1];
+        try {
+            writer.begin();
+            readOnlyTransaction.executeWithoutResult(status ->
+                    exportStore.forEach(criteria, properties.getFetchSize(), resultSet -> {
+                        try {
+                            writer.row(resultSet);
+                        } catch (IOException e) {
+                            // Typically the client went away; ends the query and the transaction
+                            throw new UncheckedIOException(e);
+                        }
+                        rows[0]++;
+                    }));
+            writer.end();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Exported {} orders as {} in {} ms", rows[0], format, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static String timestamp(ResultSet row, int column) throws SQLException {
+        return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(row.getObject(column, LocalDateTime.class));
+    }
+
+    private interface RowWriter {
+        void begin() throws IOException;
+
+        void row(ResultSet row) throws IOException, SQLException;
+
+        void end() throws IOException;
+    }
+
+    // One JSON object per line, written field by field without building a DTO
+    private final class NdjsonWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void begin() {
+        }
+
+        @Override
+        public void row(ResultSet row) throws IOException, SQLException {
+            generator.writeStartObject();
+            generator.writeStringField("id", row.getString(1));
+            generator.writeNumberField("memberId", row.getLong(2));
+            generator.writeFieldName("totalPrice");
+            generator.writeNumber(row.getBigDecimal(3).toPlainString());
+            generator.writeStringField("status", row.getString(4));
+            generator.writeNumberField("version", row.getLong(5));
+            generator.writeStringField("createdAt", timestamp(row, 6));
+            generator.writeStringField("updatedAt", timestamp(row, 7));
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void end() throws IOException {
+            generator.flush();
+        }
+    }
+
+    // RFC 4180 with a header row. No value can contain a comma, quote or line break
+    // (uuids, numbers, enum names, timestamps), so nothing needs quoting.
+    private static final class CsvWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) {
+            writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        }
+
+        @Override
+        public void begin() throws IOException {
+            writer.write(CSV_HEADER);
+        }
+
+        @Override
+        public void row(ResultSet row) throws IOException, SQLException {
+            writer.write(row.getString(1));
+            writer.write(',');
+            writer.write(Long.toString(row.getLong(2)));
+            writer.write(',');
+            writer.write(row.getBigDecimal(3).toPlainString());
+            writer.write(',');
+            writer.write(row.getString(4));
+            writer.write(',');
+            writer.write(Long.toString(row.getLong(5)));
+            writer.write(',');
+            writer.write(timestamp(row, 6));
+            writer.write(',');
+            writer.write(timestamp(row, 7));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void end() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.sotatek.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.sotatek.order.config.IdempotencyProperties;
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.entity.IdempotencyKey;
+import com.sotatek.order.entity.IdempotencyStatus;
+import com.sotatek.order.exception.IdempotencyConflictException;
+import com.sotatek.order.exception.IdempotencyKeyMismatchException;
+import com.sotatek.order.exception.InvalidIdempotencyKeyException;
+import com.sotatek.order.repository.IdempotencyKeyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+// Idempotency-Key handling for order creation. Repeats of a completed key are answered from
+// memory (microseconds) or from the idempotency_keys table, never by running createOrder again.
+// Concurrent duplicates are turned away by a putIfAbsent on this instance and by the claim
+// statement across instances; the loser gets 409 and retries.
+// Only those in-memory repeats skip the database. A key's first use costs two statements
+// (claim, complete) and a repeat on an instance that has not seen it two more (failed claim,
+// read): without them a retry landing on another instance would create the order again.
+// See OrderIdempotencyBenchmark.
+@Service
+@Slf4j
+public class OrderIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+
+    private final Cache<String, Completed> completed;
+    private final ConcurrentMap<String, String> inFlight = new ConcurrentHashMap<>();
+
+    public OrderIdempotencyService(IdempotencyKeyRepository repository,
+                                   ObjectMapper objectMapper,
+                                   IdempotencyProperties properties) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaximumSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    public Result execute(String key, OrderRequestDTO request, Function<OrderRequestDTO, OrderResponseDTO> create) {
+        if (!properties.isEnabled()) {
+            return new Result(create.apply(request), false);
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        // Hashed before create() syncs the price into the request
+        String requestHash = hash(request);
+
+        Completed local = completed.getIfPresent(key);
+        if (local != null) {
+            return replay(key, local.requestHash(), requestHash, local.response());
+        }
+        if (inFlight.putIfAbsent(key, requestHash) != null) {
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is in progress");
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int claimed = repository.claim(key, requestHash, now,
+                    now.plus(properties.getClaimTimeout()), now.plus(properties.getTtl()));
+            if (claimed == 0) {
+                return fromStore(key, requestHash);
+            }
+
+            OrderResponseDTO created;
+            try {
+                created = create.apply(request);
+            } catch (RuntimeException e) {
+                repository.release(key, requestHash);
+                throw e;
+            }
+            try {
+                repository.complete(key, requestHash, created.getId(), write(created));
+            } catch (RuntimeException e) {
+                // The order exists; other instances see the claim until it times out
+                log.error("Could not record Idempotency-Key {} for order {}", key, created.getId(), e);
+            }
+            completed.put(key, new Completed(requestHash, created));
+            return new Result(created, false);
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.cleanup-interval:600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted;
+        int total = 0;
+        do {
+            deleted = repository.deleteExpired(now, properties.getCleanupBatchSize());
+            total += deleted;
+        } while (deleted == properties.getCleanupBatchSize());
+        if (total > 0) {
+            log.info("Purged {} expired idempotency keys", total);
+        }
+    }
+
+    private Result fromStore(String key, String requestHash) {
+        IdempotencyKey stored = repository.findById(key).orElse(null);
+        if (stored == null || stored.getStatus() != IdempotencyStatus.COMPLETED) {
+            // Claimed by a request still running, or released by a failed one a moment ago
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is in progress");
+        }
+        OrderResponseDTO response = read(stored.getResponse());
+        Result result = replay(key, stored.getRequestHash(), requestHash, response);
+        completed.put(key, new Completed(stored.getRequestHash(), response));
+        return result;
+    }
+
+    private Result replay(String key, String storedHash, String requestHash, OrderResponseDTO response) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException("Idempotency-Key " + key + " was used with a different request");
+        }
+        log.debug("Replaying order {} for Idempotency-Key {}", response.getId(), key);
+        return new Result(response, true);
+    }
+
+    private String hash(OrderRequestDTO request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot hash order request", e);
+        }
+    }
+
+    private String write(OrderResponseDTO response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order response", e);
+        }
+    }
+
+    private OrderResponseDTO read(String response) {
+        try {
+            return objectMapper.readValue(response, OrderResponseDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable stored response", e);
+        }
+    }
+
+    public record Result(OrderResponseDTO order, boolean replayed) {
+    }
+
+    private record Completed(String requestHash, OrderResponseDTO response) {
+    }
+}
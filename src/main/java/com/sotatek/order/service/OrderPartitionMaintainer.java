@@ -0,0 +1,131 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.PartitionProperties;
+import com.sotatek.order.repository.OrderPartitionStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.zip.GZIPOutputStream;
+
+// Keeps the monthly partitions of orders/order_items (V10) ahead of time and rolls old ones
+// out: a month past retention is detached, copied to <table>.csv.gz in the archive directory,
+// then dropped. Each step is its own transaction under a shared advisory lock, so a failed
+// export leaves a detached table that the next run picks up again. Months that still hold
+// SUBMITTED/PENDING orders stay attached.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPartitionMaintainer {
+
+    private final OrderPartitionStore partitionStore;
+    private final TransactionTemplate transactionTemplate;
+    private final PartitionProperties properties;
+
+    @Scheduled(fixedDelayString = "${order.partitioning.maintenance-interval:3600000}")
+    public void maintain() {
+        if (properties.isEnabled()) {
+            maintain(YearMonth.now());
+        }
+    }
+
+    void maintain(YearMonth current) {
+        boolean created = locked(() -> {
+            for (int ahead = 0; ahead <= properties.getPremakeMonths(); ahead++) {
+                partitionStore.createPartitions(current.plusMonths(ahead));
+            }
+        });
+        if (!created) {
+            log.debug("Partition maintenance running on another instance");
+            return;
+        }
+        if (properties.getRetentionMonths() > 0) {
+            YearMonth oldestKept = current.minusMonths(properties.getRetentionMonths());
+            for (YearMonth month : partitionStore.attachedMonths()) {
+                if (month.isBefore(oldestKept)) {
+                    detach(month);
+                }
+            }
+        }
+        for (YearMonth month : partitionStore.detachedMonths()) {
+            archive(month);
+        }
+    }
+
+    private void detach(YearMonth month) {
+        try {
+            locked(() -> {
+                if (partitionStore.hasOpenOrders(month)) {
+                    log.warn("Partition {} still has open orders, kept attached", OrderPartitionStore.ordersPartition(month));
+                    return;
+                }
+                partitionStore.detach(month, properties.getLockTimeout());
+                log.info("Detached partition {}", OrderPartitionStore.ordersPartition(month));
+            });
+        } catch (DataAccessException e) {
+            // Typically lock_timeout behind long-running writers; retried on the next run
+            log.warn("Could not detach partition {}: {}", OrderPartitionStore.ordersPartition(month), e.getMessage());
+        }
+    }
+
+    private void archive(YearMonth month) {
+        try {
+            locked(() -> {
+                // Exported tables are not exported again when dropping is off
+                export(OrderPartitionStore.ordersPartition(month));
+                export(OrderPartitionStore.itemsPartition(month));
+                if (properties.isDropAfterArchive()) {
+                    partitionStore.drop(month);
+                    log.info("Archived and dropped partition {}", OrderPartitionStore.ordersPartition(month));
+                }
+            });
+        } catch (DataAccessException | UncheckedIOException e) {
+            log.error("Could not archive partition {}", OrderPartitionStore.ordersPartition(month), e);
+        }
+    }
+
+    // Written to a temporary file and moved into place, so an archive on disk is always complete
+    private void export(String table) {
+        Path target = properties.getArchiveDirectory().resolve(table + ".csv.gz");
+        if (Files.exists(target)) {
+            return;
+        }
+        try {
+            Files.createDirectories(properties.getArchiveDirectory());
+            Path partial = Files.createTempFile(properties.getArchiveDirectory(), table, ".partial");
+            try {
+                long rows;
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(partial), 64 * 1024)) {
+                    rows = partitionStore.copyOut(table, out);
+                }
+                Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE);
+                log.info("Archived {} rows of {} to {}", rows, table, target);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // False when another instance holds the maintenance lock
+    private boolean locked(Runnable step) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (!partitionStore.tryLock()) {
+                return false;
+            }
+            step.run();
+            return true;
+        }));
+    }
+}
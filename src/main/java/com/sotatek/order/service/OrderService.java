@@ -1,33 +1,48 @@
 package com.sotatek.order.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sotatek.order.config.AsyncOrderProperties;
+import com.sotatek.order.dto.OrderCursor;
+import com.sotatek.order.dto.OrderLineDTO;
 import com.sotatek.order.dto.OrderRequestDTO;
 import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.dto.OrderSearchCriteria;
+import com.sotatek.order.dto.OrderSliceDTO;
+import com.sotatek.order.dto.OrderTransitionDTO;
 import com.sotatek.order.dto.OrderUpdateDTO;
+import com.sotatek.order.entity.Money;
 import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderItem;
 import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.entity.OutboxEvent;
+import com.sotatek.order.entity.OutboxEventType;
 import com.sotatek.order.exception.OrderNotFoundException;
+import com.sotatek.order.exception.OrderStateConflictException;
+import com.sotatek.order.infrastructure.cache.OrderCache;
 import com.sotatek.order.mapper.OrderMapper;
 import com.sotatek.order.repository.OrderRepository;
+import com.sotatek.order.repository.OrderSpecifications;
+import com.sotatek.order.repository.OutboxEventRepository;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-
-import com.sotatek.order.exception.InvalidMemberException;
-import com.sotatek.order.exception.OutOfStockException;
-import com.sotatek.order.exception.PaymentFailedException;
-import com.sotatek.order.infrastructure.client.MemberClient;
-import com.sotatek.order.infrastructure.client.PaymentClient;
-import com.sotatek.order.infrastructure.client.ProductClient;
-import com.sotatek.order.infrastructure.client.dto.MemberResponse;
-import com.sotatek.order.infrastructure.client.dto.PaymentRequest;
-import com.sotatek.order.infrastructure.client.dto.PaymentResponse;
-import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Transactional
@@ -35,98 +50,182 @@ import com.sotatek.order.infrastructure.client.dto.ProductResponse;
 @Slf4j
 public class OrderService {
 
+    private static final int MAX_SLICE_SIZE = 500;
+    // PENDING is reached through validation only; CONFIRMED also by hand, e.g. once a
+    // payment batch settles outside payment-service
+    private static final Set<OrderStatus> CLIENT_TARGETS = EnumSet.of(
+            OrderStatus.CONFIRMED, OrderStatus.SHIPPED, OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+    // Reads get their own bulkhead so a burst of creates waiting downstream cannot starve them,
+    // and a read storm cannot take every request thread either
+    private static final String READ_BULKHEAD = "orderReads";
+
     private final OrderRepository repository;
     private final OrderMapper mapper;
-    private final MemberClient memberClient;
-    private final ProductClient productClient;
-    private final PaymentClient paymentClient;
+    private final OrderValidator validator;
+    private final StockLedger stockLedger;
+    private final OrderCache orderCache;
+    private final OutboxEventRepository outboxRepository;
+    private final OutboxDispatcher outboxDispatcher;
+    private final OrderCompletionNotifier completionNotifier;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncOrderProperties asyncProperties;
+    private final ObservationRegistry observationRegistry;
+    private final OrderStatsRecorder statsRecorder;
 
+    // No surrounding transaction: remote validation must not hold a pooled connection
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderResponseDTO createOrder(OrderRequestDTO request) {
         log.info("Creating order for member: {}", request.getMemberId());
 
-        // 1. Validate Member
-        MemberResponse member = memberClient.getMember(request.getMemberId());
-        if (!member.isExists() || !member.isActive()) {
-            throw new InvalidMemberException("Member invalid or inactive: " + request.getMemberId());
-        }
+        // 1-3. Validate Member, Product & Stock (concurrently), sync and validate price, reserve stock
+        validator.validateAndPrice(request);
 
-        // 2. Validate Product & Stock
-        ProductResponse product = productClient.checkStock(request.getProductId(), request.getQuantity());
-        if (!product.isAvailable() || product.getStock() < request.getQuantity()) {
-            log.warn("Insufficient stock for product {} (requested: {}, available: {})",
-                    request.getProductId(), request.getQuantity(), product.getStock());
-            throw new OutOfStockException("Insufficient stock for product " + request.getProductId());
+        // 4. Save Order (PENDING) together with its payment request in one short transaction
+        Order order = mapper.toEntity(request);
+        order.setStatus(OrderStatus.PENDING);
+        request.lines().forEach(line -> order.addItem(itemOf(line)));
+        Order saved;
+        try {
+            saved = OrderStage.INITIAL_SAVE.observe(observationRegistry, () -> transactionTemplate.execute(status -> {
+                Order pending = repository.save(order);
+                outboxRepository.save(OutboxEvent.of(OutboxEventType.PAYMENT_REQUESTED, pending.getId()));
+                return pending;
+            }));
+        } catch (RuntimeException e) {
+            stockLedger.abandon(request.quantitiesByProduct());
+            throw e;
         }
+        stockLedger.persisted(request.quantitiesByProduct());
+        log.info("Created pending order with ID: {}", saved.getId());
+        statsRecorder.created(OrderStatsRecorder.Snapshot.of(saved));
 
-        // Optional: Sync price
-        if (product.getPrice() != null) {
-            request.setTotalPrice(product.getPrice().multiply(BigDecimal.valueOf(request.getQuantity())));
-        }
+        // 5. Payment is processed asynchronously by OutboxDispatcher (PENDING -> CONFIRMED/CANCELLED)
+        OrderResponseDTO created = mapper.toResponseDTO(saved);
+        orderCache.put(created); // the client polls it next
+        return created;
+    }
 
-        // 3. Validate Price
-        if (request.getTotalPrice().compareTo(BigDecimal.ZERO) <= 0) {
-            throw new IllegalArgumentException("Total price must be > 0");
-        }
+    // Async mode: persist the order as SUBMITTED and return immediately. Validation,
+    // price sync and payment finish on the outbox worker pool.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderResponseDTO submitOrder(OrderRequestDTO request) {
+        log.info("Submitting order for member: {}", request.getMemberId());
 
-        // 4. Save Order (PENDING)
+        String payload = writePayload(request);
         Order order = mapper.toEntity(request);
-        order.setStatus(OrderStatus.PENDING);
-        Order saved = repository.save(order);
-        log.info("Created pending order with ID: {}", saved.getId());
+        order.setStatus(OrderStatus.SUBMITTED);
+        // Client prices until the outbox worker syncs them
+        order.setTotalPrice(request.clientTotal());
+        request.lines().forEach(line -> order.addItem(itemOf(line)));
+        OutboxEvent submitted = OutboxEvent.of(OutboxEventType.ORDER_SUBMITTED, null, payload);
+        Order accepted = transactionTemplate.execute(status -> {
+            Order saved = repository.save(order);
+            submitted.setAggregateId(saved.getId());
+            outboxRepository.save(submitted); // persist() assigns the id on this instance
+            return saved;
+        });
+        log.info("Accepted order with ID: {}", accepted.getId());
+        statsRecorder.created(OrderStatsRecorder.Snapshot.of(accepted));
 
-        // 5. Process Payment (Synchronous)
+        OrderResponseDTO response = mapper.toResponseDTO(accepted);
+        orderCache.put(response);
+        outboxDispatcher.dispatchNow(submitted);
+        return response;
+    }
+
+    // Long-poll: completes once the order reaches a final status or the wait elapses,
+    // returning the order as it is at that moment
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<OrderResponseDTO> awaitCompletion(UUID id, Duration wait) {
+        CompletableFuture<Void> completion = completionNotifier.register(id);
+        OrderResponseDTO current;
         try {
-            PaymentResponse payment = paymentClient.processPayment(PaymentRequest.builder()
-                    .orderId(saved.getId())
-                    .amount(saved.getTotalPrice())
-                    .build());
-
-            if (payment.isSuccess()) {
-                log.info("Payment successful for order {}", saved.getId());
-                saved.setStatus(OrderStatus.CONFIRMED);
-                saved = repository.save(saved);
-            } else {
-                log.warn("Payment failed for order {}: {}", saved.getId(), payment.getMessage());
-                throw new PaymentFailedException("Payment failed: " + payment.getMessage());
-            }
-        } catch (Exception e) {
-            log.error("Payment error for order {}", saved.getId(), e);
-            throw new PaymentFailedException("Payment error: " + e.getMessage());
+            current = getOrderById(id);
+        } catch (OrderNotFoundException e) {
+            completionNotifier.release(id, completion);
+            throw e;
+        }
+        if (current.getStatus().isFinal()) {
+            completionNotifier.release(id, completion);
+            return CompletableFuture.completedFuture(current);
         }
 
-        return mapper.toResponseDTO(saved);
+        Duration timeout = wait.compareTo(asyncProperties.getMaxWait()) > 0 ? asyncProperties.getMaxWait() : wait;
+        return completion.copy()
+                .completeOnTimeout(null, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((ignored, error) -> completionNotifier.release(id, completion))
+                .thenApply(ignored -> getOrderById(id));
     }
 
-    @Transactional(readOnly = true)
+    // Status polls are served from OrderCache; only a miss opens a (repository) transaction
+    @Bulkhead(name = READ_BULKHEAD)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderResponseDTO getOrderById(UUID id) {
-        Order order = repository.findById(id)
-                .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + id));
-        return mapper.toResponseDTO(order);
+        return orderCache.get(id, this::loadOrder);
     }
 
+    // Items are initialised in batches of 50 (Order.orderItems @BatchSize), not per order
+    @Bulkhead(name = READ_BULKHEAD)
     @Transactional(readOnly = true)
     public Page<OrderResponseDTO> listOrders(Pageable pageable) {
         return repository.findAll(pageable).map(mapper::toResponseDTO);
     }
 
+    // Only the requested filters reach the WHERE clause; V7 indexes cover member, status and product
+    @Bulkhead(name = READ_BULKHEAD)
+    @Transactional(readOnly = true)
+    public Page<OrderResponseDTO> searchOrders(OrderSearchCriteria criteria, Pageable pageable) {
+        return repository.findAll(OrderSpecifications.matching(criteria), pageable).map(mapper::toResponseDTO);
+    }
+
+    // Cursor mode for deep listings: constant cost per page regardless of depth, no count query.
+    // One extra row is fetched to tell whether another page follows.
+    @Bulkhead(name = READ_BULKHEAD)
+    @Transactional(readOnly = true)
+    public OrderSliceDTO listOrdersAfter(String cursor, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_SLICE_SIZE);
+        List<OrderRepository.OrderView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repository.findLatest(limit + 1);
+        } else {
+            OrderCursor position = OrderCursor.decode(cursor);
+            rows = repository.findLatestBefore(position.createdAt(), position.id(), limit + 1);
+        }
+
+        boolean hasNext = rows.size() > limit;
+        List<OrderRepository.OrderView> page = hasNext ? rows.subList(0, limit) : rows;
+        OrderRepository.OrderView last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return OrderSliceDTO.builder()
+                .content(page.stream().map(mapper::toResponseDTO).toList())
+                .size(page.size())
+                .nextCursor(hasNext ? new OrderCursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .build();
+    }
+
     public OrderResponseDTO updateOrder(UUID id, OrderUpdateDTO updateRequest) {
-        Order existing = repository.findById(id)
+        Order existing = repository.findWithItemsById(id)
                 .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + id));
+        // Changes made after the client's read are rejected here; ones racing this update
+        // fail on @Version at flush
+        if (updateRequest.getVersion() != null && !updateRequest.getVersion().equals(existing.getVersion())) {
+            throw new OrderStateConflictException("Order " + id + " is at version " + existing.getVersion()
+                    + ", not " + updateRequest.getVersion());
+        }
+        OrderStatsRecorder.Snapshot before = OrderStatsRecorder.Snapshot.of(existing);
 
         // Partial update: chỉ thay đổi field nào được gửi lên
         if (updateRequest.getMemberId() != null) {
             existing.setMemberId(updateRequest.getMemberId());
         }
         if (updateRequest.getTotalPrice() != null) {
-            existing.setTotalPrice(updateRequest.getTotalPrice());
+            existing.setTotalPrice(Money.of(updateRequest.getTotalPrice()));
         }
-        if (updateRequest.getStatus() != null) {
-            // Có thể thêm business rule: chỉ cho phép cancel nếu đang PENDING hoặc
-            // CONFIRMED
-            if (updateRequest.getStatus() == OrderStatus.CANCELLED &&
-                    existing.getStatus() != OrderStatus.PENDING &&
-                    existing.getStatus() != OrderStatus.CONFIRMED) {
-                throw new IllegalStateException("Cannot cancel order in current status: " + existing.getStatus());
+        if (updateRequest.getStatus() != null && updateRequest.getStatus() != existing.getStatus()) {
+            checkTransition(existing.getStatus(), updateRequest.getStatus());
+            // Only orders holding stock (PENDING, CONFIRMED) give it back
+            if (updateRequest.getStatus() == OrderStatus.CANCELLED && existing.getStatus().holdsStock()) {
+                stockLedger.releaseAfterCommit(existing.getOrderItems());
             }
             existing.setStatus(updateRequest.getStatus());
         }
@@ -134,7 +233,74 @@ public class OrderService {
         // Lưu ý: Không update orderItems ở đây (nếu cần update items → cần endpoint
         // riêng hoặc logic phức tạp hơn)
 
-        Order updated = repository.save(existing);
+        // Flushed here so the response carries the new version (and a lost race fails now)
+        Order updated = repository.saveAndFlush(existing);
+        statsRecorder.changed(before, OrderStatsRecorder.Snapshot.of(updated));
+        // Evict rather than put: the commit may still fail
+        orderCache.evictAfterCommit(id);
         return mapper.toResponseDTO(updated);
     }
+
+    // Status change as one conditional UPDATE on (id, from, version): no SELECT on the way in,
+    // and a concurrent change turns into a 409 instead of a lost update
+    public OrderTransitionDTO transitionOrder(UUID id, OrderTransitionDTO transition) {
+        OrderStatus from = transition.getFrom();
+        OrderStatus to = transition.getTo();
+        checkTransition(from, to);
+        if (repository.transition(id, from, transition.getVersion(), to, LocalDateTime.now()) == 0) {
+            if (!repository.existsById(id)) {
+                throw new OrderNotFoundException("Order not found with ID: " + id);
+            }
+            throw new OrderStateConflictException("Order " + id + " is no longer " + from
+                    + " at version " + transition.getVersion());
+        }
+        repository.findStatsViews(List.of(id)).forEach(order -> statsRecorder.changed(
+                OrderStatsRecorder.Snapshot.of(order, from), OrderStatsRecorder.Snapshot.of(order, to)));
+        // Only orders holding stock (PENDING, CONFIRMED) give it back
+        if (from.holdsStock() && to == OrderStatus.CANCELLED) {
+            repository.findWithItemsById(id).ifPresent(order -> stockLedger.releaseAfterCommit(order.getOrderItems()));
+        }
+        orderCache.evictAfterCommit(id);
+        return OrderTransitionDTO.builder()
+                .from(from)
+                .to(to)
+                .version(transition.getVersion() + 1)
+                .build();
+    }
+
+    static void checkTransition(OrderStatus from, OrderStatus to) {
+        if (!CLIENT_TARGETS.contains(to) || !from.canTransitionTo(to)) {
+            throw new OrderStateConflictException("Cannot move an order from " + from + " to " + to);
+        }
+    }
+
+    // Statuses an order may be moved to target from, by hand
+    static List<OrderStatus> sourcesOf(OrderStatus to) {
+        if (!CLIENT_TARGETS.contains(to)) {
+            throw new OrderStateConflictException("Orders cannot be moved to " + to + " by hand");
+        }
+        return EnumSet.allOf(OrderStatus.class).stream().filter(from -> from.canTransitionTo(to)).toList();
+    }
+
+    private OrderResponseDTO loadOrder(UUID id) {
+        Order order = repository.findWithItemsById(id)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found with ID: " + id));
+        return mapper.toResponseDTO(order);
+    }
+
+    static OrderItem itemOf(OrderLineDTO line) {
+        return OrderItem.builder()
+                .productId(line.getProductId())
+                .quantity(line.getQuantity())
+                .price(line.getUnitPrice() != null ? line.getUnitPrice() : Money.ZERO)
+                .build();
+    }
+
+    private String writePayload(OrderRequestDTO request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize order request", e);
+        }
+    }
 }
@@ -0,0 +1,42 @@
+package com.sotatek.order.service;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import java.util.function.Supplier;
+
+// Stages of order processing. Each run is one observation: an order.stage{stage=...} timer
+// and, with tracing on, a span under the current request or outbox span.
+enum OrderStage {
+
+    MEMBER_VALIDATION("member-validation"),
+    STOCK_CHECK("stock-check"),
+    PRICE_SYNC("price-sync"),
+    STOCK_RESERVATION("stock-reservation"),
+    INITIAL_SAVE("initial-save"),
+    PAYMENT("payment"),
+    CONFIRM_SAVE("confirm-save");
+
+    static final String METRIC = "order.stage";
+
+    private final String tag;
+
+    OrderStage(String tag) {
+        this.tag = tag;
+    }
+
+    // Parented to the observation current at creation; observe() may then run on another thread
+    Observation observation(ObservationRegistry registry) {
+        return Observation.createNotStarted(METRIC, registry)
+                .contextualName("order " + tag)
+                .lowCardinalityKeyValue("stage", tag);
+    }
+
+    <T> T observe(ObservationRegistry registry, Supplier<T> work) {
+        return observation(registry).observe(work);
+    }
+
+    void observe(ObservationRegistry registry, Runnable work) {
+        observation(registry).observe(work);
+    }
+}
@@ -0,0 +1,206 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.OrderStatsProperties;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.repository.OrderRepository;
+import com.sotatek.order.repository.OrderStatsStore;
+import com.sotatek.order.repository.OrderStatsStore.Delta;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Incremental order statistics: every create and status change adds to an in-memory cell per
+// (creation hour, member, status), and flush() writes what changed since the last flush to
+// the V11 rollup tables. An order counts under its current status, so a change is -1 (and
+// -total) under the old key and +1 under the new one. Changes are counted once their
+// transaction commits.
+// Recording is lock-free: cells are LongAdders, which spread concurrent adds over striped
+// slots, and are never reset. The flusher alone keeps per cell what it has already written
+// and writes the difference, so no add can be lost between a read and a reset.
+// Cells unchanged over a flush are unlinked and flushed once more on the next run, which
+// picks up a writer that looked one up just before it was unlinked.
+// Deltas not yet flushed are lost if the process dies; rerunning the V11 backfill on empty
+// tables rebuilds the rollups.
+@Component
+@Slf4j
+public class OrderStatsRecorder {
+
+    private final OrderStatsStore statsStore;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderStatsProperties properties;
+
+    private final ConcurrentMap<Key, Cell> cells = new ConcurrentHashMap<>();
+    private List<Map.Entry<Key, Cell>> retiring = List.of(); // flush thread only
+
+    public OrderStatsRecorder(OrderStatsStore statsStore,
+                              TransactionTemplate transactionTemplate,
+                              OrderStatsProperties properties) {
+        this.statsStore = statsStore;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    public void created(Snapshot order) {
+        changed(null, order);
+    }
+
+    // before and after describe the same order; either may be null
+    public void changed(Snapshot before, Snapshot after) {
+        if (!properties.isEnabled() || (before != null && before.equals(after))) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(before, after);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(before, after);
+            }
+        });
+    }
+
+    private void apply(Snapshot before, Snapshot after) {
+        if (before != null) {
+            add(before, -1);
+        }
+        if (after != null) {
+            add(after, 1);
+        }
+    }
+
+    private void add(Snapshot order, int sign) {
+        Cell cell = cells.computeIfAbsent(new Key(order.createdAt().truncatedTo(ChronoUnit.HOURS), order.memberId(),
+                order.status()), key -> new Cell());
+        cell.count.add(sign);
+        cell.revenue.add(sign * order.totalPrice().minorUnits());
+    }
+
+    @Scheduled(fixedDelayString = "${order.stats.flush-interval:5000}")
+    public synchronized void flush() {
+        List<Map.Entry<Key, Cell>> flushing = new ArrayList<>(cells.entrySet());
+        flushing.addAll(retiring);
+
+        // Read once: what is written is exactly what the marks advance by
+        List<Pending> pending = new ArrayList<>();
+        List<Map.Entry<Key, Cell>> idle = new ArrayList<>();
+        for (Map.Entry<Key, Cell> entry : flushing) {
+            Cell cell = entry.getValue();
+            long count = cell.count.sum();
+            long revenue = cell.revenue.sum();
+            if (count != cell.flushedCount || revenue != cell.flushedRevenue) {
+                pending.add(new Pending(entry.getKey(), cell, count, revenue));
+            } else if (cells.get(entry.getKey()) == cell) {
+                idle.add(entry);
+            }
+        }
+        if (!pending.isEmpty() && !write(pending)) {
+            return; // retried next run; nothing was unlinked
+        }
+        pending.forEach(Pending::advance);
+
+        for (Map.Entry<Key, Cell> entry : idle) {
+            cells.remove(entry.getKey(), entry.getValue());
+        }
+        retiring = idle;
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    private boolean write(List<Pending> pending) {
+        pending.sort(Comparator.comparing(Pending::key, Key.ORDER));
+        List<Delta> memberDeltas = pending.stream()
+                .map(p -> new Delta(p.key.hour, p.key.memberId, p.key.status, p.countDelta(), revenue(p.revenueDelta())))
+                .toList();
+        Map<Key, long[]> hourly = new TreeMap<>(Key.ORDER);
+        for (Pending p : pending) {
+            long[] sums = hourly.computeIfAbsent(new Key(p.key.hour, 0L, p.key.status), key -> new long[2]);
+            sums[0] += p.countDelta();
+            sums[1] += p.revenueDelta();
+        }
+        List<Delta> hourlyDeltas = hourly.entrySet().stream()
+                .map(e -> new Delta(e.getKey().hour, 0L, e.getKey().status, e.getValue()[0], revenue(e.getValue()[1])))
+                .toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                statsStore.addHourly(hourlyDeltas, properties.getFlushBatchSize());
+                statsStore.addMemberHourly(memberDeltas, properties.getFlushBatchSize());
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not flush {} order stats cells, retrying next run: {}", pending.size(), e.getMessage());
+            return false;
+        }
+        log.debug("Flushed {} order stats cells", pending.size());
+        return true;
+    }
+
+    private static BigDecimal revenue(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, Money.SCALE);
+    }
+
+    // What the rollups count of an order: its member, total, status and creation hour
+    public record Snapshot(Long memberId, Money totalPrice, OrderStatus status, LocalDateTime createdAt) {
+
+        public static Snapshot of(Order order) {
+            return new Snapshot(order.getMemberId(), order.getTotalPrice(), order.getStatus(), order.getCreatedAt());
+        }
+
+        public static Snapshot of(OrderRepository.StatsView order, OrderStatus status) {
+            return new Snapshot(order.getMemberId(), order.getTotalPrice(), status, order.getCreatedAt());
+        }
+
+        public Snapshot withStatus(OrderStatus newStatus) {
+            return new Snapshot(memberId, totalPrice, newStatus, createdAt);
+        }
+    }
+
+    private record Key(LocalDateTime hour, long memberId, OrderStatus status) {
+        static final Comparator<Key> ORDER = Comparator.comparing(Key::hour)
+                .thenComparingLong(Key::memberId)
+                .thenComparing(Key::status);
+    }
+
+    private static final class Cell {
+        final LongAdder count = new LongAdder();
+        final LongAdder revenue = new LongAdder(); // minor units
+        long flushedCount;   // flush thread only
+        long flushedRevenue;
+    }
+
+    private record Pending(Key key, Cell cell, long count, long revenue) {
+        long countDelta() {
+            return count - cell.flushedCount;
+        }
+
+        long revenueDelta() {
+            return revenue - cell.flushedRevenue;
+        }
+
+        void advance() {
+            cell.flushedCount = count;
+            cell.flushedRevenue = revenue;
+        }
+    }
+}
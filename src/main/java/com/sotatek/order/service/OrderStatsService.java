@@ -0,0 +1,88 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.OrderStatsProperties;
+import com.sotatek.order.dto.OrderStatsCriteria;
+import com.sotatek.order.dto.OrderStatsDTO;
+import com.sotatek.order.dto.OrderStatsDTO.Granularity;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.exception.InvalidStatsRangeException;
+import com.sotatek.order.repository.OrderStatsStore;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Dashboard statistics, answered from the rollups kept by OrderStatsRecorder and never from
+// orders: the cost depends on the number of hours asked for, not on the number of orders.
+// Figures lag behind orders by up to one flush interval.
+@Service
+@RequiredArgsConstructor
+public class OrderStatsService {
+
+    // At most a year of hourly buckets per request; longer ranges go by day
+    private static final Duration MAX_HOURLY_RANGE = Duration.ofDays(366);
+    private static final Duration MAX_DAILY_RANGE = Duration.ofDays(10 * 366);
+
+    private final OrderStatsStore statsStore;
+    private final OrderStatsProperties properties;
+
+    @Bulkhead(name = "orderReads")
+    @Transactional(readOnly = true)
+    public OrderStatsDTO getStats(OrderStatsCriteria criteria) {
+        // Rollups are hourly, so the range is widened to whole hours
+        LocalDateTime to = criteria.getTo() != null ? ceilToHour(criteria.getTo())
+                : LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        LocalDateTime from = criteria.getFrom() != null ? criteria.getFrom().truncatedTo(ChronoUnit.HOURS)
+                : to.minus(properties.getDefaultRange());
+        Granularity granularity = criteria.getGranularity() != null ? criteria.getGranularity() : Granularity.HOUR;
+        if (!from.isBefore(to)) {
+            throw new InvalidStatsRangeException("from must be before to");
+        }
+        Duration limit = granularity == Granularity.DAY ? MAX_DAILY_RANGE : MAX_HOURLY_RANGE;
+        if (Duration.between(from, to).compareTo(limit) > 0) {
+            throw new InvalidStatsRangeException("Range longer than " + limit.toDays() + " days for " + granularity + " buckets");
+        }
+
+        List<OrderStatsStore.Bucket> rows = statsStore.buckets(from, to, criteria.getMemberId(), granularity == Granularity.DAY);
+        Map<OrderStatus, long[]> totals = new EnumMap<>(OrderStatus.class);
+        for (OrderStatsStore.Bucket row : rows) {
+            long[] sums = totals.computeIfAbsent(row.status(), status -> new long[2]);
+            sums[0] += row.count();
+            sums[1] += Money.of(row.revenue()).minorUnits();
+        }
+        return OrderStatsDTO.builder()
+                .from(from)
+                .to(to)
+                .memberId(criteria.getMemberId())
+                .granularity(granularity)
+                .totals(totals.entrySet().stream()
+                        .map(total -> OrderStatsDTO.Bucket.builder()
+                                .status(total.getKey())
+                                .count(total.getValue()[0])
+                                .revenue(Money.ofMinor(total.getValue()[1]))
+                                .build())
+                        .toList())
+                .buckets(rows.stream()
+                        .map(row -> OrderStatsDTO.Bucket.builder()
+                                .start(row.start())
+                                .status(row.status())
+                                .count(row.count())
+                                .revenue(Money.of(row.revenue()))
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private static LocalDateTime ceilToHour(LocalDateTime time) {
+        LocalDateTime hour = time.truncatedTo(ChronoUnit.HOURS);
+        return hour.equals(time) ? hour : hour.plusHours(1);
+    }
+}
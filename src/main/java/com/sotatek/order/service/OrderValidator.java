@@ -0,0 +1,234 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.OrderValidationProperties;
+import com.sotatek.order.dto.OrderLineDTO;
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.exception.InvalidMemberException;
+import com.sotatek.order.exception.OutOfStockException;
+import com.sotatek.order.exception.ServiceUnavailableException;
+import com.sotatek.order.infrastructure.cache.MemberCache;
+import com.sotatek.order.infrastructure.client.dto.MemberResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderValidator {
+
+    private final MemberCache memberCache;
+    private final StockLedger stockLedger;
+    @Qualifier("orderValidationExecutor")
+    private final ExecutorService validationExecutor;
+    private final OrderValidationProperties properties;
+    private final ObservationRegistry observationRegistry;
+
+    // Runs member validation and stock check concurrently under one deadline.
+    // Member errors take precedence; the stock check still in flight is cancelled.
+    // All products of the order are checked together: one lookup per distinct product, in one call.
+    public Map<Long, ProductResponse> validate(OrderRequestDTO request) {
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        Map<Long, Integer> quantities = request.quantitiesByProduct();
+
+        // Created here so the stage spans are children of the caller's span
+        Observation memberStage = OrderStage.MEMBER_VALIDATION.observation(observationRegistry);
+        Observation stockStage = OrderStage.STOCK_CHECK.observation(observationRegistry);
+        Future<MemberResponse> memberFuture = validationExecutor
+                .submit(() -> memberStage.observe(() -> memberCache.getMember(request.getMemberId())));
+        Future<Map<Long, ProductResponse>> productFuture = validationExecutor
+                .submit(() -> stockStage.observe(() -> stockLedger.snapshotAll(quantities)));
+
+        try {
+            // 1. Validate Member
+            MemberResponse member = await(memberFuture, deadline, "member");
+            if (!member.isExists() || !member.isActive()) {
+                throw new InvalidMemberException("Member invalid or inactive: " + request.getMemberId());
+            }
+
+            // 2. Validate Product & Stock
+            Map<Long, ProductResponse> products = await(productFuture, deadline, "product");
+            checkStock(quantities, products);
+            return products;
+        } finally {
+            // No-op for completed futures; interrupts retries/backoff of abandoned ones
+            memberFuture.cancel(true);
+            productFuture.cancel(true);
+        }
+    }
+
+    // Steps 1-3 of order creation: validation, price sync from product-service, price check,
+    // then the stock reservation. On return the caller holds the reservation and must release
+    // it through StockLedger if the order is not persisted as PENDING.
+    public void validateAndPrice(OrderRequestDTO request) {
+        Map<Long, ProductResponse> products = validate(request);
+
+        // 3. Sync and validate price
+        OrderStage.PRICE_SYNC.observe(observationRegistry, () -> price(request, products));
+
+        // 4. Reserve stock; concurrent orders may have taken it since the snapshot
+        Map<Long, Integer> quantities = request.quantitiesByProduct();
+        boolean reserved = OrderStage.STOCK_RESERVATION.observe(observationRegistry,
+                () -> stockLedger.tryReserveAll(quantities));
+        if (!reserved) {
+            log.warn("Stock for order of member {} taken by concurrent orders (requested: {})",
+                    request.getMemberId(), quantities);
+            throw new OutOfStockException("Insufficient stock for products " + quantities.keySet());
+        }
+    }
+
+    // Every product must be available with enough stock for its summed quantity
+    static void checkStock(Map<Long, Integer> quantities, Map<Long, ProductResponse> products) {
+        quantities.forEach((productId, quantity) -> {
+            ProductResponse product = products.get(productId);
+            if (product == null || !product.isAvailable() || product.getStock() < quantity) {
+                log.warn("Insufficient stock for product {} (requested: {}, available: {})",
+                        productId, quantity, product == null ? 0 : product.getStock());
+                throw new OutOfStockException("Insufficient stock for product " + productId);
+            }
+        });
+    }
+
+    // Per-line price sync: product-service's unit price wins, the client's is the fallback.
+    // The single-line form keeps its client total unless product-service has a price.
+    static void price(OrderRequestDTO request, Map<Long, ProductResponse> products) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            Money price = products.get(request.getProductId()).getPrice();
+            if (price != null) {
+                request.setTotalPrice(price.times(request.getQuantity()));
+            }
+        } else {
+            List<OrderLineDTO> priced = new ArrayList<>(request.getItems().size());
+            Money.Total total = new Money.Total();
+            for (OrderLineDTO line : request.getItems()) {
+                Money price = products.get(line.getProductId()).getPrice();
+                Money unitPrice = price != null ? price : line.getUnitPrice();
+                if (unitPrice == null || unitPrice.signum() < 0) {
+                    throw new IllegalArgumentException("Unit price missing for product " + line.getProductId());
+                }
+                priced.add(new OrderLineDTO(line.getProductId(), line.getQuantity(), unitPrice));
+                total.add(unitPrice, line.getQuantity());
+            }
+            request.setItems(priced);
+            request.setTotalPrice(total.toMoney());
+        }
+
+        if (!request.getTotalPrice().isPositive()) {
+            throw new IllegalArgumentException("Total price must be > 0");
+        }
+    }
+
+    // Batch variant: every distinct product in one batched stock lookup, and the distinct members
+    // spread over at most batch-parallelism tasks instead of one task each, so a large bulk
+    // request cannot flood the validation pool. Failed or timed-out keys are left out.
+    public BatchLookup lookupAll(Set<Long> memberIds, Map<Long, Integer> productQuantities, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        Future<Map<Long, ProductResponse>> productFuture = validationExecutor
+                .submit(() -> stockLedger.snapshotAll(productQuantities));
+        Map<Long, MemberResponse> members = new ConcurrentHashMap<>();
+        List<Future<?>> memberFutures = new ArrayList<>();
+        for (List<Long> slice : slices(memberIds, properties.getBatchParallelism())) {
+            memberFutures.add(validationExecutor.submit(() -> lookupMembers(slice, members)));
+        }
+
+        // Past the deadline a missing product rejects its orders as unavailable; members looked
+        // up before it are kept
+        Map<Long, ProductResponse> products = new HashMap<>();
+        Map<Long, ProductResponse> found = awaitBatch(productFuture, deadline, "product");
+        if (found != null) {
+            found.forEach((id, product) -> {
+                if (product != null) {
+                    products.put(id, product);
+                }
+            });
+        }
+        memberFutures.forEach(memberFuture -> awaitBatch(memberFuture, deadline, "member"));
+        return new BatchLookup(new HashMap<>(members), products);
+    }
+
+    private void lookupMembers(List<Long> memberIds, Map<Long, MemberResponse> members) {
+        for (Long id : memberIds) {
+            if (Thread.currentThread().isInterrupted()) {
+                return; // past the deadline
+            }
+            try {
+                MemberResponse member = memberCache.getMember(id);
+                if (member != null) {
+                    members.put(id, member);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Batch member lookup failed for id {}: {}", id, e.toString());
+            }
+        }
+    }
+
+    private static List<List<Long>> slices(Set<Long> ids, int count) {
+        List<List<Long>> slices = new ArrayList<>();
+        int tasks = Math.max(1, count);
+        int size = Math.max(1, (ids.size() + tasks - 1) / tasks);
+        List<Long> slice = new ArrayList<>(size);
+        for (Long id : ids) {
+            slice.add(id);
+            if (slice.size() == size) {
+                slices.add(slice);
+                slice = new ArrayList<>(size);
+            }
+        }
+        if (!slice.isEmpty()) {
+            slices.add(slice);
+        }
+        return slices;
+    }
+
+    // null when the lookup failed or missed the deadline; the task is cancelled
+    private <T> T awaitBatch(Future<T> future, long deadline, String step) {
+        try {
+            return future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            log.warn("Batch {} lookup failed: {}", step, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        future.cancel(true);
+        return null;
+    }
+
+    public record BatchLookup(Map<Long, MemberResponse> members, Map<Long, ProductResponse> products) {
+    }
+
+    private <T> T await(Future<T> future, long deadline, String step) {
+        try {
+            return future.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Order validation deadline of {} exceeded waiting for {}", properties.getTimeout(), step);
+            throw new ServiceUnavailableException("Order validation timed out waiting for " + step + " service");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Order validation interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ServiceUnavailableException("Order validation failed for " + step + ": " + e.getCause());
+        }
+    }
+}
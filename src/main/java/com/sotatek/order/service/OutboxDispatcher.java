@@ -0,0 +1,318 @@
+package com.sotatek.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sotatek.order.config.OutboxProperties;
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderItem;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.entity.OutboxEvent;
+import com.sotatek.order.entity.OutboxEventType;
+import com.sotatek.order.entity.OutboxStatus;
+import com.sotatek.order.exception.InvalidMemberException;
+import com.sotatek.order.exception.OutOfStockException;
+import com.sotatek.order.infrastructure.cache.OrderCache;
+import com.sotatek.order.infrastructure.client.PaymentClient;
+import com.sotatek.order.infrastructure.client.dto.PaymentRequest;
+import com.sotatek.order.infrastructure.client.dto.PaymentResponse;
+import com.sotatek.order.repository.OrderRepository;
+import com.sotatek.order.repository.OutboxEventRepository;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxRepository;
+    private final OrderRepository orderRepository;
+    private final OrderValidator validator;
+    private final StockLedger stockLedger;
+    private final OrderCache orderCache;
+    private final PaymentClient paymentClient;
+    private final OrderCompletionNotifier completionNotifier;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    @Qualifier("outboxDispatchExecutor")
+    private final ExecutorService dispatchExecutor;
+    @Qualifier("orderSubmissionExecutor")
+    private final ExecutorService submissionExecutor;
+    private final OutboxProperties properties;
+    private final ObservationRegistry observationRegistry;
+    private final OrderStatsRecorder statsRecorder;
+
+    // Drains the outbox in batches. Remote calls happen outside any transaction;
+    // only the claim and the final status update hold a database connection.
+    @Scheduled(fixedDelayString = "${order.outbox.poll-interval:500}")
+    public void dispatch() {
+        List<OutboxEvent> batch;
+        do {
+            batch = claimBatch();
+            List<Future<?>> inFlight = batch.stream()
+                    .<Future<?>>map(event -> dispatchExecutor.submit(() -> process(event)))
+                    .toList();
+            for (Future<?> future : inFlight) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return; // unfinished events are re-claimed once their lease expires
+                } catch (ExecutionException e) {
+                    log.error("Outbox worker failed", e.getCause());
+                }
+            }
+        } while (batch.size() == properties.getBatchSize());
+    }
+
+    // Hands a freshly committed event straight to a worker instead of waiting for the
+    // next poll. If the pool is full, or the poller claims it first, nothing is lost.
+    public void dispatchNow(OutboxEvent event) {
+        try {
+            submissionExecutor.execute(() -> {
+                if (claim(event)) {
+                    process(event);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Submission pool full, outbox event {} left to the poller", event.getId());
+        }
+    }
+
+    private boolean claim(OutboxEvent event) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status -> outboxRepository.claim(
+                event.getId(), OutboxStatus.NEW, OutboxStatus.PROCESSING, now, now.plus(properties.getLease())));
+        if (claimed == null || claimed == 0) {
+            return false;
+        }
+        event.setStatus(OutboxStatus.PROCESSING);
+        return true;
+    }
+
+    private List<OutboxEvent> claimBatch() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> events = outboxRepository.lockDueEvents(now, properties.getBatchSize());
+            events.forEach(event -> {
+                event.setStatus(OutboxStatus.PROCESSING);
+                event.setNextAttemptAt(now.plus(properties.getLease()));
+            });
+            return outboxRepository.saveAll(events);
+        });
+    }
+
+    void process(OutboxEvent event) {
+        try {
+            // Parent of the stage observations of this event
+            Observation.createNotStarted("order.outbox", observationRegistry)
+                    .contextualName("outbox " + event.getEventType())
+                    .lowCardinalityKeyValue("type", event.getEventType().name())
+                    .observe(() -> {
+                        switch (event.getEventType()) {
+                            case ORDER_SUBMITTED -> processSubmission(event);
+                            case PAYMENT_REQUESTED -> processPayment(event);
+                        }
+                    });
+        } catch (Exception e) {
+            log.warn("Outbox event {} ({}) failed on attempt {}", event.getId(), event.getEventType(),
+                    event.getAttempts() + 1, e);
+            reschedule(event, e);
+        }
+    }
+
+    // Remainder of the createOrder pipeline for orders accepted with 202
+    private void processSubmission(OutboxEvent event) {
+        UUID orderId = event.getAggregateId();
+        Order order = orderRepository.findById(orderId).orElse(null);
+        if (order == null || order.getStatus() != OrderStatus.SUBMITTED) {
+            log.info("Skipping validation for order {}: no longer submitted", orderId);
+            complete(event, null, OutboxStatus.DONE);
+            return;
+        }
+
+        OrderRequestDTO request = readRequest(event);
+        try {
+            validator.validateAndPrice(request);
+        } catch (InvalidMemberException | OutOfStockException | IllegalArgumentException e) {
+            log.warn("Rejecting submitted order {}: {}", orderId, e.getMessage());
+            complete(event, OrderStatus.CANCELLED, OutboxStatus.DONE);
+            return;
+        }
+
+        // validateAndPrice reserved stock: keep it only if the order actually becomes PENDING
+        OutboxEvent payment;
+        try {
+            payment = transactionTemplate.execute(status -> {
+                event.setStatus(OutboxStatus.DONE);
+                outboxRepository.save(event);
+                Order submitted = orderRepository.findById(orderId)
+                        .filter(current -> current.getStatus() == OrderStatus.SUBMITTED)
+                        .orElse(null);
+                if (submitted == null) {
+                    return null; // cancelled while being validated
+                }
+                OrderStatsRecorder.Snapshot before = OrderStatsRecorder.Snapshot.of(submitted);
+                submitted.setStatus(OrderStatus.PENDING);
+                submitted.setTotalPrice(request.getTotalPrice());
+                Map<Long, Money> unitPrices = new HashMap<>();
+                request.lines().forEach(line -> unitPrices.putIfAbsent(line.getProductId(), line.getUnitPrice()));
+                submitted.getOrderItems().forEach(item -> item.setPrice(unitPrices.get(item.getProductId())));
+                statsRecorder.changed(before, OrderStatsRecorder.Snapshot.of(submitted));
+                return outboxRepository.save(OutboxEvent.of(OutboxEventType.PAYMENT_REQUESTED, orderId));
+            });
+        } catch (OptimisticLockingFailureException e) {
+            // Moved between the read and the commit, typically by a bulk cancel: its UPDATE bumped
+            // the version, so ours matched no row and nothing was written. Same as cancelled above.
+            log.info("Order {} changed while being validated, dropping its reservation", orderId);
+            stockLedger.abandon(request.quantitiesByProduct());
+            complete(event, null, OutboxStatus.DONE);
+            return;
+        } catch (RuntimeException e) {
+            stockLedger.abandon(request.quantitiesByProduct());
+            throw e;
+        }
+        if (payment == null) {
+            stockLedger.abandon(request.quantitiesByProduct());
+            return;
+        }
+        stockLedger.persisted(request.quantitiesByProduct());
+        orderCache.evict(orderId); // SUBMITTED -> PENDING
+        log.info("Validated submitted order {}, requesting payment", orderId);
+        dispatchNow(payment);
+    }
+
+    private void processPayment(OutboxEvent event) {
+        Order order = orderRepository.findById(event.getAggregateId()).orElse(null);
+        if (order == null || order.getStatus() != OrderStatus.PENDING) {
+            log.info("Skipping payment for order {}: no longer pending", event.getAggregateId());
+            complete(event, null, OutboxStatus.DONE);
+            return;
+        }
+
+        // Keyed by this event: a retry after the charge went through but the status update
+        // below failed must not charge the customer again
+        PaymentResponse payment = OrderStage.PAYMENT.observe(observationRegistry,
+                () -> paymentClient.processPayment(PaymentRequest.builder()
+                        .orderId(order.getId())
+                        .amount(order.getTotalPrice())
+                        .idempotencyKey(event.getId())
+                        .build()));
+
+        if (payment.isSuccess()) {
+            log.info("Payment successful for order {}", order.getId());
+        } else {
+            log.warn("Payment failed for order {}: {}", order.getId(), payment.getMessage());
+        }
+        OrderStatus result = payment.isSuccess() ? OrderStatus.CONFIRMED : OrderStatus.CANCELLED;
+        OrderStage.CONFIRM_SAVE.observe(observationRegistry, () -> completePayment(event, order, result));
+    }
+
+    // PENDING -> result as one conditional UPDATE on the status and version read before the
+    // payment call, instead of reloading the order. If the order changed meanwhile, falls back
+    // to complete(), which re-reads it and leaves orders that reached a final status alone.
+    private void completePayment(OutboxEvent event, Order order, OrderStatus result) {
+        List<OrderItem> released = transactionTemplate.execute(status -> {
+            if (orderRepository.transition(order.getId(), OrderStatus.PENDING, order.getVersion(), result,
+                    LocalDateTime.now()) == 0) {
+                return null;
+            }
+            OrderStatsRecorder.Snapshot before = OrderStatsRecorder.Snapshot.of(order);
+            statsRecorder.changed(before, before.withStatus(result));
+            List<OrderItem> reservation = result != OrderStatus.CANCELLED ? List.of()
+                    : orderRepository.findWithItemsById(order.getId())
+                            .map(cancelled -> List.copyOf(cancelled.getOrderItems()))
+                            .orElse(List.of());
+            event.setStatus(OutboxStatus.DONE);
+            outboxRepository.save(event);
+            return reservation;
+        });
+        if (released == null) {
+            log.info("Order {} changed during payment, re-reading it", order.getId());
+            complete(event, result, OutboxStatus.DONE);
+            return;
+        }
+        stockLedger.release(released);
+        orderCache.evict(order.getId()); // before waiters re-read the order
+        completionNotifier.notifyCompleted(order.getId());
+    }
+
+    private void complete(OutboxEvent event, OrderStatus orderStatus, OutboxStatus eventStatus) {
+        List<OrderItem> released = transactionTemplate.execute(status -> {
+            List<OrderItem> reservation = List.of();
+            Order order = orderStatus == null ? null : orderRepository.findById(event.getAggregateId())
+                    .filter(current -> !current.getStatus().isFinal())
+                    .orElse(null);
+            if (order != null) {
+                // A cancelled PENDING order gives its stock back; SUBMITTED ones never reserved any
+                if (order.getStatus() == OrderStatus.PENDING && orderStatus == OrderStatus.CANCELLED) {
+                    reservation = List.copyOf(order.getOrderItems());
+                }
+                OrderStatsRecorder.Snapshot before = OrderStatsRecorder.Snapshot.of(order);
+                order.setStatus(orderStatus);
+                statsRecorder.changed(before, before.withStatus(orderStatus));
+            }
+            event.setStatus(eventStatus);
+            outboxRepository.save(event);
+            return reservation;
+        });
+        if (released != null) {
+            stockLedger.release(released);
+        }
+        if (orderStatus != null) {
+            orderCache.evict(event.getAggregateId()); // before waiters re-read the order
+        }
+        if (orderStatus != null && orderStatus.isFinal()) {
+            completionNotifier.notifyCompleted(event.getAggregateId());
+        }
+    }
+
+    private OrderRequestDTO readRequest(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), OrderRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable payload for outbox event " + event.getId(), e);
+        }
+    }
+
+    private void reschedule(OutboxEvent event, Exception error) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(abbreviate(error.getMessage()));
+        if (attempts >= properties.getMaxAttempts()) {
+            log.error("Giving up on outbox event {} after {} attempts", event.getId(), attempts);
+            complete(event, OrderStatus.CANCELLED, OutboxStatus.FAILED);
+            return;
+        }
+        event.setStatus(OutboxStatus.NEW);
+        event.setNextAttemptAt(LocalDateTime.now()
+                .plus(properties.getRetryBackoff().multipliedBy(1L << (attempts - 1))));
+        outboxRepository.save(event);
+    }
+
+    private static String abbreviate(String message) {
+        if (message == null || message.length() <= 255) {
+            return message;
+        }
+        return message.substring(0, 255);
+    }
+}
@@ -0,0 +1,211 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.OrderValidationProperties;
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderIds;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.entity.OutboxEvent;
+import com.sotatek.order.entity.OutboxEventType;
+import com.sotatek.order.exception.InvalidMemberException;
+import com.sotatek.order.exception.OrderNotFoundException;
+import com.sotatek.order.exception.OutOfStockException;
+import com.sotatek.order.exception.ServiceUnavailableException;
+import com.sotatek.order.infrastructure.cache.OrderCache;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductStockQuery;
+import com.sotatek.order.infrastructure.client.reactive.ReactiveMemberClient;
+import com.sotatek.order.infrastructure.client.reactive.ReactiveProductClient;
+import com.sotatek.order.mapper.OrderMapper;
+import com.sotatek.order.repository.ReactiveOrderStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Non-blocking variant of OrderService#createOrder/getOrderById: WebClient for member/product,
+// R2DBC for persistence, no thread held while waiting on either. Same rules, same outbox
+// hand-off for payment, same stock ledger and order cache as the blocking path.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "order.reactive", name = "enabled", havingValue = "true")
+public class ReactiveOrderService {
+
+    private static final int MAX_LIST_SIZE = 500;
+
+    private final ReactiveMemberClient memberClient;
+    private final ReactiveProductClient productClient;
+    private final ReactiveOrderStore store;
+    private final OrderMapper mapper;
+    private final StockLedger stockLedger;
+    private final OrderCache orderCache;
+    private final TransactionalOperator transactionalOperator;
+    private final OrderValidationProperties validationProperties;
+    private final OrderStatsRecorder statsRecorder;
+
+    public Mono<OrderResponseDTO> createOrder(OrderRequestDTO request) {
+        return Mono.defer(() -> {
+            Reservation reservation = new Reservation(request.quantitiesByProduct());
+            return validate(request)
+                    .flatMap(products -> priceAndReserve(request, products, reservation))
+                    .then(Mono.defer(() -> persist(request, reservation)))
+                    // A client gone mid-insert rolls the transaction back; its stock goes back too
+                    .doOnCancel(reservation::abandon);
+        }).doOnNext(orderCache::put); // the client polls it next
+    }
+
+    public Mono<OrderResponseDTO> getOrderById(UUID id) {
+        return Mono.defer(() -> {
+            OrderResponseDTO cached = orderCache.getIfPresent(id);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            // Not cached on the way back: a write committed meanwhile could be overwritten
+            return store.findById(id)
+                    .switchIfEmpty(Mono.error(() -> new OrderNotFoundException("Order not found with ID: " + id)));
+        });
+    }
+
+    public Flux<OrderResponseDTO> listLatest(int size) {
+        return store.findLatest(Math.min(Math.max(size, 1), MAX_LIST_SIZE));
+    }
+
+    // Member and product checks run concurrently under the validation deadline; the first
+    // failure cancels the other call
+    private Mono<Map<Long, ProductResponse>> validate(OrderRequestDTO request) {
+        Map<Long, Integer> quantities = request.quantitiesByProduct();
+        Mono<Boolean> member = memberClient.getMember(request.getMemberId())
+                .filter(response -> response.isExists() && response.isActive())
+                .map(response -> true)
+                .switchIfEmpty(Mono.error(() ->
+                        new InvalidMemberException("Member invalid or inactive: " + request.getMemberId())));
+        Mono<Map<Long, ProductResponse>> products = checkStock(quantities)
+                .map(responses -> {
+                    OrderValidator.checkStock(quantities, responses);
+                    return responses;
+                });
+
+        return Mono.zip(member, products, (valid, responses) -> responses)
+                .timeout(validationProperties.getTimeout(), Mono.error(() -> {
+                    log.warn("Order validation deadline of {} exceeded", validationProperties.getTimeout());
+                    return new ServiceUnavailableException("Order validation timed out");
+                }));
+    }
+
+    // One call for all products of the order; a single product keeps the plain lookup
+    private Mono<Map<Long, ProductResponse>> checkStock(Map<Long, Integer> quantities) {
+        if (quantities.size() == 1) {
+            Map.Entry<Long, Integer> only = quantities.entrySet().iterator().next();
+            return productClient.checkStock(only.getKey(), only.getValue())
+                    .map(response -> Map.of(only.getKey(), response));
+        }
+        return productClient.checkStockBatch(quantities.entrySet().stream()
+                        .map(entry -> new ProductStockQuery(entry.getKey(), entry.getValue()))
+                        .toList())
+                .map(responses -> {
+                    Map<Long, ProductResponse> products = new HashMap<>();
+                    responses.forEach(response -> products.putIfAbsent(response.getId(), response));
+                    return products;
+                });
+    }
+
+    private Mono<Void> priceAndReserve(OrderRequestDTO request, Map<Long, ProductResponse> products,
+                                       Reservation reservation) {
+        try {
+            OrderValidator.price(request, products);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(e);
+        }
+        // The first reservation of a product seeds the ledger with a blocking lookup
+        Map<Long, Integer> quantities = request.quantitiesByProduct();
+        return Mono.fromCallable(reservation::take)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(reserved -> reserved ? Mono.<Void>empty() : Mono.error(() -> {
+                    log.warn("Stock for order of member {} taken by concurrent orders (requested: {})",
+                            request.getMemberId(), quantities);
+                    return new OutOfStockException("Insufficient stock for products " + quantities.keySet());
+                }));
+    }
+
+    // Order (PENDING) and its payment request in one transaction, as in OrderService
+    private Mono<OrderResponseDTO> persist(OrderRequestDTO request, Reservation reservation) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS); // TIMESTAMP precision
+        Order order = mapper.toEntity(request);
+        order.setId(OrderIds.of(now));
+        order.setStatus(OrderStatus.PENDING);
+        order.setVersion(0L); // column default of the plain INSERT
+        order.setCreatedAt(now);
+        order.setUpdatedAt(now);
+        request.lines().forEach(line -> order.addItem(OrderService.itemOf(line)));
+
+        OutboxEvent event = OutboxEvent.of(OutboxEventType.PAYMENT_REQUESTED, order.getId());
+        event.setId(UUID.randomUUID());
+        event.setCreatedAt(now);
+        event.setUpdatedAt(now);
+
+        return store.insert(order, event)
+                .as(transactionalOperator::transactional)
+                .doOnError(e -> reservation.abandon())
+                .doOnSuccess(ignored -> {
+                    reservation.persisted();
+                    statsRecorder.created(OrderStatsRecorder.Snapshot.of(order));
+                })
+                .then(Mono.fromSupplier(() -> {
+                    log.info("Created pending order with ID: {}", order.getId());
+                    return mapper.toResponseDTO(order);
+                }));
+    }
+
+    // Stock reserved for one order, settled exactly once however the create ends: moved to
+    // persisted with the order, or handed back on an error or a cancel. A cancel can arrive
+    // while tryReserveAll still runs on its worker; the reservation it then takes goes straight
+    // back instead of being dropped with the discarded result.
+    private final class Reservation {
+
+        private static final int NONE = 0;
+        private static final int HELD = 1;
+        private static final int SETTLED = 2;
+
+        private final Map<Long, Integer> quantities;
+        private final AtomicInteger state = new AtomicInteger(NONE);
+
+        private Reservation(Map<Long, Integer> quantities) {
+            this.quantities = quantities;
+        }
+
+        boolean take() {
+            if (!stockLedger.tryReserveAll(quantities)) {
+                return false;
+            }
+            if (!state.compareAndSet(NONE, HELD)) {
+                stockLedger.abandon(quantities);
+            }
+            return true;
+        }
+
+        void persisted() {
+            if (state.compareAndSet(HELD, SETTLED)) {
+                stockLedger.persisted(quantities);
+            }
+        }
+
+        void abandon() {
+            if (state.getAndSet(SETTLED) == HELD) {
+                stockLedger.abandon(quantities);
+            }
+        }
+    }
+}
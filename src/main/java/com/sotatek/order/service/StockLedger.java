@@ -0,0 +1,354 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.StockLedgerProperties;
+import com.sotatek.order.entity.OrderItem;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.infrastructure.cache.ProductStockLoader;
+import com.sotatek.order.infrastructure.client.ProductClient;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductStockQuery;
+import com.sotatek.order.repository.OrderItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// In-process stock reservations per product. An entry is seeded once from product-service
+// (minus the quantities of orders holding stock, see OrderStatus.HOLDING_STOCK), then orders
+// reserve against it locally: no remote call per order and no oversell between concurrent
+// orders on this instance.
+// A reservation is in flight until its order is committed (persisted) or given up (abandon);
+// reconcile() needs that to count reservations the database does not show yet. Reservations
+// are released when an order holding stock is cancelled.
+// Entries are guarded by a fixed set of striped locks rather than one lock per product.
+@Component
+@Slf4j
+public class StockLedger {
+
+    private final ProductStockLoader productStockLoader;
+    private final ProductClient productClient;
+    private final OrderItemRepository orderItemRepository;
+    private final StockLedgerProperties properties;
+
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+
+    public StockLedger(ProductStockLoader productStockLoader,
+                       ProductClient productClient,
+                       OrderItemRepository orderItemRepository,
+                       StockLedgerProperties properties) {
+        this.productStockLoader = productStockLoader;
+        this.productClient = productClient;
+        this.orderItemRepository = orderItemRepository;
+        this.properties = properties;
+        int size = Integer.highestOneBit(Math.max(1, properties.getStripes() * 2 - 1));
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Current view of a product: availability and price from the last sync, stock = what is
+    // left to reserve. Only the first lookup of a product goes remote.
+    public ProductResponse snapshot(Long productId, int quantity) {
+        if (!properties.isEnabled()) {
+            return productStockLoader.checkStock(productId, quantity);
+        }
+        Entry entry = entries.get(productId);
+        if (entry == null) {
+            ProductResponse product = seed(productId, quantity);
+            entry = entries.get(productId);
+            if (entry == null) {
+                return product; // unavailable products are not tracked
+            }
+        }
+        ReentrantLock lock = lockFor(productId);
+        lock.lock();
+        try {
+            return new ProductResponse(productId, entry.product.isAvailable(), entry.remaining,
+                    entry.product.getPrice());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // snapshot() for every product of an order: untracked products are seeded together, with
+    // one remote call and one database read instead of one of each per product
+    public Map<Long, ProductResponse> snapshotAll(Map<Long, Integer> quantities) {
+        if (!properties.isEnabled()) {
+            return productStockLoader.checkStockAll(quantities);
+        }
+        Map<Long, Integer> untracked = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (!entries.containsKey(productId)) {
+                untracked.put(productId, quantity);
+            }
+        });
+        Map<Long, ProductResponse> seeded = seedAll(untracked);
+
+        Map<Long, ProductResponse> products = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) -> products.put(productId, entries.containsKey(productId)
+                ? snapshot(productId, quantity)
+                : seeded.get(productId)));
+        return products;
+    }
+
+    // Atomically takes quantity units; false if they are not (or no longer) available
+    public boolean tryReserve(Long productId, int quantity) {
+        if (!properties.isEnabled()) {
+            return true; // validation's point-in-time check is the only guard
+        }
+        Entry entry = entries.get(productId);
+        if (entry == null) {
+            seed(productId, quantity);
+            entry = entries.get(productId);
+            if (entry == null) {
+                return false;
+            }
+        }
+        ReentrantLock lock = lockFor(productId);
+        lock.lock();
+        try {
+            if (!entry.product.isAvailable() || entry.remaining < quantity) {
+                return false;
+            }
+            entry.remaining -= quantity;
+            entry.reserved += quantity;
+            entry.inFlight += quantity;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Gives back the stock of a committed order, e.g. one cancelled while holding stock
+    public void release(Long productId, int quantity) {
+        settle(productId, quantity, true, false);
+    }
+
+    // The reservation is now held by a committed order: reconcile() sees it in the database
+    public void persisted(Map<Long, Integer> quantities) {
+        quantities.forEach((productId, quantity) -> settle(productId, quantity, false, true));
+    }
+
+    public void persisted(Collection<OrderItem> items) {
+        items.forEach(item -> settle(item.getProductId(), item.getQuantity(), false, true));
+    }
+
+    // The reservation will never be committed (failed or refused save): gives the stock back
+    public void abandon(Long productId, int quantity) {
+        settle(productId, quantity, true, true);
+    }
+
+    public void abandon(Map<Long, Integer> quantities) {
+        quantities.forEach(this::abandon);
+    }
+
+    public void abandon(Collection<OrderItem> items) {
+        items.forEach(item -> abandon(item.getProductId(), item.getQuantity()));
+    }
+
+    private void settle(Long productId, int quantity, boolean giveBack, boolean inFlight) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Entry entry = entries.get(productId);
+        if (entry == null) {
+            return; // the next seed reads held quantities from the database
+        }
+        ReentrantLock lock = lockFor(productId);
+        lock.lock();
+        try {
+            if (giveBack) {
+                entry.remaining += quantity;
+            }
+            if (inFlight) {
+                // An entry re-seeded since the reservation never counted it
+                entry.inFlight = Math.max(0L, entry.inFlight - quantity);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // All-or-nothing across the products of one order: units already taken are handed back
+    // when a later product falls short
+    public boolean tryReserveAll(Map<Long, Integer> quantities) {
+        Map<Long, Integer> taken = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> quantity : quantities.entrySet()) {
+            if (!tryReserve(quantity.getKey(), quantity.getValue())) {
+                abandon(taken);
+                return false;
+            }
+            taken.put(quantity.getKey(), quantity.getValue());
+        }
+        return true;
+    }
+
+    public void release(Map<Long, Integer> quantities) {
+        quantities.forEach(this::release);
+    }
+
+    public void release(Collection<OrderItem> items) {
+        items.forEach(item -> release(item.getProductId(), item.getQuantity()));
+    }
+
+    // Releases once the surrounding transaction commits, so a rolled back cancellation keeps its stock
+    public void releaseAfterCommit(Collection<OrderItem> items) {
+        List<OrderItem> released = List.copyOf(items);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(released);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(released);
+            }
+        });
+    }
+
+    // Re-derives every entry from product-service and the orders holding stock in the database.
+    // Each entry is marked first: reservations taken since the mark, and those still in flight
+    // at the mark, are subtracted on top of the database figure. Those the query already saw
+    // are subtracted twice, which can only under-count: the ledger errs on the side of refusing
+    // an order, never of overselling. The next run corrects it.
+    @Scheduled(fixedDelayString = "${order.stock-ledger.reconcile-interval:30000}")
+    public void reconcile() {
+        if (!properties.isEnabled() || entries.isEmpty()) {
+            return;
+        }
+        Map<Long, Mark> marks = new HashMap<>();
+        entries.forEach((productId, entry) -> marks.put(productId, mark(productId, entry)));
+
+        List<Long> productIds = new ArrayList<>(marks.keySet());
+        int updated = 0;
+        for (int from = 0; from < productIds.size(); from += properties.getReconcileBatchSize()) {
+            List<Long> batch = productIds.subList(from, Math.min(from + properties.getReconcileBatchSize(), productIds.size()));
+            // Held quantities of the tracked products only, through the product_id index of
+            // order_items, instead of aggregating every product with open orders
+            Map<Long, Long> held = new HashMap<>();
+            orderItemRepository.sumQuantityByProduct(OrderStatus.HOLDING_STOCK, batch)
+                    .forEach(row -> held.put(row.getProductId(), row.getQuantity()));
+            List<ProductStockQuery> queries = batch.stream()
+                    .map(productId -> new ProductStockQuery(productId, 0))
+                    .toList();
+            Map<Long, ProductResponse> products = new HashMap<>();
+            productClient.checkStockBatch(queries).forEach(product -> products.put(product.getId(), product));
+
+            for (ProductStockQuery query : queries) {
+                Long productId = query.getId();
+                ProductResponse product = products.get(productId);
+                if (product == null || !product.isAvailable()) {
+                    // Unknown, discontinued, or product-service down (fallback): stop tracking and
+                    // let the next order check remotely
+                    entries.remove(productId);
+                    continue;
+                }
+                apply(productId, product, held.getOrDefault(productId, 0L), marks.get(productId));
+                updated++;
+            }
+        }
+        log.debug("Reconciled {} of {} stock ledger entries", updated, productIds.size());
+    }
+
+    private void apply(Long productId, ProductResponse product, long heldQuantity, Mark mark) {
+        Entry entry = entries.get(productId);
+        if (entry == null || entry != mark.entry()) {
+            return; // re-seeded meanwhile, from fresher figures
+        }
+        ReentrantLock lock = lockFor(productId);
+        lock.lock();
+        try {
+            long reservedSinceMark = entry.reserved - mark.reserved();
+            entry.product = product;
+            entry.remaining = (int) Math.max(0L,
+                    product.getStock() - heldQuantity - reservedSinceMark - mark.inFlight());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Mark mark(Long productId, Entry entry) {
+        ReentrantLock lock = lockFor(productId);
+        lock.lock();
+        try {
+            return new Mark(entry, entry.reserved, entry.inFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Remote call and database read happen outside any stripe lock; concurrent seeders for the
+    // same product share the remote call through ProductStockLoader and the first entry wins
+    private ProductResponse seed(Long productId, int quantity) {
+        ProductResponse product = productStockLoader.checkStock(productId, quantity);
+        if (!product.isAvailable()) {
+            return product;
+        }
+        long heldQuantity = orderItemRepository.sumQuantity(productId, OrderStatus.HOLDING_STOCK);
+        int remaining = (int) Math.max(0L, product.getStock() - heldQuantity);
+        if (entries.putIfAbsent(productId, new Entry(product, remaining)) == null) {
+            log.debug("Seeded stock ledger for product {}: {} available", productId, remaining);
+        }
+        return product;
+    }
+
+    private Map<Long, ProductResponse> seedAll(Map<Long, Integer> quantities) {
+        if (quantities.size() <= 1) {
+            Map<Long, ProductResponse> products = new HashMap<>();
+            quantities.forEach((productId, quantity) -> products.put(productId, seed(productId, quantity)));
+            return products;
+        }
+        Map<Long, ProductResponse> products = productStockLoader.checkStockAll(quantities);
+        List<Long> available = products.values().stream()
+                .filter(ProductResponse::isAvailable)
+                .map(ProductResponse::getId)
+                .toList();
+        if (available.isEmpty()) {
+            return products;
+        }
+        Map<Long, Long> held = new HashMap<>();
+        orderItemRepository.sumQuantityByProduct(OrderStatus.HOLDING_STOCK, available)
+                .forEach(row -> held.put(row.getProductId(), row.getQuantity()));
+        for (Long productId : available) {
+            ProductResponse product = products.get(productId);
+            int remaining = (int) Math.max(0L, product.getStock() - held.getOrDefault(productId, 0L));
+            entries.putIfAbsent(productId, new Entry(product, remaining));
+        }
+        log.debug("Seeded stock ledger for {} products", available.size());
+        return products;
+    }
+
+    private ReentrantLock lockFor(Long productId) {
+        int hash = productId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    // Mutable state guarded by the product's stripe lock
+    private static final class Entry {
+        private ProductResponse product;
+        private int remaining;
+        private long reserved; // running total, only compared between two reads
+        private long inFlight; // reserved, neither persisted nor abandoned yet
+
+        private Entry(ProductResponse product, int remaining) {
+            this.product = product;
+            this.remaining = remaining;
+        }
+    }
+
+    private record Mark(Entry entry, long reserved, long inFlight) {
+    }
+}
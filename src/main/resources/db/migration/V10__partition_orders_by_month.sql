@@ -0,0 +1,84 @@
+-- Range-partition orders by month of created_at, and order_items by the same month of their
+-- order (order_created_at, copied from the order). Old months can then be detached, archived
+-- and dropped whole instead of deleted row by row, and vacuum and indexes only work on the
+-- partitions that still change. Partitions ahead of time come from create_order_partitions,
+-- called by OrderPartitionMaintainer.
+-- Rewrites both tables: on a large installation run it in a maintenance window.
+
+ALTER TABLE order_items RENAME TO order_items_unpartitioned;
+ALTER TABLE orders RENAME TO orders_unpartitioned;
+
+CREATE TABLE orders (
+    id UUID NOT NULL,
+    member_id BIGINT NOT NULL,
+    total_price DECIMAL(19, 2) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE order_items (
+    id BIGINT NOT NULL,
+    order_id UUID NOT NULL,
+    order_created_at TIMESTAMP NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INT NOT NULL,
+    price DECIMAL(19, 2) NOT NULL
+) PARTITION BY RANGE (order_created_at);
+
+-- One partition of each table per month, named orders_pYYYYMM / order_items_pYYYYMM
+CREATE OR REPLACE FUNCTION create_order_partitions(p_month DATE) RETURNS VOID AS $$
+DECLARE
+    start_at TIMESTAMP := date_trunc('month', p_month);
+    end_at TIMESTAMP := date_trunc('month', p_month) + INTERVAL '1 month';
+    suffix TEXT := to_char(p_month, 'YYYYMM');
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF orders FOR VALUES FROM (%L) TO (%L)',
+                   'orders_p' || suffix, start_at, end_at);
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF order_items FOR VALUES FROM (%L) TO (%L)',
+                   'order_items_p' || suffix, start_at, end_at);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Every month holding existing orders, through three months ahead
+DO $$
+DECLARE
+    first_month TIMESTAMP;
+    partition_month TIMESTAMP;
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(created_at), LOCALTIMESTAMP)) INTO first_month FROM orders_unpartitioned;
+    FOR partition_month IN
+        SELECT generate_series(first_month, date_trunc('month', LOCALTIMESTAMP) + INTERVAL '3 months', INTERVAL '1 month')
+    LOOP
+        PERFORM create_order_partitions(partition_month::DATE);
+    END LOOP;
+END;
+$$;
+
+INSERT INTO orders (id, member_id, total_price, status, version, created_at, updated_at)
+SELECT id, member_id, total_price, status, version, created_at, updated_at
+FROM orders_unpartitioned;
+
+INSERT INTO order_items (id, order_id, order_created_at, product_id, quantity, price)
+SELECT i.id, i.order_id, o.created_at, i.product_id, i.quantity, i.price
+FROM order_items_unpartitioned i
+JOIN orders_unpartitioned o ON o.id = i.order_id;
+
+DROP TABLE order_items_unpartitioned;
+DROP TABLE orders_unpartitioned;
+
+-- Keys must include the partition key; ids are still generated unique on their own
+ALTER TABLE orders ADD CONSTRAINT orders_pkey PRIMARY KEY (id, created_at);
+ALTER TABLE order_items ADD CONSTRAINT order_items_pkey PRIMARY KEY (id, order_created_at);
+ALTER TABLE order_items ADD CONSTRAINT fk_order_items_orders
+    FOREIGN KEY (order_id, order_created_at) REFERENCES orders (id, created_at);
+
+-- The indexes of V6 and V7, now per partition
+CREATE INDEX idx_orders_created_at_id ON orders (created_at DESC, id DESC);
+CREATE INDEX idx_orders_member_id_created_at ON orders (member_id, created_at DESC);
+CREATE INDEX idx_orders_status_created_at ON orders (status, created_at DESC);
+CREATE INDEX idx_orders_open_created_at ON orders (created_at DESC)
+    WHERE status IN ('SUBMITTED', 'PENDING');
+CREATE INDEX idx_order_items_order_id ON order_items (order_id);
+CREATE INDEX idx_order_items_product_id_order_id ON order_items (product_id, order_id);
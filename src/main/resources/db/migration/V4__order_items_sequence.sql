@@ -0,0 +1,7 @@
+-- IDENTITY ids force Hibernate to insert order items one by one; switch to a pooled
+-- sequence (increment = allocationSize) so inserts can be JDBC-batched.
+ALTER TABLE order_items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE order_items_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('order_items_seq', COALESCE(MAX(id), 0) + 50, false) FROM order_items;
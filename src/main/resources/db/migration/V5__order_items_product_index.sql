@@ -0,0 +1,2 @@
+-- Stock reservations are re-derived from the items of PENDING orders, per product
+CREATE INDEX IF NOT EXISTS idx_order_items_product_id ON order_items (product_id);
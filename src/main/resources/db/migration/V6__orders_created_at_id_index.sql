@@ -0,0 +1,3 @@
+-- Keyset pagination walks orders by (created_at DESC, id DESC); the index serves both the
+-- ORDER BY and the row-value seek, so every page is an index range scan with no OFFSET.
+CREATE INDEX IF NOT EXISTS idx_orders_created_at_id ON orders (created_at DESC, id DESC);
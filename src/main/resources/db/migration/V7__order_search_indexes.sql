@@ -0,0 +1,20 @@
+-- Indexes for GET /api/orders/search (newest first) and for loading items by order.
+
+-- Foreign key lookups: batch fetching of items, the LATERAL first-item join, cascades
+CREATE INDEX IF NOT EXISTS idx_order_items_order_id ON order_items (order_id);
+
+-- Product filter: EXISTS (... WHERE order_id = ? AND product_id = ?) and the PENDING sums
+-- per product; supersedes the single-column index from V5
+CREATE INDEX IF NOT EXISTS idx_order_items_product_id_order_id ON order_items (product_id, order_id);
+DROP INDEX IF EXISTS idx_order_items_product_id;
+
+-- Member history, optionally narrowed by date range
+CREATE INDEX IF NOT EXISTS idx_orders_member_id_created_at ON orders (member_id, created_at DESC);
+
+-- Status filter for the final statuses, which hold almost every row
+CREATE INDEX IF NOT EXISTS idx_orders_status_created_at ON orders (status, created_at DESC);
+
+-- Orders still in flight are a small, hot slice of the table: a partial index keeps
+-- SUBMITTED/PENDING lookups cheap no matter how much history accumulates
+CREATE INDEX IF NOT EXISTS idx_orders_open_created_at ON orders (created_at DESC)
+    WHERE status IN ('SUBMITTED', 'PENDING');
@@ -0,0 +1,14 @@
+-- Idempotency-Key dedup store for POST /api/orders. A row is claimed (IN_PROGRESS) before the
+-- order is created and holds the response once COMPLETED; rows are purged after expires_at.
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    order_id UUID,
+    response TEXT,
+    locked_until TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,3 @@
+-- Optimistic locking for orders: every change bumps version, and status transitions are applied
+-- with UPDATE ... WHERE id = ? AND status = ? AND version = ?. Existing rows start at 0.
+ALTER TABLE orders ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,203 @@
+package com.sotatek.order.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Concurrent cancels of the same PENDING orders: {@link #THREADS} clients walk the same
+ * orders, each having read version 0, and all try to cancel every one. Compares the old
+ * read-modify-write (load order and items, then a versioned UPDATE) with the conditional
+ * UPDATE of OrderRepository.transition, where only the winner reads the items to release.
+ * Prints statements per attempt, wall time and p99 per attempt; exactly one cancel per order
+ * must win either way. Needs a disposable PostgreSQL database (ORDER_BENCH_DB_URL, see
+ * OrderSearchPlanBenchmark): {@code ./gradlew benchmarkTest --tests '*OrderCancelRaceBenchmark'}.
+ */
+@Tag("benchmark")
+class OrderCancelRaceBenchmark {
+
+    private static final String URL = System.getenv("ORDER_BENCH_DB_URL");
+    private static final String USER = System.getenv().getOrDefault("ORDER_BENCH_DB_USER", "postgres");
+    private static final String PASSWORD = System.getenv().getOrDefault("ORDER_BENCH_DB_PASSWORD", "postgres");
+
+    private static final int ORDERS = 2_000;
+    private static final int THREADS = 8;
+    private static final long RACE_MEMBER_ID = -42L; // marks the rows this benchmark owns
+
+    private static final String LOAD = """
+            SELECT o.status, o.version, i.product_id, i.quantity
+            FROM orders o LEFT JOIN order_items i ON i.order_id = o.id
+            WHERE o.id = ?
+            """;
+    private static final String VERSIONED_UPDATE = """
+            UPDATE orders SET status = 'CANCELLED', version = version + 1, updated_at = now()
+            WHERE id = ? AND version = ?
+            """;
+    private static final String TRANSITION = """
+            UPDATE orders SET status = 'CANCELLED', version = version + 1, updated_at = now()
+            WHERE id = ? AND status = 'PENDING' AND version = ?
+            """;
+    private static final String ITEMS = "SELECT product_id, quantity FROM order_items WHERE order_id = ?";
+
+    @BeforeAll
+    static void migrate() {
+        assumeTrue(URL != null, "ORDER_BENCH_DB_URL not set");
+        Flyway.configure().dataSource(URL, USER, PASSWORD).load().migrate();
+    }
+
+    @Test
+    void conditionalUpdateShouldSaveTheRoundTripsOfReadModifyWrite() throws Exception {
+        Result readModifyWrite = race("read-modify-write", this::readModifyWrite);
+        Result conditional = race("conditional UPDATE", this::conditionalUpdate);
+
+        assertThat(readModifyWrite.cancelled()).isEqualTo(ORDERS);
+        assertThat(conditional.cancelled()).isEqualTo(ORDERS);
+        assertThat(conditional.statements()).isLessThan(readModifyWrite.statements());
+    }
+
+    // findWithItemsById, then the @Version-checked UPDATE JPA issues at flush
+    private boolean readModifyWrite(Connection connection, UUID id, AtomicLong statements) throws SQLException {
+        String status = null;
+        long version = 0;
+        try (PreparedStatement load = connection.prepareStatement(LOAD)) {
+            load.setObject(1, id);
+            statements.incrementAndGet();
+            try (ResultSet rows = load.executeQuery()) {
+                while (rows.next()) {
+                    status = rows.getString(1);
+                    version = rows.getLong(2);
+                }
+            }
+        }
+        if (!"PENDING".equals(status)) {
+            return false;
+        }
+        try (PreparedStatement update = connection.prepareStatement(VERSIONED_UPDATE)) {
+            update.setObject(1, id);
+            update.setLong(2, version);
+            statements.incrementAndGet();
+            return update.executeUpdate() == 1;
+        }
+    }
+
+    // OrderService.transitionOrder: the version the client read, items only for the winner
+    private boolean conditionalUpdate(Connection connection, UUID id, AtomicLong statements) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(TRANSITION)) {
+            update.setObject(1, id);
+            update.setLong(2, 0L);
+            statements.incrementAndGet();
+            if (update.executeUpdate() == 0) {
+                return false;
+            }
+        }
+        try (PreparedStatement items = connection.prepareStatement(ITEMS)) {
+            items.setObject(1, id);
+            statements.incrementAndGet();
+            try (ResultSet rows = items.executeQuery()) {
+                while (rows.next()) {
+                    rows.getLong(1);
+                }
+            }
+        }
+        return true;
+    }
+
+    private Result race(String label, Cancel cancel) throws Exception {
+        List<UUID> ids = seed();
+        AtomicLong statements = new AtomicLong();
+        AtomicLong cancelled = new AtomicLong();
+        ExecutorService clients = Executors.newFixedThreadPool(THREADS);
+        long started = System.nanoTime();
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++) {
+            results.add(clients.submit(() -> {
+                long[] nanos = new long[ids.size()];
+                try (Connection connection = connect()) {
+                    connection.setAutoCommit(false);
+                    for (int i = 0; i < ids.size(); i++) {
+                        long attempt = System.nanoTime();
+                        if (cancel.cancel(connection, ids.get(i), statements)) {
+                            cancelled.incrementAndGet();
+                        }
+                        connection.commit();
+                        statements.incrementAndGet();
+                        nanos[i] = System.nanoTime() - attempt;
+                    }
+                }
+                return nanos;
+            }));
+        }
+        long[] all = new long[0];
+        for (Future<long[]> result : results) {
+            long[] nanos = result.get();
+            int offset = all.length;
+            all = Arrays.copyOf(all, offset + nanos.length);
+            System.arraycopy(nanos, 0, all, offset, nanos.length);
+        }
+        long elapsed = System.nanoTime() - started;
+        clients.shutdown();
+
+        Arrays.sort(all);
+        int attempts = all.length;
+        System.out.printf("%-20s %,d attempts: %.2f statements each (incl. commit), %,d ms, p99 %.2f ms, %,d cancelled%n",
+                label, attempts, statements.get() / (double) attempts, elapsed / 1_000_000,
+                all[(int) Math.ceil(0.99 * attempts) - 1] / 1e6, cancelled.get());
+        return new Result(statements.get(), cancelled.get());
+    }
+
+    // Fresh PENDING orders with two items each, version 0
+    private static List<UUID> seed() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM order_items WHERE order_id IN (SELECT id FROM orders WHERE member_id = "
+                    + RACE_MEMBER_ID + ")");
+            statement.execute("DELETE FROM orders WHERE member_id = " + RACE_MEMBER_ID);
+            statement.execute("""
+                    INSERT INTO orders (id, member_id, total_price, status, version, created_at, updated_at)
+                    SELECT gen_random_uuid(), %d, 20.00, 'PENDING', 0, now(), now() FROM generate_series(1, %d)
+                    """.formatted(RACE_MEMBER_ID, ORDERS));
+            statement.execute("""
+                    INSERT INTO order_items (id, order_id, order_created_at, product_id, quantity, price)
+                    SELECT nextval('order_items_seq'), o.id, o.created_at, p, 1, 10.00
+                    FROM orders o CROSS JOIN generate_series(1, 2) p WHERE o.member_id = %d
+                    """.formatted(RACE_MEMBER_ID));
+            List<UUID> ids = new ArrayList<>();
+            try (ResultSet rows = statement.executeQuery("SELECT id FROM orders WHERE member_id = " + RACE_MEMBER_ID)) {
+                while (rows.next()) {
+                    ids.add(rows.getObject(1, UUID.class));
+                }
+            }
+            return ids;
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(URL, USER, PASSWORD);
+    }
+
+    private record Result(long statements, long cancelled) {
+    }
+
+    @FunctionalInterface
+    private interface Cancel {
+        boolean cancel(Connection connection, UUID id, AtomicLong statements) throws SQLException;
+    }
+}
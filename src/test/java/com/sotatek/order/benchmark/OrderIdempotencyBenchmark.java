@@ -0,0 +1,112 @@
+package com.sotatek.order.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sotatek.order.config.IdempotencyProperties;
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.repository.IdempotencyKeyRepository;
+import com.sotatek.order.service.OrderIdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Overhead OrderIdempotencyService adds to an order create, with a create that does nothing:
+ * a key used for the first time (claim + complete, two statements in transactions of their
+ * own), a repeat answered from this instance's memory (no statement), and a repeat reaching an
+ * instance that has not seen the key (failed claim + read). Runs against the database of
+ * application.yml, like the repository tests, and commits its keys, removing them afterwards:
+ * {@code ./gradlew benchmarkTest --tests '*OrderIdempotencyBenchmark'}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // every statement commits, as in production
+class OrderIdempotencyBenchmark {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2_000;
+    private static final String KEY_PREFIX = "idempotency-benchmark-";
+
+    @Autowired
+    private IdempotencyKeyRepository repository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @AfterEach
+    void removeKeys() {
+        repository.deleteAllById(IntStream.range(0, WARMUP + ITERATIONS).mapToObj(OrderIdempotencyBenchmark::key).toList());
+    }
+
+    @Test
+    void repeatsFromMemoryShouldCostMicroseconds() {
+        OrderIdempotencyService instance = new OrderIdempotencyService(repository, objectMapper, new IdempotencyProperties());
+        OrderIdempotencyService otherInstance = new OrderIdempotencyService(repository, objectMapper, new IdempotencyProperties());
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L)
+                .productId(101L)
+                .quantity(1)
+                .totalPrice(Money.of("50.00"))
+                .build();
+        OrderResponseDTO response = OrderResponseDTO.builder()
+                .id(UUID.randomUUID())
+                .memberId(1L)
+                .totalPrice(Money.of("50.00"))
+                .status(OrderStatus.PENDING)
+                .build();
+
+        long[] firstUse = measure(key -> instance.execute(key, request, r -> response));
+        long[] repeatFromMemory = measure(key -> instance.execute(key, request, r -> response));
+        long[] repeatFromStore = measure(key -> otherInstance.execute(key, request, r -> response));
+
+        report("first use", firstUse);
+        report("repeat, same instance", repeatFromMemory);
+        report("repeat, other instance", repeatFromStore);
+
+        assertThat(percentile(repeatFromMemory, 50)).isLessThan(1_000_000L); // under a millisecond
+    }
+
+    // One call per key, the keys the same for every variant
+    private long[] measure(Consumer<String> execute) {
+        for (int i = 0; i < WARMUP; i++) {
+            execute.accept(key(i));
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            String key = key(WARMUP + i);
+            long start = System.nanoTime();
+            execute.accept(key);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static String key(int index) {
+        return KEY_PREFIX + index;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static void report(String name, long[] sorted) {
+        System.out.printf("%-24s p50=%8.1fus p99=%8.1fus%n", name,
+                percentile(sorted, 50) / 1_000.0, percentile(sorted, 99) / 1_000.0);
+    }
+}
@@ -0,0 +1,279 @@
+package com.sotatek.order.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Recent-order lookups on monthly partitioned orders/order_items (V10) at 100M orders spread over
+ * the last 25 months. Needs a disposable PostgreSQL database: set ORDER_BENCH_DB_URL (and
+ * ORDER_BENCH_DB_USER, ORDER_BENCH_DB_PASSWORD), optionally ORDER_BENCH_ORDERS (default 100,000,000), then run
+ * {@code ./gradlew benchmarkTest --tests '*OrderPartitionLookupBenchmark'}. Seeding takes a while
+ * and is reused by later runs. Each plan is printed so the partitions scanned can be checked:
+ * recent lookups should touch the newest one or two months only, lookups by id bounded by the
+ * created_at range of the id exactly one.
+ */
+@Tag("benchmark")
+class OrderPartitionLookupBenchmark {
+
+    private static final String URL = System.getenv("ORDER_BENCH_DB_URL");
+    private static final String USER = System.getenv().getOrDefault("ORDER_BENCH_DB_USER", "postgres");
+    private static final String PASSWORD = System.getenv().getOrDefault("ORDER_BENCH_DB_PASSWORD", "postgres");
+    private static final long ORDERS = Long.parseLong(System.getenv().getOrDefault("ORDER_BENCH_ORDERS", "100000000"));
+
+    private static final int MEMBERS = 1_000_000;
+    private static final int PRODUCTS = 10_000;
+    private static final int RUNS = 200;
+
+    // OrderRepository#findLatest / #findBefore
+    private static final String VIEW = """
+            SELECT o.id, o.member_id, o.total_price, o.status, o.version, o.created_at, o.updated_at,
+                   i.product_id, i.quantity
+            FROM orders o
+            LEFT JOIN LATERAL (SELECT product_id, quantity FROM order_items
+                               WHERE order_id = o.id AND order_created_at = o.created_at
+                               ORDER BY id LIMIT 1) i ON TRUE
+            """;
+    private static final String PAGE = " ORDER BY o.created_at DESC, o.id DESC LIMIT 20";
+
+    private static final List<Object[]> recent = new ArrayList<>();
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        assumeTrue(URL != null, "ORDER_BENCH_DB_URL not set");
+        Flyway.configure().dataSource(URL, USER, PASSWORD).load().migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            long existing = count(statement, "SELECT count(*) FROM orders");
+            if (existing >= ORDERS) {
+                System.out.printf("Reusing %,d seeded orders%n", existing);
+            } else {
+                long started = System.nanoTime();
+                statement.execute("TRUNCATE order_items, orders");
+                statement.execute("""
+                        SELECT create_order_partitions(m::date)
+                        FROM generate_series(date_trunc('month', now()) - interval '24 months', now(), interval '1 month') m
+                        """);
+                // Filled month by month, so each partition is written once and stays compact
+                for (int month = 24; month >= 0; month--) {
+                    statement.execute("""
+                            INSERT INTO orders (id, member_id, total_price, status, created_at, updated_at)
+                            SELECT gen_random_uuid(), 1 + (random() * %d)::bigint, round((1 + random() * 999)::numeric, 2),
+                                   CASE WHEN r < 0.85 THEN 'CONFIRMED' ELSE 'CANCELLED' END, ts, ts
+                            FROM (SELECT random() AS r, m.start_at + random() * (m.end_at - m.start_at) AS ts
+                                  FROM (SELECT date_trunc('month', now()) - make_interval(months => %d) AS start_at,
+                                               least(now(), date_trunc('month', now()) - make_interval(months => %d)) AS end_at) m,
+                                       generate_series(1, %d)) s
+                            """.formatted(MEMBERS - 1, month, month - 1, ORDERS / 25));
+                }
+                // Recent orders are still in flight
+                statement.execute("""
+                        UPDATE orders SET status = 'PENDING' WHERE created_at > now() - interval '10 minutes'
+                        """);
+                statement.execute("""
+                        INSERT INTO order_items (id, order_id, order_created_at, product_id, quantity, price)
+                        SELECT nextval('order_items_seq'), id, created_at, 1 + (random() * %d)::bigint, 1, total_price
+                        FROM orders
+                        """.formatted(PRODUCTS - 1));
+                statement.execute("VACUUM ANALYZE orders");
+                statement.execute("VACUUM ANALYZE order_items");
+                System.out.printf("Seeded %,d orders in %,d s%n", ORDERS, (System.nanoTime() - started) / 1_000_000_000);
+            }
+            try (ResultSet rows = statement.executeQuery("""
+                    SELECT id, created_at, member_id FROM orders
+                    WHERE created_at > now() - interval '1 day' ORDER BY created_at DESC LIMIT 1000
+                    """)) {
+                while (rows.next()) {
+                    recent.add(new Object[]{rows.getObject(1, UUID.class), rows.getTimestamp(2), rows.getLong(3)});
+                }
+            }
+            assumeTrue(!recent.isEmpty(), "no orders in the last day");
+        }
+    }
+
+    @Test
+    void latestPage() throws SQLException {
+        measure("latest page", VIEW + PAGE, (statement, random) -> {
+        });
+    }
+
+    @Test
+    void nextPageAfterRecentCursor() throws SQLException {
+        measure("page after a cursor from today", VIEW
+                        + "WHERE o.created_at <= ? AND (o.created_at, o.id) < (?, ?)" + PAGE,
+                (statement, random) -> {
+                    Object[] cursor = recent.get(random.nextInt(recent.size()));
+                    statement.setTimestamp(1, (Timestamp) cursor[1]);
+                    statement.setTimestamp(2, (Timestamp) cursor[1]);
+                    statement.setObject(3, cursor[0]);
+                });
+    }
+
+    // Before: the id alone probes the primary key index of every partition
+    @Test
+    void byIdOfRecentOrder() throws SQLException {
+        measure("recent order by id", "SELECT * FROM orders WHERE id = ?",
+                (statement, random) -> statement.setObject(1, recent.get(random.nextInt(recent.size()))[0]));
+    }
+
+    // GET /api/orders/{id} (OrderRepository#findById): the millisecond range a time-ordered id
+    // gives (OrderIds). The seeded ids are random, so the range comes from created_at, which is
+    // what the id of an order created now encodes
+    @Test
+    void byIdWithCreatedAtRangeOfId() throws SQLException {
+        measure("recent order by id + created_at range of the id",
+                "SELECT * FROM orders WHERE id = ? AND created_at >= ? AND created_at < ?",
+                (statement, random) -> bindIdAndRange(statement, recent.get(random.nextInt(recent.size())), 1));
+    }
+
+    // OrderRepository#findWithItemsById: order and items, both bounded by the range of the id
+    @Test
+    void withItemsByIdWithCreatedAtRangeOfId() throws SQLException {
+        measure("recent order with items by id + created_at range of the id", """
+                        SELECT * FROM orders o
+                        JOIN order_items i ON i.order_id = o.id
+                        WHERE o.id = ? AND o.created_at >= ? AND o.created_at < ?
+                          AND i.order_created_at >= ? AND i.order_created_at < ?
+                        """,
+                (statement, random) -> {
+                    Object[] order = recent.get(random.nextInt(recent.size()));
+                    bindIdAndRange(statement, order, 1);
+                    statement.setTimestamp(4, millisFrom(order));
+                    statement.setTimestamp(5, millisTo(order));
+                });
+    }
+
+    // OrderRepository#transitionAll and #findStatsViews: a chunk of 50 recent ids, bounded by the
+    // range spanning them. Read-only stand-in for the UPDATE, same WHERE clause
+    @Test
+    void chunkOfRecentIdsWithCreatedAtSpan() throws SQLException {
+        measure("50 recent ids + created_at span", """
+                        SELECT id FROM orders
+                        WHERE id = ANY(?) AND created_at >= ? AND created_at < ? AND status = 'CONFIRMED'
+                        """,
+                (statement, random) -> {
+                    int first = random.nextInt(Math.max(1, recent.size() - 50));
+                    List<Object[]> chunk = recent.subList(first, Math.min(first + 50, recent.size()));
+                    statement.setArray(1, statement.getConnection().createArrayOf("uuid",
+                            chunk.stream().map(order -> order[0]).toArray()));
+                    // recent is newest first
+                    statement.setTimestamp(2, millisFrom(chunk.get(chunk.size() - 1)));
+                    statement.setTimestamp(3, millisTo(chunk.get(0)));
+                });
+    }
+
+    @Test
+    void chunkOfRecentIds() throws SQLException {
+        measure("50 recent ids", "SELECT id FROM orders WHERE id = ANY(?) AND status = 'CONFIRMED'",
+                (statement, random) -> {
+                    int first = random.nextInt(Math.max(1, recent.size() - 50));
+                    statement.setArray(1, statement.getConnection().createArrayOf("uuid",
+                            recent.subList(first, Math.min(first + 50, recent.size())).stream()
+                                    .map(order -> order[0]).toArray()));
+                });
+    }
+
+    @Test
+    void memberLastSevenDays() throws SQLException {
+        measure("member + last 7 days", "SELECT * FROM orders o WHERE o.member_id = ? AND o.created_at >= ?" + PAGE,
+                (statement, random) -> {
+                    statement.setLong(1, (Long) recent.get(random.nextInt(recent.size()))[2]);
+                    statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now().minusDays(7)));
+                });
+    }
+
+    @Test
+    void openOrdersLastHour() throws SQLException {
+        measure("PENDING in the last hour", "SELECT * FROM orders o WHERE o.status = 'PENDING' AND o.created_at >= ?" + PAGE,
+                (statement, random) -> statement.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now().minusHours(1))));
+    }
+
+    // Prints the plan of one representative execution, then latency percentiles over RUNS executions
+    private void measure(String label, String sql, Binder binder) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (Connection connection = connect()) {
+            StringBuilder plan = new StringBuilder();
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+                binder.bind(explain, random);
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append("  ").append(rows.getString(1)).append('\n');
+                    }
+                }
+            }
+
+            long[] nanos = new long[RUNS];
+            try (PreparedStatement query = connection.prepareStatement(sql)) {
+                for (int run = 0; run < RUNS; run++) {
+                    binder.bind(query, random);
+                    long started = System.nanoTime();
+                    try (ResultSet rows = query.executeQuery()) {
+                        while (rows.next()) {
+                            rows.getObject(1);
+                        }
+                    }
+                    nanos[run] = System.nanoTime() - started;
+                }
+            }
+            Arrays.sort(nanos);
+            System.out.printf("%n== %s: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n%s",
+                    label, millis(nanos, 0.50), millis(nanos, 0.99), nanos[RUNS - 1] / 1e6, plan);
+            assertThat(plan).isNotEmpty();
+        }
+    }
+
+    private static void bindIdAndRange(PreparedStatement statement, Object[] order, int first) throws SQLException {
+        statement.setObject(first, order[0]);
+        statement.setTimestamp(first + 1, millisFrom(order));
+        statement.setTimestamp(first + 2, millisTo(order));
+    }
+
+    // [created_at cut to the millisecond, + 1 ms): the range OrderIds.createdRange gives
+    private static Timestamp millisFrom(Object[] order) {
+        return Timestamp.valueOf(((Timestamp) order[1]).toLocalDateTime().truncatedTo(ChronoUnit.MILLIS));
+    }
+
+    private static Timestamp millisTo(Object[] order) {
+        return Timestamp.valueOf(((Timestamp) order[1]).toLocalDateTime().truncatedTo(ChronoUnit.MILLIS)
+                .plus(1, ChronoUnit.MILLIS));
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1e6;
+    }
+
+    private static long count(Statement statement, String sql) throws SQLException {
+        try (ResultSet rows = statement.executeQuery(sql)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(URL, USER, PASSWORD);
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement statement, ThreadLocalRandom random) throws SQLException;
+    }
+}
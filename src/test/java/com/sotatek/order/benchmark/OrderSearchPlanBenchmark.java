@@ -0,0 +1,198 @@
+package com.sotatek.order.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Query plans and latency of the /api/orders/search filters on a large seeded dataset.
+ * Needs a disposable PostgreSQL database: set ORDER_BENCH_DB_URL (and ORDER_BENCH_DB_USER,
+ * ORDER_BENCH_DB_PASSWORD), optionally ORDER_BENCH_ORDERS (default 10,000,000), then run
+ * {@code ./gradlew benchmarkTest --tests '*OrderSearchPlanBenchmark'}. The schema is migrated with
+ * Flyway and the data is seeded once with generate_series; later runs reuse it.
+ * The SQL mirrors what OrderSpecifications generates for the first page, newest first.
+ */
+@Tag("benchmark")
+class OrderSearchPlanBenchmark {
+
+    private static final String URL = System.getenv("ORDER_BENCH_DB_URL");
+    private static final String USER = System.getenv().getOrDefault("ORDER_BENCH_DB_USER", "postgres");
+    private static final String PASSWORD = System.getenv().getOrDefault("ORDER_BENCH_DB_PASSWORD", "postgres");
+    private static final long ORDERS = Long.parseLong(System.getenv().getOrDefault("ORDER_BENCH_ORDERS", "10000000"));
+
+    private static final int MEMBERS = 100_000;
+    private static final int PRODUCTS = 10_000;
+    private static final int RUNS = 200;
+
+    private static final String SELECT = """
+            SELECT o.id, o.member_id, o.total_price, o.status, o.created_at, o.updated_at
+            FROM orders o
+            """;
+    private static final String PAGE = " ORDER BY o.created_at DESC LIMIT 20";
+
+    @BeforeAll
+    static void seed() throws SQLException {
+        assumeTrue(URL != null, "ORDER_BENCH_DB_URL not set");
+        Flyway.configure().dataSource(URL, USER, PASSWORD).load().migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            long existing = count(statement, "SELECT count(*) FROM orders");
+            if (existing >= ORDERS) {
+                System.out.printf("Reusing %,d seeded orders%n", existing);
+                return;
+            }
+            long started = System.nanoTime();
+            statement.execute("TRUNCATE order_items, orders");
+            statement.execute("""
+                    SELECT create_order_partitions(m::date)
+                    FROM generate_series(date_trunc('month', now() - interval '365 days'), now(), interval '1 month') m
+                    """);
+            // ~2% PENDING, ~1% SUBMITTED, the rest final; one year of history
+            statement.execute("""
+                    INSERT INTO orders (id, member_id, total_price, status, created_at, updated_at)
+                    SELECT gen_random_uuid(),
+                           1 + (random() * %d)::bigint,
+                           round((1 + random() * 999)::numeric, 2),
+                           CASE WHEN r < 0.02 THEN 'PENDING' WHEN r < 0.03 THEN 'SUBMITTED'
+                                WHEN r < 0.85 THEN 'CONFIRMED' ELSE 'CANCELLED' END,
+                           ts, ts
+                    FROM (SELECT random() AS r, now() - random() * interval '365 days' AS ts
+                          FROM generate_series(1, %d)) s
+                    """.formatted(MEMBERS - 1, ORDERS));
+            statement.execute("""
+                    INSERT INTO order_items (id, order_id, order_created_at, product_id, quantity, price)
+                    SELECT nextval('order_items_seq'), id, created_at, 1 + (random() * %d)::bigint, 1, total_price
+                    FROM orders
+                    """.formatted(PRODUCTS - 1));
+            statement.execute("VACUUM ANALYZE orders");
+            statement.execute("VACUUM ANALYZE order_items");
+            System.out.printf("Seeded %,d orders in %,d s%n", ORDERS, (System.nanoTime() - started) / 1_000_000_000);
+        }
+    }
+
+    @Test
+    void byMember() throws SQLException {
+        measure("member", SELECT + "WHERE o.member_id = ?" + PAGE,
+                (statement, random) -> statement.setLong(1, 1 + random.nextInt(MEMBERS)));
+    }
+
+    @Test
+    void byMemberAndDateRange() throws SQLException {
+        measure("member + last 30 days", SELECT + "WHERE o.member_id = ? AND o.created_at >= ? AND o.created_at < ?" + PAGE,
+                (statement, random) -> {
+                    statement.setLong(1, 1 + random.nextInt(MEMBERS));
+                    statement.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now().minusDays(30)));
+                    statement.setTimestamp(3, Timestamp.valueOf(LocalDateTime.now()));
+                });
+    }
+
+    @Test
+    void byOpenStatus() throws SQLException {
+        measure("status PENDING", SELECT + "WHERE o.status = ?" + PAGE,
+                (statement, random) -> statement.setString(1, "PENDING"));
+    }
+
+    @Test
+    void byFinalStatusAndDateRange() throws SQLException {
+        measure("status CANCELLED + one day", SELECT + "WHERE o.status = ? AND o.created_at >= ? AND o.created_at < ?" + PAGE,
+                (statement, random) -> {
+                    LocalDateTime from = LocalDateTime.now().minusDays(1 + random.nextInt(360));
+                    statement.setString(1, "CANCELLED");
+                    statement.setTimestamp(2, Timestamp.valueOf(from));
+                    statement.setTimestamp(3, Timestamp.valueOf(from.plusDays(1)));
+                });
+    }
+
+    @Test
+    void byProduct() throws SQLException {
+        measure("product", SELECT + """
+                        WHERE EXISTS (SELECT i.id FROM order_items i WHERE i.order_id = o.id
+                                      AND i.order_created_at = o.created_at AND i.product_id = ?)
+                        """ + PAGE,
+                (statement, random) -> statement.setLong(1, 1 + random.nextInt(PRODUCTS)));
+    }
+
+    @Test
+    void byPriceRangeAndDateRange() throws SQLException {
+        measure("price 100-110 + one day", SELECT + """
+                        WHERE o.total_price BETWEEN ? AND ? AND o.created_at >= ? AND o.created_at < ?
+                        """ + PAGE,
+                (statement, random) -> {
+                    LocalDateTime from = LocalDateTime.now().minusDays(1 + random.nextInt(360));
+                    statement.setBigDecimal(1, BigDecimal.valueOf(100));
+                    statement.setBigDecimal(2, BigDecimal.valueOf(110));
+                    statement.setTimestamp(3, Timestamp.valueOf(from));
+                    statement.setTimestamp(4, Timestamp.valueOf(from.plusDays(1)));
+                });
+    }
+
+    // Prints the plan of one representative execution, then latency percentiles over RUNS executions
+    private void measure(String label, String sql, Binder binder) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try (Connection connection = connect()) {
+            StringBuilder plan = new StringBuilder();
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+                binder.bind(explain, random);
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append("  ").append(rows.getString(1)).append('\n');
+                    }
+                }
+            }
+
+            long[] nanos = new long[RUNS];
+            try (PreparedStatement query = connection.prepareStatement(sql)) {
+                for (int run = 0; run < RUNS; run++) {
+                    binder.bind(query, random);
+                    long started = System.nanoTime();
+                    try (ResultSet rows = query.executeQuery()) {
+                        while (rows.next()) {
+                            rows.getObject(1);
+                        }
+                    }
+                    nanos[run] = System.nanoTime() - started;
+                }
+            }
+            Arrays.sort(nanos);
+            System.out.printf("%n== %s: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n%s",
+                    label, millis(nanos, 0.50), millis(nanos, 0.99), nanos[RUNS - 1] / 1e6, plan);
+            assertThat(plan).isNotEmpty();
+        }
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1e6;
+    }
+
+    private static long count(Statement statement, String sql) throws SQLException {
+        try (ResultSet rows = statement.executeQuery(sql)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(URL, USER, PASSWORD);
+    }
+
+    @FunctionalInterface
+    private interface Binder {
+        void bind(PreparedStatement statement, ThreadLocalRandom random) throws SQLException;
+    }
+}
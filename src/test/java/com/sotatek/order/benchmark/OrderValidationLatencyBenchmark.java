@@ -0,0 +1,218 @@
+package com.sotatek.order.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.sotatek.order.config.MemberCacheProperties;
+import com.sotatek.order.config.OrderValidationProperties;
+import com.sotatek.order.config.ProductLookupProperties;
+import com.sotatek.order.config.StockLedgerProperties;
+import com.sotatek.order.dto.OrderLineDTO;
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.infrastructure.cache.MemberCache;
+import com.sotatek.order.infrastructure.cache.ProductStockLoader;
+import com.sotatek.order.infrastructure.client.MemberClient;
+import com.sotatek.order.infrastructure.client.ProductClient;
+import com.sotatek.order.infrastructure.client.dto.MemberResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductStockQuery;
+import com.sotatek.order.service.OrderValidator;
+import com.sotatek.order.service.StockLedger;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares p50/p99 latency of sequential member + stock validation (previous behaviour)
+ * against {@link OrderValidator} running both checks concurrently, for orders of 1, 15 and 50
+ * products. Both variants make the same stock call: one lookup for a single product, one batch
+ * lookup for several; the stubbed batch takes as long as a single lookup whatever its size.
+ * Run with {@code ./gradlew benchmarkTest --tests '*OrderValidationLatencyBenchmark'}.
+ */
+@Tag("benchmark")
+class OrderValidationLatencyBenchmark {
+
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 500;
+    private static final int PRODUCTS = 50;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private WireMockServer wireMockServer;
+    private ExecutorService validationExecutor;
+    private MemberClient memberClient;
+    private ProductClient productClient;
+
+    @BeforeEach
+    void setup() {
+        wireMockServer = new WireMockServer(options().dynamicPort());
+        wireMockServer.start();
+
+        // Log-normal delays approximate the long tail of real downstream services
+        wireMockServer.stubFor(get(urlPathMatching("/members/.*"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"id\":1,\"exists\":true,\"active\":true}")
+                        .withLogNormalRandomDelay(40, 0.3)));
+        wireMockServer.stubFor(get(urlPathMatching("/products/.*/stock"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"id\":101,\"available\":true,\"stock\":100,\"price\":50.00}")
+                        .withLogNormalRandomDelay(60, 0.3)));
+        // Every product the benchmark orders; the validator picks the ones it asked for
+        String batch = LongStream.rangeClosed(101, 100 + PRODUCTS)
+                .mapToObj(id -> "{\"id\":" + id + ",\"available\":true,\"stock\":100,\"price\":50.00}")
+                .collect(Collectors.joining(",", "[", "]"));
+        wireMockServer.stubFor(post(urlEqualTo("/products/stock/batch"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(batch)
+                        .withLogNormalRandomDelay(60, 0.3)));
+
+        String baseUrl = "http://localhost:" + wireMockServer.port();
+        memberClient = id -> fetch(baseUrl + "/members/" + id, MemberResponse.class);
+        productClient = new ProductClient() {
+            @Override
+            public ProductResponse checkStock(Long id, int quantity) {
+                return fetch(baseUrl + "/products/" + id + "/stock?quantity=" + quantity, ProductResponse.class);
+            }
+
+            @Override
+            public List<ProductResponse> checkStockBatch(List<ProductStockQuery> queries) {
+                return List.of(postJson(baseUrl + "/products/stock/batch", queries, ProductResponse[].class));
+            }
+        };
+        validationExecutor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void teardown() {
+        validationExecutor.shutdownNow();
+        wireMockServer.stop();
+    }
+
+    @ParameterizedTest(name = "{0} products")
+    @ValueSource(ints = {1, 15, 50})
+    void parallelValidationShouldCutLatency(int products) {
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L)
+                .items(LongStream.rangeClosed(101, 100 + products)
+                        .mapToObj(id -> new OrderLineDTO(id, 1, null))
+                        .toList())
+                .build();
+        // Zero TTL keeps the member cache out of the measurement: every call goes remote
+        MemberCacheProperties noCaching = new MemberCacheProperties();
+        noCaching.setTtl(Duration.ZERO);
+        noCaching.setNegativeTtl(Duration.ZERO);
+        // Single-threaded loop never overlaps lookups, so coalescing would only add its window;
+        // the stock ledger is off so every order still checks product-service
+        ProductLookupProperties noCoalescing = new ProductLookupProperties();
+        noCoalescing.setCoalescing(false);
+        StockLedgerProperties noLedger = new StockLedgerProperties();
+        noLedger.setEnabled(false);
+        StockLedger stockLedger = new StockLedger(new ProductStockLoader(productClient, noCoalescing, null),
+                productClient, null, noLedger);
+        OrderValidator validator = new OrderValidator(new MemberCache(memberClient, noCaching, Runnable::run),
+                stockLedger, validationExecutor, new OrderValidationProperties(), ObservationRegistry.NOOP);
+
+        long[] sequential = measure(r -> {
+            memberClient.getMember(r.getMemberId());
+            checkStock(r.quantitiesByProduct());
+        }, request);
+        long[] parallel = measure(validator::validate, request);
+
+        report(products, "sequential", sequential);
+        report(products, "parallel", parallel);
+
+        assertThat(percentile(parallel, 50)).isLessThan(percentile(sequential, 50));
+    }
+
+    // The stock call the validator makes for these products
+    private void checkStock(Map<Long, Integer> quantities) {
+        if (quantities.size() == 1) {
+            quantities.forEach(productClient::checkStock);
+            return;
+        }
+        productClient.checkStockBatch(quantities.entrySet().stream()
+                .map(entry -> new ProductStockQuery(entry.getKey(), entry.getValue()))
+                .toList());
+    }
+
+    private long[] measure(Consumer<OrderRequestDTO> validation, OrderRequestDTO request) {
+        for (int i = 0; i < WARMUP; i++) {
+            validation.accept(request);
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            validation.accept(request);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples;
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static void report(int products, String name, long[] sorted) {
+        System.out.printf("%2d products %-10s p50=%6.1fms p99=%6.1fms%n", products, name,
+                percentile(sorted, 50) / 1_000_000.0, percentile(sorted, 99) / 1_000_000.0);
+    }
+
+    private <T> T fetch(String url, Class<T> type) {
+        return send(HttpRequest.newBuilder(URI.create(url)).build(), type);
+    }
+
+    private <T> T postJson(String url, Object body, Class<T> type) {
+        try {
+            return send(HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build(), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T send(HttpRequest request, Class<T> type) {
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.sotatek.order.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.sotatek.order.config.ProductLookupProperties;
+import com.sotatek.order.infrastructure.cache.ProductStockLoader;
+import com.sotatek.order.infrastructure.client.ProductClient;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductStockQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.stream.LongStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flash-sale load against product-service: many concurrent lookups skewed towards a few
+ * hot products. Counts downstream requests with and without {@link ProductStockLoader}
+ * coalescing. Run with {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+class ProductLookupCoalescingBenchmark {
+
+    private static final int CALLERS = 200;
+    private static final int LOOKUPS = 2_000;
+    private static final int PRODUCTS = 20;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private WireMockServer wireMockServer;
+    private ExecutorService callers;
+    private ScheduledExecutorService scheduler;
+    private ProductClient productClient;
+
+    @BeforeEach
+    void setup() throws IOException {
+        wireMockServer = new WireMockServer(options().dynamicPort());
+        wireMockServer.start();
+
+        wireMockServer.stubFor(get(urlPathMatching("/products/.*/stock"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"id\":1,\"available\":true,\"stock\":100,\"price\":50.00}")
+                        .withLogNormalRandomDelay(40, 0.3)));
+        // The batch stub answers for every product in the catalogue; the loader picks out what it asked for
+        String catalogue = objectMapper.writeValueAsString(LongStream.rangeClosed(1, PRODUCTS)
+                .mapToObj(id -> new ProductResponse(id, true, 100, null))
+                .toList());
+        wireMockServer.stubFor(post(urlEqualTo("/products/stock/batch"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(catalogue)
+                        .withLogNormalRandomDelay(45, 0.3)));
+
+        String baseUrl = "http://localhost:" + wireMockServer.port();
+        productClient = new ProductClient() {
+            @Override
+            public ProductResponse checkStock(Long id, int quantity) {
+                URI uri = URI.create(baseUrl + "/products/" + id + "/stock?quantity=" + quantity);
+                return send(HttpRequest.newBuilder(uri).build(), new TypeReference<ProductResponse>() {
+                });
+            }
+
+            @Override
+            public List<ProductResponse> checkStockBatch(List<ProductStockQuery> queries) {
+                return send(HttpRequest.newBuilder(URI.create(baseUrl + "/products/stock/batch"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(write(queries)))
+                        .build(), new TypeReference<List<ProductResponse>>() {
+                });
+            }
+        };
+        callers = Executors.newFixedThreadPool(CALLERS);
+        scheduler = Executors.newScheduledThreadPool(4);
+    }
+
+    @AfterEach
+    void teardown() {
+        callers.shutdownNow();
+        scheduler.shutdownNow();
+        wireMockServer.stop();
+    }
+
+    @Test
+    void coalescingShouldCutDownstreamCalls() throws Exception {
+        ProductLookupProperties direct = new ProductLookupProperties();
+        direct.setCoalescing(false);
+        long directCalls = run(new ProductStockLoader(productClient, direct, scheduler));
+
+        long coalescedCalls = run(new ProductStockLoader(productClient, new ProductLookupProperties(), scheduler));
+
+        System.out.printf("%d lookups over %d products: direct=%d calls, coalesced=%d calls (%.1fx fewer)%n",
+                LOOKUPS, PRODUCTS, directCalls, coalescedCalls, (double) directCalls / coalescedCalls);
+
+        assertThat(directCalls).isEqualTo(LOOKUPS);
+        assertThat(coalescedCalls).isLessThan(directCalls / 10);
+    }
+
+    // Returns the number of requests product-service received
+    private long run(ProductStockLoader loader) throws Exception {
+        wireMockServer.resetRequests();
+        Random random = new Random(42);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<ProductResponse>> results = new ArrayList<>();
+        for (int i = 0; i < LOOKUPS; i++) {
+            // 80% of the traffic goes to product 1, the rest is spread over the catalogue
+            long productId = random.nextDouble() < 0.8 ? 1L : 1L + random.nextInt(PRODUCTS);
+            results.add(callers.submit(() -> {
+                start.await();
+                return loader.checkStock(productId, 1);
+            }));
+        }
+        start.countDown();
+        for (Future<ProductResponse> result : results) {
+            assertThat(result.get().isAvailable()).isTrue();
+        }
+
+        ProductStockLoader.Stats stats = loader.stats();
+        System.out.printf("lookups=%d coalesced=%d remoteCalls=%d%n",
+                stats.lookups(), stats.coalesced(), stats.remoteCalls());
+        return wireMockServer.findAll(anyRequestedFor(anyUrl())).size();
+    }
+
+    private String write(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T send(HttpRequest request, TypeReference<T> type) {
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.sotatek.order.benchmark;
+
+import com.sotatek.order.config.ProductLookupProperties;
+import com.sotatek.order.config.StockLedgerProperties;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.infrastructure.cache.ProductStockLoader;
+import com.sotatek.order.infrastructure.client.ProductClient;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductStockQuery;
+import com.sotatek.order.repository.OrderItemRepository;
+import com.sotatek.order.service.StockLedger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reserve/release throughput of {@link StockLedger} with 64 threads hammering one hot SKU,
+ * compared with the same threads spread over 64 SKUs. Run with {@code ./gradlew benchmarkTest}.
+ */
+@Tag("benchmark")
+class StockLedgerContentionBenchmark {
+
+    private static final int THREADS = 64;
+    private static final int STOCK = 1_000_000;
+    private static final long WARMUP_MILLIS = 1_000;
+    private static final long MEASURE_MILLIS = 3_000;
+
+    @Test
+    void hotSkuThroughput() throws Exception {
+        StockLedger ledger = ledger();
+
+        double hot = run(ledger, thread -> 1L);
+        double spread = run(ledger, thread -> 1L + thread);
+
+        System.out.printf("%d threads: hot SKU %,.0f ops/s, spread over %d SKUs %,.0f ops/s%n",
+                THREADS, hot, THREADS, spread);
+
+        // Every reservation was released again, so nothing may have leaked or been oversold
+        assertThat(ledger.snapshot(1L, 1).getStock()).isEqualTo(STOCK);
+        assertThat(hot).isPositive();
+    }
+
+    // Operations per second; one operation is a reservation followed by its release
+    private double run(StockLedger ledger, IntFunction<Long> productForThread) throws Exception {
+        for (int thread = 0; thread < THREADS; thread++) {
+            ledger.snapshot(productForThread.apply(thread), 1); // seed outside the measurement
+        }
+        measure(ledger, productForThread, WARMUP_MILLIS);
+        long operations = measure(ledger, productForThread, MEASURE_MILLIS);
+        return operations * 1000.0 / MEASURE_MILLIS;
+    }
+
+    private long measure(StockLedger ledger, IntFunction<Long> productForThread, long millis) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                Long productId = productForThread.apply(thread);
+                results.add(pool.submit(() -> {
+                    start.await();
+                    long operations = 0;
+                    while (running.get()) {
+                        if (ledger.tryReserve(productId, 1)) {
+                            ledger.abandon(productId, 1);
+                            operations++;
+                        }
+                    }
+                    return operations;
+                }));
+            }
+            start.countDown();
+            Thread.sleep(millis);
+            running.set(false);
+            long total = 0;
+            for (Future<Long> result : results) {
+                total += result.get();
+            }
+            return total;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static StockLedger ledger() {
+        ProductClient productClient = new ProductClient() {
+            @Override
+            public ProductResponse checkStock(Long id, int quantity) {
+                return new ProductResponse(id, true, STOCK, Money.of("10"));
+            }
+
+            @Override
+            public List<ProductResponse> checkStockBatch(List<ProductStockQuery> queries) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        OrderItemRepository orderItemRepository = mock(OrderItemRepository.class);
+        when(orderItemRepository.sumQuantity(anyLong(), anyCollection())).thenReturn(0L);
+
+        ProductLookupProperties lookupProperties = new ProductLookupProperties();
+        lookupProperties.setCoalescing(false);
+        return new StockLedger(new ProductStockLoader(productClient, lookupProperties, null), productClient,
+                orderItemRepository, new StockLedgerProperties());
+    }
+}
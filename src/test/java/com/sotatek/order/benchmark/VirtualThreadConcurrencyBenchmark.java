@@ -0,0 +1,232 @@
+package com.sotatek.order.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.sotatek.order.config.MemberCacheProperties;
+import com.sotatek.order.config.OrderValidationProperties;
+import com.sotatek.order.config.ProductLookupProperties;
+import com.sotatek.order.config.StockLedgerProperties;
+import com.sotatek.order.config.VirtualThreads;
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.infrastructure.cache.MemberCache;
+import com.sotatek.order.infrastructure.cache.ProductStockLoader;
+import com.sotatek.order.infrastructure.client.MemberClient;
+import com.sotatek.order.infrastructure.client.ProductClient;
+import com.sotatek.order.infrastructure.client.dto.MemberResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductStockQuery;
+import com.sotatek.order.service.OrderValidator;
+import com.sotatek.order.service.StockLedger;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Highest concurrency at which order validation keeps p99 within {@link #SLO}, for the
+ * current model (200 request threads like Tomcat's default, 32 validation threads) and for
+ * virtual threads (one per request and per downstream call).
+ * Run with {@code ./gradlew benchmarkTest -PjavaVersion=21}.
+ */
+@Tag("benchmark")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadConcurrencyBenchmark {
+
+    private static final int[] CONCURRENCY = {50, 100, 200, 400, 800, 1600, 3200};
+    private static final Duration STEP = Duration.ofSeconds(5);
+    private static final Duration SLO = Duration.ofMillis(250); // p99; unloaded p99 is ~100 ms
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private WireMockServer wireMockServer;
+    private HttpClient httpClient;
+    private MemberClient memberClient;
+    private ProductClient productClient;
+
+    @BeforeEach
+    void setup() {
+        // Asynchronous delays: the stand-in holds no thread per pending response
+        wireMockServer = new WireMockServer(options()
+                .dynamicPort()
+                .containerThreads(200)
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(50));
+        wireMockServer.start();
+        wireMockServer.stubFor(get(urlPathMatching("/members/.*"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"id\":1,\"exists\":true,\"active\":true}")
+                        .withLogNormalRandomDelay(40, 0.3)));
+        wireMockServer.stubFor(get(urlPathMatching("/products/.*/stock"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"id\":101,\"available\":true,\"stock\":100,\"price\":50.00}")
+                        .withLogNormalRandomDelay(60, 0.3)));
+
+        httpClient = HttpClient.newBuilder().executor(VirtualThreads.newThreadPerTaskExecutor("http-")).build();
+        String baseUrl = "http://localhost:" + wireMockServer.port();
+        memberClient = id -> fetch(baseUrl + "/members/" + id, MemberResponse.class);
+        productClient = new ProductClient() {
+            @Override
+            public ProductResponse checkStock(Long id, int quantity) {
+                return fetch(baseUrl + "/products/" + id + "/stock?quantity=" + quantity, ProductResponse.class);
+            }
+
+            @Override
+            public List<ProductResponse> checkStockBatch(List<ProductStockQuery> queries) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @AfterEach
+    void teardown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void virtualThreadsShouldSustainMoreConcurrency() throws Exception {
+        int platform = maxSustainable("platform", () -> new Model(
+                pool(200, 100_000, new ThreadPoolExecutor.AbortPolicy()),
+                pool(32, 256, new ThreadPoolExecutor.CallerRunsPolicy())));
+        int virtual = maxSustainable("virtual", () -> new Model(
+                VirtualThreads.newThreadPerTaskExecutor("request-"),
+                VirtualThreads.newThreadPerTaskExecutor("order-validation-")));
+
+        System.out.printf("Max concurrency within p99 %d ms: platform %d, virtual %d%n",
+                SLO.toMillis(), platform, virtual);
+        assertThat(virtual).isGreaterThanOrEqualTo(platform);
+    }
+
+    // Steps up closed-loop concurrency until p99 breaks the SLO; returns the last level that held
+    private int maxSustainable(String label, ModelFactory factory) throws Exception {
+        int sustained = 0;
+        for (int concurrency : CONCURRENCY) {
+            Step step;
+            try (Model model = factory.create()) {
+                step = run(model, concurrency);
+            }
+            System.out.printf("%-8s %5d in flight: %7.0f orders/s, p50 %5d ms, p99 %5d ms%n",
+                    label, concurrency, step.throughput(), step.p50(), step.p99());
+            if (step.p99() > SLO.toMillis()) {
+                break;
+            }
+            sustained = concurrency;
+        }
+        return sustained;
+    }
+
+    private Step run(Model model, int concurrency) throws Exception {
+        OrderValidator validator = validator(model.validation());
+        OrderRequestDTO request = OrderRequestDTO.builder().memberId(1L).productId(101L).quantity(1).build();
+
+        // Each virtual client hands one order at a time to the request executor, like a Tomcat worker
+        ExecutorService clients = VirtualThreads.newThreadPerTaskExecutor("client-");
+        long deadline = System.nanoTime() + STEP.toNanos();
+        List<Future<List<Long>>> results = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            results.add(clients.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    model.requests().submit(() -> validator.validate(request)).get();
+                    latencies.add((System.nanoTime() - start) / 1_000_000);
+                }
+                return latencies;
+            }));
+        }
+        List<Long> all = new ArrayList<>();
+        for (Future<List<Long>> result : results) {
+            all.addAll(result.get());
+        }
+        clients.shutdownNow();
+
+        long[] sorted = all.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Step(sorted.length / (double) STEP.toSeconds(), percentile(sorted, 50), percentile(sorted, 99));
+    }
+
+    private OrderValidator validator(ExecutorService validationExecutor) {
+        // Every lookup goes remote: no member caching, no coalescing, no stock ledger
+        MemberCacheProperties noCaching = new MemberCacheProperties();
+        noCaching.setTtl(Duration.ZERO);
+        noCaching.setNegativeTtl(Duration.ZERO);
+        ProductLookupProperties noCoalescing = new ProductLookupProperties();
+        noCoalescing.setCoalescing(false);
+        StockLedgerProperties noLedger = new StockLedgerProperties();
+        noLedger.setEnabled(false);
+        StockLedger stockLedger = new StockLedger(new ProductStockLoader(productClient, noCoalescing, null),
+                productClient, null, noLedger);
+        OrderValidationProperties validation = new OrderValidationProperties();
+        validation.setTimeout(Duration.ofSeconds(30)); // measure queueing, not deadline failures
+        return new OrderValidator(new MemberCache(memberClient, noCaching, Runnable::run), stockLedger,
+                validationExecutor, validation, ObservationRegistry.NOOP);
+    }
+
+    private static ExecutorService pool(int threads, int queueCapacity, RejectedExecutionHandler policy) {
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), policy);
+    }
+
+    private <T> T fetch(String url, Class<T> type) {
+        try {
+            HttpResponse<byte[]> response = httpClient.send(
+                    HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            return objectMapper.readValue(response.body(), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Long.MAX_VALUE;
+        }
+        return sorted[(int) Math.ceil(percentile / 100 * sorted.length) - 1];
+    }
+
+    private record Model(ExecutorService requests, ExecutorService validation) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            requests.shutdownNow();
+            validation.shutdownNow();
+        }
+    }
+
+    private record Step(double throughput, long p50, long p99) {
+    }
+
+    @FunctionalInterface
+    private interface ModelFactory {
+        Model create();
+    }
+}
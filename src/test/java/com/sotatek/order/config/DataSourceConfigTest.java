@@ -0,0 +1,46 @@
+package com.sotatek.order.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataSourceConfigTest {
+
+    // Both URLs set, as in application.yml; nothing connects until a pool is used
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(
+                    R2dbcAutoConfiguration.class, DataSourceAutoConfiguration.class, JdbcTemplateAutoConfiguration.class))
+            .withPropertyValues(
+                    "order.reactive.enabled=false",
+                    "spring.datasource.url=jdbc:postgresql://localhost:5432/learn",
+                    "spring.datasource.hikari.maximum-pool-size=7",
+                    "spring.r2dbc.url=r2dbc:postgresql://localhost:5432/learn",
+                    "spring.r2dbc.username=learn");
+
+    @Test
+    void context_ReactiveDisabled_ShouldStillHaveJdbcDataSource() {
+        contextRunner.withUserConfiguration(DataSourceConfig.class).run(context -> {
+            assertThat(context).hasSingleBean(DataSource.class);
+            assertThat(context).hasSingleBean(JdbcTemplate.class);
+            assertThat(context.getBean(HikariDataSource.class).getMaximumPoolSize()).isEqualTo(7);
+        });
+    }
+
+    @Test
+    void context_WithoutConfig_ShouldLoseDataSourceToR2dbc() {
+        contextRunner.run(context -> {
+            assertThat(context).hasSingleBean(ConnectionFactory.class);
+            assertThat(context).doesNotHaveBean(DataSource.class);
+        });
+    }
+}
@@ -2,9 +2,12 @@ package com.sotatek.order.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
 import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.entity.Money;
 import com.sotatek.order.entity.OrderStatus;
 import com.sotatek.order.repository.OrderRepository;
+import com.sotatek.order.service.OutboxDispatcher;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,8 +18,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.math.BigDecimal;
-import java.util.UUID;
+import java.time.Duration;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -24,7 +26,11 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest
+// All three downstream services are stubbed by the one WireMock server on 8081
+@SpringBootTest(properties = {
+        "member.service.url=http://localhost:8081",
+        "product.service.url=http://localhost:8081",
+        "payment.service.url=http://localhost:8081"})
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
 public class FullFlowIntegrationTest {
@@ -38,6 +44,9 @@ public class FullFlowIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
     private WireMockServer wireMockServer;
 
     @BeforeEach
@@ -56,10 +65,10 @@ public class FullFlowIntegrationTest {
     @Test
     void createOrder_happyPath_shouldCreateAndConfirmOrder() throws Exception {
         Long memberId = 1L;
-        Long productId = 101L;
-        BigDecimal price = BigDecimal.valueOf(100);
+        Long productId = 9301L; // own product, so no other test's cached price or stock applies
+        Money price = Money.of("100");
         int quantity = 2;
-        BigDecimal totalPrice = price.multiply(BigDecimal.valueOf(quantity)); // 200
+        Money totalPrice = price.times(quantity); // 200
 
         // 1. Stub Member Service (OK)
         stubFor(get(urlEqualTo("/members/" + memberId))
@@ -72,12 +81,12 @@ public class FullFlowIntegrationTest {
                         "{\"id\":\"" + productId + "\",\"available\":true,\"stock\":10,\"price\":" + price + "}")));
 
         // 3. Stub Payment Service (Success)
-        stubFor(post(urlEqualTo("/payments"))
+        stubFor(WireMock.post(urlEqualTo("/payments"))
                 .willReturn(okJson("{\"transactionId\":\"tx-123\",\"success\":true,\"message\":\"Success\"}")));
 
         OrderRequestDTO request = OrderRequestDTO.builder()
                 .memberId(memberId)
-                .productId(productId) // Uses UUID now
+                .productId(productId)
                 .quantity(quantity)
                 .totalPrice(totalPrice)
                 .build();
@@ -85,21 +94,25 @@ public class FullFlowIntegrationTest {
         mockMvc.perform(post("/api/orders")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.status").value("CONFIRMED"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("PENDING"))
                 .andExpect(jsonPath("$.id").isNotEmpty());
 
+        // Payment runs from the outbox, outside the request transaction
+        outboxDispatcher.dispatch();
+        awaitPaymentSettled();
+
         assertThat(orderRepository.count()).isEqualTo(1);
         assertThat(orderRepository.findAll().get(0).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
     }
 
     @Test
-    void createOrder_paymentFails_shouldRollbackOrder() throws Exception {
+    void createOrder_paymentFails_shouldCancelOrder() throws Exception {
         Long memberId = 1L;
-        Long productId = 101L;
-        BigDecimal price = BigDecimal.valueOf(100);
+        Long productId = 9302L;
+        Money price = Money.of("100");
         int quantity = 1;
-        BigDecimal totalPrice = price;
+        Money totalPrice = price;
 
         // 1. Stub Member Service (OK)
         stubFor(get(urlEqualTo("/members/" + memberId))
@@ -112,7 +125,7 @@ public class FullFlowIntegrationTest {
                         "{\"id\":\"" + productId + "\",\"available\":true,\"stock\":10,\"price\":" + price + "}")));
 
         // 3. Stub Payment Service (Fail)
-        stubFor(post(urlEqualTo("/payments"))
+        stubFor(WireMock.post(urlEqualTo("/payments"))
                 .willReturn(okJson("{\"transactionId\":null,\"success\":false,\"message\":\"Insufficient funds\"}")));
 
         OrderRequestDTO request = OrderRequestDTO.builder()
@@ -122,13 +135,28 @@ public class FullFlowIntegrationTest {
                 .totalPrice(totalPrice)
                 .build();
 
-        // Expect 422 Unprocessable Entity
+        // Order is accepted as PENDING before payment is attempted
         mockMvc.perform(post("/api/orders")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isUnprocessableEntity());
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.status").value("PENDING"));
+
+        outboxDispatcher.dispatch();
+        awaitPaymentSettled();
+
+        // Verify Cancellation: declined payment moves the order to CANCELLED
+        assertThat(orderRepository.count()).isEqualTo(1);
+        assertThat(orderRepository.findAll().get(0).getStatus()).isEqualTo(OrderStatus.CANCELLED);
+    }
 
-        // Verify Rollback: Order should NOT be in the database
-        assertThat(orderRepository.count()).isEqualTo(0);
+    // The payment event is usually claimed by a worker right after the commit, so dispatch()
+    // may find nothing left to do while that worker is still calling payment-service
+    private void awaitPaymentSettled() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!orderRepository.findAll().get(0).getStatus().isFinal()) {
+            assertThat(System.nanoTime()).as("payment not settled within 10s").isLessThan(deadline);
+            Thread.sleep(50);
+        }
     }
 }
@@ -1,22 +1,69 @@
 package com.sotatek.order.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sotatek.order.dto.OrderBulkTransitionDTO;
+import com.sotatek.order.dto.OrderBulkTransitionStatusDTO;
+import com.sotatek.order.dto.OrderExportCriteria;
+import com.sotatek.order.dto.OrderExportFormat;
+import com.sotatek.order.dto.OrderLineDTO;
 import com.sotatek.order.dto.OrderRequestDTO;
 import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.dto.OrderSearchCriteria;
+import com.sotatek.order.dto.OrderSliceDTO;
+import com.sotatek.order.dto.OrderStatsCriteria;
+import com.sotatek.order.dto.OrderStatsDTO;
+import com.sotatek.order.dto.OrderTransitionDTO;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.exception.InvalidMemberException;
+import com.sotatek.order.exception.InvalidStatsRangeException;
+import com.sotatek.order.exception.OrderOverloadedException;
+import com.sotatek.order.exception.OrderStateConflictException;
+import com.sotatek.order.exception.OutOfStockException;
+import com.sotatek.order.exception.ServiceUnavailableException;
+import com.sotatek.order.service.OrderAdmissionLimiter;
+import com.sotatek.order.service.OrderBatchService;
+import com.sotatek.order.service.OrderBulkTransitionService;
+import com.sotatek.order.service.OrderExportService;
+import com.sotatek.order.service.OrderIdempotencyService;
 import com.sotatek.order.service.OrderService;
+import com.sotatek.order.service.OrderStatsService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
-import java.math.BigDecimal;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.function.Supplier;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -29,9 +76,32 @@ class OrderControllerTest {
     @MockBean
     private OrderService service;
 
+    @MockBean
+    private OrderBatchService batchService;
+
+    @MockBean
+    private OrderIdempotencyService idempotencyService;
+
+    @MockBean
+    private OrderAdmissionLimiter admissionLimiter;
+
+    @MockBean
+    private OrderBulkTransitionService bulkTransitionService;
+
+    @MockBean
+    private OrderExportService exportService;
+
+    @MockBean
+    private OrderStatsService statsService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void admitEverything() {
+        when(admissionLimiter.execute(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+    }
+
     @Test
     void createOrderShouldReturn201() throws Exception {
         // Given
@@ -39,12 +109,12 @@ class OrderControllerTest {
                 .memberId(1L)
                 .productId(2L)
                 .quantity(1)
-                .totalPrice(BigDecimal.TEN)
+                .totalPrice(Money.of("10"))
                 .build();
 
         OrderResponseDTO response = OrderResponseDTO.builder()
                 .id(UUID.randomUUID())
-                .totalPrice(BigDecimal.TEN)
+                .totalPrice(Money.of("10"))
                 .build();
 
         when(service.createOrder(any(OrderRequestDTO.class))).thenReturn(response);
@@ -56,4 +126,432 @@ class OrderControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id").exists());
     }
+
+    @Test
+    void createOrderShouldReturn503WhenValidationTimesOut() throws Exception {
+        // Given
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L)
+                .productId(2L)
+                .quantity(1)
+                .totalPrice(Money.of("10"))
+                .build();
+        when(service.createOrder(any(OrderRequestDTO.class)))
+                .thenThrow(new ServiceUnavailableException("Order validation timed out waiting for member service"));
+
+        // When/Then
+        mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(content().string("Order validation timed out waiting for member service"));
+    }
+
+    @Test
+    void createOrderShouldMapValidationFailuresToTheirStatus() throws Exception {
+        // Given
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L)
+                .productId(2L)
+                .quantity(1)
+                .totalPrice(Money.of("10"))
+                .build();
+        when(service.createOrder(any(OrderRequestDTO.class)))
+                .thenThrow(new OutOfStockException("Insufficient stock for product 2"))
+                .thenThrow(new InvalidMemberException("Member invalid or inactive: 1"));
+
+        // When/Then
+        mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+        mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createOrderWithItemsShouldNotRequireTotalPrice() throws Exception {
+        // Given
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L)
+                .items(List.of(new OrderLineDTO(2L, 1, null)))
+                .build();
+        when(service.createOrder(any(OrderRequestDTO.class)))
+                .thenReturn(OrderResponseDTO.builder().id(UUID.randomUUID()).build());
+
+        // When/Then
+        mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void createOrderSingleLineWithoutTotalPriceShouldReturn400() throws Exception {
+        // Given
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L)
+                .productId(2L)
+                .quantity(1)
+                .build();
+
+        // When/Then
+        mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+        verify(service, never()).createOrder(any());
+    }
+
+    @Test
+    void createOrderOverLimitShouldReturn503WithRetryAfter() throws Exception {
+        // Given
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L)
+                .productId(2L)
+                .quantity(1)
+                .totalPrice(Money.of("10"))
+                .build();
+        doThrow(new OrderOverloadedException("Too many orders in progress", Duration.ofSeconds(2)))
+                .when(admissionLimiter).execute(any());
+
+        // When/Then
+        mockMvc.perform(post("/api/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+        verify(service, never()).createOrder(any());
+    }
+
+    @Test
+    void createOrderWithIdempotencyKeyShouldMarkReplays() throws Exception {
+        // Given
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L)
+                .productId(2L)
+                .quantity(1)
+                .totalPrice(Money.of("10"))
+                .build();
+        OrderResponseDTO response = OrderResponseDTO.builder().id(UUID.randomUUID()).build();
+        when(idempotencyService.execute(eq("key-1"), any(OrderRequestDTO.class), any()))
+                .thenReturn(new OrderIdempotencyService.Result(response, true));
+
+        // When/Then
+        mockMvc.perform(post("/api/orders")
+                .header("Idempotency-Key", "key-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(response.getId().toString()));
+        verify(service, never()).createOrder(any());
+    }
+
+    @Test
+    void submitOrderAsyncShouldReturn202WithStatusUrl() throws Exception {
+        // Given
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L)
+                .productId(2L)
+                .quantity(1)
+                .totalPrice(Money.of("10"))
+                .build();
+        UUID id = UUID.randomUUID();
+
+        when(service.submitOrder(any(OrderRequestDTO.class))).thenReturn(OrderResponseDTO.builder()
+                .id(id)
+                .status(OrderStatus.SUBMITTED)
+                .build());
+
+        // When/Then
+        mockMvc.perform(post("/api/orders")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/orders/" + id))
+                .andExpect(jsonPath("$.id").value(id.toString()))
+                .andExpect(jsonPath("$.status").value("SUBMITTED"))
+                .andExpect(jsonPath("$.statusUrl").value("http://localhost/api/orders/" + id));
+
+        verify(service, never()).createOrder(any());
+    }
+
+    @Test
+    void submitOrderShouldMatchRespondAsyncAmongOtherPreferences() throws Exception {
+        // Given
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L)
+                .productId(2L)
+                .quantity(1)
+                .totalPrice(Money.of("10"))
+                .build();
+        when(service.submitOrder(any(OrderRequestDTO.class))).thenReturn(OrderResponseDTO.builder()
+                .id(UUID.randomUUID())
+                .status(OrderStatus.SUBMITTED)
+                .build());
+
+        // When/Then
+        mockMvc.perform(post("/api/orders")
+                .header("Prefer", "return=minimal; foo=\"a,b\"", "wait=10, Respond-Async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Preference-Applied", "respond-async"));
+        verify(service, never()).createOrder(any());
+    }
+
+    @Test
+    void createOrderShouldIgnoreOtherPreferences() throws Exception {
+        // Given
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L)
+                .productId(2L)
+                .quantity(1)
+                .totalPrice(Money.of("10"))
+                .build();
+        when(service.createOrder(any(OrderRequestDTO.class))).thenReturn(OrderResponseDTO.builder().id(UUID.randomUUID()).build());
+
+        // When/Then
+        mockMvc.perform(post("/api/orders")
+                .header("Prefer", "wait=10, foo=\"respond-async\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        verify(service, never()).submitOrder(any());
+    }
+
+    @Test
+    void submitOrderOverLimitShouldReturn503WithRetryAfter() throws Exception {
+        // Given
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L)
+                .productId(2L)
+                .quantity(1)
+                .totalPrice(Money.of("10"))
+                .build();
+        doThrow(new OrderOverloadedException("Too many orders in progress", Duration.ofSeconds(2)))
+                .when(admissionLimiter).execute(any());
+
+        // When/Then
+        mockMvc.perform(post("/api/orders")
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+        verify(service, never()).submitOrder(any());
+    }
+
+    @Test
+    void transitionFromStaleVersionShouldReturn409() throws Exception {
+        // Given
+        UUID id = UUID.randomUUID();
+        OrderTransitionDTO transition = new OrderTransitionDTO(OrderStatus.PENDING, OrderStatus.CANCELLED, 0L);
+        when(service.transitionOrder(eq(id), any(OrderTransitionDTO.class)))
+                .thenThrow(new OrderStateConflictException("Order " + id + " is no longer PENDING at version 0"));
+
+        // When/Then
+        mockMvc.perform(put("/api/orders/" + id + "/status")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transition)))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void bulkTransitionShouldReturn202WithStatusUrl() throws Exception {
+        // Given
+        UUID jobId = UUID.randomUUID();
+        OrderBulkTransitionDTO request = OrderBulkTransitionDTO.builder()
+                .to(OrderStatus.CANCELLED)
+                .status(OrderStatus.PENDING)
+                .productId(7L)
+                .build();
+        when(bulkTransitionService.start(any(OrderBulkTransitionDTO.class))).thenReturn(OrderBulkTransitionStatusDTO.builder()
+                .id(jobId)
+                .to(OrderStatus.CANCELLED)
+                .state(OrderBulkTransitionStatusDTO.State.RUNNING)
+                .build());
+
+        // When/Then
+        mockMvc.perform(post("/api/orders/transitions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/orders/transitions/" + jobId))
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+    }
+
+    @Test
+    void bulkTransitionWithIdsAndFilterShouldReturn400() throws Exception {
+        // Given
+        OrderBulkTransitionDTO request = OrderBulkTransitionDTO.builder()
+                .to(OrderStatus.CANCELLED)
+                .ids(List.of(UUID.randomUUID()))
+                .status(OrderStatus.PENDING)
+                .build();
+
+        // When/Then
+        mockMvc.perform(post("/api/orders/transitions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(bulkTransitionService, never()).start(any());
+    }
+
+    @Test
+    void listWithCursorShouldUseKeysetListing() throws Exception {
+        // Given
+        when(service.listOrdersAfter(any(), eq(50))).thenReturn(OrderSliceDTO.builder()
+                .content(List.of(OrderResponseDTO.builder().id(UUID.randomUUID()).build()))
+                .size(1)
+                .nextCursor("next")
+                .build());
+
+        // When/Then
+        mockMvc.perform(get("/api/orders").param("cursor", "").param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(service, never()).listOrders(any());
+    }
+
+    @Test
+    void searchShouldBindFiltersFromQueryParameters() throws Exception {
+        // Given
+        Page<OrderResponseDTO> page = new PageImpl<>(List.of(OrderResponseDTO.builder().id(UUID.randomUUID()).build()));
+        when(service.searchOrders(any(OrderSearchCriteria.class), any(Pageable.class))).thenReturn(page);
+
+        // When
+        mockMvc.perform(get("/api/orders/search")
+                        .param("memberId", "7")
+                        .param("status", "PENDING")
+                        .param("createdFrom", "2024-01-01T00:00:00")
+                        .param("minPrice", "10.50")
+                        .param("productId", "42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1));
+
+        // Then
+        ArgumentCaptor<OrderSearchCriteria> criteria = ArgumentCaptor.forClass(OrderSearchCriteria.class);
+        verify(service).searchOrders(criteria.capture(), any(Pageable.class));
+        assertThat(criteria.getValue().getMemberId()).isEqualTo(7L);
+        assertThat(criteria.getValue().getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(criteria.getValue().getCreatedFrom()).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertThat(criteria.getValue().getMinPrice()).isEqualByComparingTo("10.50");
+        assertThat(criteria.getValue().getProductId()).isEqualTo(42L);
+        assertThat(criteria.getValue().getMaxPrice()).isNull();
+    }
+
+    @Test
+    void searchShouldRejectUnknownStatus() throws Exception {
+        mockMvc.perform(get("/api/orders/search").param("status", "LOST"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportShouldStreamCsvWithFilters() throws Exception {
+        // Given
+        OrderExportService.Export body = mock(OrderExportService.Export.class);
+        doAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(0).write("id,memberId\r\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(body).writeTo(any());
+        when(exportService.export(any(OrderExportCriteria.class), eq(OrderExportFormat.CSV))).thenReturn(body);
+
+        // When
+        MvcResult started = mockMvc.perform(get("/api/orders/export")
+                        .param("format", "CSV")
+                        .param("status", "CONFIRMED")
+                        .param("createdFrom", "2024-01-01T00:00:00")
+                        .param("createdTo", "2024-01-02T00:00:00"))
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(content().string("id,memberId\r\n"));
+        ArgumentCaptor<OrderExportCriteria> criteria = ArgumentCaptor.forClass(OrderExportCriteria.class);
+        verify(exportService).export(criteria.capture(), eq(OrderExportFormat.CSV));
+        assertThat(criteria.getValue().getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(criteria.getValue().getCreatedFrom()).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertThat(criteria.getValue().getCreatedTo()).isEqualTo(LocalDateTime.of(2024, 1, 2, 0, 0));
+    }
+
+    @Test
+    void exportShouldDefaultToNdjson() throws Exception {
+        // Given
+        when(exportService.export(any(OrderExportCriteria.class), eq(OrderExportFormat.NDJSON)))
+                .thenReturn(mock(OrderExportService.Export.class));
+
+        // When/Then
+        mockMvc.perform(get("/api/orders/export"))
+                .andExpect(header().string("Content-Type", "application/x-ndjson"));
+    }
+
+    @Test
+    void exportShouldAnswer503WhenExportsAreSaturated() throws Exception {
+        // Given
+        when(exportService.export(any(), any()))
+                .thenThrow(new OrderOverloadedException("Too many order exports in progress", Duration.ofSeconds(30)));
+
+        // When/Then
+        mockMvc.perform(get("/api/orders/export"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "30"));
+    }
+
+    @Test
+    void statsShouldBindCriteriaAndReturnBuckets() throws Exception {
+        // Given
+        OrderStatsDTO.Bucket bucket = OrderStatsDTO.Bucket.builder()
+                .start(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .status(OrderStatus.CONFIRMED)
+                .count(3)
+                .revenue(Money.of("361.50"))
+                .build();
+        when(statsService.getStats(any(OrderStatsCriteria.class))).thenReturn(OrderStatsDTO.builder()
+                .from(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .to(LocalDateTime.of(2024, 1, 2, 0, 0))
+                .memberId(7L)
+                .granularity(OrderStatsDTO.Granularity.DAY)
+                .totals(List.of(bucket))
+                .buckets(List.of(bucket))
+                .build());
+
+        // When/Then
+        mockMvc.perform(get("/api/orders/stats")
+                        .param("memberId", "7")
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("to", "2024-01-02T00:00:00")
+                        .param("granularity", "DAY"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.buckets[0].status").value("CONFIRMED"))
+                .andExpect(jsonPath("$.buckets[0].count").value(3))
+                .andExpect(jsonPath("$.totals[0].revenue").value(361.50));
+        ArgumentCaptor<OrderStatsCriteria> criteria = ArgumentCaptor.forClass(OrderStatsCriteria.class);
+        verify(statsService).getStats(criteria.capture());
+        assertThat(criteria.getValue().getMemberId()).isEqualTo(7L);
+        assertThat(criteria.getValue().getFrom()).isEqualTo(LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertThat(criteria.getValue().getTo()).isEqualTo(LocalDateTime.of(2024, 1, 2, 0, 0));
+        assertThat(criteria.getValue().getGranularity()).isEqualTo(OrderStatsDTO.Granularity.DAY);
+    }
+
+    @Test
+    void statsShouldRejectInvalidRange() throws Exception {
+        // Given
+        when(statsService.getStats(any())).thenThrow(new InvalidStatsRangeException("from must be before to"));
+
+        // When/Then
+        mockMvc.perform(get("/api/orders/stats")
+                        .param("from", "2024-01-02T00:00:00")
+                        .param("to", "2024-01-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
 }
@@ -0,0 +1,81 @@
+package com.sotatek.order.entity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.sotatek.order.dto.OrderLineDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void of_ShouldParseToMinorUnits() {
+        assertThat(Money.of("50").minorUnits()).isEqualTo(5000L);
+        assertThat(Money.of("50.5").minorUnits()).isEqualTo(5050L);
+        assertThat(Money.of("-0.07").minorUnits()).isEqualTo(-7L);
+        assertThat(Money.of("1.005").minorUnits()).isEqualTo(101L); // via BigDecimal, half up
+        assertThat(Money.of("1e2")).isEqualTo(Money.of("100.00"));
+        assertThat(Money.of(new BigDecimal("19.999"))).isEqualTo(Money.of("20"));
+        assertThrows(NumberFormatException.class, () -> Money.of("."));
+        assertThrows(NumberFormatException.class, () -> Money.of("12a"));
+    }
+
+    @Test
+    void arithmetic_ShouldMatchBigDecimalHalfUp() {
+        Money price = Money.of("33.33");
+
+        assertThat(price.times(3).plus(Money.of("0.01"))).isEqualTo(Money.of("100.00"));
+        assertThat(Money.of("100.00").dividedBy(3)).isEqualTo(price);
+        assertThat(Money.of("0.05").dividedBy(2)).isEqualTo(Money.of("0.03"));
+        assertThat(Money.of("-0.05").dividedBy(2)).isEqualTo(Money.of("-0.03"));
+        assertThat(Money.of("100.00").minus(price).toBigDecimal()).isEqualByComparingTo("66.67");
+        assertThat(price.compareTo(Money.of("33.34"))).isNegative();
+        assertThrows(ArithmeticException.class, () -> Money.ofMinor(Long.MAX_VALUE).times(2));
+        assertThrows(IllegalArgumentException.class,
+                () -> price.plus(new Money(1L, Currency.getInstance("EUR"))));
+    }
+
+    @Test
+    void total_ShouldSumLinesLikePlusAndTimes() {
+        Money.Total total = new Money.Total()
+                .add(Money.of("33.33"), 3)
+                .add(Money.of("0.01"), 1);
+
+        assertThat(total.toMoney()).isEqualTo(Money.of("33.33").times(3).plus(Money.of("0.01")));
+        assertThat(new Money.Total().toMoney()).isEqualTo(Money.ZERO);
+        assertThrows(ArithmeticException.class, () -> new Money.Total().add(Money.ofMinor(Long.MAX_VALUE), 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> total.add(new Money(1L, Currency.getInstance("EUR")), 1));
+    }
+
+    @Test
+    void json_ShouldRoundTripAsPlainNumber() throws Exception {
+        OrderLineDTO line = new OrderLineDTO(101L, 2, Money.of("50"));
+
+        String json = objectMapper.writeValueAsString(line);
+
+        assertThat(json).contains("\"unitPrice\":50.00");
+        assertThat(objectMapper.readValue(json, OrderLineDTO.class)).isEqualTo(line);
+        assertThat(objectMapper.readValue("{\"unitPrice\":\"7.5\"}", OrderLineDTO.class).getUnitPrice())
+                .isEqualTo(Money.of("7.50"));
+        assertThrows(InvalidFormatException.class,
+                () -> objectMapper.readValue("{\"unitPrice\":\"abc\"}", OrderLineDTO.class));
+    }
+
+    @Test
+    void converter_ShouldMapToTwoDecimalColumn() {
+        MoneyConverter converter = new MoneyConverter();
+
+        assertThat(converter.convertToDatabaseColumn(Money.of("12.3"))).isEqualTo(new BigDecimal("12.30"));
+        assertThat(converter.convertToEntityAttribute(new BigDecimal("12.30"))).isEqualTo(Money.of("12.3"));
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+}
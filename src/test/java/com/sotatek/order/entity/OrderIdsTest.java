@@ -0,0 +1,46 @@
+package com.sotatek.order.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderIdsTest {
+
+    @Test
+    void of_ShouldGiveTimeOrderedIdsWhoseRangeHoldsCreatedAt() {
+        LocalDateTime createdAt = LocalDateTime.of(2026, 10, 17, 12, 30, 45, 123_456_000);
+
+        UUID id = OrderIds.of(createdAt);
+        OrderIds.CreatedRange range = OrderIds.createdRange(id);
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(range.from()).isEqualTo(LocalDateTime.of(2026, 10, 17, 12, 30, 45, 123_000_000));
+        assertThat(range.to()).isEqualTo(LocalDateTime.of(2026, 10, 17, 12, 30, 45, 124_000_000));
+        assertThat(OrderIds.of(createdAt)).isNotEqualTo(id);
+        assertThat(OrderIds.of(createdAt.plusSeconds(1))).isGreaterThan(id);
+    }
+
+    @Test
+    void createdRange_RandomIdShouldMatchEveryPartition() {
+        OrderIds.CreatedRange range = OrderIds.createdRange(UUID.randomUUID());
+
+        assertThat(range.from()).isBefore(LocalDateTime.of(2000, 1, 1, 0, 0));
+        assertThat(range.to()).isAfter(LocalDateTime.of(2100, 1, 1, 0, 0));
+    }
+
+    @Test
+    void createdRange_ShouldSpanAllIds() {
+        LocalDateTime september = LocalDateTime.of(2026, 9, 30, 23, 59);
+        LocalDateTime october = LocalDateTime.of(2026, 10, 2, 8, 0);
+
+        OrderIds.CreatedRange range = OrderIds.createdRange(List.of(OrderIds.of(october), OrderIds.of(september)));
+
+        assertThat(range.from()).isEqualTo(september);
+        assertThat(range.to()).isEqualTo(october.plusNanos(1_000_000));
+    }
+}
@@ -0,0 +1,138 @@
+package com.sotatek.order.infrastructure.cache;
+
+import com.sotatek.order.config.MemberCacheProperties;
+import com.sotatek.order.infrastructure.client.ClientFallbacks;
+import com.sotatek.order.infrastructure.client.MemberClient;
+import com.sotatek.order.infrastructure.client.dto.MemberResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MemberCacheTest {
+
+    @Mock
+    private MemberClient memberClient;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private MemberCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new MemberCache(memberClient, properties(), Runnable::run, nanos::get);
+    }
+
+    private static MemberCacheProperties properties() {
+        MemberCacheProperties properties = new MemberCacheProperties();
+        properties.setTtl(Duration.ofMinutes(10));
+        properties.setNegativeTtl(Duration.ofSeconds(30));
+        properties.setRefreshAfter(Duration.ofMinutes(8));
+        return properties;
+    }
+
+    @Test
+    void activeMember_ShouldBeServedFromCacheUntilTtl() {
+        when(memberClient.getMember(1L)).thenReturn(new MemberResponse(1L, true, true));
+
+        cache.getMember(1L);
+        advance(Duration.ofMinutes(5));
+        cache.getMember(1L);
+
+        verify(memberClient, times(1)).getMember(1L);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void activeMember_ShouldBeRefreshedAheadOfExpiry() {
+        // Refreshes queue up here instead of running on the caller, as on the real executor
+        Queue<Runnable> refreshes = new ArrayDeque<>();
+        cache = new MemberCache(memberClient, properties(), refreshes::add, nanos::get);
+        when(memberClient.getMember(1L))
+                .thenReturn(new MemberResponse(1L, true, true))
+                .thenReturn(new MemberResponse(1L, true, false));
+
+        cache.getMember(1L);
+        advance(Duration.ofMinutes(9));
+
+        // Stale value is served while the refresh runs; the refreshed value is visible next
+        assertThat(cache.getMember(1L).isActive()).isTrue();
+        refreshes.forEach(Runnable::run);
+        assertThat(cache.getMember(1L).isActive()).isFalse();
+        verify(memberClient, times(2)).getMember(1L);
+    }
+
+    @Test
+    void inactiveMember_ShouldUseShortNegativeTtl() {
+        when(memberClient.getMember(2L)).thenReturn(new MemberResponse(2L, true, false));
+
+        cache.getMember(2L);
+        advance(Duration.ofSeconds(10));
+        cache.getMember(2L);
+        verify(memberClient, times(1)).getMember(2L);
+
+        advance(Duration.ofSeconds(30));
+        cache.getMember(2L);
+        verify(memberClient, times(2)).getMember(2L);
+    }
+
+    @Test
+    void refreshFallingBack_ShouldKeepTheValidMember() {
+        when(memberClient.getMember(1L))
+                .thenReturn(new MemberResponse(1L, true, true))
+                .thenAnswer(invocation -> fallback(1L))
+                .thenReturn(new MemberResponse(1L, true, true));
+
+        cache.getMember(1L);
+        advance(Duration.ofMinutes(9));
+
+        // The failed refresh leaves the entry alone, and the next read tries again
+        assertThat(cache.getMember(1L).isExists()).isTrue();
+        assertThat(cache.getMember(1L).isActive()).isTrue();
+        assertThat(cache.getMember(1L).isActive()).isTrue();
+        verify(memberClient, times(3)).getMember(1L);
+    }
+
+    @Test
+    void firstLoadFallingBack_ShouldAnswerFallbackWithoutCachingIt() {
+        when(memberClient.getMember(1L))
+                .thenAnswer(invocation -> fallback(1L))
+                .thenReturn(new MemberResponse(1L, true, true));
+
+        assertThat(cache.getMember(1L).isExists()).isFalse();
+        assertThat(cache.getMember(1L).isActive()).isTrue();
+        verify(memberClient, times(2)).getMember(1L);
+    }
+
+    @Test
+    void evict_ShouldForceRemoteLookup() {
+        when(memberClient.getMember(1L)).thenReturn(new MemberResponse(1L, true, true));
+
+        cache.getMember(1L);
+        cache.evict(1L);
+        cache.getMember(1L);
+
+        verify(memberClient, times(2)).getMember(1L);
+    }
+
+    // What MemberClient.getMemberFallback answers when the circuit is open
+    private static MemberResponse fallback(Long id) {
+        ClientFallbacks.mark();
+        return new MemberResponse(id, false, false);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
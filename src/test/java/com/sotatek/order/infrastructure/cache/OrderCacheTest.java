@@ -0,0 +1,192 @@
+package com.sotatek.order.infrastructure.cache;
+
+import com.sotatek.order.config.OrderCacheProperties;
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.support.InMemorySharedOrderCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+    private final InMemorySharedOrderCache sharedTier = new InMemorySharedOrderCache();
+
+    private OrderCacheProperties properties;
+    private OrderCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OrderCacheProperties();
+        properties.setOpenTtl(Duration.ofSeconds(2));
+        properties.setFinalTtl(Duration.ofMinutes(10));
+        cache = new OrderCache(properties, sharedTier, nanos::get);
+    }
+
+    @Test
+    void openOrder_ShouldExpireAfterOpenTtl() {
+        UUID id = UUID.randomUUID();
+        Function<UUID, OrderResponseDTO> loader = loader(OrderStatus.PENDING);
+
+        cache.get(id, loader);
+        advance(Duration.ofSeconds(1));
+        cache.get(id, loader);
+        assertThat(loads).hasValue(1);
+
+        advance(Duration.ofSeconds(2));
+        cache.get(id, loader);
+        assertThat(loads).hasValue(2);
+        // Open orders stay out of the shared tier
+        assertThat(sharedTier.contains(id)).isFalse();
+    }
+
+    @Test
+    void terminalOrder_ShouldBeKeptForFinalTtlAndShared() {
+        UUID id = UUID.randomUUID();
+        Function<UUID, OrderResponseDTO> loader = loader(OrderStatus.DELIVERED);
+
+        cache.get(id, loader);
+        advance(Duration.ofMinutes(5));
+        cache.get(id, loader);
+
+        assertThat(loads).hasValue(1);
+        assertThat(sharedTier.contains(id)).isTrue();
+        assertThat(cache.staleness().maxServedAgeMs()).isEqualTo(Duration.ofMinutes(5).toMillis());
+    }
+
+    @Test
+    void confirmedOrder_ShouldExpireAfterOpenTtlSoShippingElsewhereShows() {
+        UUID id = UUID.randomUUID();
+        cache.get(id, loader(OrderStatus.CONFIRMED));
+        assertThat(sharedTier.contains(id)).isFalse();
+
+        // Another instance ships the order: this one only learns it from the database
+        advance(Duration.ofSeconds(1));
+        assertThat(cache.get(id, loader(OrderStatus.SHIPPED)).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        advance(Duration.ofSeconds(2));
+        assertThat(cache.get(id, loader(OrderStatus.SHIPPED)).getStatus()).isEqualTo(OrderStatus.SHIPPED);
+
+        assertThat(loads).hasValue(2);
+        assertThat(sharedTier.contains(id)).isFalse();
+    }
+
+    @Test
+    void localMiss_ShouldBeServedBySharedTierWithoutLoading() {
+        UUID id = UUID.randomUUID();
+        sharedTier.put(id, order(id, OrderStatus.CANCELLED), properties.getFinalTtl());
+
+        OrderResponseDTO order = cache.get(id, loader(OrderStatus.CANCELLED));
+
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(loads).hasValue(0);
+        assertThat(cache.staleness().sharedHitCount()).isEqualTo(1);
+        assertThat(cache.staleness().combinedHitRate()).isEqualTo(1.0);
+        assertThat(cache.stats().hitRate()).isZero();
+    }
+
+    @Test
+    void evict_ShouldDropEveryTier() {
+        UUID id = UUID.randomUUID();
+        cache.get(id, loader(OrderStatus.CONFIRMED));
+
+        cache.evict(id);
+        cache.get(id, loader(OrderStatus.CANCELLED));
+
+        assertThat(loads).hasValue(2);
+        assertThat(cache.staleness().invalidationCount()).isEqualTo(1);
+    }
+
+    @Test
+    void put_ShouldReplaceEntryAndDropOpenOrdersFromSharedTier() {
+        UUID id = UUID.randomUUID();
+        cache.put(order(id, OrderStatus.CANCELLED));
+        assertThat(sharedTier.contains(id)).isTrue();
+
+        cache.put(order(id, OrderStatus.PENDING));
+
+        assertThat(cache.get(id, loader(OrderStatus.CANCELLED)).getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(sharedTier.contains(id)).isFalse();
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    void putDuringLoad_ShouldNotWaitForItAndShouldWin() throws Exception {
+        UUID id = UUID.randomUUID();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<OrderResponseDTO> read = CompletableFuture.supplyAsync(() -> cache.get(id, key -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return order(key, OrderStatus.PENDING);
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The load is not run under a Caffeine lock the write path would wait on
+        CompletableFuture.runAsync(() -> cache.put(order(id, OrderStatus.CANCELLED))).get(5, TimeUnit.SECONDS);
+        release.countDown();
+
+        assertThat(read.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(cache.get(id, loader(OrderStatus.PENDING)).getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    void bindTo_ShouldPublishLocalHitsAndMissesAsCacheMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        UUID id = UUID.randomUUID();
+
+        cache.get(id, loader(OrderStatus.CONFIRMED));
+        cache.get(id, loader(OrderStatus.CONFIRMED));
+
+        assertThat(registry.get("cache.gets").tag("cache", "orders").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.gets").tag("cache", "orders").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.size").tag("cache", "orders").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void disabled_ShouldAlwaysLoad() {
+        properties.setEnabled(false);
+        UUID id = UUID.randomUUID();
+
+        cache.get(id, loader(OrderStatus.CONFIRMED));
+        cache.get(id, loader(OrderStatus.CONFIRMED));
+
+        assertThat(loads).hasValue(2);
+        assertThat(sharedTier.reads()).isZero();
+    }
+
+    private Function<UUID, OrderResponseDTO> loader(OrderStatus status) {
+        return id -> {
+            loads.incrementAndGet();
+            return order(id, status);
+        };
+    }
+
+    private static OrderResponseDTO order(UUID id, OrderStatus status) {
+        return OrderResponseDTO.builder().id(id).status(status).build();
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,155 @@
+package com.sotatek.order.infrastructure.cache;
+
+import com.sotatek.order.config.ProductLookupProperties;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.exception.ServiceUnavailableException;
+import com.sotatek.order.infrastructure.client.ProductClient;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductStockQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductStockLoaderTest {
+
+    @Mock
+    private ProductClient productClient;
+
+    private ScheduledExecutorService scheduler;
+
+    private ExecutorService callers;
+
+    private ProductLookupProperties properties;
+
+    private ProductStockLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = Executors.newScheduledThreadPool(2);
+        callers = Executors.newFixedThreadPool(16);
+        properties = new ProductLookupProperties();
+        properties.setBatchWindow(Duration.ofMillis(200)); // wide enough for the callers to line up
+        loader = new ProductStockLoader(productClient, properties, scheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void concurrentLookupsForSameProduct_ShouldShareOneCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(productClient.checkStock(eq(101L), anyInt())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return product(101L);
+        });
+
+        List<CompletableFuture<ProductResponse>> results = IntStream.rangeClosed(1, 10)
+                .mapToObj(quantity -> CompletableFuture.supplyAsync(() -> loader.checkStock(101L, quantity), callers))
+                .toList();
+        awaitCoalesced(9);
+        release.countDown();
+
+        for (CompletableFuture<ProductResponse> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).getStock()).isEqualTo(100);
+        }
+        verify(productClient, times(1)).checkStock(eq(101L), anyInt());
+        assertThat(loader.stats().coalesced()).isEqualTo(9);
+        assertThat(loader.stats().remoteCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void lookupsForDifferentProductsInOneWindow_ShouldBeBatched() throws Exception {
+        when(productClient.checkStockBatch(anyList())).thenAnswer(invocation -> invocation
+                .<List<ProductStockQuery>>getArgument(0).stream()
+                .map(query -> product(query.getId()))
+                .toList());
+
+        List<CompletableFuture<ProductResponse>> results = IntStream.rangeClosed(1, 5)
+                .mapToObj(id -> CompletableFuture.supplyAsync(() -> loader.checkStock((long) id, 1), callers))
+                .toList();
+
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).get(5, TimeUnit.SECONDS).getId()).isEqualTo(i + 1L);
+        }
+        ArgumentCaptor<List<ProductStockQuery>> queries = ArgumentCaptor.forClass(List.class);
+        verify(productClient).checkStockBatch(queries.capture());
+        assertThat(queries.getValue()).hasSize(5);
+        verify(productClient, never()).checkStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void fullBatch_ShouldFlushBeforeWindowCloses() throws Exception {
+        properties.setBatchWindow(Duration.ofSeconds(30));
+        properties.setMaxBatchSize(3);
+        when(productClient.checkStockBatch(anyList())).thenAnswer(invocation -> invocation
+                .<List<ProductStockQuery>>getArgument(0).stream()
+                .map(query -> product(query.getId()))
+                .toList());
+
+        List<CompletableFuture<ProductResponse>> results = IntStream.rangeClosed(1, 3)
+                .mapToObj(id -> CompletableFuture.supplyAsync(() -> loader.checkStock((long) id, 1), callers))
+                .toList();
+
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        verify(productClient).checkStockBatch(anyList());
+    }
+
+    @Test
+    void productMissingFromBatchResponse_ShouldBeUnavailable() throws Exception {
+        when(productClient.checkStockBatch(anyList())).thenReturn(List.of(product(1L)));
+
+        CompletableFuture<ProductResponse> present =
+                CompletableFuture.supplyAsync(() -> loader.checkStock(1L, 1), callers);
+        CompletableFuture<ProductResponse> missing =
+                CompletableFuture.supplyAsync(() -> loader.checkStock(2L, 1), callers);
+
+        assertThat(present.get(5, TimeUnit.SECONDS).isAvailable()).isTrue();
+        assertThat(missing.get(5, TimeUnit.SECONDS).isAvailable()).isFalse();
+    }
+
+    @Test
+    void failedCall_ShouldFailEveryWaiterAndNotBeReused() {
+        when(productClient.checkStock(eq(101L), anyInt()))
+                .thenThrow(new ServiceUnavailableException("product-service down"))
+                .thenReturn(product(101L));
+
+        assertThrows(ServiceUnavailableException.class, () -> loader.checkStock(101L, 1));
+        assertThat(loader.checkStock(101L, 1).getStock()).isEqualTo(100);
+    }
+
+    private void awaitCoalesced(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loader.stats().coalesced() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static ProductResponse product(Long id) {
+        return new ProductResponse(id, true, 100, Money.of("10"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.sotatek.order.infrastructure.client;
+
+import com.sotatek.order.exception.ServiceUnavailableException;
+import com.sotatek.order.infrastructure.client.dto.MemberResponse;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClientMetricsAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldTagEachCallWithItsOutcome() {
+        MemberClient client = proxy(id -> switch (id.intValue()) {
+            case 1 -> new MemberResponse(id, true, true);
+            case 2 -> new FallbackMemberClient().getMember(id);
+            default -> throw new ServiceUnavailableException("member-service down");
+        });
+
+        client.getMember(1L);
+        client.getMember(1L);
+        client.getMember(2L);
+        assertThat(ClientFallbacks.consume()).isTrue();
+        assertThrows(ServiceUnavailableException.class, () -> client.getMember(3L));
+
+        assertThat(timer("success").count()).isEqualTo(2);
+        assertThat(timer("fallback").count()).isEqualTo(1);
+        assertThat(timer("error").count()).isEqualTo(1);
+        assertThat(timer("error").getId().getTag("exception")).isEqualTo("ServiceUnavailableException");
+        assertThat(timer("success").getId().getTag("client")).isEqualTo("MemberClient");
+    }
+
+    private Timer timer(String outcome) {
+        return meterRegistry.get(ClientMetricsAspect.METRIC).tag("outcome", outcome).timer();
+    }
+
+    private MemberClient proxy(MemberClient target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addInterface(MemberClient.class);
+        factory.addAspect(new ClientMetricsAspect(meterRegistry));
+        return factory.getProxy();
+    }
+
+    // Stands in for the circuit breaker invoking the fallback method
+    private static class FallbackMemberClient implements MemberClient {
+
+        @Override
+        public MemberResponse getMember(Long id) {
+            return getMemberFallback(id, new ServiceUnavailableException("open"));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.sotatek.order.repository;
+
+import com.sotatek.order.config.JpaConfig;
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderItem;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.mapper.OrderMapper;
+import com.sotatek.order.mapper.OrderMapperImpl;
+import com.sotatek.order.support.QueryCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Pins the number of queries each read path costs; a new lazy association touched while
+// mapping shows up here as extra statements
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE) // migrations are PostgreSQL-only
+@Import({JpaConfig.class, OrderMapperImpl.class})
+class OrderQueryCountTest {
+
+    private static final int ORDERS = 20;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderMapper mapper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private QueryCounter queryCounter;
+
+    private UUID firstId;
+
+    @BeforeEach
+    void setUp() {
+        // Integration tests commit orders to the same database; rolled back with the test
+        entityManager.getEntityManager().createNativeQuery("TRUNCATE orders CASCADE").executeUpdate();
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = Order.builder()
+                    .memberId(1L)
+                    .totalPrice(Money.of("10"))
+                    .status(OrderStatus.PENDING)
+                    .build();
+            order.addItem(OrderItem.builder().productId(100L + i).quantity(1).price(Money.of("10")).build());
+            entityManager.persist(order);
+            if (firstId == null) {
+                firstId = order.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        queryCounter = new QueryCounter(entityManagerFactory);
+    }
+
+    @Test
+    void pageListing_ShouldLoadItemsInOneBatch() {
+        // Page larger than the table: no count query; items for all orders in one IN query
+        queryCounter.assertStatements(2, () -> {
+            List<OrderResponseDTO> orders = orderRepository
+                    .findAll(PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "createdAt")))
+                    .map(mapper::toResponseDTO)
+                    .getContent();
+            assertThat(orders).hasSize(ORDERS).allSatisfy(order -> assertThat(order.getProductId()).isNotNull());
+        });
+    }
+
+    @Test
+    void getById_ShouldFetchItemsWithTheOrder() {
+        queryCounter.assertStatements(1, () -> {
+            Order order = orderRepository.findWithItemsById(firstId).orElseThrow();
+            assertThat(mapper.toResponseDTO(order).getProductId()).isEqualTo(100L);
+        });
+    }
+
+    @Test
+    void multiItemOrder_ShouldInsertItemsAsOneBatch() {
+        Order order = Order.builder()
+                .memberId(2L)
+                .totalPrice(Money.of("150"))
+                .status(OrderStatus.PENDING)
+                .build();
+        for (int line = 0; line < 15; line++) {
+            order.addItem(OrderItem.builder().productId(200L + line).quantity(1).price(Money.of("10")).build());
+        }
+
+        // Order insert plus one batched item insert; item ids come from the pooled block in memory
+        queryCounter.assertStatements(2, () -> {
+            entityManager.persist(order);
+            entityManager.flush();
+        });
+
+        entityManager.clear();
+        queryCounter.assertStatements(1, () -> {
+            Order loaded = orderRepository.findWithItemsById(order.getId()).orElseThrow();
+            assertThat(mapper.toResponseDTO(loaded).getItems()).hasSize(15)
+                    .allSatisfy(item -> assertThat(item.getUnitPrice()).isEqualTo(Money.of("10")));
+        });
+    }
+
+    @Test
+    void cursorListing_ShouldProjectWithoutHydratingEntities() {
+        QueryCounter.Counts counts = queryCounter.count(() -> {
+            List<OrderResponseDTO> orders = orderRepository.findLatest(ORDERS).stream()
+                    .map(mapper::toResponseDTO)
+                    .toList();
+            assertThat(orders).hasSize(ORDERS).allSatisfy(order -> assertThat(order.getProductId()).isNotNull());
+        });
+
+        assertThat(counts.statements()).isEqualTo(1);
+        assertThat(counts.entityLoads()).isZero();
+    }
+}
@@ -1,29 +1,56 @@
 package com.sotatek.order.repository;
 
+import com.sotatek.order.config.JpaConfig;
+import com.sotatek.order.dto.OrderSearchCriteria;
+import com.sotatek.order.entity.Money;
 import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderIds;
+import com.sotatek.order.entity.OrderItem;
 import com.sotatek.order.entity.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE) // migrations are PostgreSQL-only
+@Import(JpaConfig.class) // auditing fills created_at, the partition key
 public class OrderRepositoryTest {
 
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void emptyOrders() {
+        // Integration tests commit orders to the same database; truncating inside the test
+        // transaction is rolled back with it
+        entityManager.getEntityManager().createNativeQuery("TRUNCATE orders CASCADE").executeUpdate();
+    }
+
     @Test
     void shouldFindOrdersByStatus() {
         // Given
         Order order = Order.builder()
                 .memberId(1L)
-                .totalPrice(BigDecimal.valueOf(100.00))
+                .totalPrice(Money.of("100.00"))
                 .status(OrderStatus.PENDING)
                 .build();
         orderRepository.save(order);
@@ -41,7 +68,7 @@ public class OrderRepositoryTest {
         // Given
         Order order = Order.builder()
                 .memberId(1L)
-                .totalPrice(BigDecimal.valueOf(50.00))
+                .totalPrice(Money.of("50.00"))
                 .status(OrderStatus.CONFIRMED)
                 .build();
 
@@ -52,4 +79,180 @@ public class OrderRepositoryTest {
         assertThat(savedOrder.getCreatedAt()).isNotNull();
         assertThat(savedOrder.getUpdatedAt()).isNotNull();
     }
+
+    @Test
+    void shouldWalkAllOrdersByKeysetWithoutGapsOrDuplicates() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            orderRepository.save(Order.builder()
+                    .memberId(1L)
+                    .totalPrice(Money.of("10"))
+                    .status(OrderStatus.PENDING)
+                    .build());
+        }
+
+        // When: pages of two, each seeking past the last row of the previous page
+        List<OrderRepository.OrderView> walked = new ArrayList<>();
+        List<OrderRepository.OrderView> page = orderRepository.findLatest(2);
+        while (!page.isEmpty()) {
+            walked.addAll(page);
+            OrderRepository.OrderView last = page.get(page.size() - 1);
+            page = orderRepository.findLatestBefore(last.getCreatedAt(), last.getId(), 2);
+        }
+
+        // Then
+        Set<UUID> ids = new HashSet<>();
+        walked.forEach(order -> ids.add(order.getId()));
+        assertThat(walked).hasSize(5);
+        assertThat(ids).hasSize(5);
+        for (int i = 1; i < walked.size(); i++) {
+            assertThat(walked.get(i).getCreatedAt()).isBeforeOrEqualTo(walked.get(i - 1).getCreatedAt());
+        }
+    }
+
+    @Test
+    void shouldSearchByCombinedFiltersWithOneRowPerOrder() {
+        // Given: two matching items in one order must not duplicate it
+        Order match = order(7L, OrderStatus.PENDING, Money.of("120"));
+        match.addItem(item(42L));
+        match.addItem(item(42L));
+        orderRepository.save(match);
+
+        Order otherProduct = order(7L, OrderStatus.PENDING, Money.of("120"));
+        otherProduct.addItem(item(43L));
+        orderRepository.save(otherProduct);
+
+        orderRepository.save(order(7L, OrderStatus.CANCELLED, Money.of("120")));
+        orderRepository.save(order(8L, OrderStatus.PENDING, Money.of("120")));
+
+        OrderSearchCriteria criteria = OrderSearchCriteria.builder()
+                .memberId(7L)
+                .status(OrderStatus.PENDING)
+                .minPrice(BigDecimal.valueOf(100))
+                .maxPrice(BigDecimal.valueOf(150))
+                .productId(42L)
+                .build();
+
+        // When
+        Page<Order> found = orderRepository.findAll(OrderSpecifications.matching(criteria), PageRequest.of(0, 10));
+
+        // Then
+        assertThat(found.getTotalElements()).isEqualTo(1);
+        assertThat(found.getContent()).extracting(Order::getId).containsExactly(match.getId());
+    }
+
+    @Test
+    void shouldReturnEverythingForEmptyCriteria() {
+        orderRepository.save(order(1L, OrderStatus.PENDING, Money.of("10")));
+        orderRepository.save(order(2L, OrderStatus.CONFIRMED, Money.of("10")));
+
+        Page<Order> found = orderRepository.findAll(
+                OrderSpecifications.matching(new OrderSearchCriteria()), PageRequest.of(0, 10));
+
+        assertThat(found.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldDeriveTheIdFromCreatedAtAndFindTheOrderByIt() {
+        // Given
+        Order order = order(1L, OrderStatus.PENDING, Money.of("10"));
+        order.addItem(item(42L));
+        orderRepository.saveAndFlush(order);
+        entityManager.clear();
+
+        // When
+        Order found = orderRepository.findWithItemsById(order.getId()).orElseThrow();
+
+        // Then: the id's range holds the stored created_at, so the lookup can be pruned on it
+        OrderIds.CreatedRange range = OrderIds.createdRange(order.getId());
+        assertThat(found.getCreatedAt()).isEqualTo(order.getCreatedAt())
+                .isAfterOrEqualTo(range.from()).isBefore(range.to());
+        assertThat(found.getOrderItems()).singleElement()
+                .satisfies(item -> assertThat(item.getOrderCreatedAt()).isEqualTo(found.getCreatedAt()));
+        assertThat(orderRepository.findById(order.getId())).isPresent();
+        assertThat(orderRepository.findStatsViews(List.of(order.getId()))).hasSize(1);
+    }
+
+    @Test
+    void shouldFindAnOrderWithoutItemsWithItsItems() {
+        // Given
+        Order order = orderRepository.saveAndFlush(order(1L, OrderStatus.PENDING, Money.of("10")));
+        entityManager.clear();
+
+        // When
+        Order found = orderRepository.findWithItemsById(order.getId()).orElseThrow();
+
+        // Then
+        assertThat(found.getOrderItems()).isEmpty();
+    }
+
+    @Test
+    void shouldApplyTransitionOnlyFromTheReadStatusAndVersion() {
+        // Given
+        Order order = orderRepository.saveAndFlush(order(1L, OrderStatus.PENDING, Money.of("10")));
+        assertThat(order.getVersion()).isZero();
+
+        // When: two cancels raced from the same read, then a move from a stale status
+        int first = orderRepository.transition(order.getId(), OrderStatus.PENDING, 0L, OrderStatus.CANCELLED, LocalDateTime.now());
+        int second = orderRepository.transition(order.getId(), OrderStatus.PENDING, 0L, OrderStatus.CANCELLED, LocalDateTime.now());
+        int stale = orderRepository.transition(order.getId(), OrderStatus.CONFIRMED, 1L, OrderStatus.SHIPPED, LocalDateTime.now());
+
+        // Then
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(stale).isZero();
+        entityManager.clear();
+        Order reloaded = orderRepository.findById(order.getId()).orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(reloaded.getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldTransitionMatchingOrdersOneChunkAtATime() {
+        // Given: two PENDING orders with product 42, one with another product, one already CONFIRMED
+        LocalDateTime from = LocalDateTime.now().minusDays(1);
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        List<UUID> matching = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Order match = order(1L, OrderStatus.PENDING, Money.of("10"));
+            match.addItem(item(42L));
+            matching.add(orderRepository.save(match).getId());
+        }
+        Order otherProduct = order(1L, OrderStatus.PENDING, Money.of("10"));
+        otherProduct.addItem(item(43L));
+        orderRepository.save(otherProduct);
+        Order confirmed = order(1L, OrderStatus.CONFIRMED, Money.of("10"));
+        confirmed.addItem(item(42L));
+        orderRepository.saveAndFlush(confirmed);
+
+        // When: chunks of one until nothing matches
+        List<UUID> first = orderRepository.transitionMatchingProduct("PENDING", 42L, from, to, "CANCELLED", LocalDateTime.now(), 1);
+        List<UUID> second = orderRepository.transitionMatchingProduct("PENDING", 42L, from, to, "CANCELLED", LocalDateTime.now(), 1);
+        List<UUID> third = orderRepository.transitionMatchingProduct("PENDING", 42L, from, to, "CANCELLED", LocalDateTime.now(), 1);
+
+        // Then
+        assertThat(first).hasSize(1);
+        assertThat(second).hasSize(1);
+        assertThat(third).isEmpty();
+        assertThat(new HashSet<>(List.of(first.get(0), second.get(0)))).containsExactlyInAnyOrderElementsOf(matching);
+        entityManager.clear();
+        assertThat(orderRepository.findById(otherProduct.getId()).orElseThrow().getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(orderRepository.findById(matching.get(0)).orElseThrow().getVersion()).isEqualTo(1L);
+    }
+
+    private Order order(Long memberId, OrderStatus status, Money totalPrice) {
+        return Order.builder()
+                .memberId(memberId)
+                .totalPrice(totalPrice)
+                .status(status)
+                .build();
+    }
+
+    private OrderItem item(Long productId) {
+        return OrderItem.builder()
+                .productId(productId)
+                .quantity(1)
+                .price(Money.of("10"))
+                .build();
+    }
 }
@@ -0,0 +1,130 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.ConcurrencyLimitProperties;
+import com.sotatek.order.exception.OrderOverloadedException;
+import com.sotatek.order.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.IntSummaryStatistics;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderAdmissionLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void latencySpike_ShouldShrinkToMinimumAndRecoverWithoutOscillating() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        OrderAdmissionLimiter limiter = new OrderAdmissionLimiter(properties, meterRegistry, clock::get);
+
+        // Saturated clients against a backend that queues past 32 concurrent creates:
+        // 100 ms each up to 32, proportionally slower above (500 ms threshold crossed past 160)
+        run(limiter, 1_000, 100);
+        int[] steady = run(limiter, 500, 100);
+        assertBetween(steady, 140, 161);
+
+        // Payment stalls: every create takes over a second
+        int[] spike = run(limiter, 300, 1_000);
+        assertThat(spike[40]).isEqualTo(properties.getMinLimit());
+        assertBetween(spike, properties.getMinLimit(), 161);
+        for (int sample = 1; sample < spike.length; sample++) {
+            assertThat(spike[sample]).isLessThanOrEqualTo(spike[sample - 1]);
+        }
+
+        // Back to normal: the limit climbs back into the same band
+        run(limiter, 500, 100);
+        int[] recovered = run(limiter, 500, 100);
+        assertBetween(recovered, 140, 161);
+        assertThat(meterRegistry.get("order.admission.limit").gauge().value()).isEqualTo(limiter.getLimit());
+    }
+
+    @Test
+    void execute_ShouldRejectOverLimitAtOnceWithRetryAfter() throws Exception {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(2);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(2);
+        properties.setRetryAfter(Duration.ofSeconds(3));
+        OrderAdmissionLimiter limiter = new OrderAdmissionLimiter(properties, meterRegistry, System::nanoTime);
+
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> limiter.execute(() -> hold(started, release)));
+            Future<String> second = executor.submit(() -> limiter.execute(() -> hold(started, release)));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            OrderOverloadedException rejected = assertThrows(OrderOverloadedException.class,
+                    () -> limiter.execute(() -> "third"));
+            assertThat(rejected.getRetryAfter()).isEqualTo(Duration.ofSeconds(3));
+            assertThat(meterRegistry.get("order.admission.rejected").counter().count()).isEqualTo(1.0);
+
+            release.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+            assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("done");
+            assertThat(limiter.getInFlight()).isZero();
+            assertThat(limiter.execute(() -> "fourth")).isEqualTo("fourth");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_ShouldBackOffWhenDownstreamIsUnavailable() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(100);
+        OrderAdmissionLimiter limiter = new OrderAdmissionLimiter(properties, meterRegistry, clock::get);
+
+        assertThrows(ServiceUnavailableException.class, () -> limiter.execute(() -> {
+            throw new ServiceUnavailableException("Order validation timed out waiting for payment service");
+        }));
+        // Client errors are ordinary samples: fast, and a lightly used limit is left alone
+        assertThrows(IllegalArgumentException.class, () -> limiter.execute(() -> {
+            throw new IllegalArgumentException("Total price must be > 0");
+        }));
+
+        assertThat(limiter.getLimit()).isEqualTo(90);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    // Feeds samples from clients that keep the limit fully used; returns the limit after each
+    private static int[] run(OrderAdmissionLimiter limiter, int samples, long baseLatencyMillis) {
+        int[] limits = new int[samples];
+        for (int sample = 0; sample < samples; sample++) {
+            int inFlight = limiter.getLimit();
+            long latencyMillis = baseLatencyMillis * Math.max(32, inFlight) / 32;
+            limiter.onSample(TimeUnit.MILLISECONDS.toNanos(latencyMillis), inFlight, false);
+            limits[sample] = limiter.getLimit();
+        }
+        return limits;
+    }
+
+    private static void assertBetween(int[] limits, int min, int max) {
+        IntSummaryStatistics statistics = Arrays.stream(limits).summaryStatistics();
+        assertThat(statistics.getMin()).isGreaterThanOrEqualTo(min);
+        assertThat(statistics.getMax()).isLessThanOrEqualTo(max);
+    }
+
+    private static String hold(CountDownLatch started, CountDownLatch release) {
+        started.countDown();
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
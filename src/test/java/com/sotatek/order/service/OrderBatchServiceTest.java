@@ -0,0 +1,153 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.BatchOrderProperties;
+import com.sotatek.order.dto.OrderBatchResponseDTO;
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.infrastructure.client.dto.MemberResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.mapper.OrderMapper;
+import com.sotatek.order.repository.OrderRepository;
+import com.sotatek.order.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderBatchServiceTest {
+
+    @Mock
+    private OrderRepository repository;
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    @Mock
+    private OrderMapper mapper;
+
+    @Mock
+    private OrderValidator validator;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OrderStatsRecorder statsRecorder;
+
+    private OrderBatchService service;
+
+    @BeforeEach
+    void setUp() {
+        BatchOrderProperties properties = new BatchOrderProperties();
+        properties.setChunkSize(2);
+        service = new OrderBatchService(repository, outboxRepository, mapper, validator, stockLedger,
+                new TransactionTemplate(transactionManager), properties, statsRecorder);
+    }
+
+    @Test
+    void createOrders_ShouldDeduplicateLookupsAndReportPerItemResults() {
+        // Given: member 1 active, member 2 inactive; product 101 has 3 in stock
+        List<OrderRequestDTO> requests = List.of(
+                request(1L, 101L, 2),
+                request(1L, 101L, 1),
+                request(2L, 101L, 1),
+                request(1L, 101L, 1)); // stock already allocated to the first two lines
+
+        when(validator.lookupAll(eq(Set.of(1L, 2L)), eq(Map.of(101L, 5)), any(Duration.class)))
+                .thenReturn(new OrderValidator.BatchLookup(
+                        Map.of(1L, new MemberResponse(1L, true, true), 2L, new MemberResponse(2L, true, false)),
+                        Map.of(101L, new ProductResponse(101L, true, 3, Money.of("50.00")))));
+        when(stockLedger.tryReserve(eq(101L), anyInt())).thenReturn(true);
+        when(mapper.toEntity(any(OrderRequestDTO.class))).thenAnswer(invocation -> Order.builder()
+                .memberId(invocation.<OrderRequestDTO>getArgument(0).getMemberId())
+                .build());
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            orders.forEach(order -> order.setId(UUID.randomUUID()));
+            return orders;
+        });
+
+        // When
+        OrderBatchResponseDTO response = service.createOrders(requests);
+
+        // Then
+        assertThat(response.getAccepted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getResults()).extracting("index").containsExactly(0, 1, 2, 3);
+        assertThat(response.getResults().get(0).getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(response.getResults().get(0).getOrderId()).isNotNull();
+        assertThat(response.getResults().get(2).getError()).contains("Member invalid");
+        assertThat(response.getResults().get(3).getError()).contains("Insufficient stock");
+
+        // One lookup call for the whole batch, one insert transaction for the two accepted orders
+        verify(validator, times(1)).lookupAll(any(), any(), any());
+        ArgumentCaptor<List<Order>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).saveAll(saved.capture());
+        assertThat(saved.getValue()).hasSize(2);
+        assertThat(saved.getValue().get(0).getTotalPrice()).isEqualTo(Money.of("100.00"));
+        assertThat(saved.getValue().get(0).getOrderItems()).singleElement()
+                .satisfies(item -> assertThat(item.getProductId()).isEqualTo(101L));
+        verify(outboxRepository, times(1)).saveAll(anyList());
+        verify(stockLedger).tryReserve(101L, 2);
+        verify(stockLedger).tryReserve(101L, 1);
+    }
+
+    @Test
+    void createOrders_UnexpectedPersistFailure_ShouldAbandonThatChunkAndTheRest() {
+        // Given: five accepted orders in chunks of two; the second chunk fails outside the data layer
+        List<OrderRequestDTO> requests = List.of(
+                request(1L, 101L, 1), request(1L, 101L, 1), request(1L, 101L, 1),
+                request(1L, 101L, 1), request(1L, 101L, 1));
+        when(validator.lookupAll(any(), any(), any(Duration.class)))
+                .thenReturn(new OrderValidator.BatchLookup(
+                        Map.of(1L, new MemberResponse(1L, true, true)),
+                        Map.of(101L, new ProductResponse(101L, true, 10, Money.of("50.00")))));
+        when(stockLedger.tryReserve(eq(101L), anyInt())).thenReturn(true);
+        when(mapper.toEntity(any(OrderRequestDTO.class))).thenAnswer(invocation -> Order.builder()
+                .memberId(invocation.<OrderRequestDTO>getArgument(0).getMemberId())
+                .build());
+        when(repository.saveAll(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0))
+                .thenThrow(new IllegalStateException("mapping bug"));
+
+        // When
+        assertThatThrownBy(() -> service.createOrders(requests))
+                .isInstanceOf(IllegalStateException.class);
+
+        // Then: the first chunk keeps its stock, the other three orders hand theirs back
+        verify(stockLedger, times(2)).persisted(anyList());
+        verify(stockLedger, times(3)).abandon(anyList());
+    }
+
+    private static OrderRequestDTO request(Long memberId, Long productId, int quantity) {
+        return OrderRequestDTO.builder()
+                .memberId(memberId)
+                .productId(productId)
+                .quantity(quantity)
+                .totalPrice(Money.of("1"))
+                .build();
+    }
+}
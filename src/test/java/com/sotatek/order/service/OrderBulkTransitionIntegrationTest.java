@@ -0,0 +1,118 @@
+package com.sotatek.order.service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.sotatek.order.dto.OrderBulkTransitionDTO;
+import com.sotatek.order.dto.OrderBulkTransitionStatusDTO;
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.entity.OutboxEvent;
+import com.sotatek.order.entity.OutboxEventType;
+import com.sotatek.order.entity.OutboxStatus;
+import com.sotatek.order.repository.OrderRepository;
+import com.sotatek.order.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+// All three downstream services are stubbed by the one WireMock server on 8081
+@SpringBootTest(properties = {
+        "member.service.url=http://localhost:8081",
+        "product.service.url=http://localhost:8081",
+        "payment.service.url=http://localhost:8081"})
+@ActiveProfiles("test")
+public class OrderBulkTransitionIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderBulkTransitionService bulkTransitionService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    private WireMockServer wireMockServer;
+
+    @BeforeEach
+    void setup() {
+        wireMockServer = new WireMockServer(8081);
+        wireMockServer.start();
+        configureFor("localhost", wireMockServer.port());
+    }
+
+    @AfterEach
+    void teardown() {
+        wireMockServer.stop();
+    }
+
+    @Test
+    void bulkCancel_racingSubmissionProcessing_shouldLeaveOrderCancelledWithStockBack() throws Exception {
+        Long memberId = 1L;
+        Long productId = 9101L; // not used by other tests, so the ledger entry is this test's alone
+
+        stubFor(get(urlEqualTo("/members/" + memberId))
+                .willReturn(okJson("{\"id\":" + memberId + ",\"exists\":true,\"active\":true}")));
+        // Slow stock check: the bulk cancel commits while the submission is being validated
+        stubFor(get(urlPathMatching("/products/" + productId + "/stock"))
+                .willReturn(okJson("{\"id\":" + productId + ",\"available\":true,\"stock\":10,\"price\":25.00}")
+                        .withFixedDelay(1500)));
+
+        OrderRequestDTO request = new OrderRequestDTO();
+        request.setMemberId(memberId);
+        request.setProductId(productId);
+        request.setQuantity(1);
+        request.setTotalPrice(Money.of("25"));
+
+        OrderResponseDTO submitted = orderService.submitOrder(request);
+        assertThat(submitted.getStatus()).isEqualTo(OrderStatus.SUBMITTED);
+        awaitTrue(() -> !findAll(getRequestedFor(urlPathMatching("/products/" + productId + "/stock"))).isEmpty());
+
+        OrderBulkTransitionStatusDTO job = bulkTransitionService.start(OrderBulkTransitionDTO.builder()
+                .to(OrderStatus.CANCELLED)
+                .ids(List.of(submitted.getId()))
+                .build());
+        awaitTrue(() -> bulkTransitionService.getStatus(job.getId()).getState() != OrderBulkTransitionStatusDTO.State.RUNNING);
+        assertThat(bulkTransitionService.getStatus(job.getId()).getTransitioned()).isEqualTo(1);
+
+        awaitTrue(() -> events(submitted.getId(), OutboxEventType.ORDER_SUBMITTED).stream()
+                .allMatch(event -> event.getStatus() == OutboxStatus.DONE));
+
+        assertThat(orderRepository.findById(submitted.getId()))
+                .hasValueSatisfying(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED));
+        assertThat(events(submitted.getId(), OutboxEventType.PAYMENT_REQUESTED)).isEmpty();
+        assertThat(stockLedger.snapshot(productId, 1).getStock()).isEqualTo(10);
+    }
+
+    private List<OutboxEvent> events(UUID orderId, OutboxEventType type) {
+        return outboxRepository.findAll().stream()
+                .filter(event -> orderId.equals(event.getAggregateId()) && event.getEventType() == type)
+                .toList();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 10s").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.BulkTransitionProperties;
+import com.sotatek.order.dto.OrderBulkTransitionDTO;
+import com.sotatek.order.dto.OrderBulkTransitionStatusDTO;
+import com.sotatek.order.dto.OrderBulkTransitionStatusDTO.State;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.exception.BulkTransitionNotFoundException;
+import com.sotatek.order.exception.OrderOverloadedException;
+import com.sotatek.order.exception.OrderStateConflictException;
+import com.sotatek.order.infrastructure.cache.OrderCache;
+import com.sotatek.order.repository.OrderItemRepository;
+import com.sotatek.order.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderBulkTransitionServiceTest {
+
+    @Mock
+    private OrderRepository repository;
+
+    @Mock
+    private OrderItemRepository itemRepository;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private OrderCache orderCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OrderStatsRecorder statsRecorder;
+
+    private ExecutorService executor;
+
+    private BulkTransitionProperties properties;
+
+    private OrderBulkTransitionService service;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+        properties = new BulkTransitionProperties();
+        properties.setChunkSize(2);
+        properties.setChunkPause(Duration.ZERO);
+        service = new OrderBulkTransitionService(repository, itemRepository, stockLedger, orderCache,
+                new TransactionTemplate(transactionManager), executor, properties, statsRecorder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void start_ByFilter_ShouldCancelInChunksAndReleaseStock() throws Exception {
+        // Given: two full chunks, then a short one ends the job
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        when(repository.transitionMatchingProduct(eq("PENDING"), eq(7L), any(LocalDateTime.class), any(LocalDateTime.class),
+                eq("CANCELLED"), any(LocalDateTime.class), eq(2)))
+                .thenReturn(List.of(a, b), List.of(c));
+        when(itemRepository.sumQuantityByProductForOrders(anyList()))
+                .thenReturn(List.of(quantity(7L, 4L)), List.of(quantity(7L, 1L)));
+
+        // When
+        OrderBulkTransitionStatusDTO started = service.start(OrderBulkTransitionDTO.builder()
+                .to(OrderStatus.CANCELLED)
+                .status(OrderStatus.PENDING)
+                .productId(7L)
+                .build());
+        awaitJobs();
+
+        // Then
+        OrderBulkTransitionStatusDTO done = service.getStatus(started.getId());
+        assertThat(done.getState()).isEqualTo(State.COMPLETED);
+        assertThat(done.getTransitioned()).isEqualTo(3);
+        assertThat(done.getChunks()).isEqualTo(2);
+        assertThat(done.getRequested()).isNull();
+        verify(stockLedger).release(Map.of(7L, 4));
+        verify(stockLedger).release(Map.of(7L, 1));
+        verify(orderCache).evict(a);
+        verify(orderCache).evict(c);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void start_ByIds_ShouldTryEverySourceStatusAndCountSkipped() throws Exception {
+        // Given: three distinct ids, one already shipped or missing
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        when(repository.transitionAll(anyList(), any(), eq("CANCELLED"), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(repository.transitionAll(eq(List.of(a, b)), eq("PENDING"), eq("CANCELLED"), any(LocalDateTime.class)))
+                .thenReturn(List.of(a));
+        when(repository.transitionAll(eq(List.of(a, b)), eq("CONFIRMED"), eq("CANCELLED"), any(LocalDateTime.class)))
+                .thenReturn(List.of(b));
+        when(itemRepository.sumQuantityByProductForOrders(List.of(a))).thenReturn(List.of(quantity(1L, 2L)));
+        when(itemRepository.sumQuantityByProductForOrders(List.of(b))).thenReturn(List.of(quantity(1L, 3L)));
+
+        // When
+        OrderBulkTransitionStatusDTO started = service.start(OrderBulkTransitionDTO.builder()
+                .to(OrderStatus.CANCELLED)
+                .ids(List.of(a, b, a, c))
+                .build());
+        awaitJobs();
+
+        // Then: PENDING and CONFIRMED orders both give stock back
+        OrderBulkTransitionStatusDTO done = service.getStatus(started.getId());
+        assertThat(done.getState()).isEqualTo(State.COMPLETED);
+        assertThat(done.getRequested()).isEqualTo(3);
+        assertThat(done.getTransitioned()).isEqualTo(2);
+        assertThat(done.getSkipped()).isEqualTo(1);
+        verify(stockLedger, times(1)).release(Map.of(1L, 2));
+        verify(stockLedger, times(1)).release(Map.of(1L, 3));
+    }
+
+    @Test
+    void start_ToStatusNotAllowed_ShouldThrowBeforeRunning() {
+        // When/Then
+        assertThatThrownBy(() -> service.start(OrderBulkTransitionDTO.builder()
+                .to(OrderStatus.SHIPPED)
+                .status(OrderStatus.PENDING)
+                .build()))
+                .isInstanceOf(OrderStateConflictException.class);
+        assertThatThrownBy(() -> service.start(OrderBulkTransitionDTO.builder()
+                .to(OrderStatus.PENDING)
+                .ids(List.of(UUID.randomUUID()))
+                .build()))
+                .isInstanceOf(OrderStateConflictException.class);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void start_PoolBusy_ShouldThrowOverloaded() {
+        // Given
+        ExecutorService busy = mock(ExecutorService.class);
+        doThrow(new RejectedExecutionException()).when(busy).execute(any());
+        OrderBulkTransitionService busyService = new OrderBulkTransitionService(repository, itemRepository, stockLedger,
+                orderCache, new TransactionTemplate(transactionManager), busy, properties, statsRecorder);
+
+        // When/Then
+        assertThatThrownBy(() -> busyService.start(OrderBulkTransitionDTO.builder()
+                .to(OrderStatus.CONFIRMED)
+                .status(OrderStatus.PENDING)
+                .build()))
+                .isInstanceOf(OrderOverloadedException.class);
+    }
+
+    @Test
+    void getStatus_UnknownJob_ShouldThrowNotFound() {
+        assertThatThrownBy(() -> service.getStatus(UUID.randomUUID()))
+                .isInstanceOf(BulkTransitionNotFoundException.class);
+    }
+
+    private void awaitJobs() throws InterruptedException {
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static OrderItemRepository.ProductQuantity quantity(Long productId, Long quantity) {
+        return new OrderItemRepository.ProductQuantity() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+}
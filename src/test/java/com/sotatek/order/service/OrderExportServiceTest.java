@@ -0,0 +1,183 @@
+package com.sotatek.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sotatek.order.config.OrderExportProperties;
+import com.sotatek.order.dto.OrderExportCriteria;
+import com.sotatek.order.dto.OrderExportFormat;
+import com.sotatek.order.exception.OrderOverloadedException;
+import com.sotatek.order.repository.OrderExportStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceTest {
+
+    private static final UUID ID = UUID.fromString("6f1c7c1e-52a4-4c8e-9a8e-0d6f0b5c2a11");
+
+    @Mock
+    private OrderExportStore exportStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ResultSet row;
+
+    private OrderExportProperties properties;
+
+    private OrderExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OrderExportProperties();
+        properties.setMaxConcurrent(1);
+        exportService = new OrderExportService(exportStore, new ObjectMapper(), transactionManager, properties);
+    }
+
+    @Test
+    void export_Csv_ShouldWriteHeaderAndOneLinePerRow() throws Exception {
+        // Given
+        givenRows(2);
+
+        // When
+        String output = export(OrderExportFormat.CSV);
+
+        // Then
+        String line = ID + ",7,120.50,CONFIRMED,3,2024-01-01T10:00:00,2024-01-01T10:05:30.123\r\n";
+        assertThat(output).isEqualTo("id,memberId,totalPrice,status,version,createdAt,updatedAt\r\n" + line + line);
+        verify(exportStore).forEach(any(), eq(properties.getFetchSize()), any());
+    }
+
+    @Test
+    void export_Ndjson_ShouldWriteOneObjectPerLine() throws Exception {
+        // Given
+        givenRows(2);
+
+        // When
+        String output = export(OrderExportFormat.NDJSON);
+
+        // Then
+        String line = "{\"id\":\"" + ID + "\",\"memberId\":7,\"totalPrice\":120.50,\"status\":\"CONFIRMED\",\"version\":3,"
+                + "\"createdAt\":\"2024-01-01T10:00:00\",\"updatedAt\":\"2024-01-01T10:05:30.123\"}\n";
+        assertThat(output).isEqualTo(line + line);
+    }
+
+    @Test
+    void export_NoRows_ShouldWriteHeaderOnly() throws Exception {
+        // Given
+        givenRows(0);
+
+        // When/Then
+        assertThat(export(OrderExportFormat.CSV)).isEqualTo("id,memberId,totalPrice,status,version,createdAt,updatedAt\r\n");
+        assertThat(export(OrderExportFormat.NDJSON)).isEmpty();
+    }
+
+    @Test
+    void export_ClientGone_ShouldRethrowIOExceptionAndFreeTheSlot() throws Exception {
+        // Given
+        givenRows(1);
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        StreamingResponseBody body = exportService.export(new OrderExportCriteria(), OrderExportFormat.CSV);
+
+        // When/Then
+        assertThatThrownBy(() -> body.writeTo(broken)).isInstanceOf(IOException.class).hasMessage("Broken pipe");
+        assertThat(exportService.export(new OrderExportCriteria(), OrderExportFormat.CSV)).isNotNull();
+    }
+
+    @Test
+    void export_AllSlotsTaken_ShouldRejectWithRetryAfter() {
+        // Given
+        exportService.export(new OrderExportCriteria(), OrderExportFormat.CSV);
+
+        // When/Then
+        assertThatThrownBy(() -> exportService.export(new OrderExportCriteria(), OrderExportFormat.CSV))
+                .isInstanceOf(OrderOverloadedException.class)
+                .satisfies(e -> assertThat(((OrderOverloadedException) e).getRetryAfter()).isEqualTo(properties.getRetryAfter()));
+    }
+
+    @Test
+    void export_AbandonedBeforeTheBodyRuns_ShouldFreeTheSlotAndSkipTheBody() throws Exception {
+        // Given
+        OrderExportService.Export export = exportService.export(new OrderExportCriteria(), OrderExportFormat.CSV);
+
+        // When
+        export.abandon();
+        export.abandon();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        export.writeTo(out); // a dispatch that got through anyway
+
+        // Then
+        assertThat(out.size()).isZero();
+        verifyNoInteractions(transactionManager, exportStore);
+        exportService.export(new OrderExportCriteria(), OrderExportFormat.CSV);
+        assertThatThrownBy(() -> exportService.export(new OrderExportCriteria(), OrderExportFormat.CSV))
+                .isInstanceOf(OrderOverloadedException.class); // released once, not twice
+    }
+
+    @Test
+    void export_AbandonedAfterTheBodyRan_ShouldNotReleaseAgain() throws Exception {
+        // Given
+        givenRows(0);
+        OrderExportService.Export export = exportService.export(new OrderExportCriteria(), OrderExportFormat.CSV);
+        export.writeTo(new ByteArrayOutputStream());
+
+        // When
+        export.abandon();
+
+        // Then
+        exportService.export(new OrderExportCriteria(), OrderExportFormat.CSV);
+        assertThatThrownBy(() -> exportService.export(new OrderExportCriteria(), OrderExportFormat.CSV))
+                .isInstanceOf(OrderOverloadedException.class);
+    }
+
+    private String export(OrderExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(new OrderExportCriteria(), format).writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    // The store calls the handler once per row on the same ResultSet, as JdbcTemplate does
+    private void givenRows(int count) throws SQLException {
+        lenient().when(row.getString(1)).thenReturn(ID.toString());
+        lenient().when(row.getLong(2)).thenReturn(7L);
+        lenient().when(row.getBigDecimal(3)).thenReturn(new BigDecimal("120.50"));
+        lenient().when(row.getString(4)).thenReturn("CONFIRMED");
+        lenient().when(row.getLong(5)).thenReturn(3L);
+        lenient().when(row.getObject(6, LocalDateTime.class)).thenReturn(LocalDateTime.of(2024, 1, 1, 10, 0));
+        lenient().when(row.getObject(7, LocalDateTime.class)).thenReturn(LocalDateTime.of(2024, 1, 1, 10, 5, 30, 123_000_000));
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (int i = 0; i < count; i++) {
+                handler.processRow(row);
+            }
+            return null;
+        }).when(exportStore).forEach(any(), anyInt(), any());
+    }
+}
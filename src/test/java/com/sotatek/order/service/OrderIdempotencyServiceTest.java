@@ -0,0 +1,159 @@
+package com.sotatek.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sotatek.order.config.IdempotencyProperties;
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.entity.IdempotencyKey;
+import com.sotatek.order.entity.IdempotencyStatus;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.exception.IdempotencyConflictException;
+import com.sotatek.order.exception.IdempotencyKeyMismatchException;
+import com.sotatek.order.exception.OutOfStockException;
+import com.sotatek.order.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIdempotencyServiceTest {
+
+    private static final String KEY = "4f9c1a52-retry";
+
+    @Mock
+    private IdempotencyKeyRepository repository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final AtomicInteger creations = new AtomicInteger();
+
+    private OrderIdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OrderIdempotencyService(repository, objectMapper, new IdempotencyProperties());
+    }
+
+    @Test
+    void execute_RepeatedKey_ShouldReplayWithoutCreatingAgain() {
+        // Given
+        when(repository.claim(eq(KEY), anyString(), any(), any(), any())).thenReturn(1);
+
+        // When
+        OrderIdempotencyService.Result first = service.execute(KEY, request(2), create());
+        OrderIdempotencyService.Result second = service.execute(KEY, request(2), create());
+
+        // Then
+        assertThat(first.replayed()).isFalse();
+        assertThat(second.replayed()).isTrue();
+        assertThat(second.order().getId()).isEqualTo(first.order().getId());
+        assertThat(creations).hasValue(1);
+        verify(repository, times(1)).claim(eq(KEY), anyString(), any(), any(), any());
+        verify(repository).complete(eq(KEY), anyString(), eq(first.order().getId()), anyString());
+    }
+
+    @Test
+    void execute_SameKeyDifferentRequest_ShouldBeRejected() {
+        // Given
+        when(repository.claim(eq(KEY), anyString(), any(), any(), any())).thenReturn(1);
+        service.execute(KEY, request(2), create());
+
+        // When & Then
+        assertThrows(IdempotencyKeyMismatchException.class, () -> service.execute(KEY, request(3), create()));
+        assertThat(creations).hasValue(1);
+    }
+
+    @Test
+    void execute_KeyCompletedOnAnotherInstance_ShouldReplayStoredResponse() throws Exception {
+        // Given: first request on "another instance"
+        ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> response = ArgumentCaptor.forClass(String.class);
+        when(repository.claim(eq(KEY), hash.capture(), any(), any(), any())).thenReturn(1, 0);
+        OrderResponseDTO created = service.execute(KEY, request(2), create()).order();
+        verify(repository).complete(eq(KEY), anyString(), any(), response.capture());
+
+        OrderIdempotencyService otherInstance =
+                new OrderIdempotencyService(repository, objectMapper, new IdempotencyProperties());
+        when(repository.findById(KEY)).thenReturn(Optional.of(IdempotencyKey.builder()
+                .key(KEY)
+                .requestHash(hash.getAllValues().get(0))
+                .status(IdempotencyStatus.COMPLETED)
+                .response(response.getValue())
+                .build()));
+
+        // When
+        OrderIdempotencyService.Result replayed = otherInstance.execute(KEY, request(2), create());
+
+        // Then
+        assertThat(replayed.replayed()).isTrue();
+        assertThat(replayed.order().getId()).isEqualTo(created.getId());
+        assertThat(creations).hasValue(1);
+    }
+
+    @Test
+    void execute_KeyClaimedByRunningRequest_ShouldConflict() {
+        // Given
+        when(repository.claim(eq(KEY), anyString(), any(), any(), any())).thenReturn(0);
+        when(repository.findById(KEY)).thenReturn(Optional.of(IdempotencyKey.builder()
+                .key(KEY)
+                .status(IdempotencyStatus.IN_PROGRESS)
+                .build()));
+
+        // When & Then
+        assertThrows(IdempotencyConflictException.class, () -> service.execute(KEY, request(2), create()));
+        assertThat(creations).hasValue(0);
+    }
+
+    @Test
+    void execute_CreateFails_ShouldReleaseKeyForRetry() {
+        // Given
+        when(repository.claim(eq(KEY), anyString(), any(), any(), any())).thenReturn(1);
+
+        // When & Then
+        assertThrows(OutOfStockException.class, () -> service.execute(KEY, request(2), failing -> {
+            throw new OutOfStockException("Insufficient stock for product 101");
+        }));
+        verify(repository).release(eq(KEY), anyString());
+        verify(repository, never()).complete(any(), any(), any(), any());
+    }
+
+    private Function<OrderRequestDTO, OrderResponseDTO> create() {
+        return request -> {
+            creations.incrementAndGet();
+            request.setTotalPrice(Money.of("50").times(request.getQuantity())); // price sync mutates the request
+            return OrderResponseDTO.builder()
+                    .id(UUID.randomUUID())
+                    .memberId(request.getMemberId())
+                    .quantity(request.getQuantity())
+                    .totalPrice(request.getTotalPrice())
+                    .status(OrderStatus.PENDING)
+                    .build();
+        };
+    }
+
+    private static OrderRequestDTO request(int quantity) {
+        return OrderRequestDTO.builder()
+                .memberId(1L)
+                .productId(101L)
+                .quantity(quantity)
+                .totalPrice(Money.of("1"))
+                .build();
+    }
+}
@@ -0,0 +1,203 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.PartitionProperties;
+import com.sotatek.order.repository.OrderPartitionStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderPartitionMaintainerTest {
+
+    private static final YearMonth NOW = YearMonth.of(2026, 10);
+
+    @Mock
+    private OrderPartitionStore partitionStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path archiveDirectory;
+
+    private PartitionProperties properties;
+
+    private OrderPartitionMaintainer maintainer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PartitionProperties();
+        properties.setRetentionMonths(12);
+        properties.setArchiveDirectory(archiveDirectory);
+        maintainer = new OrderPartitionMaintainer(partitionStore, new TransactionTemplate(transactionManager), properties);
+    }
+
+    @Test
+    void maintain_ShouldCreateCurrentAndUpcomingPartitions() {
+        // Given
+        when(partitionStore.tryLock()).thenReturn(true);
+
+        // When
+        maintainer.maintain(NOW);
+
+        // Then
+        verify(partitionStore).createPartitions(YearMonth.of(2026, 10));
+        verify(partitionStore).createPartitions(YearMonth.of(2026, 11));
+        verify(partitionStore).createPartitions(YearMonth.of(2026, 12));
+        verify(partitionStore).createPartitions(YearMonth.of(2027, 1));
+        verify(partitionStore, never()).createPartitions(YearMonth.of(2027, 2));
+    }
+
+    @Test
+    void maintain_LockHeldElsewhere_ShouldDoNothing() {
+        // Given
+        when(partitionStore.tryLock()).thenReturn(false);
+
+        // When
+        maintainer.maintain(NOW);
+
+        // Then
+        verify(partitionStore, never()).createPartitions(any());
+        verify(partitionStore, never()).attachedMonths();
+        verify(partitionStore, never()).detachedMonths();
+    }
+
+    @Test
+    void maintain_ShouldDetachOnlyMonthsPastRetention() {
+        // Given
+        when(partitionStore.tryLock()).thenReturn(true);
+        when(partitionStore.attachedMonths()).thenReturn(List.of(
+                YearMonth.of(2025, 9), YearMonth.of(2025, 10), YearMonth.of(2026, 10)));
+
+        // When
+        maintainer.maintain(NOW);
+
+        // Then
+        verify(partitionStore).detach(YearMonth.of(2025, 9), properties.getLockTimeout());
+        verify(partitionStore, never()).detach(eq(YearMonth.of(2025, 10)), any());
+        verify(partitionStore, never()).detach(eq(YearMonth.of(2026, 10)), any());
+    }
+
+    @Test
+    void maintain_OpenOrdersInOldMonth_ShouldKeepItAttached() {
+        // Given
+        when(partitionStore.tryLock()).thenReturn(true);
+        when(partitionStore.attachedMonths()).thenReturn(List.of(YearMonth.of(2024, 1)));
+        when(partitionStore.hasOpenOrders(YearMonth.of(2024, 1))).thenReturn(true);
+
+        // When
+        maintainer.maintain(NOW);
+
+        // Then
+        verify(partitionStore, never()).detach(any(), any());
+    }
+
+    @Test
+    void maintain_RetentionZero_ShouldNotDetach() {
+        // Given
+        properties.setRetentionMonths(0);
+        when(partitionStore.tryLock()).thenReturn(true);
+
+        // When
+        maintainer.maintain(NOW);
+
+        // Then
+        verify(partitionStore, never()).attachedMonths();
+        verify(partitionStore, never()).detach(any(), any());
+    }
+
+    @Test
+    void maintain_DetachTimesOut_ShouldContinueWithArchiving() {
+        // Given
+        when(partitionStore.tryLock()).thenReturn(true);
+        when(partitionStore.attachedMonths()).thenReturn(List.of(YearMonth.of(2024, 1)));
+        doThrow(new CannotAcquireLockException("lock timeout")).when(partitionStore).detach(any(), any());
+
+        // When
+        maintainer.maintain(NOW);
+
+        // Then
+        verify(partitionStore).detachedMonths();
+    }
+
+    @Test
+    void maintain_DetachedMonth_ShouldArchiveBothTablesAndDrop() throws IOException {
+        // Given
+        when(partitionStore.tryLock()).thenReturn(true);
+        when(partitionStore.detachedMonths()).thenReturn(List.of(YearMonth.of(2024, 1)));
+        when(partitionStore.copyOut(anyString(), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write(("id\n" + invocation.getArgument(0) + "\n").getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        // When
+        maintainer.maintain(NOW);
+
+        // Then
+        assertThat(gunzip(archiveDirectory.resolve("orders_p202401.csv.gz"))).isEqualTo("id\norders_p202401\n");
+        assertThat(gunzip(archiveDirectory.resolve("order_items_p202401.csv.gz"))).isEqualTo("id\norder_items_p202401\n");
+        assertThat(archiveDirectory).isDirectoryNotContaining("glob:**.partial");
+        verify(partitionStore).drop(YearMonth.of(2024, 1));
+    }
+
+    @Test
+    void maintain_ArchiveAlreadyWritten_ShouldNotExportAgain() throws IOException {
+        // Given
+        properties.setDropAfterArchive(false);
+        Files.writeString(archiveDirectory.resolve("orders_p202401.csv.gz"), "done");
+        Files.writeString(archiveDirectory.resolve("order_items_p202401.csv.gz"), "done");
+        when(partitionStore.tryLock()).thenReturn(true);
+        when(partitionStore.detachedMonths()).thenReturn(List.of(YearMonth.of(2024, 1)));
+
+        // When
+        maintainer.maintain(NOW);
+
+        // Then
+        verify(partitionStore, never()).copyOut(anyString(), any());
+        verify(partitionStore, never()).drop(any());
+    }
+
+    @Test
+    void maintain_ExportFails_ShouldKeepTableAndLeaveNoArchive() {
+        // Given
+        when(partitionStore.tryLock()).thenReturn(true);
+        when(partitionStore.detachedMonths()).thenReturn(List.of(YearMonth.of(2024, 1)));
+        when(partitionStore.copyOut(anyString(), any())).thenThrow(new CannotAcquireLockException("connection lost"));
+
+        // When
+        maintainer.maintain(NOW);
+
+        // Then
+        verify(partitionStore, never()).drop(any());
+        assertThat(archiveDirectory).isEmptyDirectory();
+    }
+
+    private static String gunzip(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -2,8 +2,11 @@ package com.sotatek.order.service;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.entity.Money;
 import com.sotatek.order.entity.OrderStatus;
 import com.sotatek.order.exception.InvalidMemberException;
+import com.sotatek.order.repository.OrderRepository;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,19 +14,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
-import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.UUID;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-@SpringBootTest
+// All three downstream services are stubbed by the one WireMock server on 8081
+@SpringBootTest(properties = {
+        "member.service.url=http://localhost:8081",
+        "product.service.url=http://localhost:8081",
+        "payment.service.url=http://localhost:8081"})
 @ActiveProfiles("test")
 public class OrderServiceIntegrationTest {
 
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
     private WireMockServer wireMockServer;
 
     @BeforeEach
@@ -49,9 +63,9 @@ public class OrderServiceIntegrationTest {
 
         OrderRequestDTO request = new OrderRequestDTO();
         request.setMemberId(memberId);
-        request.setProductId(UUID.randomUUID());
+        request.setProductId(101L);
         request.setQuantity(1);
-        request.setTotalPrice(BigDecimal.valueOf(100));
+        request.setTotalPrice(Money.of("100"));
         request.setStatus(OrderStatus.PENDING);
 
         assertThatThrownBy(() -> orderService.createOrder(request))
@@ -59,10 +73,10 @@ public class OrderServiceIntegrationTest {
     }
 
     @Test
-    void createOrder_shouldFail_whenPaymentFails() {
+    void createOrder_shouldCancel_whenPaymentFails() throws InterruptedException {
         Long memberId = 1L;
-        Long productId = 101L;
-        BigDecimal price = BigDecimal.valueOf(2000); // High price to trigger mock failure
+        Long productId = 9201L; // own product, so no other test's cached price or stock applies
+        Money price = Money.of("2000");
 
         // Stub Member OK
         stubFor(get(urlEqualTo("/members/" + memberId))
@@ -75,7 +89,7 @@ public class OrderServiceIntegrationTest {
                         okJson("{\"id\":" + productId + ",\"available\":true,\"stock\":10,\"price\":" + price + "}")));
 
         // Stub Payment Failure
-        stubFor(post(urlEqualTo("/payments/process"))
+        stubFor(post(urlEqualTo("/payments"))
                 .willReturn(aResponse()
                         .withStatus(400) // Bad Request or other error status
                         .withHeader("Content-Type", "application/json")
@@ -88,8 +102,14 @@ public class OrderServiceIntegrationTest {
         request.setTotalPrice(price);
         request.setStatus(OrderStatus.PENDING);
 
-        assertThatThrownBy(() -> orderService.createOrder(request))
-                .isInstanceOf(com.sotatek.order.exception.PaymentFailedException.class);
+        OrderResponseDTO created = orderService.createOrder(request);
+        assertThat(created.getStatus()).isEqualTo(OrderStatus.PENDING);
+
+        outboxDispatcher.dispatch();
+        awaitPaymentSettled(created.getId());
+
+        assertThat(orderRepository.findById(created.getId()))
+                .hasValueSatisfying(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED));
     }
 
     @Test
@@ -110,10 +130,20 @@ public class OrderServiceIntegrationTest {
         request.setMemberId(memberId);
         request.setProductId(productId);
         request.setQuantity(1);
-        request.setTotalPrice(BigDecimal.valueOf(25));
+        request.setTotalPrice(Money.of("25"));
         request.setStatus(OrderStatus.PENDING); // Added missing status
 
         assertThatThrownBy(() -> orderService.createOrder(request))
                 .isInstanceOf(com.sotatek.order.exception.OutOfStockException.class);
     }
+
+    // The payment event is usually claimed by a worker right after the commit, so dispatch()
+    // may find nothing left to do while that worker is still calling payment-service
+    private void awaitPaymentSettled(UUID orderId) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!orderRepository.findById(orderId).orElseThrow().getStatus().isFinal()) {
+            assertThat(System.nanoTime()).as("payment not settled within 10s").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
 }
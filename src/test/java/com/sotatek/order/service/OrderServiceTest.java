@@ -1,35 +1,70 @@
 package com.sotatek.order.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sotatek.order.config.AsyncOrderProperties;
+import com.sotatek.order.config.MemberCacheProperties;
+import com.sotatek.order.config.OrderCacheProperties;
+import com.sotatek.order.config.OrderValidationProperties;
+import com.sotatek.order.config.ProductLookupProperties;
+import com.sotatek.order.config.StockLedgerProperties;
+import com.sotatek.order.dto.OrderCursor;
+import com.sotatek.order.dto.OrderLineDTO;
 import com.sotatek.order.dto.OrderRequestDTO;
 import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.dto.OrderSliceDTO;
+import com.sotatek.order.dto.OrderTransitionDTO;
+import com.sotatek.order.dto.OrderUpdateDTO;
+import com.sotatek.order.entity.Money;
 import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderItem;
 import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.entity.OutboxEvent;
+import com.sotatek.order.entity.OutboxEventType;
+import com.sotatek.order.exception.InvalidCursorException;
 import com.sotatek.order.exception.InvalidMemberException;
 import com.sotatek.order.exception.OrderNotFoundException;
+import com.sotatek.order.exception.OrderStateConflictException;
 import com.sotatek.order.exception.OutOfStockException;
-import com.sotatek.order.exception.PaymentFailedException;
+import com.sotatek.order.exception.ServiceUnavailableException;
+import com.sotatek.order.infrastructure.cache.MemberCache;
+import com.sotatek.order.infrastructure.cache.OrderCache;
+import com.sotatek.order.infrastructure.cache.ProductStockLoader;
 import com.sotatek.order.infrastructure.client.MemberClient;
-import com.sotatek.order.infrastructure.client.PaymentClient;
 import com.sotatek.order.infrastructure.client.ProductClient;
 import com.sotatek.order.infrastructure.client.dto.MemberResponse;
-import com.sotatek.order.infrastructure.client.dto.PaymentRequest;
-import com.sotatek.order.infrastructure.client.dto.PaymentResponse;
 import com.sotatek.order.infrastructure.client.dto.ProductResponse;
 import com.sotatek.order.mapper.OrderMapper;
 import com.sotatek.order.repository.OrderRepository;
+import com.sotatek.order.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -48,19 +83,80 @@ class OrderServiceTest {
     private ProductClient productClient;
 
     @Mock
-    private PaymentClient paymentClient;
+    private OutboxEventRepository outboxRepository;
+
+    @Mock
+    private OutboxDispatcher outboxDispatcher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OrderStatsRecorder statsRecorder;
+
+    private final OrderCompletionNotifier completionNotifier = new OrderCompletionNotifier();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+    private ExecutorService validationExecutor;
 
-    @InjectMocks
     private OrderService service;
 
+    @BeforeEach
+    void setUp() {
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        validationExecutor = Executors.newFixedThreadPool(2);
+        OrderValidator validator = new OrderValidator(memberCache(), stockLedger(), validationExecutor,
+                new OrderValidationProperties(), observationRegistry);
+        service = newService(validator);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validationExecutor.shutdownNow();
+    }
+
+    private MemberCache memberCache() {
+        return new MemberCache(memberClient, new MemberCacheProperties(), Runnable::run);
+    }
+
+    // Direct calls keep stubbing and verification on ProductClient one-to-one
+    private StockLedger stockLedger() {
+        ProductLookupProperties lookupProperties = new ProductLookupProperties();
+        lookupProperties.setCoalescing(false);
+        StockLedgerProperties ledgerProperties = new StockLedgerProperties();
+        ledgerProperties.setEnabled(false);
+        return new StockLedger(new ProductStockLoader(productClient, lookupProperties, null), productClient,
+                null, ledgerProperties);
+    }
+
+    private OrderService newService(OrderValidator validator) {
+        return newService(validator, orderCache(false));
+    }
+
+    private OrderService newService(OrderValidator validator, OrderCache orderCache) {
+        return new OrderService(repository, mapper, validator, stockLedger(), orderCache, outboxRepository,
+                outboxDispatcher, completionNotifier, new ObjectMapper(), new TransactionTemplate(transactionManager),
+                new AsyncOrderProperties(), observationRegistry, statsRecorder);
+    }
+
+    // Disabled by default so stubbed status changes are visible on the next read
+    private static OrderCache orderCache(boolean enabled) {
+        OrderCacheProperties properties = new OrderCacheProperties();
+        properties.setEnabled(enabled);
+        return new OrderCache(properties, Optional.empty());
+    }
+
     @Test
-    void createOrder_HappyPath_ShouldSaveAndReturnDTO() {
+    void createOrder_HappyPath_ShouldSavePendingOrderWithPaymentEvent() {
         // Given
         Long memberId = 1L;
         Long productId = 101L;
         int quantity = 2;
-        BigDecimal price = BigDecimal.valueOf(100);
-        BigDecimal totalPrice = price.multiply(BigDecimal.valueOf(quantity));
+        Money price = Money.of("100");
+        Money totalPrice = price.times(quantity);
 
         OrderRequestDTO request = OrderRequestDTO.builder()
                 .memberId(memberId)
@@ -75,7 +171,7 @@ class OrderServiceTest {
                 .totalPrice(totalPrice)
                 .build();
 
-        OrderResponseDTO response = OrderResponseDTO.builder().id(order.getId()).status(OrderStatus.CONFIRMED).build();
+        OrderResponseDTO response = OrderResponseDTO.builder().id(order.getId()).status(OrderStatus.PENDING).build();
 
         // 1. Mock Member
         when(memberClient.getMember(memberId)).thenReturn(new MemberResponse(memberId, true, true));
@@ -88,11 +184,7 @@ class OrderServiceTest {
         when(mapper.toEntity(request)).thenReturn(order);
         when(repository.save(any(Order.class))).thenReturn(order);
 
-        // 4. Mock Payment
-        when(paymentClient.processPayment(any(PaymentRequest.class)))
-                .thenReturn(new PaymentResponse("TX-123", true, "Success"));
-
-        // 5. Mock Mapper Final Response
+        // 4. Mock Mapper Final Response
         when(mapper.toResponseDTO(any(Order.class))).thenReturn(response);
 
         // When
@@ -100,13 +192,50 @@ class OrderServiceTest {
 
         // Then
         assertThat(result).isNotNull();
-        assertThat(result.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        assertThat(result.getStatus()).isEqualTo(OrderStatus.PENDING);
 
         // Verify interactions
         verify(memberClient).getMember(memberId);
         verify(productClient).checkStock(productId, quantity);
-        verify(paymentClient).processPayment(any(PaymentRequest.class));
-        verify(repository, times(2)).save(any(Order.class)); // 1 for pending, 1 for confirmed
+        verify(repository, times(1)).save(any(Order.class)); // PENDING only, payment goes through the outbox
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(event.capture());
+        assertThat(event.getValue().getEventType()).isEqualTo(OutboxEventType.PAYMENT_REQUESTED);
+        assertThat(event.getValue().getAggregateId()).isEqualTo(order.getId());
+        verify(transactionManager).commit(any());
+
+        // One timer sample per stage
+        assertThat(meterRegistry.find(OrderStage.METRIC).timers())
+                .extracting(timer -> timer.getId().getTag("stage"))
+                .containsExactlyInAnyOrder("member-validation", "stock-check", "price-sync",
+                        "stock-reservation", "initial-save");
+        assertThat(meterRegistry.find(OrderStage.METRIC).timers()).allMatch(timer -> timer.count() == 1);
+    }
+
+    @Test
+    void createOrder_WithItems_ShouldComputeTotalFromSyncedPricesIgnoringSuppliedOne() {
+        // Given
+        Long productId = 101L;
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L)
+                .items(List.of(new OrderLineDTO(productId, 2, null), new OrderLineDTO(productId, 1, Money.of("1"))))
+                .totalPrice(Money.of("5"))
+                .build();
+        Order order = Order.builder().id(UUID.randomUUID()).build();
+
+        when(memberClient.getMember(1L)).thenReturn(new MemberResponse(1L, true, true));
+        when(productClient.checkStock(productId, 3)).thenReturn(new ProductResponse(productId, true, 10, Money.of("100")));
+        when(mapper.toEntity(request)).thenReturn(order);
+        when(repository.save(any(Order.class))).thenReturn(order);
+        when(mapper.toResponseDTO(any(Order.class))).thenReturn(OrderResponseDTO.builder().id(order.getId()).build());
+
+        // When
+        service.createOrder(request);
+
+        // Then
+        assertThat(request.getTotalPrice()).isEqualTo(Money.of("300"));
+        assertThat(request.getItems()).extracting(OrderLineDTO::getUnitPrice)
+                .containsExactly(Money.of("100"), Money.of("100"));
     }
 
     @Test
@@ -120,7 +249,56 @@ class OrderServiceTest {
         // When/Then
         assertThrows(InvalidMemberException.class, () -> service.createOrder(request));
 
-        verify(productClient, never()).checkStock(any(), anyInt());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void createOrder_InvalidMember_ShouldNotWaitForSlowStockCheck() {
+        // Given
+        Long memberId = 99L;
+        Long productId = 101L;
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(memberId)
+                .productId(productId)
+                .quantity(1)
+                .build();
+
+        when(memberClient.getMember(memberId)).thenReturn(new MemberResponse(memberId, false, false));
+        lenient().when(productClient.checkStock(productId, 1)).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return new ProductResponse(productId, true, 100, Money.of("10"));
+        });
+
+        // When/Then: member failure abandons the in-flight stock check
+        assertTimeoutPreemptively(Duration.ofSeconds(2),
+                () -> assertThrows(InvalidMemberException.class, () -> service.createOrder(request)));
+
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void createOrder_ValidationDeadlineExceeded_ShouldThrowServiceUnavailable() {
+        // Given
+        Long memberId = 1L;
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(memberId)
+                .productId(101L)
+                .quantity(1)
+                .build();
+        OrderValidationProperties properties = new OrderValidationProperties();
+        properties.setTimeout(Duration.ofMillis(100));
+        OrderService shortDeadlineService = newService(
+                new OrderValidator(memberCache(), stockLedger(), validationExecutor, properties,
+                        observationRegistry));
+
+        when(memberClient.getMember(memberId)).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return new MemberResponse(memberId, true, true);
+        });
+
+        // When/Then
+        assertThrows(ServiceUnavailableException.class, () -> shortDeadlineService.createOrder(request));
+
         verify(repository, never()).save(any());
     }
 
@@ -138,7 +316,7 @@ class OrderServiceTest {
 
         when(memberClient.getMember(memberId)).thenReturn(new MemberResponse(memberId, true, true));
         when(productClient.checkStock(productId, quantity))
-                .thenReturn(new ProductResponse(productId, true, 5, BigDecimal.TEN)); // Stock 5 < 10
+                .thenReturn(new ProductResponse(productId, true, 5, Money.of("10"))); // Stock 5 < 10
 
         // When/Then
         assertThrows(OutOfStockException.class, () -> service.createOrder(request));
@@ -147,51 +325,237 @@ class OrderServiceTest {
     }
 
     @Test
-    void createOrder_PaymentFailed_ShouldThrowException() {
+    void submitOrder_ShouldPersistSubmittedOrderAndHandOffWithoutValidating() throws Exception {
         // Given
-        Long memberId = 1L;
-        Long productId = 101L;
-        int quantity = 1;
-        BigDecimal price = BigDecimal.TEN;
-
         OrderRequestDTO request = OrderRequestDTO.builder()
-                .memberId(memberId)
-                .productId(productId)
-                .quantity(quantity)
-                .totalPrice(price)
+                .memberId(1L)
+                .productId(101L)
+                .quantity(2)
+                .totalPrice(Money.of("200"))
                 .build();
-
         Order order = Order.builder()
                 .id(UUID.randomUUID())
-                .status(OrderStatus.PENDING)
-                .totalPrice(price)
+                .totalPrice(request.getTotalPrice())
                 .build();
 
-        when(memberClient.getMember(memberId)).thenReturn(new MemberResponse(memberId, true, true));
-        when(productClient.checkStock(productId, quantity))
-                .thenReturn(new ProductResponse(productId, true, 100, price));
         when(mapper.toEntity(request)).thenReturn(order);
         when(repository.save(any(Order.class))).thenReturn(order);
+        when(mapper.toResponseDTO(order)).thenReturn(OrderResponseDTO.builder()
+                .id(order.getId()).status(OrderStatus.SUBMITTED).build());
 
-        // Mock Payment Failure
-        when(paymentClient.processPayment(any(PaymentRequest.class)))
-                .thenReturn(new PaymentResponse(null, false, "Insufficient funds"));
+        // When
+        OrderResponseDTO result = service.submitOrder(request);
 
-        // When/Then
-        assertThrows(PaymentFailedException.class, () -> service.createOrder(request));
+        // Then
+        assertThat(result.getStatus()).isEqualTo(OrderStatus.SUBMITTED);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.SUBMITTED);
+        verifyNoInteractions(memberClient, productClient);
+
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(event.capture());
+        assertThat(event.getValue().getEventType()).isEqualTo(OutboxEventType.ORDER_SUBMITTED);
+        assertThat(event.getValue().getAggregateId()).isEqualTo(order.getId());
+        assertThat(new ObjectMapper().readValue(event.getValue().getPayload(), OrderRequestDTO.class))
+                .isEqualTo(request);
+        verify(outboxDispatcher).dispatchNow(event.getValue());
+    }
 
-        // Ensure pending order was saved (and transaction rollback would handle
-        // deletion in real integration)
-        verify(repository, times(1)).save(order);
+    @Test
+    void submitOrder_WithItemsAndNoTotal_ShouldHoldClientLineTotalUntilPriced() {
+        // Given
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L)
+                .items(List.of(new OrderLineDTO(101L, 2, Money.of("50")), new OrderLineDTO(102L, 1, null)))
+                .build();
+        Order order = Order.builder().id(UUID.randomUUID()).build();
+
+        when(mapper.toEntity(request)).thenReturn(order);
+        when(repository.save(any(Order.class))).thenReturn(order);
+        when(mapper.toResponseDTO(order)).thenReturn(OrderResponseDTO.builder().id(order.getId()).build());
+
+        // When
+        service.submitOrder(request);
+
+        // Then
+        assertThat(order.getTotalPrice()).isEqualTo(Money.of("100"));
+        assertThat(order.getOrderItems()).extracting(OrderItem::getPrice)
+                .containsExactly(Money.of("50"), Money.ZERO);
+    }
+
+    @Test
+    void awaitCompletion_ShouldCompleteWhenOrderReachesFinalStatus() throws Exception {
+        // Given
+        UUID id = UUID.randomUUID();
+        Order order = Order.builder().id(id).status(OrderStatus.PENDING).build();
+        when(repository.findWithItemsById(id)).thenReturn(Optional.of(order));
+        when(mapper.toResponseDTO(order)).thenAnswer(invocation ->
+                OrderResponseDTO.builder().id(id).status(order.getStatus()).build());
+
+        // When
+        CompletableFuture<OrderResponseDTO> result = service.awaitCompletion(id, Duration.ofSeconds(10));
+        assertThat(result).isNotDone();
+
+        order.setStatus(OrderStatus.CONFIRMED);
+        completionNotifier.notifyCompleted(id);
+
+        // Then
+        assertThat(result.get(1, TimeUnit.SECONDS).getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    void awaitCompletion_ShouldReturnCurrentStateOnTimeout() throws Exception {
+        // Given
+        UUID id = UUID.randomUUID();
+        Order order = Order.builder().id(id).status(OrderStatus.SUBMITTED).build();
+        when(repository.findWithItemsById(id)).thenReturn(Optional.of(order));
+        when(mapper.toResponseDTO(order)).thenReturn(
+                OrderResponseDTO.builder().id(id).status(OrderStatus.SUBMITTED).build());
+
+        // When
+        CompletableFuture<OrderResponseDTO> result = service.awaitCompletion(id, Duration.ofMillis(50));
+
+        // Then
+        assertThat(result.get(1, TimeUnit.SECONDS).getStatus()).isEqualTo(OrderStatus.SUBMITTED);
     }
 
     @Test
     void getOrderByIdShouldThrowNotFound() {
         // Given
         UUID id = UUID.randomUUID();
-        when(repository.findById(id)).thenReturn(Optional.empty());
+        when(repository.findWithItemsById(id)).thenReturn(Optional.empty());
 
         // When/Then
         assertThrows(OrderNotFoundException.class, () -> service.getOrderById(id));
     }
+
+    @Test
+    void getOrderById_ShouldServeRepeatedPollsFromCacheUntilUpdated() {
+        // Given
+        OrderService cachedService = newService(mock(OrderValidator.class), orderCache(true));
+        UUID id = UUID.randomUUID();
+        Order order = Order.builder().id(id).status(OrderStatus.CONFIRMED).build();
+        when(repository.findWithItemsById(id)).thenReturn(Optional.of(order));
+        when(repository.saveAndFlush(order)).thenReturn(order);
+        when(mapper.toResponseDTO(order)).thenAnswer(invocation -> OrderResponseDTO.builder()
+                .id(id)
+                .status(order.getStatus())
+                .build());
+
+        // When
+        cachedService.getOrderById(id);
+        cachedService.getOrderById(id);
+
+        // Then: one load for two polls
+        verify(repository, times(1)).findWithItemsById(id);
+
+        // An update evicts, so the next poll sees the new status
+        cachedService.updateOrder(id, OrderUpdateDTO.builder().status(OrderStatus.CANCELLED).build());
+        assertThat(cachedService.getOrderById(id).getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        verify(repository, times(3)).findWithItemsById(id);
+    }
+
+    @Test
+    void transitionOrder_ShouldUpdateConditionallyWithoutReadingFirst() {
+        // Given
+        UUID id = UUID.randomUUID();
+        when(repository.transition(eq(id), eq(OrderStatus.CONFIRMED), eq(4L), eq(OrderStatus.SHIPPED),
+                any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        OrderTransitionDTO result = service.transitionOrder(id, new OrderTransitionDTO(
+                OrderStatus.CONFIRMED, OrderStatus.SHIPPED, 4L));
+
+        // Then
+        assertThat(result.getTo()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(result.getVersion()).isEqualTo(5L);
+        verify(repository, never()).findById(any());
+        verify(repository, never()).findWithItemsById(any());
+    }
+
+    @Test
+    void transitionOrder_CancellingConfirmedOrder_ShouldReadItemsToGiveStockBack() {
+        // Given: nothing deducts a CONFIRMED order's stock remotely, so it still holds it
+        UUID id = UUID.randomUUID();
+        when(repository.transition(eq(id), eq(OrderStatus.CONFIRMED), eq(2L), eq(OrderStatus.CANCELLED),
+                any(LocalDateTime.class))).thenReturn(1);
+        when(repository.findWithItemsById(id)).thenReturn(Optional.empty());
+
+        // When
+        service.transitionOrder(id, new OrderTransitionDTO(OrderStatus.CONFIRMED, OrderStatus.CANCELLED, 2L));
+
+        // Then
+        verify(repository).findWithItemsById(id);
+    }
+
+    @Test
+    void transitionOrder_ShouldConflictWhenOrderMovedOnOrTransitionNotAllowed() {
+        // Given: a concurrent cancel won the race
+        UUID id = UUID.randomUUID();
+        when(repository.transition(eq(id), eq(OrderStatus.PENDING), eq(0L), eq(OrderStatus.CANCELLED),
+                any(LocalDateTime.class))).thenReturn(0);
+        when(repository.existsById(id)).thenReturn(true);
+
+        // When/Then
+        assertThrows(OrderStateConflictException.class, () -> service.transitionOrder(id,
+                new OrderTransitionDTO(OrderStatus.PENDING, OrderStatus.CANCELLED, 0L)));
+        // Validation outcomes and finished orders are not client moves
+        assertThrows(OrderStateConflictException.class, () -> service.transitionOrder(id,
+                new OrderTransitionDTO(OrderStatus.SUBMITTED, OrderStatus.PENDING, 0L)));
+        assertThrows(OrderStateConflictException.class, () -> service.transitionOrder(id,
+                new OrderTransitionDTO(OrderStatus.DELIVERED, OrderStatus.CANCELLED, 0L)));
+        verify(repository, times(1)).transition(any(), any(), anyLong(), any(), any());
+    }
+
+    @Test
+    void updateOrder_ShouldRejectStaleVersion() {
+        // Given
+        UUID id = UUID.randomUUID();
+        Order order = Order.builder().id(id).status(OrderStatus.PENDING).version(2L).build();
+        when(repository.findWithItemsById(id)).thenReturn(Optional.of(order));
+
+        // When/Then
+        assertThrows(OrderStateConflictException.class, () -> service.updateOrder(id,
+                OrderUpdateDTO.builder().status(OrderStatus.CANCELLED).version(1L).build()));
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PENDING);
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void listOrdersAfter_ShouldReturnNextCursorOnlyWhenMoreRowsExist() {
+        // Given: three rows come back for a page of two
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderRepository.OrderView> rows =
+                List.of(view(now), view(now.minusSeconds(1)), view(now.minusSeconds(2)));
+        when(repository.findLatest(3)).thenReturn(rows);
+        when(mapper.toResponseDTO(any(OrderRepository.OrderView.class))).thenReturn(new OrderResponseDTO());
+
+        // When
+        OrderSliceDTO first = service.listOrdersAfter(null, 2);
+
+        // Then
+        assertThat(first.getContent()).hasSize(2);
+        OrderCursor cursor = OrderCursor.decode(first.getNextCursor());
+        assertThat(cursor.id()).isEqualTo(rows.get(1).getId());
+        assertThat(cursor.createdAt()).isEqualTo(rows.get(1).getCreatedAt());
+
+        // Last page: no further cursor
+        when(repository.findLatestBefore(cursor.createdAt(), cursor.id(), 3)).thenReturn(List.of(rows.get(2)));
+        OrderSliceDTO last = service.listOrdersAfter(first.getNextCursor(), 2);
+        assertThat(last.getContent()).hasSize(1);
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void listOrdersAfter_MalformedCursor_ShouldThrow() {
+        assertThrows(InvalidCursorException.class, () -> service.listOrdersAfter("not-a-cursor", 10));
+        verifyNoInteractions(repository);
+    }
+
+    private static OrderRepository.OrderView view(LocalDateTime createdAt) {
+        OrderRepository.OrderView view = mock(OrderRepository.OrderView.class);
+        UUID id = UUID.randomUUID();
+        lenient().when(view.getId()).thenReturn(id);
+        lenient().when(view.getCreatedAt()).thenReturn(createdAt);
+        return view;
+    }
 }
@@ -0,0 +1,181 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.OrderStatsProperties;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.repository.OrderStatsStore;
+import com.sotatek.order.repository.OrderStatsStore.Delta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatsRecorderTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 10, 15);
+    private static final LocalDateTime HOUR = LocalDateTime.of(2024, 1, 1, 10, 0);
+
+    @Mock
+    private OrderStatsStore statsStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderStatsProperties properties;
+
+    private OrderStatsRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        properties = new OrderStatsProperties();
+        recorder = new OrderStatsRecorder(statsStore, new TransactionTemplate(transactionManager), properties);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void flush_ShouldWriteCreatesAndStatusChangesAsDeltas() {
+        // Given
+        recorder.created(snapshot(7L, "100.00", OrderStatus.PENDING));
+        recorder.created(snapshot(8L, "20.50", OrderStatus.PENDING));
+        recorder.changed(snapshot(7L, "100.00", OrderStatus.PENDING), snapshot(7L, "100.00", OrderStatus.CONFIRMED));
+
+        // When
+        recorder.flush();
+
+        // Then
+        assertThat(flushedHourly()).containsExactly(
+                new Delta(HOUR, 0L, OrderStatus.PENDING, 1, new BigDecimal("20.50")),
+                new Delta(HOUR, 0L, OrderStatus.CONFIRMED, 1, new BigDecimal("100.00")));
+        // Member 7 went in and out of PENDING within the interval: nothing to write there
+        assertThat(flushedMemberHourly()).containsExactly(
+                new Delta(HOUR, 7L, OrderStatus.CONFIRMED, 1, new BigDecimal("100.00")),
+                new Delta(HOUR, 8L, OrderStatus.PENDING, 1, new BigDecimal("20.50")));
+    }
+
+    @Test
+    void flush_NothingChangedSinceLastFlush_ShouldNotWrite() {
+        // Given
+        recorder.created(snapshot(7L, "100.00", OrderStatus.PENDING));
+        recorder.flush();
+
+        // When
+        recorder.flush();
+        recorder.flush();
+
+        // Then
+        verify(statsStore, times(1)).addHourly(anyList(), anyInt());
+    }
+
+    @Test
+    void flush_StoreFails_ShouldRetryTheSameDeltasNextRun() {
+        // Given
+        recorder.created(snapshot(7L, "100.00", OrderStatus.PENDING));
+        doThrow(new QueryTimeoutException("timeout")).doNothing().when(statsStore).addHourly(anyList(), anyInt());
+        recorder.flush();
+        recorder.created(snapshot(7L, "50.00", OrderStatus.PENDING));
+
+        // When
+        recorder.flush();
+
+        // Then
+        ArgumentCaptor<List<Delta>> deltas = captor();
+        verify(statsStore, times(2)).addHourly(deltas.capture(), anyInt());
+        assertThat(deltas.getValue()).containsExactly(new Delta(HOUR, 0L, OrderStatus.PENDING, 2, new BigDecimal("150.00")));
+    }
+
+    @Test
+    void flush_AfterIdleCellIsRetired_ShouldCountNewChangesFromZero() {
+        // Given
+        recorder.created(snapshot(7L, "100.00", OrderStatus.PENDING));
+        recorder.flush(); // written
+        recorder.flush(); // idle: unlinked
+        recorder.flush(); // flushed once more, then dropped
+        recorder.created(snapshot(7L, "30.00", OrderStatus.PENDING));
+
+        // When
+        recorder.flush();
+
+        // Then
+        ArgumentCaptor<List<Delta>> deltas = captor();
+        verify(statsStore, times(2)).addHourly(deltas.capture(), anyInt());
+        assertThat(deltas.getValue()).containsExactly(new Delta(HOUR, 0L, OrderStatus.PENDING, 1, new BigDecimal("30.00")));
+    }
+
+    @Test
+    void changed_InTransaction_ShouldCountOnlyOnceCommitted() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        recorder.created(snapshot(7L, "100.00", OrderStatus.PENDING));
+        List<TransactionSynchronization> committed = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        recorder.created(snapshot(8L, "20.00", OrderStatus.PENDING)); // rolled back: never completes
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // When
+        recorder.flush();
+        committed.forEach(TransactionSynchronization::afterCommit);
+        recorder.flush();
+
+        // Then
+        assertThat(flushedMemberHourly()).containsExactly(new Delta(HOUR, 7L, OrderStatus.PENDING, 1, new BigDecimal("100.00")));
+    }
+
+    @Test
+    void changed_Disabled_ShouldRecordNothing() {
+        // Given
+        properties.setEnabled(false);
+        recorder.created(snapshot(7L, "100.00", OrderStatus.PENDING));
+
+        // When
+        recorder.flush();
+
+        // Then
+        verifyNoInteractions(statsStore);
+    }
+
+    private static OrderStatsRecorder.Snapshot snapshot(Long memberId, String total, OrderStatus status) {
+        return new OrderStatsRecorder.Snapshot(memberId, Money.of(total), status, CREATED_AT);
+    }
+
+    private List<Delta> flushedHourly() {
+        ArgumentCaptor<List<Delta>> deltas = captor();
+        verify(statsStore).addHourly(deltas.capture(), eq(properties.getFlushBatchSize()));
+        return deltas.getValue();
+    }
+
+    private List<Delta> flushedMemberHourly() {
+        ArgumentCaptor<List<Delta>> deltas = captor();
+        verify(statsStore).addMemberHourly(deltas.capture(), eq(properties.getFlushBatchSize()));
+        return deltas.getValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Delta>> captor() {
+        return ArgumentCaptor.forClass(List.class);
+    }
+}
@@ -0,0 +1,114 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.OrderStatsProperties;
+import com.sotatek.order.dto.OrderStatsCriteria;
+import com.sotatek.order.dto.OrderStatsDTO;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.exception.InvalidStatsRangeException;
+import com.sotatek.order.repository.OrderStatsStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderStatsServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private OrderStatsStore statsStore;
+
+    private OrderStatsService statsService;
+
+    @BeforeEach
+    void setUp() {
+        statsService = new OrderStatsService(statsStore, new OrderStatsProperties());
+    }
+
+    @Test
+    void getStats_ShouldReturnBucketsAndTotalsPerStatus() {
+        // Given
+        when(statsStore.buckets(DAY, DAY.plusHours(2), 7L, false)).thenReturn(List.of(
+                new OrderStatsStore.Bucket(DAY, OrderStatus.CONFIRMED, 2, new BigDecimal("30.00")),
+                new OrderStatsStore.Bucket(DAY, OrderStatus.CANCELLED, 1, new BigDecimal("5.50")),
+                new OrderStatsStore.Bucket(DAY.plusHours(1), OrderStatus.CONFIRMED, 1, new BigDecimal("12.25"))));
+
+        // When
+        OrderStatsDTO stats = statsService.getStats(OrderStatsCriteria.builder()
+                .memberId(7L)
+                .from(DAY)
+                .to(DAY.plusHours(2))
+                .build());
+
+        // Then
+        assertThat(stats.getBuckets()).hasSize(3);
+        assertThat(stats.getBuckets().get(2).getStart()).isEqualTo(DAY.plusHours(1));
+        assertThat(stats.getTotals()).extracting(OrderStatsDTO.Bucket::getStatus, OrderStatsDTO.Bucket::getCount,
+                        OrderStatsDTO.Bucket::getRevenue)
+                .containsExactly(
+                        tuple(OrderStatus.CONFIRMED, 3L, Money.of("42.25")),
+                        tuple(OrderStatus.CANCELLED, 1L, Money.of("5.50")));
+    }
+
+    @Test
+    void getStats_ShouldWidenBoundsToWholeHours() {
+        // When
+        OrderStatsDTO stats = statsService.getStats(OrderStatsCriteria.builder()
+                .from(DAY.plusMinutes(30))
+                .to(DAY.plusHours(3).plusSeconds(1))
+                .granularity(OrderStatsDTO.Granularity.DAY)
+                .build());
+
+        // Then
+        assertThat(stats.getFrom()).isEqualTo(DAY);
+        assertThat(stats.getTo()).isEqualTo(DAY.plusHours(4));
+        verify(statsStore).buckets(DAY, DAY.plusHours(4), null, true);
+    }
+
+    @Test
+    void getStats_NoBounds_ShouldCoverDefaultRangeUpToTheCurrentHour() {
+        // When
+        OrderStatsDTO stats = statsService.getStats(new OrderStatsCriteria());
+
+        // Then
+        LocalDateTime nextHour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusHours(1);
+        assertThat(stats.getTo()).isIn(nextHour, nextHour.plusHours(1)); // the clock may tick over
+        assertThat(Duration.between(stats.getFrom(), stats.getTo())).isEqualTo(Duration.ofHours(24));
+        assertThat(stats.getGranularity()).isEqualTo(OrderStatsDTO.Granularity.HOUR);
+    }
+
+    @Test
+    void getStats_FromNotBeforeTo_ShouldThrow() {
+        assertThatThrownBy(() -> statsService.getStats(OrderStatsCriteria.builder()
+                .from(DAY.plusMinutes(70))
+                .to(DAY.plusMinutes(50))
+                .build()))
+                .isInstanceOf(InvalidStatsRangeException.class);
+        verify(statsStore, never()).buckets(any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void getStats_HourlyRangeTooLong_ShouldThrow() {
+        assertThatThrownBy(() -> statsService.getStats(OrderStatsCriteria.builder()
+                .from(DAY)
+                .to(DAY.plusYears(2))
+                .build()))
+                .isInstanceOf(InvalidStatsRangeException.class);
+    }
+}
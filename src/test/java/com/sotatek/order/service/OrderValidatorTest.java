@@ -0,0 +1,141 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.MemberCacheProperties;
+import com.sotatek.order.config.OrderValidationProperties;
+import com.sotatek.order.config.ProductLookupProperties;
+import com.sotatek.order.config.StockLedgerProperties;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.infrastructure.cache.MemberCache;
+import com.sotatek.order.infrastructure.cache.ProductStockLoader;
+import com.sotatek.order.infrastructure.client.MemberClient;
+import com.sotatek.order.infrastructure.client.ProductClient;
+import com.sotatek.order.infrastructure.client.dto.MemberResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductStockQuery;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderValidatorTest {
+
+    @Mock
+    private MemberClient memberClient;
+
+    @Mock
+    private ProductClient productClient;
+
+    private ThreadPoolExecutor validationExecutor;
+
+    private OrderValidationProperties properties;
+
+    private OrderValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        validationExecutor = new ThreadPoolExecutor(4, 4, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        properties = new OrderValidationProperties();
+        properties.setBatchParallelism(3);
+        validator = new OrderValidator(memberCache(), stockLedger(), validationExecutor, properties,
+                ObservationRegistry.NOOP);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validationExecutor.shutdownNow();
+    }
+
+    private MemberCache memberCache() {
+        return new MemberCache(memberClient, new MemberCacheProperties(), Runnable::run);
+    }
+
+    private StockLedger stockLedger() {
+        ProductLookupProperties lookupProperties = new ProductLookupProperties();
+        lookupProperties.setCoalescing(false);
+        StockLedgerProperties ledgerProperties = new StockLedgerProperties();
+        ledgerProperties.setEnabled(false);
+        return new StockLedger(new ProductStockLoader(productClient, lookupProperties, null), productClient,
+                null, ledgerProperties);
+    }
+
+    @Test
+    void lookupAll_ShouldCheckEveryProductInOneBatchCall() {
+        // Given
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(101L, 2);
+        quantities.put(102L, 1);
+        quantities.put(103L, 4);
+        when(memberClient.getMember(1L)).thenReturn(new MemberResponse(1L, true, true));
+        when(productClient.checkStockBatch(anyList())).thenReturn(List.of(
+                new ProductResponse(101L, true, 10, Money.of("5")),
+                new ProductResponse(102L, true, 10, Money.of("6")),
+                new ProductResponse(103L, true, 10, Money.of("7"))));
+
+        // When
+        OrderValidator.BatchLookup lookup = validator.lookupAll(Set.of(1L), quantities, Duration.ofSeconds(5));
+
+        // Then
+        assertThat(lookup.products()).containsOnlyKeys(101L, 102L, 103L);
+        assertThat(lookup.members()).containsOnlyKeys(1L);
+        ArgumentCaptor<List<ProductStockQuery>> queries = ArgumentCaptor.forClass(List.class);
+        verify(productClient, times(1)).checkStockBatch(queries.capture());
+        assertThat(queries.getValue()).extracting(ProductStockQuery::getId).containsExactly(101L, 102L, 103L);
+        verify(productClient, never()).checkStock(anyLong(), anyInt());
+    }
+
+    @Test
+    void lookupAll_ShouldSpreadMembersOverAtMostBatchParallelismTasks() {
+        // Given
+        Set<Long> memberIds = new LinkedHashSet<>();
+        LongStream.rangeClosed(1, 10).forEach(memberIds::add);
+        memberIds.forEach(id -> when(memberClient.getMember(id)).thenReturn(new MemberResponse(id, true, true)));
+
+        // When
+        OrderValidator.BatchLookup lookup = validator.lookupAll(memberIds, Map.of(), Duration.ofSeconds(5));
+
+        // Then
+        assertThat(lookup.members()).containsOnlyKeys(memberIds.toArray(Long[]::new));
+        assertThat(validationExecutor.getTaskCount()).isEqualTo(1 + 3); // products + member slices
+    }
+
+    @Test
+    void lookupAll_FailingMemberShouldOnlyDropThatMember() {
+        // Given
+        when(memberClient.getMember(1L)).thenReturn(new MemberResponse(1L, true, true));
+        when(memberClient.getMember(2L)).thenThrow(new IllegalStateException("member-service down"));
+        when(memberClient.getMember(3L)).thenReturn(new MemberResponse(3L, true, true));
+        properties.setBatchParallelism(1); // all three in the same task
+
+        // When
+        OrderValidator.BatchLookup lookup = validator.lookupAll(new LinkedHashSet<>(List.of(1L, 2L, 3L)), Map.of(),
+                Duration.ofSeconds(5));
+
+        // Then
+        assertThat(lookup.members()).containsOnlyKeys(1L, 3L);
+    }
+}
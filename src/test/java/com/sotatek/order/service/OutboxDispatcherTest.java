@@ -0,0 +1,362 @@
+package com.sotatek.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sotatek.order.config.OutboxProperties;
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.entity.OutboxEvent;
+import com.sotatek.order.entity.OutboxEventType;
+import com.sotatek.order.entity.OutboxStatus;
+import com.sotatek.order.exception.InvalidMemberException;
+import com.sotatek.order.exception.ServiceUnavailableException;
+import com.sotatek.order.infrastructure.cache.OrderCache;
+import com.sotatek.order.infrastructure.client.PaymentClient;
+import com.sotatek.order.infrastructure.client.dto.PaymentRequest;
+import com.sotatek.order.infrastructure.client.dto.PaymentResponse;
+import com.sotatek.order.repository.OrderRepository;
+import com.sotatek.order.repository.OutboxEventRepository;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderValidator validator;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private OrderCache orderCache;
+
+    @Mock
+    private PaymentClient paymentClient;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OrderStatsRecorder statsRecorder;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ExecutorService dispatchExecutor;
+
+    private OutboxProperties properties;
+
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatchExecutor = Executors.newFixedThreadPool(2);
+        properties = new OutboxProperties();
+        dispatcher = new OutboxDispatcher(outboxRepository, orderRepository, validator, stockLedger, orderCache, paymentClient,
+                new OrderCompletionNotifier(), objectMapper, new TransactionTemplate(transactionManager),
+                dispatchExecutor, dispatchExecutor, properties, ObservationRegistry.NOOP, statsRecorder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatchExecutor.shutdownNow();
+    }
+
+    @Test
+    void dispatch_PaymentSucceeds_ShouldConfirmOrder() {
+        // Given
+        Order order = pendingOrder();
+        OutboxEvent event = OutboxEvent.of(OutboxEventType.PAYMENT_REQUESTED, order.getId());
+
+        when(outboxRepository.lockDueEvents(any(LocalDateTime.class), anyInt())).thenReturn(List.of(event));
+        when(outboxRepository.saveAll(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        when(paymentClient.processPayment(any(PaymentRequest.class)))
+                .thenReturn(new PaymentResponse("TX-123", true, "Success"));
+        when(orderRepository.transition(eq(order.getId()), eq(OrderStatus.PENDING), eq(3L), eq(OrderStatus.CONFIRMED),
+                any(LocalDateTime.class))).thenReturn(1);
+
+        // When
+        dispatcher.dispatch();
+
+        // Then: one conditional UPDATE, the order is not read again
+        verify(orderRepository, times(1)).findById(order.getId());
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.DONE);
+        verify(orderCache).evict(order.getId());
+    }
+
+    @Test
+    void process_PaymentDeclined_ShouldCancelOrder() {
+        // Given
+        Order order = pendingOrder();
+        OutboxEvent event = OutboxEvent.of(OutboxEventType.PAYMENT_REQUESTED, order.getId());
+
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        when(paymentClient.processPayment(any(PaymentRequest.class)))
+                .thenReturn(new PaymentResponse(null, false, "Insufficient funds"));
+        when(orderRepository.transition(eq(order.getId()), eq(OrderStatus.PENDING), eq(3L), eq(OrderStatus.CANCELLED),
+                any(LocalDateTime.class))).thenReturn(1);
+        when(orderRepository.findWithItemsById(order.getId())).thenReturn(Optional.of(order));
+
+        // When
+        dispatcher.process(event);
+
+        // Then: the reservation of the cancelled order is given back
+        verify(stockLedger).release(order.getOrderItems());
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.DONE);
+    }
+
+    @Test
+    void process_OrderCancelledDuringPayment_ShouldLeaveItCancelled() {
+        // Given: the order was read PENDING, then cancelled while payment-service was called
+        Order order = pendingOrder();
+        Order cancelled = pendingOrder();
+        cancelled.setStatus(OrderStatus.CANCELLED);
+        OutboxEvent event = OutboxEvent.of(OutboxEventType.PAYMENT_REQUESTED, order.getId());
+
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order), Optional.of(cancelled));
+        when(paymentClient.processPayment(any(PaymentRequest.class)))
+                .thenReturn(new PaymentResponse("TX-123", true, "Success"));
+        when(orderRepository.transition(eq(order.getId()), eq(OrderStatus.PENDING), eq(3L), eq(OrderStatus.CONFIRMED),
+                any(LocalDateTime.class))).thenReturn(0);
+
+        // When
+        dispatcher.process(event);
+
+        // Then
+        assertThat(cancelled.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.DONE);
+        verify(orderRepository, times(2)).findById(order.getId());
+    }
+
+    @Test
+    void process_PaymentError_ShouldRescheduleWithBackoff() {
+        // Given
+        Order order = pendingOrder();
+        OutboxEvent event = OutboxEvent.of(OutboxEventType.PAYMENT_REQUESTED, order.getId());
+        event.setStatus(OutboxStatus.PROCESSING);
+
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        when(paymentClient.processPayment(any(PaymentRequest.class)))
+                .thenThrow(new ServiceUnavailableException("payment-service down"));
+
+        // When
+        dispatcher.process(event);
+
+        // Then
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.NEW);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        assertThat(event.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        verify(outboxRepository).save(event);
+    }
+
+    @Test
+    void process_PaymentOkButStatusUpdateFails_RetryShouldReuseIdempotencyKey() {
+        // Given: payment-service charges, then the confirming UPDATE fails once
+        Order order = pendingOrder();
+        OutboxEvent event = OutboxEvent.of(OutboxEventType.PAYMENT_REQUESTED, order.getId());
+        event.setId(UUID.randomUUID());
+
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        when(paymentClient.processPayment(any(PaymentRequest.class)))
+                .thenReturn(new PaymentResponse("TX-123", true, "Success"));
+        when(orderRepository.transition(eq(order.getId()), eq(OrderStatus.PENDING), eq(3L), eq(OrderStatus.CONFIRMED),
+                any(LocalDateTime.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection reset"))
+                .thenReturn(1);
+
+        // When: the failed attempt is rescheduled and retried
+        dispatcher.process(event);
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.NEW);
+        dispatcher.process(event);
+
+        // Then: both calls carry the same key, so payment-service charges once
+        ArgumentCaptor<PaymentRequest> requests = ArgumentCaptor.forClass(PaymentRequest.class);
+        verify(paymentClient, times(2)).processPayment(requests.capture());
+        assertThat(requests.getAllValues()).extracting(PaymentRequest::getIdempotencyKey)
+                .containsExactly(event.getId(), event.getId());
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.DONE);
+    }
+
+    @Test
+    void process_MaxAttemptsReached_ShouldCancelOrderAndFailEvent() {
+        // Given
+        Order order = pendingOrder();
+        OutboxEvent event = OutboxEvent.of(OutboxEventType.PAYMENT_REQUESTED, order.getId());
+        event.setAttempts(properties.getMaxAttempts() - 1);
+
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        when(paymentClient.processPayment(any(PaymentRequest.class)))
+                .thenThrow(new ServiceUnavailableException("payment-service down"));
+
+        // When
+        dispatcher.process(event);
+
+        // Then
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.FAILED);
+    }
+
+    @Test
+    void process_OrderNoLongerPending_ShouldSkipPayment() {
+        // Given
+        Order order = pendingOrder();
+        order.setStatus(OrderStatus.CANCELLED);
+        OutboxEvent event = OutboxEvent.of(OutboxEventType.PAYMENT_REQUESTED, order.getId());
+
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+
+        // When
+        dispatcher.process(event);
+
+        // Then
+        verify(paymentClient, never()).processPayment(any());
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.DONE);
+    }
+
+    @Test
+    void process_SubmittedOrderValid_ShouldMoveToPendingAndRequestPayment() throws Exception {
+        // Given
+        Order order = pendingOrder();
+        order.setStatus(OrderStatus.SUBMITTED);
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L).productId(101L).quantity(2).totalPrice(Money.of("10")).build();
+        OutboxEvent event = OutboxEvent.of(OutboxEventType.ORDER_SUBMITTED, order.getId(),
+                objectMapper.writeValueAsString(request));
+
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        doAnswer(invocation -> {
+            invocation.<OrderRequestDTO>getArgument(0).setTotalPrice(Money.of("100"));
+            return null;
+        }).when(validator).validateAndPrice(any(OrderRequestDTO.class));
+        when(outboxRepository.save(any(OutboxEvent.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        dispatcher.process(event);
+
+        // Then
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(order.getTotalPrice()).isEqualTo(Money.of("100"));
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.DONE);
+        verify(outboxRepository).save(argThat((OutboxEvent saved) ->
+                saved.getEventType() == OutboxEventType.PAYMENT_REQUESTED));
+    }
+
+    @Test
+    void process_SubmittedOrderInvalidMember_ShouldCancelOrder() throws Exception {
+        // Given
+        Order order = pendingOrder();
+        order.setStatus(OrderStatus.SUBMITTED);
+        OutboxEvent event = OutboxEvent.of(OutboxEventType.ORDER_SUBMITTED, order.getId(),
+                objectMapper.writeValueAsString(OrderRequestDTO.builder().memberId(99L).build()));
+
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        doThrow(new InvalidMemberException("Member invalid or inactive: 99"))
+                .when(validator).validateAndPrice(any(OrderRequestDTO.class));
+
+        // When
+        dispatcher.process(event);
+
+        // Then
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.DONE);
+        verify(paymentClient, never()).processPayment(any());
+    }
+
+    @Test
+    void process_SubmittedOrderCancelledWhileValidating_ShouldDropReservation() throws Exception {
+        // Given
+        Order order = pendingOrder();
+        order.setStatus(OrderStatus.SUBMITTED);
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L).productId(101L).quantity(2).totalPrice(Money.of("10")).build();
+        OutboxEvent event = OutboxEvent.of(OutboxEventType.ORDER_SUBMITTED, order.getId(),
+                objectMapper.writeValueAsString(request));
+
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        doAnswer(invocation -> {
+            order.setStatus(OrderStatus.CANCELLED); // bulk cancel commits meanwhile
+            return null;
+        }).when(validator).validateAndPrice(any(OrderRequestDTO.class));
+
+        // When
+        dispatcher.process(event);
+
+        // Then
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        verify(stockLedger).abandon(Map.of(101L, 2));
+        verify(stockLedger, never()).persisted(anyMap());
+        verify(outboxRepository, never()).save(argThat((OutboxEvent saved) ->
+                saved.getEventType() == OutboxEventType.PAYMENT_REQUESTED));
+    }
+
+    @Test
+    void process_SubmittedOrderCancelledBeforeCommit_ShouldDropReservationAndFinish() throws Exception {
+        // Given
+        Order order = pendingOrder();
+        order.setStatus(OrderStatus.SUBMITTED);
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L).productId(101L).quantity(2).totalPrice(Money.of("10")).build();
+        OutboxEvent event = OutboxEvent.of(OutboxEventType.ORDER_SUBMITTED, order.getId(),
+                objectMapper.writeValueAsString(request));
+
+        when(orderRepository.findById(order.getId())).thenReturn(Optional.of(order));
+        when(outboxRepository.save(any(OutboxEvent.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // The bulk UPDATE bumped the version after our read: the PENDING write matches no row
+        doThrow(new ObjectOptimisticLockingFailureException(Order.class, order.getId()))
+                .doNothing()
+                .when(transactionManager).commit(any());
+
+        // When
+        dispatcher.process(event);
+
+        // Then
+        verify(stockLedger).abandon(Map.of(101L, 2));
+        verify(stockLedger, never()).persisted(anyMap());
+        assertThat(event.getStatus()).isEqualTo(OutboxStatus.DONE);
+        assertThat(event.getAttempts()).isZero(); // finished, not retried
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    private static Order pendingOrder() {
+        return Order.builder()
+                .id(UUID.randomUUID())
+                .memberId(1L)
+                .status(OrderStatus.PENDING)
+                .totalPrice(Money.of("10"))
+                .version(3L)
+                .build();
+    }
+}
@@ -0,0 +1,177 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.OrderCacheProperties;
+import com.sotatek.order.config.OrderValidationProperties;
+import com.sotatek.order.config.StockLedgerProperties;
+import com.sotatek.order.dto.OrderRequestDTO;
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.Order;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.entity.OutboxEvent;
+import com.sotatek.order.entity.OutboxEventType;
+import com.sotatek.order.exception.InvalidMemberException;
+import com.sotatek.order.exception.OrderNotFoundException;
+import com.sotatek.order.infrastructure.cache.OrderCache;
+import com.sotatek.order.infrastructure.client.dto.MemberResponse;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.infrastructure.client.reactive.ReactiveMemberClient;
+import com.sotatek.order.infrastructure.client.reactive.ReactiveProductClient;
+import com.sotatek.order.mapper.OrderMapper;
+import com.sotatek.order.repository.ReactiveOrderStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveOrderServiceTest {
+
+    @Mock
+    private ReactiveMemberClient memberClient;
+
+    @Mock
+    private ReactiveProductClient productClient;
+
+    @Mock
+    private ReactiveOrderStore store;
+
+    @Mock
+    private OrderMapper mapper;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private OrderStatsRecorder statsRecorder;
+
+    private OrderCache orderCache;
+
+    private ReactiveOrderService service;
+
+    @BeforeEach
+    void setUp() {
+        StockLedgerProperties ledgerProperties = new StockLedgerProperties();
+        ledgerProperties.setEnabled(false);
+        StockLedger stockLedger = new StockLedger(null, null, null, ledgerProperties);
+        orderCache = new OrderCache(new OrderCacheProperties(), Optional.empty());
+        service = new ReactiveOrderService(memberClient, productClient, store, mapper, stockLedger, orderCache,
+                transactionalOperator, new OrderValidationProperties(), statsRecorder);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createOrder_ShouldPersistPendingOrderWithPaymentEventAndCacheIt() {
+        // Given
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L).productId(101L).quantity(2).totalPrice(Money.of("1")).build();
+        when(memberClient.getMember(1L)).thenReturn(Mono.just(new MemberResponse(1L, true, true)));
+        when(productClient.checkStock(101L, 2))
+                .thenReturn(Mono.just(new ProductResponse(101L, true, 10, Money.of("50.00"))));
+        when(mapper.toEntity(request)).thenAnswer(invocation -> Order.builder()
+                .memberId(request.getMemberId())
+                .totalPrice(request.getTotalPrice())
+                .build());
+        when(store.insert(any(Order.class), any(OutboxEvent.class))).thenReturn(Mono.empty());
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(mapper.toResponseDTO(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            return OrderResponseDTO.builder()
+                    .id(order.getId())
+                    .totalPrice(order.getTotalPrice())
+                    .status(order.getStatus())
+                    .build();
+        });
+
+        // When
+        OrderResponseDTO created = service.createOrder(request).block();
+
+        // Then
+        ArgumentCaptor<Order> order = ArgumentCaptor.forClass(Order.class);
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(store).insert(order.capture(), event.capture());
+        assertThat(order.getValue().getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(order.getValue().getTotalPrice()).isEqualTo(Money.of("100.00")); // synced price
+        assertThat(order.getValue().getOrderItems()).singleElement()
+                .satisfies(item -> assertThat(item.getPrice()).isEqualTo(Money.of("50.00")));
+        assertThat(event.getValue().getEventType()).isEqualTo(OutboxEventType.PAYMENT_REQUESTED);
+        assertThat(event.getValue().getAggregateId()).isEqualTo(order.getValue().getId());
+
+        assertThat(created.getId()).isEqualTo(order.getValue().getId());
+        assertThat(service.getOrderById(created.getId()).block()).isSameAs(created);
+        verify(store, never()).findById(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void createOrder_CancelledMidInsert_ShouldHandTheReservationBack() throws Exception {
+        // Given
+        StockLedger stockLedger = mock(StockLedger.class);
+        service = new ReactiveOrderService(memberClient, productClient, store, mapper, stockLedger, orderCache,
+                transactionalOperator, new OrderValidationProperties(), statsRecorder);
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(1L).productId(101L).quantity(2).totalPrice(Money.of("100")).build();
+        when(memberClient.getMember(1L)).thenReturn(Mono.just(new MemberResponse(1L, true, true)));
+        when(productClient.checkStock(101L, 2))
+                .thenReturn(Mono.just(new ProductResponse(101L, true, 10, Money.of("50.00"))));
+        when(stockLedger.tryReserveAll(Map.of(101L, 2))).thenReturn(true);
+        when(mapper.toEntity(request)).thenAnswer(invocation -> Order.builder()
+                .memberId(request.getMemberId())
+                .totalPrice(request.getTotalPrice())
+                .build());
+        CountDownLatch inserting = new CountDownLatch(1);
+        when(store.insert(any(Order.class), any(OutboxEvent.class)))
+                .thenReturn(Mono.<Void>never().doOnSubscribe(subscription -> inserting.countDown()));
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Disposable create = service.createOrder(request).subscribe();
+        assertThat(inserting.await(5, TimeUnit.SECONDS)).isTrue();
+        create.dispose();
+
+        // Then
+        verify(stockLedger).abandon(Map.of(101L, 2));
+        verify(stockLedger, never()).persisted(any(Map.class));
+    }
+
+    @Test
+    void createOrder_InactiveMember_ShouldFailWithoutPersisting() {
+        // Given
+        OrderRequestDTO request = OrderRequestDTO.builder()
+                .memberId(2L).productId(101L).quantity(1).totalPrice(Money.of("10")).build();
+        when(memberClient.getMember(2L)).thenReturn(Mono.just(new MemberResponse(2L, true, false)));
+        when(productClient.checkStock(101L, 1)).thenReturn(Mono.never());
+
+        // When & Then
+        Mono<OrderResponseDTO> created = service.createOrder(request);
+        assertThrows(InvalidMemberException.class, created::block);
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void getOrderById_NotCachedAndMissing_ShouldThrowNotFound() {
+        // Given
+        UUID id = UUID.randomUUID();
+        when(store.findById(id)).thenReturn(Mono.empty());
+
+        // When & Then
+        Mono<OrderResponseDTO> order = service.getOrderById(id);
+        assertThrows(OrderNotFoundException.class, order::block);
+    }
+}
@@ -0,0 +1,241 @@
+package com.sotatek.order.service;
+
+import com.sotatek.order.config.ProductLookupProperties;
+import com.sotatek.order.config.StockLedgerProperties;
+import com.sotatek.order.entity.Money;
+import com.sotatek.order.entity.OrderStatus;
+import com.sotatek.order.infrastructure.cache.ProductStockLoader;
+import com.sotatek.order.infrastructure.client.ProductClient;
+import com.sotatek.order.infrastructure.client.dto.ProductResponse;
+import com.sotatek.order.repository.OrderItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLedgerTest {
+
+    @Mock
+    private ProductClient productClient;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    private StockLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        ProductLookupProperties lookupProperties = new ProductLookupProperties();
+        lookupProperties.setCoalescing(false);
+        ledger = new StockLedger(new ProductStockLoader(productClient, lookupProperties, null), productClient,
+                orderItemRepository, new StockLedgerProperties());
+    }
+
+    @Test
+    void snapshot_ShouldSeedOnceFromRemoteStockMinusOrdersHoldingStock() {
+        when(productClient.checkStock(eq(101L), anyInt())).thenReturn(product(101L, 10));
+        when(orderItemRepository.sumQuantity(101L, OrderStatus.HOLDING_STOCK)).thenReturn(3L);
+
+        assertThat(ledger.snapshot(101L, 1).getStock()).isEqualTo(7);
+        assertThat(ledger.snapshot(101L, 1).getStock()).isEqualTo(7);
+
+        verify(productClient, times(1)).checkStock(eq(101L), anyInt());
+    }
+
+    @Test
+    void tryReserve_ShouldRefuseOnceExhaustedAndReleaseShouldGiveBack() {
+        when(productClient.checkStock(eq(101L), anyInt())).thenReturn(product(101L, 3));
+
+        assertThat(ledger.tryReserve(101L, 2)).isTrue();
+        assertThat(ledger.tryReserve(101L, 2)).isFalse();
+        ledger.release(101L, 2);
+        assertThat(ledger.tryReserve(101L, 3)).isTrue();
+        assertThat(ledger.snapshot(101L, 1).getStock()).isZero();
+    }
+
+    @Test
+    void tryReserve_ConcurrentOrders_ShouldNeverOversell() throws Exception {
+        when(productClient.checkStock(eq(101L), anyInt())).thenReturn(product(101L, 100));
+        ledger.snapshot(101L, 1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        AtomicInteger reserved = new AtomicInteger();
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                tasks.add(() -> {
+                    for (int j = 0; j < 10; j++) {
+                        if (ledger.tryReserve(101L, 1)) {
+                            reserved.incrementAndGet();
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(reserved.get()).isEqualTo(100);
+        assertThat(ledger.snapshot(101L, 1).getStock()).isZero();
+    }
+
+    @Test
+    void snapshotAll_ShouldSeedUntrackedProductsWithOneCallAndOneQuery() {
+        when(productClient.checkStock(eq(101L), anyInt())).thenReturn(product(101L, 10));
+        ledger.snapshot(101L, 1);
+        when(productClient.checkStockBatch(anyList()))
+                .thenReturn(List.of(product(102L, 5), new ProductResponse(103L, false, 0, null)));
+        when(orderItemRepository.sumQuantityByProduct(OrderStatus.HOLDING_STOCK, List.of(102L)))
+                .thenReturn(List.of(pendingQuantity(102L, 1L)));
+
+        Map<Long, ProductResponse> products = ledger.snapshotAll(Map.of(101L, 1, 102L, 2, 103L, 1));
+
+        assertThat(products.get(101L).getStock()).isEqualTo(10);
+        assertThat(products.get(102L).getStock()).isEqualTo(4);
+        assertThat(products.get(103L).isAvailable()).isFalse();
+        verify(productClient, times(1)).checkStockBatch(anyList()); // 101 is already tracked
+        verify(productClient, times(1)).checkStock(eq(101L), anyInt());
+    }
+
+    @Test
+    void tryReserveAll_ShouldTakeNothingWhenOneProductFallsShort() {
+        when(productClient.checkStock(eq(101L), anyInt())).thenReturn(product(101L, 10));
+        when(productClient.checkStock(eq(102L), anyInt())).thenReturn(product(102L, 1));
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(101L, 4);
+        quantities.put(102L, 2);
+        assertThat(ledger.tryReserveAll(quantities)).isFalse();
+
+        assertThat(ledger.snapshot(101L, 1).getStock()).isEqualTo(10);
+        assertThat(ledger.tryReserveAll(Map.of(101L, 10, 102L, 1))).isTrue();
+        assertThat(ledger.snapshot(101L, 1).getStock()).isZero();
+    }
+
+    @Test
+    void unavailableProduct_ShouldNotBeTracked() {
+        when(productClient.checkStock(eq(103L), anyInt())).thenReturn(new ProductResponse(103L, false, 0, null));
+
+        assertThat(ledger.tryReserve(103L, 1)).isFalse();
+        assertThat(ledger.tryReserve(103L, 1)).isFalse();
+
+        // Each attempt asks product-service again instead of caching the refusal
+        verify(productClient, times(2)).checkStock(eq(103L), anyInt());
+        verifyNoInteractions(orderItemRepository);
+    }
+
+    @Test
+    void reconcile_ShouldRederiveStockAndDropProductsNoLongerAvailable() {
+        when(productClient.checkStock(eq(101L), anyInt())).thenReturn(product(101L, 10));
+        when(productClient.checkStock(eq(102L), anyInt())).thenReturn(product(102L, 5));
+        ledger.tryReserve(101L, 4);
+        ledger.tryReserve(102L, 1);
+        ledger.persisted(Map.of(101L, 4, 102L, 1));
+
+        // product-service restocked 101 and discontinued 102; two units of 101 still held
+        when(orderItemRepository.sumQuantityByProduct(eq(OrderStatus.HOLDING_STOCK), anyCollection()))
+                .thenReturn(List.of(pendingQuantity(101L, 2L)));
+        when(productClient.checkStockBatch(anyList()))
+                .thenReturn(List.of(product(101L, 50), new ProductResponse(102L, false, 0, null)));
+
+        ledger.reconcile();
+
+        assertThat(ledger.snapshot(101L, 1).getStock()).isEqualTo(48);
+        ledger.snapshot(102L, 1);
+        verify(productClient, times(2)).checkStock(eq(102L), anyInt()); // re-seeded remotely
+        // Held quantities are read for the tracked products only
+        verify(orderItemRepository).sumQuantityByProduct(eq(OrderStatus.HOLDING_STOCK),
+                argThat(productIds -> Set.copyOf(productIds).equals(Set.of(101L, 102L))));
+    }
+
+    @Test
+    void reconcile_OrderCommittingAfterTheQuery_ShouldStillBeSubtracted() {
+        when(productClient.checkStock(eq(101L), anyInt())).thenReturn(product(101L, 10));
+        assertThat(ledger.tryReserve(101L, 4)).isTrue(); // order not committed yet
+
+        // The database does not show it, and another order reserves while the query runs
+        when(orderItemRepository.sumQuantityByProduct(eq(OrderStatus.HOLDING_STOCK), anyCollection())).thenAnswer(invocation -> {
+            assertThat(ledger.tryReserve(101L, 3)).isTrue();
+            return List.of();
+        });
+        when(productClient.checkStockBatch(anyList())).thenReturn(List.of(product(101L, 10)));
+        ledger.reconcile();
+        ledger.persisted(Map.of(101L, 4));
+        ledger.persisted(Map.of(101L, 3));
+
+        assertThat(ledger.snapshot(101L, 1).getStock()).isEqualTo(3);
+        assertThat(ledger.tryReserve(101L, 4)).isFalse();
+    }
+
+    @Test
+    void reconcile_OrderCommittingDuringTheQuery_ShouldOnlyUnderCountUntilNextRun() {
+        when(productClient.checkStock(eq(101L), anyInt())).thenReturn(product(101L, 10));
+        ledger.tryReserve(101L, 4);
+        when(orderItemRepository.sumQuantityByProduct(eq(OrderStatus.HOLDING_STOCK), anyCollection()))
+                .thenAnswer(invocation -> {
+                    ledger.persisted(Map.of(101L, 4)); // commits just before the query reads it
+                    return List.of(pendingQuantity(101L, 4L));
+                })
+                .thenReturn(List.of(pendingQuantity(101L, 4L)));
+        when(productClient.checkStockBatch(anyList())).thenReturn(List.of(product(101L, 10)));
+
+        ledger.reconcile();
+        assertThat(ledger.snapshot(101L, 1).getStock()).isEqualTo(2); // counted twice, never oversold
+
+        ledger.reconcile();
+        assertThat(ledger.snapshot(101L, 1).getStock()).isEqualTo(6);
+    }
+
+    @Test
+    void abandon_ShouldGiveBackAndNoLongerCountAsInFlight() {
+        when(productClient.checkStock(eq(101L), anyInt())).thenReturn(product(101L, 10));
+        ledger.tryReserve(101L, 4);
+        ledger.abandon(Map.of(101L, 4));
+        when(orderItemRepository.sumQuantityByProduct(eq(OrderStatus.HOLDING_STOCK), anyCollection())).thenReturn(List.of());
+        when(productClient.checkStockBatch(anyList())).thenReturn(List.of(product(101L, 10)));
+
+        ledger.reconcile();
+
+        assertThat(ledger.snapshot(101L, 1).getStock()).isEqualTo(10);
+    }
+
+    private static OrderItemRepository.ProductQuantity pendingQuantity(Long productId, Long quantity) {
+        return new OrderItemRepository.ProductQuantity() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+
+    private static ProductResponse product(Long id, int stock) {
+        return new ProductResponse(id, true, stock, Money.of("10"));
+    }
+}
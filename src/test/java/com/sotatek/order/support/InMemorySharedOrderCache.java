@@ -0,0 +1,44 @@
+package com.sotatek.order.support;
+
+import com.sotatek.order.dto.OrderResponseDTO;
+import com.sotatek.order.infrastructure.cache.SharedOrderCache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for a shared (cross-instance) order cache tier. Entries never expire;
+ * tests drive expiry through the local tier instead.
+ */
+public class InMemorySharedOrderCache implements SharedOrderCache {
+
+    private final Map<UUID, OrderResponseDTO> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger reads = new AtomicInteger();
+
+    @Override
+    public OrderResponseDTO get(UUID id) {
+        reads.incrementAndGet();
+        return entries.get(id);
+    }
+
+    @Override
+    public void put(UUID id, OrderResponseDTO order, Duration ttl) {
+        entries.put(id, order);
+    }
+
+    @Override
+    public void evict(UUID id) {
+        entries.remove(id);
+    }
+
+    public boolean contains(UUID id) {
+        return entries.containsKey(id);
+    }
+
+    public int reads() {
+        return reads.get();
+    }
+}
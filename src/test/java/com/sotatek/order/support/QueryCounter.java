@@ -0,0 +1,34 @@
+package com.sotatek.order.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the JDBC statements and entity loads Hibernate performs around a block of code, so
+ * tests can pin the number of queries a read path costs and fail on N+1 regressions.
+ */
+public class QueryCounter {
+
+    private final Statistics statistics;
+
+    public QueryCounter(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.statistics.setStatisticsEnabled(true);
+    }
+
+    public Counts count(Runnable action) {
+        statistics.clear();
+        action.run();
+        return new Counts(statistics.getPrepareStatementCount(), statistics.getEntityLoadCount());
+    }
+
+    public void assertStatements(long expected, Runnable action) {
+        assertThat(count(action).statements()).as("JDBC statements executed").isEqualTo(expected);
+    }
+
+    public record Counts(long statements, long entityLoads) {
+    }
+}